@@ -0,0 +1,70 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.benchmarks;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la validación de tokens y la extracción de claims de {@link JwtService}
+ * tal como las usa {@code JwtAuthenticationFilter} en cada request, con el cache de
+ * claims verificados y sin él (cache de tamaño 0, siempre verifica la firma).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private JwtService jwtServiceSinCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), 10_000);
+        jwtServiceSinCache = new JwtService(new SimpleMeterRegistry(), 0);
+        token = jwtService.generateToken("cliente@pinceletas.com", "USER");
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        return jwtService.isTokenValid(token);
+    }
+
+    @Benchmark
+    public String extraerUsuario() {
+        return jwtService.extractUsername(token);
+    }
+
+    /** Camino del filtro: una sola verificación que devuelve email y rol. */
+    @Benchmark
+    public void verificarYExtraerClaims(Blackhole bh) {
+        jwtService.verificar(token).ifPresent(claims -> {
+            bh.consume(claims.email());
+            bh.consume(claims.role());
+        });
+    }
+
+    /** Mismo camino sin cache: mide el costo de parsear y verificar la firma. */
+    @Benchmark
+    public void verificarYExtraerClaimsSinCache(Blackhole bh) {
+        jwtServiceSinCache.verificar(token).ifPresent(claims -> {
+            bh.consume(claims.email());
+            bh.consume(claims.role());
+        });
+    }
+}
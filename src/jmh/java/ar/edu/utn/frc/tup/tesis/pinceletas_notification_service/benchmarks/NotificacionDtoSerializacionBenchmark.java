@@ -0,0 +1,70 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.benchmarks;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.MappersConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la serialización JSON de las respuestas {@code List<NotificacionDto>}
+ * con el ObjectMapper configurado en {@link MappersConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificacionDtoSerializacionBenchmark {
+
+    @Param({"20", "100"})
+    private int filas;
+
+    private ObjectWriter writer;
+    private List<NotificacionDto> respuesta;
+
+    @Setup
+    public void setUp() {
+        writer = new MappersConfig().objectMapper()
+                .writerFor(TypeFactory.defaultInstance().constructCollectionType(List.class, NotificacionDto.class));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        respuesta = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            respuesta.add(new NotificacionDto(
+                    (long) i + 1,
+                    "Pedido #" + i,
+                    "Tu pedido fue despachado",
+                    "PEDIDO_ENVIADO",
+                    i % 2 == 0 ? "NO_LEIDA" : "LEIDA",
+                    42L,
+                    "{\"pedidoId\":" + i + "}",
+                    ahora.minusMinutes(i),
+                    i % 2 == 0 ? null : ahora,
+                    null,
+                    null));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return writer.writeValueAsBytes(respuesta);
+    }
+}
@@ -0,0 +1,59 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.benchmarks;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la deserialización de un {@link NotificacionEvent} con el mismo
+ * {@link Jackson2JsonMessageConverter} que usan los listeners de RabbitMQ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificacionEventDeserializacionBenchmark {
+
+    private Jackson2JsonMessageConverter converter;
+    private Message mensaje;
+
+    @Setup
+    public void setUp() {
+        converter = new Jackson2JsonMessageConverter();
+
+        String json = "{\"titulo\":\"Pedido enviado\","
+                + "\"mensaje\":\"Tu pedido #1234 fue despachado y llegará en 48 horas\","
+                + "\"tipo\":\"PEDIDO_ENVIADO\","
+                + "\"usuarioId\":42,"
+                + "\"metadata\":\"{\\\"pedidoId\\\":1234}\","
+                + "\"targetRole\":\"USER\"}";
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        // Igual que en el listener: el tipo se infiere del parámetro del método.
+        properties.setInferredArgumentType(NotificacionEvent.class);
+        mensaje = new Message(json.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    @Benchmark
+    public Object deserializarEvento() {
+        return converter.fromMessage(mensaje);
+    }
+}
@@ -0,0 +1,94 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.benchmarks;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.mappers.NotificacionMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el mapeo de entidades a {@link NotificacionDto}, de una fila y de una página
+ * completa, con el mapeador actual y con ModelMapper como referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificacionMapeoBenchmark {
+
+    @Param({"20", "100"})
+    private int filas;
+
+    private NotificacionMapper notificacionMapper;
+    private ModelMapper modelMapper;
+    private NotificacionEntity entidad;
+    private List<NotificacionEntity> pagina;
+
+    @Setup
+    public void setUp() {
+        notificacionMapper = new NotificacionMapper();
+        modelMapper = new ModelMapper();
+
+        LocalDateTime ahora = LocalDateTime.now();
+        pagina = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            NotificacionEntity entity = new NotificacionEntity();
+            entity.setId((long) i + 1);
+            entity.setTitulo("Pedido #" + i);
+            entity.setMensaje("Tu pedido fue despachado");
+            entity.setTipo("PEDIDO_ENVIADO");
+            entity.setEstado(i % 2 == 0 ? "NO_LEIDA" : "LEIDA");
+            entity.setUsuarioId(42L);
+            entity.setMetadata("{\"pedidoId\":" + i + "}");
+            entity.setFechaCreacion(ahora.minusMinutes(i));
+            entity.setFechaLectura(i % 2 == 0 ? null : ahora);
+            pagina.add(entity);
+        }
+        entidad = pagina.get(0);
+    }
+
+    @Benchmark
+    public NotificacionDto mapearFila() {
+        return notificacionMapper.toDto(entidad);
+    }
+
+    @Benchmark
+    public List<NotificacionDto> mapearPagina() {
+        List<NotificacionDto> dtos = new ArrayList<>(pagina.size());
+        for (NotificacionEntity entity : pagina) {
+            dtos.add(notificacionMapper.toDto(entity));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public NotificacionDto mapearFilaModelMapper() {
+        return modelMapper.map(entidad, NotificacionDto.class);
+    }
+
+    @Benchmark
+    public List<NotificacionDto> mapearPaginaModelMapper() {
+        List<NotificacionDto> dtos = new ArrayList<>(pagina.size());
+        for (NotificacionEntity entity : pagina) {
+            dtos.add(modelMapper.map(entity, NotificacionDto.class));
+        }
+        return dtos;
+    }
+}
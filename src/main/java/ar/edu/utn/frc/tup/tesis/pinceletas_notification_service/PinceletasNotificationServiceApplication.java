@@ -3,12 +3,14 @@ package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación del servicio de notificaciones.
  * Inicia el contexto de Spring Boot y configura el escaneo de componentes.
  */
 @SpringBootApplication
+@EnableScheduling
 @ComponentScan(basePackages = {
 		"ar.edu.utn.frc.tup.tesis.pinceletas_notification_service",
 		"ar.edu.utn.frc.tup.tesis.pinceletas.common.security"
@@ -0,0 +1,132 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente para claves de texto, sin locks en lectura ni escritura.
+ * {@link #mightContain(String)} nunca da falsos negativos para claves agregadas desde la
+ * última rotación; los falsos positivos se acotan a la probabilidad configurada.
+ * Como un filtro de Bloom no admite borrados, se usan dos generaciones: cuando la actual
+ * alcanza su capacidad pasa a ser la anterior y se empieza una nueva, por lo que el filtro
+ * recuerda al menos las últimas {@code capacidad} claves sin degradarse con el tiempo.
+ */
+public class BloomFilter {
+
+    private final int cantidadBits;
+    private final int bitMask;
+    private final int cantidadHashes;
+    private final long capacidad;
+
+    private volatile Generacion actual;
+    private volatile Generacion anterior;
+
+    /**
+     * Crea el filtro.
+     *
+     * @param capacidad Cantidad de claves por generación.
+     * @param probabilidadFalsoPositivo Probabilidad de falso positivo deseada a plena capacidad (0 a 1).
+     */
+    public BloomFilter(long capacidad, double probabilidadFalsoPositivo) {
+        if (capacidad <= 0 || probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidad o probabilidad de falso positivo inválida");
+        }
+        double bitsOptimos = -capacidad * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2));
+        int bits = 64;
+        while (bits < bitsOptimos && bits < (1 << 30)) {
+            bits <<= 1;
+        }
+        this.cantidadBits = bits;
+        this.bitMask = bits - 1;
+        this.cantidadHashes = Math.max(1, (int) Math.round(bitsOptimos / capacidad * Math.log(2)));
+        this.capacidad = capacidad;
+        this.actual = new Generacion(bits);
+        this.anterior = new Generacion(bits);
+    }
+
+    /**
+     * Indica si la clave pudo haber sido agregada.
+     *
+     * @param clave Clave a consultar.
+     * @return false si la clave seguro no fue agregada; true si probablemente sí.
+     */
+    public boolean mightContain(String clave) {
+        long hash = hash(clave);
+        return actual.contiene(hash) || anterior.contiene(hash);
+    }
+
+    /**
+     * Agrega una clave, rotando de generación si la actual llegó a su capacidad.
+     *
+     * @param clave Clave a agregar.
+     */
+    public void put(String clave) {
+        Generacion generacion = actual;
+        generacion.agregar(hash(clave));
+        if (generacion.insertadas.incrementAndGet() == capacidad) {
+            rotar(generacion);
+        }
+    }
+
+    private synchronized void rotar(Generacion llena) {
+        if (actual != llena) {
+            return;
+        }
+        anterior = llena;
+        actual = new Generacion(cantidadBits);
+    }
+
+    /**
+     * Hash de 64 bits de la clave (FNV-1a sobre los caracteres, con mezcla final).
+     * La mitad alta y la baja se combinan para generar los índices (double hashing).
+     */
+    private static long hash(String clave) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < clave.length(); i++) {
+            h ^= clave.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private final class Generacion {
+
+        private final AtomicLongArray palabras;
+        private final AtomicLong insertadas = new AtomicLong();
+
+        private Generacion(int bits) {
+            this.palabras = new AtomicLongArray(bits >>> 6);
+        }
+
+        private boolean contiene(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < cantidadHashes; i++) {
+                int bit = (h1 + i * h2) & bitMask;
+                if ((palabras.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void agregar(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < cantidadHashes; i++) {
+                int bit = (h1 + i * h2) & bitMask;
+                int indice = bit >>> 6;
+                long mascara = 1L << bit;
+                long palabra = palabras.get(indice);
+                while ((palabra & mascara) == 0 && !palabras.compareAndSet(indice, palabra, palabra | mascara)) {
+                    palabra = palabras.get(indice);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mapa concurrente {@code long -> long} especializado en primitivos y acotado.
+ * Las claves se reparten en segmentos (stripes) independientes, cada uno con su propio
+ * lock y una tabla de direccionamiento abierto (linear probing), por lo que no hay
+ * boxing de claves ni valores. Las lecturas son optimistas y no bloquean a otras lecturas.
+ * Cuando un segmento alcanza su capacidad se desaloja una entrada con el algoritmo CLOCK
+ * (aproximación de LRU).
+ * Los valores deben ser no negativos: {@link #AUSENTE} indica que la clave no está.
+ */
+public class LongCounterMap {
+
+    /** Valor devuelto cuando la clave no está en el mapa. */
+    public static final long AUSENTE = -1L;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Crea el mapa.
+     *
+     * @param maxEntradas Cantidad máxima aproximada de entradas (se reparte entre segmentos).
+     * @param concurrencia Cantidad de segmentos deseada (se redondea a potencia de 2).
+     */
+    public LongCounterMap(int maxEntradas, int concurrencia) {
+        int cantidadStripes = 1;
+        while (cantidadStripes < concurrencia) {
+            cantidadStripes <<= 1;
+        }
+        int capacidadPorStripe = Math.max(1, (maxEntradas + cantidadStripes - 1) / cantidadStripes);
+        this.stripes = new Stripe[cantidadStripes];
+        for (int i = 0; i < cantidadStripes; i++) {
+            stripes[i] = new Stripe(capacidadPorStripe);
+        }
+        this.stripeMask = cantidadStripes - 1;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param key Clave.
+     * @return Valor o {@link #AUSENTE} si la clave no está.
+     */
+    public long get(long key) {
+        long hash = mix(key);
+        return stripeFor(hash).get(key, hash);
+    }
+
+    /**
+     * Asocia un valor a una clave, desalojando otra entrada si el segmento está lleno.
+     *
+     * @param key Clave.
+     * @param value Valor (no negativo).
+     */
+    public void put(long key, long value) {
+        long hash = mix(key);
+        stripeFor(hash).put(key, hash, value, true);
+    }
+
+    /**
+     * Asocia un valor solo si la clave no está presente.
+     *
+     * @param key Clave.
+     * @param value Valor (no negativo).
+     * @return Valor vigente tras la operación (el existente o el nuevo).
+     */
+    public long putIfAbsent(long key, long value) {
+        long hash = mix(key);
+        return stripeFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * Suma un delta al valor solo si la clave está presente. El resultado nunca baja de cero.
+     *
+     * @param key Clave.
+     * @param delta Delta a sumar (puede ser negativo).
+     * @return true si la clave estaba presente y se actualizó.
+     */
+    public boolean addIfPresent(long key, long delta) {
+        long hash = mix(key);
+        return stripeFor(hash).addIfPresent(key, hash, delta);
+    }
+
+    /**
+     * Reemplaza el valor de una clave solo si está presente y conserva el valor esperado.
+     * No inserta ni desaloja entradas.
+     *
+     * @param key Clave.
+     * @param expected Valor que debe tener la clave.
+     * @param value Valor nuevo (no negativo).
+     * @return true si se reemplazó.
+     */
+    public boolean replace(long key, long expected, long value) {
+        long hash = mix(key);
+        return stripeFor(hash).replace(key, hash, expected, value);
+    }
+
+    /**
+     * Elimina una clave.
+     *
+     * @param key Clave.
+     * @return true si la clave estaba presente.
+     */
+    public boolean remove(long key) {
+        long hash = mix(key);
+        return stripeFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Obtiene una copia de las claves presentes.
+     *
+     * @return Arreglo con las claves actuales.
+     */
+    public long[] keys() {
+        long[] resultado = new long[0];
+        for (Stripe stripe : stripes) {
+            long[] parcial = stripe.keys();
+            int offset = resultado.length;
+            resultado = Arrays.copyOf(resultado, offset + parcial.length);
+            System.arraycopy(parcial, 0, resultado, offset, parcial.length);
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la cantidad actual de entradas.
+     *
+     * @return Cantidad de entradas.
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 32) & stripeMask];
+    }
+
+    /** Función de mezcla final de MurmurHash3 (fmix64). */
+    static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Segmento del mapa: tabla de linear probing con borrado por desplazamiento
+     * hacia atrás (sin tombstones) y desalojo CLOCK.
+     */
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+        private final long[] keys;
+        private final long[] values;
+        private final boolean[] used;
+        private final boolean[] referenced;
+        private final int capacity;
+        private final int slotMask;
+        private int size;
+        private int hand;
+
+        Stripe(int capacity) {
+            int length = 2;
+            while (length < capacity * 2) {
+                length <<= 1;
+            }
+            this.keys = new long[length];
+            this.values = new long[length];
+            this.used = new boolean[length];
+            this.referenced = new boolean[length];
+            this.capacity = capacity;
+            this.slotMask = length - 1;
+        }
+
+        /**
+         * Busca una clave. La tabla nunca supera el 50% de ocupación, por lo que
+         * el sondeo siempre termina en un slot libre.
+         *
+         * @return Índice del slot o {@code -1 - puntoDeInsercion} si no está.
+         */
+        private int indexOf(long key, long hash) {
+            int i = (int) hash & slotMask;
+            while (used[i]) {
+                if (keys[i] == key) {
+                    return i;
+                }
+                i = (i + 1) & slotMask;
+            }
+            return -1 - i;
+        }
+
+        long get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            int i = indexOf(key, hash);
+            long value = i >= 0 ? values[i] : AUSENTE;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    i = indexOf(key, hash);
+                    value = i >= 0 ? values[i] : AUSENTE;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (i >= 0) {
+                // Escritura benigna sin lock: solo afecta la precisión del desalojo
+                referenced[i] = true;
+            }
+            return value;
+        }
+
+        long put(long key, long hash, long value, boolean overwrite) {
+            long stamp = lock.writeLock();
+            try {
+                int i = indexOf(key, hash);
+                if (i >= 0) {
+                    if (overwrite) {
+                        values[i] = value;
+                    }
+                    referenced[i] = true;
+                    return values[i];
+                }
+                if (size >= capacity) {
+                    evict();
+                    i = indexOf(key, hash);
+                }
+                int slot = -1 - i;
+                keys[slot] = key;
+                values[slot] = value;
+                used[slot] = true;
+                referenced[slot] = true;
+                size++;
+                return value;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean addIfPresent(long key, long hash, long delta) {
+            long stamp = lock.writeLock();
+            try {
+                int i = indexOf(key, hash);
+                if (i < 0) {
+                    return false;
+                }
+                values[i] = Math.max(0L, values[i] + delta);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean replace(long key, long hash, long expected, long value) {
+            long stamp = lock.writeLock();
+            try {
+                int i = indexOf(key, hash);
+                if (i < 0 || values[i] != expected) {
+                    return false;
+                }
+                values[i] = value;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long key, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                int i = indexOf(key, hash);
+                if (i < 0) {
+                    return false;
+                }
+                deleteSlot(i);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long[] keys() {
+            long stamp = lock.readLock();
+            try {
+                long[] resultado = new long[size];
+                int n = 0;
+                for (int i = 0; i < used.length; i++) {
+                    if (used[i]) {
+                        resultado[n++] = keys[i];
+                    }
+                }
+                return resultado;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /** Desaloja la primera entrada no referenciada desde la última vuelta del reloj. */
+        private void evict() {
+            while (true) {
+                int i = hand;
+                hand = (hand + 1) & slotMask;
+                if (!used[i]) {
+                    continue;
+                }
+                if (referenced[i]) {
+                    referenced[i] = false;
+                    continue;
+                }
+                deleteSlot(i);
+                return;
+            }
+        }
+
+        /** Borra el slot desplazando hacia atrás las entradas del mismo cluster. */
+        private void deleteSlot(int i) {
+            int j = i;
+            while (true) {
+                j = (j + 1) & slotMask;
+                if (!used[j]) {
+                    break;
+                }
+                int home = (int) mix(keys[j]) & slotMask;
+                boolean enSuLugar = i <= j
+                        ? (i < home && home <= j)
+                        : (i < home || home <= j);
+                if (!enSuLugar) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    referenced[i] = referenced[j];
+                    i = j;
+                }
+            }
+            used[i] = false;
+            referenced[i] = false;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Agrupa búsquedas individuales concurrentes en llamadas por lote (micro-batching).
+ * La primera búsqueda de un lote abre una ventana corta; las que llegan durante la ventana
+ * se suman al mismo lote (las repetidas comparten el resultado) y al cerrarse, o al alcanzar
+ * el tamaño máximo, el lote se resuelve con una sola llamada. Los lotes más grandes que el
+ * máximo se dividen.
+ *
+ * @param <K> Tipo de la clave buscada.
+ * @param <V> Tipo del resultado.
+ */
+public class AgrupadorLlamadas<K, V> {
+
+    private final long ventanaNanos;
+    private final int tamanioMaximo;
+    private final Function<List<K>, CompletableFuture<Map<K, V>>> resolverLote;
+    private final ScheduledExecutorService planificador;
+
+    /** Búsquedas del lote abierto, en orden de llegada. */
+    private Map<K, CompletableFuture<Optional<V>>> pendientes = new LinkedHashMap<>();
+
+    /**
+     * Crea el agrupador.
+     *
+     * @param ventana Tiempo que se espera para sumar búsquedas a un lote.
+     * @param tamanioMaximo Cantidad máxima de claves por llamada.
+     * @param resolverLote Resuelve un lote de claves; las ausentes en el resultado no existen.
+     * @param planificador Planificador que cierra los lotes al vencer la ventana.
+     */
+    public AgrupadorLlamadas(Duration ventana,
+                             int tamanioMaximo,
+                             Function<List<K>, CompletableFuture<Map<K, V>>> resolverLote,
+                             ScheduledExecutorService planificador) {
+        this.ventanaNanos = ventana.toNanos();
+        this.tamanioMaximo = tamanioMaximo;
+        this.resolverLote = resolverLote;
+        this.planificador = planificador;
+    }
+
+    /**
+     * Agrega una búsqueda al lote abierto.
+     *
+     * @param clave Clave a buscar.
+     * @return Futuro con el resultado, o vacío si la clave no existe.
+     */
+    public CompletableFuture<Optional<V>> obtener(K clave) {
+        CompletableFuture<Optional<V>> futuro;
+        boolean abrirVentana;
+        Map<K, CompletableFuture<Optional<V>>> lleno = null;
+        synchronized (this) {
+            futuro = pendientes.get(clave);
+            if (futuro != null) {
+                return futuro;
+            }
+            futuro = new CompletableFuture<>();
+            abrirVentana = pendientes.isEmpty();
+            pendientes.put(clave, futuro);
+            if (pendientes.size() >= tamanioMaximo) {
+                lleno = tomar();
+                abrirVentana = false;
+            }
+        }
+        if (lleno != null) {
+            resolver(lleno);
+        } else if (abrirVentana) {
+            planificador.schedule(this::cerrarVentana, ventanaNanos, TimeUnit.NANOSECONDS);
+        }
+        return futuro;
+    }
+
+    /**
+     * Resuelve un conjunto de claves de una vez, dividiéndolo en lotes del tamaño máximo.
+     * No pasa por la ventana: es para quien ya tiene todas las claves juntas.
+     *
+     * @param claves Claves a buscar.
+     * @return Futuro con los resultados encontrados, por clave.
+     */
+    public CompletableFuture<Map<K, V>> obtenerTodos(List<K> claves) {
+        List<CompletableFuture<Map<K, V>>> lotes = new ArrayList<>();
+        for (int desde = 0; desde < claves.size(); desde += tamanioMaximo) {
+            lotes.add(resolverLote.apply(claves.subList(desde, Math.min(desde + tamanioMaximo, claves.size()))));
+        }
+        return CompletableFuture.allOf(lotes.toArray(new CompletableFuture[0])).thenApply(ignorado -> {
+            Map<K, V> resultado = new LinkedHashMap<>();
+            lotes.forEach(lote -> resultado.putAll(lote.join()));
+            return resultado;
+        });
+    }
+
+    private void cerrarVentana() {
+        Map<K, CompletableFuture<Optional<V>>> lote;
+        synchronized (this) {
+            // Si el lote ya se resolvió por tamaño, se cierra el que esté abierto ahora (antes de tiempo)
+            lote = tomar();
+        }
+        if (!lote.isEmpty()) {
+            resolver(lote);
+        }
+    }
+
+    private Map<K, CompletableFuture<Optional<V>>> tomar() {
+        Map<K, CompletableFuture<Optional<V>>> lote = pendientes;
+        pendientes = new LinkedHashMap<>();
+        return lote;
+    }
+
+    private void resolver(Map<K, CompletableFuture<Optional<V>>> lote) {
+        CompletableFuture<Map<K, V>> resultado;
+        try {
+            resultado = resolverLote.apply(new ArrayList<>(lote.keySet()));
+        } catch (RuntimeException e) {
+            resultado = CompletableFuture.failedFuture(e);
+        }
+        resultado.whenComplete((encontrados, error) -> lote.forEach((clave, futuro) -> {
+            if (error != null) {
+                futuro.completeExceptionally(error);
+            } else {
+                futuro.complete(Optional.ofNullable(encontrados.get(clave)));
+            }
+        }));
+    }
+}
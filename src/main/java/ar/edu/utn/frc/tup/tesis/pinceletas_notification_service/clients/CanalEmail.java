@@ -0,0 +1,95 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Canal de entrega por email (SMTP).
+ * Resuelve los emails del lote con una sola búsqueda al user-service y envía todos los mensajes
+ * por una única conexión SMTP. Los rechazos de destinatarios se informan por entrega; si no se
+ * puede consultar al user-service falla el lote completo.
+ * Se activa al configurar {@code spring.mail.host}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spring.mail", name = "host")
+public class CanalEmail implements CanalEntrega {
+
+    public static final String NOMBRE = "EMAIL";
+
+    private final JavaMailSender mailSender;
+    private final UserServiceClient userServiceClient;
+    private final String remitente;
+
+    public CanalEmail(JavaMailSender mailSender,
+                      UserServiceClient userServiceClient,
+                      @Value("${app.notificaciones.entregas.email.remitente:notificaciones@pinceletas.com}") String remitente) {
+        this.mailSender = mailSender;
+        this.userServiceClient = userServiceClient;
+        this.remitente = remitente;
+    }
+
+    @Override
+    public String nombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public Map<Long, String> enviar(List<Entrega> entregas) {
+        Set<Long> usuarioIds = new LinkedHashSet<>();
+        for (Entrega entrega : entregas) {
+            usuarioIds.add(entrega.usuarioId());
+        }
+        Map<Long, UserServiceClient.UserBasicInfo> usuarios = userServiceClient.findUsersByIds(usuarioIds);
+
+        Map<Long, String> errores = new HashMap<>();
+        List<MimeMessage> mensajes = new ArrayList<>(entregas.size());
+        Map<Object, Long> entregaPorMensaje = new IdentityHashMap<>();
+        for (Entrega entrega : entregas) {
+            UserServiceClient.UserBasicInfo usuario = usuarios.get(entrega.usuarioId());
+            if (usuario == null || usuario.email() == null || usuario.email().isBlank()) {
+                errores.put(entrega.id(), "El usuario " + entrega.usuarioId() + " no tiene email");
+                continue;
+            }
+            try {
+                MimeMessage mensaje = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(mensaje, StandardCharsets.UTF_8.name());
+                helper.setFrom(remitente);
+                helper.setTo(usuario.email());
+                helper.setSubject(entrega.titulo());
+                helper.setText(entrega.mensaje());
+                mensajes.add(mensaje);
+                entregaPorMensaje.put(mensaje, entrega.id());
+            } catch (MessagingException e) {
+                errores.put(entrega.id(), e.getMessage());
+            }
+        }
+
+        if (!mensajes.isEmpty()) {
+            try {
+                mailSender.send(mensajes.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    throw e;
+                }
+                e.getFailedMessages().forEach((mensaje, error) ->
+                        errores.put(entregaPorMensaje.get(mensaje), error.getMessage()));
+            }
+        }
+        return errores;
+    }
+}
@@ -0,0 +1,58 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canal de entrega saliente de notificaciones (email, webhook).
+ * Cada implementación es un bean; {@code EntregasService} le asigna una cola y un hilo propios
+ * y le pasa las entregas en lotes, ya registradas en la tabla de entregas.
+ */
+public interface CanalEntrega {
+
+    /**
+     * Nombre del canal, usado en el ruteo por tipo y como tag de las métricas.
+     *
+     * @return Nombre en mayúsculas (p. ej. EMAIL).
+     */
+    String nombre();
+
+    /**
+     * Envía un lote de entregas.
+     *
+     * @param entregas Entregas a enviar (con ID asignado).
+     * @return Errores por ID de entrega de las que no se pudieron enviar (vacío si se enviaron todas).
+     * @throws RuntimeException si falló el lote completo; se reintentan todas sus entregas.
+     */
+    Map<Long, String> enviar(List<Entrega> entregas);
+
+    /**
+     * Entrega de una notificación a un destinatario por un canal.
+     *
+     * @param id ID de la entrega (null mientras no está registrada).
+     * @param notificacionId ID de la notificación directa o del broadcast.
+     * @param broadcast Indica si la notificación es un broadcast.
+     * @param usuarioId ID del destinatario.
+     * @param tipo Tipo de notificación.
+     * @param titulo Título de la notificación.
+     * @param mensaje Mensaje de la notificación.
+     * @param metadata Metadatos en formato JSON (puede ser null).
+     * @param fechaNotificacion Fecha de creación de la notificación.
+     * @param intentos Intentos de envío ya fallidos.
+     */
+    record Entrega(Long id, Long notificacionId, boolean broadcast, Long usuarioId, String tipo,
+                   String titulo, String mensaje, String metadata, LocalDateTime fechaNotificacion, int intentos) {
+
+        /**
+         * Copia la entrega con el ID asignado al registrarla.
+         *
+         * @param nuevoId ID de la entrega.
+         * @return Entrega registrada.
+         */
+        public Entrega conId(Long nuevoId) {
+            return new Entrega(nuevoId, notificacionId, broadcast, usuarioId, tipo, titulo, mensaje, metadata,
+                    fechaNotificacion, intentos);
+        }
+    }
+}
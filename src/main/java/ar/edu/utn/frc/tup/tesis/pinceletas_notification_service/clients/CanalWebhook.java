@@ -0,0 +1,94 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canal de entrega por webhook HTTP.
+ * Envía cada lote como un único {@code POST} con un arreglo JSON de entregas sobre el
+ * {@link HttpClient} compartido. Cualquier respuesta que no sea 2xx hace fallar el lote completo;
+ * cada elemento lleva su {@code entregaId} para que el receptor descarte reintentos repetidos.
+ * Se activa al configurar {@code app.notificaciones.entregas.webhook.url}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.notificaciones.entregas.webhook", name = "url")
+public class CanalWebhook implements CanalEntrega {
+
+    public static final String NOMBRE = "WEBHOOK";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+
+    public CanalWebhook(HttpClient httpClient,
+                        ObjectMapper objectMapper,
+                        @Value("${app.notificaciones.entregas.webhook.url}") String url,
+                        @Value("${app.notificaciones.entregas.webhook.timeout:PT5S}") Duration timeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String nombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public Map<Long, String> enviar(List<Entrega> entregas) {
+        List<Carga> cargas = new ArrayList<>(entregas.size());
+        for (Entrega entrega : entregas) {
+            cargas.add(new Carga(entrega.id(), entrega.notificacionId(), entrega.broadcast(), entrega.usuarioId(),
+                    entrega.tipo(), entrega.titulo(), entrega.mensaje(), entrega.metadata(), entrega.fechaNotificacion()));
+        }
+        byte[] cuerpo;
+        try {
+            cuerpo = objectMapper.writeValueAsBytes(cargas);
+        } catch (JsonProcessingException e) {
+            throw new RestClientException("No se pudo serializar el lote del webhook", e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new ResourceAccessException("Webhook no disponible: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Envío al webhook interrumpido");
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new RestClientException("El webhook respondió " + response.statusCode());
+        }
+        return Map.of();
+    }
+
+    /** Elemento del cuerpo del webhook; la metadata se incluye como JSON, no como string. */
+    private record Carga(Long entregaId, Long notificacionId, boolean broadcast, Long usuarioId, String tipo,
+                         String titulo, String mensaje, @JsonRawValue String metadata, LocalDateTime fechaCreacion) {
+    }
+}
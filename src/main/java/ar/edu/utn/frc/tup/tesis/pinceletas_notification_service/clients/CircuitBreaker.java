@@ -0,0 +1,174 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker por conteo para un servicio remoto.
+ * Registra el resultado de las últimas {@code ventana} llamadas; cuando hay al menos
+ * {@code minimoLlamadas} y la proporción de fallos alcanza el umbral, el circuito se abre y
+ * las llamadas se rechazan sin salir a la red durante {@code esperaAbierto}. Pasada la espera
+ * se deja pasar una única llamada de prueba: si funciona el circuito se cierra, si falla
+ * vuelve a abrirse.
+ * <p>
+ * Cada permiso lleva la generación del circuito en que se otorgó, y la generación cambia en
+ * cada transición de estado. Los resultados de llamadas iniciadas en una generación anterior
+ * (por ejemplo, una llamada lenta que empezó antes de que el circuito se abriera) se ignoran:
+ * en semi-abierto solo el resultado de la llamada de prueba cambia el estado.
+ */
+public class CircuitBreaker {
+
+    /** Estados del circuito. */
+    public enum Estado { CERRADO, ABIERTO, SEMI_ABIERTO }
+
+    /** Valor de {@link #intentar()} cuando la llamada se rechaza. */
+    public static final long RECHAZADA = -1;
+
+    private final boolean[] fallos;
+    private final int minimoLlamadas;
+    private final double umbralFallos;
+    private final long esperaAbiertoNanos;
+
+    private Estado estado = Estado.CERRADO;
+    /** Próxima posición a escribir en la ventana circular. */
+    private int posicion;
+    /** Llamadas registradas en la ventana (hasta su tamaño). */
+    private int llamadas;
+    /** Fallos registrados en la ventana. */
+    private int cantidadFallos;
+    /** Momento (nanoTime) en que se abrió el circuito. */
+    private long abiertoDesde;
+    /** Indica si la llamada de prueba del estado semi-abierto está en curso. */
+    private boolean pruebaEnCurso;
+    /** Generación actual: se incrementa en cada cambio de estado. */
+    private long generacion;
+
+    /**
+     * Crea el circuito cerrado.
+     *
+     * @param ventana Cantidad de llamadas recientes que se evalúan.
+     * @param minimoLlamadas Llamadas necesarias en la ventana para poder abrir el circuito.
+     * @param umbralFallos Proporción de fallos (0 a 1) que abre el circuito.
+     * @param esperaAbierto Tiempo que el circuito permanece abierto antes de probar de nuevo.
+     */
+    public CircuitBreaker(int ventana, int minimoLlamadas, double umbralFallos, Duration esperaAbierto) {
+        if (ventana <= 0 || minimoLlamadas <= 0 || minimoLlamadas > ventana || umbralFallos <= 0 || umbralFallos > 1) {
+            throw new IllegalArgumentException("Configuración de circuit breaker inválida");
+        }
+        this.fallos = new boolean[ventana];
+        this.minimoLlamadas = minimoLlamadas;
+        this.umbralFallos = umbralFallos;
+        this.esperaAbiertoNanos = esperaAbierto.toNanos();
+    }
+
+    /**
+     * Pide permiso para hacer una llamada. Si lo otorga, el llamador debe informar el
+     * resultado con {@link #registrarExito(long)} o {@link #registrarFallo(long)} pasando el permiso.
+     *
+     * @return Permiso de la llamada, o {@link #RECHAZADA} si el circuito está abierto (la llamada
+     *         debe fallar sin ejecutarse).
+     */
+    public synchronized long intentar() {
+        if (estado == Estado.ABIERTO) {
+            if (System.nanoTime() - abiertoDesde < esperaAbiertoNanos) {
+                return RECHAZADA;
+            }
+            estado = Estado.SEMI_ABIERTO;
+            generacion++;
+        }
+        if (estado == Estado.SEMI_ABIERTO) {
+            if (pruebaEnCurso) {
+                return RECHAZADA;
+            }
+            pruebaEnCurso = true;
+        }
+        return generacion;
+    }
+
+    /**
+     * Registra una llamada exitosa. En semi-abierto, si es la llamada de prueba, cierra el circuito.
+     *
+     * @param permiso Permiso devuelto por {@link #intentar()}.
+     */
+    public synchronized void registrarExito(long permiso) {
+        if (permiso != generacion) {
+            return;
+        }
+        if (estado == Estado.SEMI_ABIERTO) {
+            cerrar();
+            return;
+        }
+        registrar(false);
+    }
+
+    /**
+     * Registra una llamada fallida. En semi-abierto, si es la llamada de prueba, vuelve a abrir el circuito.
+     *
+     * @param permiso Permiso devuelto por {@link #intentar()}.
+     */
+    public synchronized void registrarFallo(long permiso) {
+        if (permiso != generacion) {
+            return;
+        }
+        if (estado == Estado.SEMI_ABIERTO) {
+            abrir();
+            return;
+        }
+        registrar(true);
+        if (estado == Estado.CERRADO && llamadas >= minimoLlamadas
+                && cantidadFallos >= umbralFallos * llamadas) {
+            abrir();
+        }
+    }
+
+    /**
+     * Devuelve un permiso sin registrar resultado, para llamadas cuyo resultado no dice nada
+     * sobre la salud del servicio. Si era la llamada de prueba, se permite otra.
+     *
+     * @param permiso Permiso devuelto por {@link #intentar()}.
+     */
+    public synchronized void liberar(long permiso) {
+        if (permiso == generacion && estado == Estado.SEMI_ABIERTO) {
+            pruebaEnCurso = false;
+        }
+    }
+
+    /**
+     * Obtiene el estado actual del circuito.
+     *
+     * @return Estado del circuito.
+     */
+    public synchronized Estado estado() {
+        return estado;
+    }
+
+    private void registrar(boolean fallo) {
+        if (llamadas == fallos.length) {
+            if (fallos[posicion]) {
+                cantidadFallos--;
+            }
+        } else {
+            llamadas++;
+        }
+        fallos[posicion] = fallo;
+        if (fallo) {
+            cantidadFallos++;
+        }
+        posicion = (posicion + 1) % fallos.length;
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        generacion++;
+        abiertoDesde = System.nanoTime();
+        pruebaEnCurso = false;
+    }
+
+    private void cerrar() {
+        estado = Estado.CERRADO;
+        generacion++;
+        pruebaEnCurso = false;
+        posicion = 0;
+        llamadas = 0;
+        cantidadFallos = 0;
+    }
+}
@@ -0,0 +1,114 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Cliente mínimo de la API HTTP de administración de RabbitMQ.
+ * A diferencia de la consulta pasiva por AMQP (que solo informa los mensajes listos), la API
+ * informa también los mensajes entregados y aún sin confirmar y la cantidad de consumidores,
+ * que es lo que necesita el re-particionado para saber que una cola quedó realmente drenada.
+ * Se activa con {@code app.rabbitmq.shards.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rabbitmq.shards.enabled", havingValue = "true")
+public class RabbitMQManagementClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final String vhost;
+    private final String autorizacion;
+    private final Duration timeout;
+
+    public RabbitMQManagementClient(HttpClient httpClient,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.rabbitmq.management.url:http://localhost:15672}") String url,
+                                    @Value("${spring.rabbitmq.virtual-host:/}") String vhost,
+                                    @Value("${spring.rabbitmq.username:guest}") String usuario,
+                                    @Value("${spring.rabbitmq.password:guest}") String password,
+                                    @Value("${app.rabbitmq.management.timeout:PT5S}") Duration timeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.vhost = vhost;
+        this.autorizacion = "Basic " + Base64.getEncoder()
+                .encodeToString((usuario + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.timeout = timeout;
+    }
+
+    /**
+     * Estado de una cola según el broker.
+     *
+     * @param mensajes Mensajes en la cola: listos más entregados sin confirmar.
+     * @param sinConfirmar Mensajes entregados a consumidores y aún sin confirmar.
+     * @param consumidores Etiquetas (consumer tags) de los consumidores suscriptos.
+     */
+    public record EstadoCola(long mensajes, long sinConfirmar, List<String> consumidores) {
+    }
+
+    /**
+     * Consulta el estado de una cola.
+     *
+     * @param cola Nombre de la cola.
+     * @return Estado de la cola, o null si no existe.
+     * @throws RestClientException Si la API no responde o responde con error.
+     */
+    public EstadoCola estado(String cola) {
+        URI uri = URI.create(url + "/api/queues/" + codificar(vhost) + "/" + codificar(cola));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Authorization", autorizacion)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new ResourceAccessException("API de administración de RabbitMQ no disponible: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Consulta a la API de administración interrumpida");
+        }
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new RestClientException("La API de administración respondió " + response.statusCode() + " para " + cola);
+        }
+        try {
+            JsonNode json = objectMapper.readTree(response.body());
+            List<String> consumidores = new ArrayList<>();
+            for (JsonNode consumidor : json.path("consumer_details")) {
+                consumidores.add(consumidor.path("consumer_tag").asText());
+            }
+            return new EstadoCola(json.path("messages").asLong(),
+                    json.path("messages_unacknowledged").asLong(),
+                    consumidores);
+        } catch (IOException e) {
+            throw new RestClientException("Respuesta inválida de la API de administración para " + cola, e);
+        }
+    }
+
+    private static String codificar(String valor) {
+        // La API espera el vhost "/" como %2F; URLEncoder codifica los espacios como "+"
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
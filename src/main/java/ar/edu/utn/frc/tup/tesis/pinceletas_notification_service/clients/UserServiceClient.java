@@ -1,45 +1,503 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cliente del servicio de usuarios (user-auth-service).
+ * Las llamadas son asíncronas sobre un {@link HttpClient} compartido (conexiones persistentes
+ * reutilizadas entre llamadas), por lo que ningún hilo queda bloqueado esperando la respuesta.
+ * Cada llamada tiene un timeout estricto, la cantidad de llamadas en curso está acotada
+ * (bulkhead) y un {@link CircuitBreaker} rechaza las llamadas sin salir a la red mientras el
+ * servicio está fallando. Los rechazos se informan con {@link UserServiceNoDisponibleException}.
+ * <p>
+ * Búsquedas por lote: {@link #findUsersByEmails(Collection)} y {@link #findUsersByIds(Collection)}
+ * resuelven muchos usuarios con llamadas {@code POST /api/users/by-emails} y {@code /by-ids}
+ * (divididas en lotes de tamaño máximo), y las búsquedas individuales concurrentes se agrupan
+ * durante una ventana corta en una sola llamada por lote ({@link AgrupadorLlamadas}). Si el
+ * user-service no ofrece los endpoints de lote (404, 405 o 501), se usan búsquedas individuales
+ * en paralelo y se vuelve a probar el lote más tarde.
+ */
 @Component
-@RequiredArgsConstructor
 public class UserServiceClient {
 
     private static final Logger log = LoggerFactory.getLogger(UserServiceClient.class);
 
-    private final RestTemplate restTemplate;
+    /** Nombre del timer de llamadas al user-service. */
+    private static final String METRICA_LLAMADAS = "notificaciones.user-service";
+    /** Tiempo sin intentar los endpoints de lote después de detectar que no existen. */
+    private static final long REINTENTO_LOTE_NANOS = Duration.ofMinutes(10).toNanos();
+    /** Respuestas de un endpoint de lote que indican que el user-service no lo ofrece. */
+    private static final Set<Integer> SIN_ENDPOINT_DE_LOTE = Set.of(404, 405, 501);
+
+    private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String userServiceUrl;
+    /** Timeout de cada llamada (hasta recibir la respuesta). */
+    private final Duration timeout;
+    /** Permisos de llamadas concurrentes; si no hay, la llamada se rechaza sin esperar. */
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuito;
+    /** Búsquedas individuales simultáneas en paralelo cuando no hay endpoints de lote. */
+    private final int paralelismoIndividual;
+    /** Cierra las ventanas de agrupación. */
+    private final ScheduledExecutorService planificador;
+    private final AgrupadorLlamadas<String, UserBasicInfo> agrupadorPorEmail;
+    private final AgrupadorLlamadas<Long, UserBasicInfo> agrupadorPorId;
+    /** Momento (nanoTime) hasta el que no se intenta cada endpoint de lote (ausente = soportado). */
+    private final Map<String, Long> loteNoSoportadoHasta = new ConcurrentHashMap<>();
 
-    @Value("${app.services.user-auth-service.url:https://pinceletas-user-auth.onrender.com}")
-    private String userServiceUrl;
+    public UserServiceClient(HttpClient httpClient,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.services.user-auth-service.url:https://pinceletas-user-auth.onrender.com}") String userServiceUrl,
+                             @Value("${app.services.user-auth-service.timeout:PT3S}") Duration timeout,
+                             @Value("${app.services.user-auth-service.max-concurrentes:20}") int maxConcurrentes,
+                             @Value("${app.services.user-auth-service.circuito.ventana:20}") int ventana,
+                             @Value("${app.services.user-auth-service.circuito.minimo-llamadas:10}") int minimoLlamadas,
+                             @Value("${app.services.user-auth-service.circuito.umbral-fallos:0.5}") double umbralFallos,
+                             @Value("${app.services.user-auth-service.circuito.espera-abierto:PT30S}") Duration esperaAbierto,
+                             @Value("${app.services.user-auth-service.lote.ventana:5ms}") Duration ventanaLote,
+                             @Value("${app.services.user-auth-service.lote.tamanio-max:100}") int tamanioMaximoLote,
+                             @Value("${app.services.user-auth-service.lote.paralelismo-individual:8}") int paralelismoIndividual) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.userServiceUrl = userServiceUrl;
+        this.timeout = timeout;
+        this.bulkhead = new Semaphore(maxConcurrentes);
+        this.circuito = new CircuitBreaker(ventana, minimoLlamadas, umbralFallos, esperaAbierto);
+        this.paralelismoIndividual = paralelismoIndividual;
+        this.planificador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread hilo = new Thread(runnable, "user-service-lotes");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.agrupadorPorEmail = new AgrupadorLlamadas<>(ventanaLote, tamanioMaximoLote, this::resolverEmails, planificador);
+        this.agrupadorPorId = new AgrupadorLlamadas<>(ventanaLote, tamanioMaximoLote, this::resolverIds, planificador);
+        Gauge.builder(METRICA_LLAMADAS + ".circuito", circuito, c -> c.estado().ordinal())
+                .description("Estado del circuito del user-service (0 cerrado, 1 abierto, 2 semi-abierto)")
+                .register(meterRegistry);
+        Gauge.builder(METRICA_LLAMADAS + ".en-curso", bulkhead, b -> maxConcurrentes - b.availablePermits())
+                .description("Llamadas al user-service en curso")
+                .register(meterRegistry);
+    }
 
     public UserBasicInfo getUserByEmail(String email) {
         try {
             log.info("🔍 Llamando a user-service para email: {}", email);
-
-            String url = userServiceUrl + "/api/users/by-email?email=" + email;
-            ResponseEntity<UserBasicInfo> response = restTemplate.getForEntity(url, UserBasicInfo.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            Optional<UserBasicInfo> usuario = findUserByEmail(email);
+            if (usuario.isPresent()) {
                 log.info("✅ Respuesta recibida de user-service para email: {}", email);
-                return response.getBody();
             } else {
                 log.warn("⚠️ Usuario no encontrado en user-service para email: {}", email);
-                return null;
             }
+            return usuario.orElse(null);
         } catch (Exception e) {
             log.error("❌ Error llamando a user-service para email {}: {}", email, e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Busca un usuario por email distinguiendo "no existe" de "no se pudo consultar".
+     * A diferencia de {@link #getUserByEmail(String)}, los errores de comunicación se propagan
+     * para que quien cachea el resultado no guarde una falla como si fuera un usuario inexistente.
+     *
+     * @param email Email del usuario.
+     * @return Usuario encontrado o vacío si el user-service responde que no existe.
+     * @throws RestClientException Si falla la comunicación con el user-service o la llamada se rechaza.
+     */
+    public Optional<UserBasicInfo> findUserByEmail(String email) {
+        return esperar(findUserByEmailAsync(email));
+    }
+
+    /**
+     * Versión asíncrona de {@link #findUserByEmail(String)}.
+     * Las búsquedas concurrentes se agrupan en una llamada por lote.
+     *
+     * @param email Email del usuario.
+     * @return Futuro con el usuario o vacío si no existe; falla con {@link RestClientException}.
+     */
+    public CompletableFuture<Optional<UserBasicInfo>> findUserByEmailAsync(String email) {
+        return agrupadorPorEmail.obtener(email);
+    }
+
+    /**
+     * Busca un usuario por ID. Las búsquedas concurrentes se agrupan en una llamada por lote.
+     *
+     * @param id ID del usuario.
+     * @return Futuro con el usuario o vacío si no existe; falla con {@link RestClientException}.
+     */
+    public CompletableFuture<Optional<UserBasicInfo>> findUserByIdAsync(Long id) {
+        return agrupadorPorId.obtener(id);
+    }
+
+    /**
+     * Busca varios usuarios por email con la menor cantidad de llamadas posible.
+     *
+     * @param emails Emails a buscar (se ignoran nulos y repetidos).
+     * @return Usuarios encontrados por email solicitado; los inexistentes no aparecen.
+     * @throws RestClientException Si falla la comunicación con el user-service o la llamada se rechaza.
+     */
+    public Map<String, UserBasicInfo> findUsersByEmails(Collection<String> emails) {
+        return esperar(findUsersByEmailsAsync(emails));
+    }
+
+    /**
+     * Versión asíncrona de {@link #findUsersByEmails(Collection)}.
+     *
+     * @param emails Emails a buscar.
+     * @return Futuro con los usuarios encontrados por email solicitado.
+     */
+    public CompletableFuture<Map<String, UserBasicInfo>> findUsersByEmailsAsync(Collection<String> emails) {
+        return agrupadorPorEmail.obtenerTodos(sinRepetidos(emails));
+    }
+
+    /**
+     * Busca varios usuarios por ID con la menor cantidad de llamadas posible.
+     *
+     * @param ids IDs a buscar (se ignoran nulos y repetidos).
+     * @return Usuarios encontrados por ID; los inexistentes no aparecen.
+     * @throws RestClientException Si falla la comunicación con el user-service o la llamada se rechaza.
+     */
+    public Map<Long, UserBasicInfo> findUsersByIds(Collection<Long> ids) {
+        return esperar(findUsersByIdsAsync(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #findUsersByIds(Collection)}.
+     *
+     * @param ids IDs a buscar.
+     * @return Futuro con los usuarios encontrados por ID.
+     */
+    public CompletableFuture<Map<Long, UserBasicInfo>> findUsersByIdsAsync(Collection<Long> ids) {
+        return agrupadorPorId.obtenerTodos(sinRepetidos(ids));
+    }
+
+    /**
+     * Obtiene los usuarios con un rol determinado.
+     * Los errores de comunicación se propagan al llamador.
+     *
+     * @param role Rol a consultar (por ejemplo ADMIN).
+     * @return Usuarios con ese rol.
+     * @throws RestClientException Si falla la comunicación con el user-service o la llamada se rechaza.
+     */
+    public List<UserBasicInfo> findUsersByRole(String role) {
+        return esperar(findUsersByRoleAsync(role));
+    }
+
+    /**
+     * Versión asíncrona de {@link #findUsersByRole(String)}.
+     *
+     * @param role Rol a consultar.
+     * @return Futuro con los usuarios del rol; falla con {@link RestClientException}.
+     */
+    public CompletableFuture<List<UserBasicInfo>> findUsersByRoleAsync(String role) {
+        URI uri = UriComponentsBuilder.fromUriString(userServiceUrl)
+                .path("/api/users/by-role")
+                .queryParam("role", "{role}")
+                .encode()
+                .buildAndExpand(role)
+                .toUri();
+        return llamar("by-role", HttpRequest.newBuilder(uri).GET()).thenApply(cuerpo -> cuerpo
+                .map(json -> leer(json, UserBasicInfo[].class))
+                .map(Arrays::asList)
+                .orElse(List.of()));
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        planificador.shutdownNow();
+    }
+
+    /**
+     * Resuelve un lote de emails: con una búsqueda individual si es uno solo, con el endpoint
+     * de lote si hay varios, o con búsquedas individuales en paralelo si no hay endpoint de lote.
+     */
+    private CompletableFuture<Map<String, UserBasicInfo>> resolverEmails(List<String> emails) {
+        return resolver(emails, "by-emails", this::buscarPorEmail, UserBasicInfo::email, UserServiceClient::normalizar);
+    }
+
+    private CompletableFuture<Map<Long, UserBasicInfo>> resolverIds(List<Long> ids) {
+        return resolver(ids, "by-ids", this::buscarPorId, UserBasicInfo::id, UnaryOperator.identity());
+    }
+
+    private <K> CompletableFuture<Map<K, UserBasicInfo>> resolver(List<K> claves,
+                                                                 String operacionLote,
+                                                                 Function<K, CompletableFuture<Optional<UserBasicInfo>>> individual,
+                                                                 Function<UserBasicInfo, K> claveDe,
+                                                                 UnaryOperator<K> normalizar) {
+        if (claves.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        if (claves.size() == 1 || !loteSoportado(operacionLote)) {
+            return individualmente(claves, individual);
+        }
+        return buscarLote(operacionLote, claves).thenCompose(usuarios -> {
+            if (usuarios.isEmpty()) {
+                loteNoSoportadoHasta.put(operacionLote, System.nanoTime() + REINTENTO_LOTE_NANOS);
+                log.warn("⚠️ El user-service no ofrece {}, se usan búsquedas individuales", operacionLote);
+                return individualmente(claves, individual);
+            }
+            // El resultado se indexa por la clave tal como se pidió (los emails se comparan normalizados)
+            Map<K, List<K>> solicitadas = new HashMap<>();
+            claves.forEach(clave -> solicitadas.computeIfAbsent(normalizar.apply(clave), k -> new ArrayList<>(1)).add(clave));
+            Map<K, UserBasicInfo> encontrados = new LinkedHashMap<>();
+            for (UserBasicInfo usuario : usuarios.get()) {
+                K clave = claveDe.apply(usuario);
+                if (clave != null) {
+                    solicitadas.getOrDefault(normalizar.apply(clave), List.of()).forEach(pedida -> encontrados.put(pedida, usuario));
+                }
+            }
+            return CompletableFuture.completedFuture(encontrados);
+        });
+    }
+
+    /**
+     * Indica si se debe intentar el endpoint de lote: no se sabe que falte, o ya pasó el
+     * tiempo de espera desde que se detectó que faltaba.
+     */
+    private boolean loteSoportado(String operacion) {
+        Long hasta = loteNoSoportadoHasta.get(operacion);
+        return hasta == null || System.nanoTime() - hasta >= 0;
+    }
+
+    /**
+     * Resuelve las claves con búsquedas individuales, de a {@code paralelismoIndividual} a la vez
+     * para no agotar el bulkhead.
+     */
+    private <K> CompletableFuture<Map<K, UserBasicInfo>> individualmente(List<K> claves,
+                                                                        Function<K, CompletableFuture<Optional<UserBasicInfo>>> individual) {
+        Map<K, UserBasicInfo> encontrados = new LinkedHashMap<>();
+        CompletableFuture<Void> cadena = CompletableFuture.completedFuture(null);
+        for (int desde = 0; desde < claves.size(); desde += paralelismoIndividual) {
+            List<K> tanda = claves.subList(desde, Math.min(desde + paralelismoIndividual, claves.size()));
+            cadena = cadena.thenCompose(ignorado -> {
+                List<CompletableFuture<Optional<UserBasicInfo>>> busquedas = tanda.stream().map(individual).toList();
+                return CompletableFuture.allOf(busquedas.toArray(new CompletableFuture[0])).thenRun(() -> {
+                    for (int i = 0; i < tanda.size(); i++) {
+                        K clave = tanda.get(i);
+                        busquedas.get(i).join().ifPresent(usuario -> encontrados.put(clave, usuario));
+                    }
+                });
+            });
+        }
+        return cadena.thenApply(ignorado -> encontrados);
+    }
+
+    private CompletableFuture<Optional<UserBasicInfo>> buscarPorEmail(String email) {
+        URI uri = UriComponentsBuilder.fromUriString(userServiceUrl)
+                .path("/api/users/by-email")
+                .queryParam("email", "{email}")
+                .encode()
+                .buildAndExpand(email)
+                .toUri();
+        return llamar("by-email", HttpRequest.newBuilder(uri).GET())
+                .thenApply(cuerpo -> cuerpo.map(json -> leer(json, UserBasicInfo.class)));
+    }
+
+    private CompletableFuture<Optional<UserBasicInfo>> buscarPorId(Long id) {
+        URI uri = UriComponentsBuilder.fromUriString(userServiceUrl)
+                .path("/api/users/{id}")
+                .buildAndExpand(id)
+                .toUri();
+        return llamar("by-id", HttpRequest.newBuilder(uri).GET())
+                .thenApply(cuerpo -> cuerpo.map(json -> leer(json, UserBasicInfo.class)));
+    }
+
+    /**
+     * Llama a un endpoint de lote con las claves en el cuerpo (arreglo JSON).
+     * Un 404, 405 o 501 indica que el endpoint no existe y no cuenta para el circuito.
+     *
+     * @return Futuro con los usuarios encontrados, o vacío si el endpoint no existe.
+     */
+    private <K> CompletableFuture<Optional<List<UserBasicInfo>>> buscarLote(String operacion, List<K> claves) {
+        URI uri = UriComponentsBuilder.fromUriString(userServiceUrl)
+                .path("/api/users/" + operacion)
+                .build()
+                .toUri();
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(uri)
+                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(claves)));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RestClientException("No se pudo serializar el lote", e));
+        }
+        return llamar(operacion, request, SIN_ENDPOINT_DE_LOTE)
+                .thenApply(cuerpo -> cuerpo.map(json -> {
+                    UserBasicInfo[] usuarios = leer(json, UserBasicInfo[].class);
+                    return usuarios != null ? Arrays.asList(usuarios) : List.<UserBasicInfo>of();
+                }));
+    }
+
+    private CompletableFuture<Optional<byte[]>> llamar(String operacion, HttpRequest.Builder request) {
+        return llamar(operacion, request, Set.of());
+    }
+
+    /**
+     * Ejecuta una llamada asíncrona al user-service aplicando bulkhead, circuit breaker y timeout,
+     * y registra su duración y resultado. Los errores de red, timeouts y respuestas 5xx cuentan
+     * como fallos del circuito; un 404 es una respuesta válida.
+     *
+     * @param operacion Nombre de la operación para las métricas.
+     * @param request Request a enviar (URI, método y cuerpo).
+     * @param sinEndpoint Respuestas que indican que el endpoint no existe: devuelven vacío sin
+     *                    contar para el circuito.
+     * @return Futuro con el cuerpo de la respuesta, o vacío si fue 404 o el endpoint no existe.
+     */
+    private CompletableFuture<Optional<byte[]>> llamar(String operacion, HttpRequest.Builder request,
+                                                       Set<Integer> sinEndpoint) {
+        if (!bulkhead.tryAcquire()) {
+            return rechazar(operacion, "Límite de llamadas concurrentes al user-service alcanzado");
+        }
+        long permiso = circuito.intentar();
+        if (permiso == CircuitBreaker.RECHAZADA) {
+            bulkhead.release();
+            return rechazar(operacion, "Circuito del user-service abierto");
+        }
+
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        CompletableFuture<HttpResponse<byte[]>> respuesta;
+        try {
+            respuesta = httpClient.sendAsync(request.timeout(timeout).header(HttpHeaders.ACCEPT, "application/json").build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            respuesta = CompletableFuture.failedFuture(e);
+        }
+        return respuesta.handle((response, error) -> {
+            bulkhead.release();
+            String resultado = "error";
+            try {
+                if (error != null) {
+                    circuito.registrarFallo(permiso);
+                    throw comunicacion(error);
+                }
+                int status = response.statusCode();
+                if (sinEndpoint.contains(status)) {
+                    circuito.liberar(permiso);
+                    resultado = "sin_endpoint";
+                    return Optional.<byte[]>empty();
+                }
+                if (status >= 500) {
+                    circuito.registrarFallo(permiso);
+                    throw HttpServerErrorException.create(HttpStatusCode.valueOf(status), "", HttpHeaders.EMPTY,
+                            response.body(), StandardCharsets.UTF_8);
+                }
+                circuito.registrarExito(permiso);
+                if (status == 404) {
+                    resultado = "no_encontrado";
+                    return Optional.<byte[]>empty();
+                }
+                if (status >= 400) {
+                    throw HttpClientErrorException.create(HttpStatusCode.valueOf(status), "", HttpHeaders.EMPTY,
+                            response.body(), StandardCharsets.UTF_8);
+                }
+                resultado = "ok";
+                return Optional.of(response.body());
+            } finally {
+                muestra.stop(timer(operacion, resultado));
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> rechazar(String operacion, String motivo) {
+        meterRegistry.counter(METRICA_LLAMADAS + ".rechazadas", "operacion", operacion).increment();
+        log.warn("⛔ {}: se rechaza la llamada {}", motivo, operacion);
+        return CompletableFuture.failedFuture(new UserServiceNoDisponibleException(motivo));
+    }
+
+    private static <K> List<K> sinRepetidos(Collection<K> claves) {
+        List<K> lista = new ArrayList<>(new LinkedHashSet<>(claves));
+        lista.removeIf(Objects::isNull);
+        return lista;
+    }
+
+    private static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private <T> T leer(byte[] json, Class<T> tipo) {
+        try {
+            return json.length == 0 ? null : objectMapper.readValue(json, tipo);
+        } catch (IOException e) {
+            throw new RestClientException("Respuesta inválida del user-service", e);
+        }
+    }
+
+    private static ResourceAccessException comunicacion(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return new ResourceAccessException("Error de comunicación con user-service: " + causa.getMessage(),
+                causa instanceof IOException io ? io : new IOException(causa));
+    }
+
+    /**
+     * Espera el resultado de una llamada asíncrona (acotada por el timeout de la llamada)
+     * propagando la excepción original.
+     */
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Timer timer(String operacion, String resultado) {
+        return Timer.builder(METRICA_LLAMADAS)
+                .description("Llamadas al user-service")
+                .tag("operacion", operacion)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     public record UserBasicInfo(Long id, String email, String nombre, String apellido, String role) {}
 }
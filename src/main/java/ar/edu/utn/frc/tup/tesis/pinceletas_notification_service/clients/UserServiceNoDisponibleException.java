@@ -0,0 +1,14 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Llamada al user-service rechazada sin salir a la red: el circuito está abierto
+ * o se alcanzó el límite de llamadas concurrentes.
+ */
+public class UserServiceNoDisponibleException extends RestClientException {
+
+    public UserServiceNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,39 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Configuración de inicialización de base de datos.
+ * Ejecuta ajustes idempotentes sobre el esquema que Hibernate (ddl-auto=update) no cubre.
+ */
+@Configuration
+public class DatabaseInitConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInitConfig.class);
+
+    /**
+     * Alinea la secuencia de ids de notificaciones con los datos existentes.
+     * Las filas creadas cuando el id era IDENTITY no avanzan la secuencia
+     * {@code notificaciones_seq}; sin este ajuste los primeros ids asignados colisionarían.
+     * Nunca retrocede la secuencia.
+     *
+     * @param jdbcTemplate JdbcTemplate de la aplicación.
+     * @return ApplicationRunner que ejecuta el ajuste al iniciar.
+     */
+    @Bean
+    public ApplicationRunner alinearSecuenciaNotificaciones(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            Long valor = jdbcTemplate.queryForObject(
+                    "SELECT setval('notificaciones_seq', GREATEST("
+                            + "(SELECT COALESCE(MAX(id), 0) FROM notificaciones) + 1, "
+                            + "(SELECT last_value FROM notificaciones_seq)))",
+                    Long.class);
+            log.info("Secuencia notificaciones_seq alineada en: {}", valor);
+        };
+    }
+}
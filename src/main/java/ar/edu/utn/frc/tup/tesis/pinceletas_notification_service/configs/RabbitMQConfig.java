@@ -1,19 +1,43 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
 
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEvent;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionReintentos;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.utils.EsperaExponencial;
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Configuración de RabbitMQ para el sistema de notificaciones.
  * Define colas, exchanges y bindings para la comunicación asíncrona de eventos.
+ * <p>
+ * Reintentos: los eventos que fallan se republican en {@code notificaciones.retry.<ms>}, colas
+ * sin consumidores cuyo TTL es la espera del intento; al vencer, el broker los devuelve a
+ * {@link #EXCHANGE} (dead-letter). La espera crece exponencialmente por intento y, agotados
+ * los intentos, el evento queda en {@link #DLQ} (ver {@link NotificacionReintentos}).
+ * La cola de ingreso no se modifica, por lo que no hay que recrearla en el broker.
  */
 @Configuration
 public class RabbitMQConfig {
@@ -24,6 +48,21 @@ public class RabbitMQConfig {
     public static final String EXCHANGE = "notificaciones.exchange";
     /** Routing key para enrutamiento de mensajes. */
     public static final String ROUTING_KEY = "notificaciones.key";
+    /** Nombre del container factory para consumo en lotes. */
+    public static final String BATCH_CONTAINER_FACTORY = "batchListenerContainerFactory";
+    /** Exchange de las colas de reintento (routing key = espera en ms). */
+    public static final String RETRY_EXCHANGE = "notificaciones.retry.exchange";
+    /** Prefijo de las colas de reintento; el sufijo es la espera en ms. */
+    public static final String RETRY_QUEUE_PREFIX = "notificaciones.retry.";
+    /** Exchange de eventos fallidos. */
+    public static final String DLX = "notificaciones.dlx";
+    /** Cola de eventos fallidos (también es la routing key en {@link #DLX}). */
+    public static final String DLQ = "notificaciones.dlq";
+    /** Exchange fanout de avisos de cambios de bandeja entre instancias (ETags). */
+    public static final String BANDEJA_EXCHANGE = "notificaciones.bandeja.exchange";
+    /** Container factory de los avisos de cambios de bandeja. */
+    public static final String BANDEJA_CONTAINER_FACTORY = "bandejaListenerContainerFactory";
+
 
     /**
      * Configura la cola durable para notificaciones.
@@ -57,14 +96,67 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
     }
 
+    /**
+     * Declara la topología de reintentos: un exchange directo con una cola por espera distinta
+     * y el exchange y la cola de fallidos. Las colas de reintento se nombran por su espera, así
+     * un cambio de configuración crea colas nuevas en lugar de chocar con el TTL de las existentes.
+     *
+     * @param maxIntentos Cantidad máxima de intentos antes de ir a fallidos.
+     * @param esperaInicialMs Espera del primer reintento.
+     * @param multiplicador Factor de crecimiento por intento.
+     * @param esperaMaximaMs Espera máxima.
+     * @return Exchanges, colas y bindings.
+     */
+    @Bean
+    public Declarables reintentosDeclarables(@Value("${app.rabbitmq.reintentos.max-intentos:5}") int maxIntentos,
+                                             @Value("${app.rabbitmq.reintentos.espera-inicial-ms:1000}") long esperaInicialMs,
+                                             @Value("${app.rabbitmq.reintentos.multiplicador:4}") double multiplicador,
+                                             @Value("${app.rabbitmq.reintentos.espera-maxima-ms:600000}") long esperaMaximaMs) {
+        List<Declarable> declarables = new ArrayList<>();
+        DirectExchange reintentos = new DirectExchange(RETRY_EXCHANGE);
+        declarables.add(reintentos);
+
+        Set<Long> esperas = new LinkedHashSet<>();
+        for (int intento = 1; intento <= maxIntentos; intento++) {
+            esperas.add(EsperaExponencial.calcular(intento, esperaInicialMs, multiplicador, esperaMaximaMs));
+        }
+        for (long espera : esperas) {
+            Queue cola = QueueBuilder.durable(RETRY_QUEUE_PREFIX + espera)
+                    .ttl((int) espera)
+                    .deadLetterExchange(EXCHANGE)
+                    .deadLetterRoutingKey(ROUTING_KEY)
+                    .build();
+            declarables.add(cola);
+            declarables.add(BindingBuilder.bind(cola).to(reintentos).with(String.valueOf(espera)));
+        }
+
+        DirectExchange fallidos = new DirectExchange(DLX);
+        Queue dlq = QueueBuilder.durable(DLQ).build();
+        declarables.add(fallidos);
+        declarables.add(dlq);
+        declarables.add(BindingBuilder.bind(dlq).to(fallidos).with(DLQ));
+        return new Declarables(declarables);
+    }
+
     /**
      * Configura el convertidor de mensajes a JSON.
+     * Si un {@link NotificacionEvent} no trae eventoId en el cuerpo, se completa con el
+     * message-id de AMQP para poder descartar reentregas.
      *
      * @return MessageConverter para serialización JSON.
      */
     @Bean
     public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+        return new Jackson2JsonMessageConverter() {
+            @Override
+            public Object fromMessage(Message message, Object conversionHint) {
+                Object convertido = super.fromMessage(message, conversionHint);
+                if (convertido instanceof NotificacionEvent event && event.getEventoId() == null) {
+                    event.setEventoId(message.getMessageProperties().getMessageId());
+                }
+                return convertido;
+            }
+        };
     }
 
     /**
@@ -79,4 +171,81 @@ public class RabbitMQConfig {
         rabbitTemplate.setMessageConverter(jsonMessageConverter());
         return rabbitTemplate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Container factory por defecto de los {@code @RabbitListener}.
+     * Igual al que crea Spring Boot, más el registro de la espera de cada mensaje (consumer lag)
+     * y la derivación de los mensajes fallidos a reintento.
+     *
+     * @param configurer Configurador de Spring Boot (aplica converter y propiedades spring.rabbitmq.listener.simple.*).
+     * @param connectionFactory Factory de conexiones RabbitMQ.
+     * @param metricas Métricas de ingesta.
+     * @param reintentos Advice de reintentos y fallidos.
+     * @return Container factory por defecto.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            NotificacionMetricas metricas,
+            NotificacionReintentos reintentos) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAfterReceivePostProcessors(metricas::registrarEspera);
+        factory.setAdviceChain(reintentos);
+        return factory;
+    }
+
+    /**
+     * Container factory de los avisos de cambios de bandeja entre instancias. Sin reintentos
+     * ni métricas de ingesta: un aviso perdido solo cuesta, a lo sumo, un 304 de más.
+     *
+     * @param configurer Configurador de Spring Boot.
+     * @param connectionFactory Factory de conexiones RabbitMQ.
+     * @return Container factory de los avisos.
+     */
+    @Bean(BANDEJA_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory bandejaListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * Configura el container factory para consumo de mensajes en lotes.
+     * El container acumula hasta {@code batchSize} mensajes o espera como máximo
+     * {@code maxWaitMs} antes de entregar el lote al listener, y confirma (ack)
+     * el lote completo una vez que el listener termina.
+     *
+     * @param configurer Configurador de Spring Boot (aplica converter y propiedades spring.rabbitmq.listener.simple.*).
+     * @param connectionFactory Factory de conexiones RabbitMQ.
+     * @param batchSize Cantidad máxima de mensajes por lote.
+     * @param maxWaitMs Tiempo máximo de espera para completar un lote, en milisegundos.
+     * @param metricas Métricas de ingesta.
+     * @param reintentos Advice de reintentos y fallidos.
+     * @return Container factory con batch listener habilitado.
+     */
+    @Bean(BATCH_CONTAINER_FACTORY)
+    @ConditionalOnProperty(name = "app.rabbitmq.batch.enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.rabbitmq.batch.size:100}") int batchSize,
+            @Value("${app.rabbitmq.batch.max-wait-ms:200}") long maxWaitMs,
+            NotificacionMetricas metricas,
+            NotificacionReintentos reintentos) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAfterReceivePostProcessors(metricas::registrarEspera);
+        factory.setAdviceChain(reintentos);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setContainerCustomizer(container -> container.setBatchReceiveTimeout(maxWaitMs));
+        return factory;
+    }
+}
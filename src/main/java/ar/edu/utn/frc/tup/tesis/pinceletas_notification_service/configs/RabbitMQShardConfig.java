@@ -0,0 +1,212 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionReintentos;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Topología particionada (shards) para consumir eventos en paralelo sin perder el orden por usuario.
+ * <p>
+ * Los productores siguen publicando en {@link RabbitMQConfig#QUEUE}. Un router con un único
+ * consumidor exclusivo toma cada evento y lo reenvía a la cola {@code notificaciones.shard.<i>},
+ * con {@code i = usuarioId mod cantidad}. Cada shard tiene su propio container con un único
+ * consumidor activo ({@code x-single-active-consumer}), así que los eventos de un mismo usuario
+ * se procesan siempre en orden, y los distintos shards se procesan en paralelo.
+ * Excepción: un evento que falla vuelve tras su espera por la cola de ingreso (al mismo shard),
+ * detrás de los eventos del usuario que llegaron mientras tanto (ver {@link NotificacionReintentos}).
+ * <p>
+ * El enrutamiento no se hace al publicar (exchange de hash consistente) porque los productores
+ * publican el evento sin el usuario en la routing key ni en los headers.
+ * <p>
+ * Re-particionado: para pasar de N a M shards se despliega con {@code cantidad=M} y
+ * {@code cantidad-anterior=N}. Se consumen las colas de ambos esquemas y el router no arranca
+ * hasta que ningún router anterior consume la cola de ingreso y todas las colas de shard están
+ * vacías, incluidos los mensajes entregados y aún sin confirmar (se consulta la API de
+ * administración, ver {@code app.rabbitmq.management.url}); mientras tanto los eventos nuevos
+ * esperan en la cola de ingreso, por lo que no se pierde ninguno ni se altera el orden por usuario.
+ * <p>
+ * Se activa con {@code app.rabbitmq.shards.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rabbitmq.shards.enabled", havingValue = "true")
+public class RabbitMQShardConfig {
+
+    /** Exchange directo hacia las colas de shard (routing key = número de shard). */
+    public static final String SHARD_EXCHANGE = "notificaciones.shards.exchange";
+    /** Prefijo de las colas de shard. */
+    public static final String SHARD_QUEUE_PREFIX = "notificaciones.shard.";
+    /** Container factory del router de ingreso. */
+    public static final String ROUTER_CONTAINER_FACTORY = "shardRouterContainerFactory";
+    /** Container factory de los consumidores de shard. */
+    public static final String SHARD_CONTAINER_FACTORY = "shardListenerContainerFactory";
+    /** Template transaccional usado por el router. */
+    public static final String SHARD_RABBIT_TEMPLATE = "shardRabbitTemplate";
+
+    /**
+     * Nombre de la cola de un shard.
+     *
+     * @param shard Número de shard.
+     * @return Nombre de la cola.
+     */
+    public static String nombreCola(int shard) {
+        return SHARD_QUEUE_PREFIX + shard;
+    }
+
+    /**
+     * Calcula el shard de un evento. Los eventos sin usuario (broadcasts) van al shard 0.
+     *
+     * @param usuarioId ID del usuario destinatario, o null.
+     * @param cantidad Cantidad de shards.
+     * @return Número de shard en [0, cantidad).
+     */
+    public static int shardDe(Long usuarioId, int cantidad) {
+        return usuarioId == null ? 0 : (int) Math.floorMod(usuarioId, (long) cantidad);
+    }
+
+    /**
+     * Declara el exchange de shards y una cola por shard. Si hay un re-particionado en curso
+     * se declaran también las colas del esquema anterior para poder drenarlas.
+     *
+     * @param cantidad Cantidad de shards.
+     * @param cantidadAnterior Cantidad de shards del esquema anterior (0 si no hay re-particionado).
+     * @return Exchange, colas y bindings.
+     */
+    @Bean
+    public Declarables shardDeclarables(@Value("${app.rabbitmq.shards.cantidad:8}") int cantidad,
+                                        @Value("${app.rabbitmq.shards.cantidad-anterior:0}") int cantidadAnterior) {
+        DirectExchange exchange = new DirectExchange(SHARD_EXCHANGE);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (int shard = 0; shard < Math.max(cantidad, cantidadAnterior); shard++) {
+            Queue cola = QueueBuilder.durable(nombreCola(shard))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(cola);
+            declarables.add(BindingBuilder.bind(cola).to(exchange).with(String.valueOf(shard)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Prefijo de la etiqueta (consumer tag) del router de un esquema. Permite distinguir, desde
+     * la API de administración, si la cola de ingreso la consume un router del esquema anterior.
+     *
+     * @param cantidad Cantidad de shards del esquema.
+     * @return Prefijo de la etiqueta.
+     */
+    public static String etiquetaRouter(int cantidad) {
+        return "notificaciones-router-" + cantidad + "-";
+    }
+
+    /**
+     * Container factory del router: un único consumidor exclusivo sobre la cola de ingreso
+     * (así el orden de ingreso se conserva aun con varias instancias) y canal transaccional,
+     * para que las publicaciones a los shards y los acks se confirmen juntos. Consume en lotes
+     * para pagar una transacción por lote y no una por mensaje. No usa el advice de reintentos:
+     * si un lote falla se revierte entero y vuelve a la cola de ingreso en el mismo orden.
+     *
+     * @param configurer Configurador de Spring Boot.
+     * @param connectionFactory Factory de conexiones RabbitMQ.
+     * @param prefetch Mensajes pre-cargados por el router.
+     * @param lote Cantidad máxima de mensajes por transacción.
+     * @param esperaLoteMs Tiempo máximo de espera para completar un lote, en milisegundos.
+     * @param cantidad Cantidad de shards (forma parte de la etiqueta del consumidor).
+     * @return Container factory del router.
+     */
+    @Bean(ROUTER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory shardRouterContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.rabbitmq.shards.router-prefetch:250}") int prefetch,
+            @Value("${app.rabbitmq.shards.router-lote:100}") int lote,
+            @Value("${app.rabbitmq.shards.router-espera-lote-ms:20}") long esperaLoteMs,
+            @Value("${app.rabbitmq.shards.cantidad:8}") int cantidad) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(Math.max(prefetch, lote));
+        factory.setChannelTransacted(true);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(lote);
+        factory.setContainerCustomizer(container -> {
+            container.setExclusive(true);
+            container.setBatchReceiveTimeout(esperaLoteMs);
+            container.setConsumerTagStrategy(cola -> etiquetaRouter(cantidad) + UUID.randomUUID());
+        });
+        return factory;
+    }
+
+    /**
+     * Template transaccional para el router. Al usarse dentro del listener transaccional
+     * comparte su canal, por lo que las publicaciones solo se confirman junto con los acks del lote.
+     *
+     * @param connectionFactory Factory de conexiones RabbitMQ.
+     * @return RabbitTemplate transaccional.
+     */
+    @Bean(SHARD_RABBIT_TEMPLATE)
+    public RabbitTemplate shardRabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setChannelTransacted(true);
+        return rabbitTemplate;
+    }
+
+    /**
+     * Container factory de los shards: un consumidor por cola, con su propio prefetch.
+     * Si está habilitado el consumo en lotes, cada shard entrega lotes al listener de lotes.
+     *
+     * @param configurer Configurador de Spring Boot.
+     * @param connectionFactory Factory de conexiones RabbitMQ.
+     * @param prefetch Mensajes pre-cargados por shard.
+     * @param batchEnabled Si el consumo en lotes está habilitado.
+     * @param batchSize Cantidad máxima de mensajes por lote.
+     * @param maxWaitMs Tiempo máximo de espera para completar un lote, en milisegundos.
+     * @param metricas Métricas de ingesta.
+     * @param reintentos Advice de reintentos y fallidos.
+     * @return Container factory de los shards.
+     */
+    @Bean(SHARD_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory shardListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.rabbitmq.shards.prefetch:50}") int prefetch,
+            @Value("${app.rabbitmq.batch.enabled:false}") boolean batchEnabled,
+            @Value("${app.rabbitmq.batch.size:100}") int batchSize,
+            @Value("${app.rabbitmq.batch.max-wait-ms:200}") long maxWaitMs,
+            NotificacionMetricas metricas,
+            NotificacionReintentos reintentos) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAdviceChain(reintentos);
+        // El router reenvía el mensaje con su timestamp original: la espera medida acá es de extremo a extremo.
+        factory.setAfterReceivePostProcessors(metricas::registrarEspera);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(batchEnabled ? Math.max(prefetch, batchSize) : prefetch);
+        if (batchEnabled) {
+            factory.setBatchListener(true);
+            factory.setConsumerBatchEnabled(true);
+            factory.setBatchSize(batchSize);
+            factory.setContainerCustomizer(container -> container.setBatchReceiveTimeout(maxWaitMs));
+        }
+        return factory;
+    }
+}
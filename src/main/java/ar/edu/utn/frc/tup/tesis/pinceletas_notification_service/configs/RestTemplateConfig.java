@@ -1,25 +1,34 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 /**
- * Configuración de RestTemplate para llamadas HTTP a servicios externos.
- * Utilizado principalmente para comunicación con el servicio de usuarios.
+ * Configuración de los clientes HTTP para llamadas a servicios externos.
+ * Utilizado principalmente para comunicación con el servicio de usuarios. Las llamadas al
+ * user-service se miden en {@link ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceClient}
+ * (timer {@code notificaciones.user-service} por operación y resultado).
  */
 @Configuration
 public class RestTemplateConfig {
 
     /**
-     * Bean de RestTemplate para realizar peticiones HTTP.
-     * Configuración básica sin autenticación adicional.
+     * Cliente HTTP compartido. Mantiene un pool de conexiones persistentes (keep-alive), por lo
+     * que las llamadas sucesivas al mismo servicio no repiten el handshake TCP+TLS, y admite
+     * llamadas asíncronas.
      *
-     * @return RestTemplate listo para usar.
+     * @param connectTimeout Tiempo máximo para establecer una conexión.
+     * @return HttpClient compartido.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient httpClient(@Value("${app.services.user-auth-service.connect-timeout:PT2S}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
     }
-
 }
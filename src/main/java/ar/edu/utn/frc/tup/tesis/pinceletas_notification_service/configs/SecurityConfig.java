@@ -1,5 +1,6 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
 
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -7,6 +8,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -24,13 +26,16 @@ public class SecurityConfig {
     /**
      * Configura la cadena de filtros de seguridad.
      * Permite acceso público a todos los endpoints de notificaciones y documentación.
+     * Los endpoints administrativos requieren un JWT con rol ADMIN.
      *
      * @param http Configurador de seguridad HTTP.
+     * @param jwtAuthenticationFilter Filtro que autentica el JWT antes de autorizar.
      * @return SecurityFilterChain configurado.
      * @throws Exception Si ocurre error en la configuración.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
@@ -42,8 +47,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/notificaciones/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/notificaciones/**").permitAll()
                         .requestMatchers("/health", "/actuator/health").permitAll()
+                        // Métricas (prometheus, metrics) solo con token: exponen rutas, volúmenes y estado interno
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         return http.build();
@@ -0,0 +1,104 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita cuántos hilos pueden tener una conexión a la vez.
+ * Con hilos virtuales no hay un pool de hilos que acote la concurrencia: miles de
+ * requests pueden pedir una conexión al mismo tiempo. El semáforo (justo, FIFO) hace
+ * que esperen en orden fuera del pool de conexiones, y el permiso se libera al
+ * cerrar (devolver) la conexión.
+ */
+public class SemaforoDataSource extends DelegatingDataSource {
+
+    /** Permisos disponibles: uno por conexión del pool. */
+    private final Semaphore permisos;
+    /** Espera máxima por un permiso antes de fallar. */
+    private final long esperaMaximaMs;
+
+    public SemaforoDataSource(DataSource destino, int maxConcurrentes, Duration esperaMaxima) {
+        super(destino);
+        this.permisos = new Semaphore(maxConcurrentes, true);
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cantidad de hilos esperando un permiso (útil para métricas y pruebas).
+     *
+     * @return Hilos en espera.
+     */
+    public int enEspera() {
+        return permisos.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No se obtuvo una conexión a la base de datos en " + esperaMaximaMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    /** Envuelve la conexión para devolver el permiso exactamente una vez al cerrarla. */
+    private Connection envolver(Connection conexion) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if ("close".equals(metodo.getName())) {
+                        try {
+                            return metodo.invoke(conexion, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            if (liberada.compareAndSet(false, true)) {
+                                permisos.release();
+                            }
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuración del modo de ejecución con hilos virtuales.
+ * Se activa con {@code spring.threads.virtual.enabled=true}: Spring Boot pasa a atender
+ * los requests de Tomcat y las invocaciones de los {@code @RabbitListener} en hilos
+ * virtuales, y {@code UserMappingService} hace las llamadas al user-service también en
+ * hilos virtuales. Como ya no hay un pool de hilos que acote la concurrencia, aquí se
+ * protege el pool de conexiones JDBC con un semáforo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    /**
+     * Envuelve el DataSource de la aplicación en un {@link SemaforoDataSource}.
+     * Por defecto admite tantas conexiones concurrentes como el tamaño del pool de Hikari.
+     *
+     * @param environment Entorno de Spring (el post-processor es estático y se crea antes que los @Value).
+     * @return BeanPostProcessor que aplica el límite.
+     */
+    @Bean
+    public static BeanPostProcessor semaforoDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof SemaforoDataSource) {
+                    return bean;
+                }
+                int maxConcurrentes = environment.getProperty("app.datasource.semaforo.max-concurrentes",
+                        Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration espera = environment.getProperty("app.datasource.semaforo.espera-maxima",
+                        Duration.class, Duration.ofSeconds(30));
+                log.info("🧵 Hilos virtuales activos: DataSource '{}' limitado a {} conexiones concurrentes",
+                        beanName, maxConcurrentes);
+                return new SemaforoDataSource(dataSource, maxConcurrentes, espera);
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.controllers;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceNoDisponibleException;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.ResultadoOperacionMasivaDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionReintentos;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.AdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Controlador REST para operaciones administrativas del servicio.
+ * Requiere rol ADMIN.
+ */
+@RestController
+@RequestMapping("/admin")
+@Tag(name = "Administración", description = "Operaciones administrativas del servicio de notificaciones")
+@RequiredArgsConstructor
+public class AdminController {
+
+    /** Servicio de administradores. */
+    private final AdminService adminService;
+    /** Reintentos y cola de eventos fallidos. */
+    private final NotificacionReintentos notificacionReintentos;
+
+    /**
+     * Obtiene el directorio de administradores en memoria.
+     *
+     * @return IDs de administradores vigentes, o 503 si todavía no se cargó.
+     */
+    @GetMapping("/directorio")
+    @Operation(summary = "Obtener directorio de administradores")
+    public ResponseEntity<List<Long>> obtenerDirectorio() {
+        try {
+            return ResponseEntity.ok(adminService.obtenerIdsDeAdministradores());
+        } catch (UserServiceNoDisponibleException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Fuerza la recarga del directorio de administradores desde el servicio de usuarios.
+     *
+     * @return IDs de administradores tras el refresco.
+     */
+    @PostMapping("/directorio/refrescar")
+    @Operation(summary = "Refrescar directorio de administradores")
+    public ResponseEntity<List<Long>> refrescarDirectorio() {
+        return ResponseEntity.ok(adminService.refrescarDirectorio());
+    }
+
+    /**
+     * Reenvía a la cola de ingreso los eventos de la cola de fallidos (DLQ), con el contador
+     * de intentos reiniciado. Los eventos ya procesados se descartan por deduplicación.
+     *
+     * @param max Cantidad máxima de eventos a reenviar.
+     * @return Cantidad de eventos reenviados.
+     */
+    @PostMapping("/fallidos/reprocesar")
+    @Operation(summary = "Reprocesar eventos fallidos")
+    public ResponseEntity<ResultadoOperacionMasivaDto> reprocesarFallidos(
+            @RequestParam(defaultValue = "1000") int max) {
+        if (max <= 0 || max > 10_000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "max debe estar entre 1 y 10000");
+        }
+        return ResponseEntity.ok(new ResultadoOperacionMasivaDto(notificacionReintentos.reprocesarFallidos(max)));
+    }
+}
@@ -1,5 +1,8 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.controllers;
 
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -9,27 +12,29 @@ import java.util.Map;
 /**
  * Controlador para endpoints de health check y monitoreo.
  * Proporciona endpoints simples para verificar el estado del servicio.
+ * El estado se toma de los health indicators de Actuator (base de datos, RabbitMQ, disco),
+ * que también se exponen completos en {@code /actuator/health}.
  */
 @RestController
 public class HealthController {
 
+    /** Endpoint de Actuator que agrega los health indicators. */
+    private final HealthEndpoint healthEndpoint;
+
+    public HealthController(HealthEndpoint healthEndpoint) {
+        this.healthEndpoint = healthEndpoint;
+    }
+
     /**
      * Endpoint básico de health check.
      *
-     * @return ResponseEntity con estado del servicio.
+     * @return ResponseEntity con estado del servicio (503 si no está UP).
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
-        return ResponseEntity.ok(Map.of("status", "UP", "service", "notification-service"));
-    }
-
-    /**
-     * Endpoint compatible con Spring Boot Actuator para health check.
-     *
-     * @return ResponseEntity con estado del servicio.
-     */
-    @GetMapping("/actuator/health")
-    public ResponseEntity<Map<String, String>> actuatorHealth() {
-        return ResponseEntity.ok(Map.of("status", "UP"));
+        Status status = healthEndpoint.health().getStatus();
+        HttpStatus httpStatus = Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus)
+                .body(Map.of("status", status.getCode(), "service", "notification-service"));
     }
-}
\ No newline at end of file
+}
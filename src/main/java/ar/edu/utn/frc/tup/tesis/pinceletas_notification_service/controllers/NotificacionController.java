@@ -1,18 +1,35 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.controllers;
 
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.OperacionMasivaRequest;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.PaginaNotificacionesDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.ResultadoOperacionMasivaDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.FiltroNotificaciones;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.LecturasDiferidasService;
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.NotificacionService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.NotificacionStreamService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.VersionBandejaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Controlador REST para gestión de notificaciones de usuarios.
  * Proporciona endpoints para obtener, marcar y eliminar notificaciones.
+ * Las consultas devuelven la versión de la bandeja del usuario como ETag y responden
+ * {@code If-None-Match} con 304 sin ejecutar la consulta si la bandeja no cambió.
  */
 @RestController
 @RequestMapping("/notificaciones")
@@ -22,45 +39,147 @@ public class NotificacionController {
 
     /** Servicio de notificaciones para procesar las operaciones. */
     private final NotificacionService notificacionService;
+    /** Servicio de push de notificaciones por SSE. */
+    private final NotificacionStreamService notificacionStreamService;
+    /** Buffer de lecturas diferidas (modo write-behind opcional). */
+    private final LecturasDiferidasService lecturasDiferidasService;
+    /** Versión de la bandeja de cada usuario (ETag). */
+    private final VersionBandejaService versionBandejaService;
 
     /**
      * Obtiene todas las notificaciones de un usuario, ordenadas por fecha de creación descendente.
+     * Carga el historial completo; para listas grandes usar {@link #obtenerPaginaNotificaciones}.
      *
      * @param usuarioId ID del usuario.
-     * @return Lista de NotificacionDto con todas las notificaciones del usuario.
+     * @param request Request (para el If-None-Match).
+     * @return Lista de NotificacionDto con todas las notificaciones del usuario, o 304 si no cambió.
      */
     @GetMapping("/usuario/{usuarioId}")
-    @Operation(summary = "Obtener todas las notificaciones de un usuario")
-    public ResponseEntity<List<NotificacionDto>> obtenerNotificacionesPorUsuario(@PathVariable Long usuarioId) {
-        return ResponseEntity.ok(notificacionService.obtenerNotificacionesPorUsuario(usuarioId));
+    @Operation(summary = "Obtener todas las notificaciones de un usuario", deprecated = true)
+    public ResponseEntity<List<NotificacionDto>> obtenerNotificacionesPorUsuario(@PathVariable Long usuarioId,
+                                                                                 WebRequest request) {
+        return condicional(usuarioId, request, () -> notificacionService.obtenerNotificacionesPorUsuario(usuarioId));
     }
 
     /**
      * Obtiene las notificaciones no leídas de un usuario.
+     * Carga todas las no leídas; para listas grandes usar {@link #obtenerPaginaNoLeidas}.
      *
      * @param usuarioId ID del usuario.
-     * @return Lista de NotificacionDto con notificaciones no leídas.
+     * @param request Request (para el If-None-Match).
+     * @return Lista de NotificacionDto con notificaciones no leídas, o 304 si no cambió.
      */
     @GetMapping("/usuario/{usuarioId}/no-leidas")
-    @Operation(summary = "Obtener notificaciones no leídas de un usuario")
-    public ResponseEntity<List<NotificacionDto>> obtenerNoLeidas(@PathVariable Long usuarioId) {
-        return ResponseEntity.ok(notificacionService.obtenerNotificacionesNoLeidas(usuarioId));
+    @Operation(summary = "Obtener notificaciones no leídas de un usuario", deprecated = true)
+    public ResponseEntity<List<NotificacionDto>> obtenerNoLeidas(@PathVariable Long usuarioId, WebRequest request) {
+        return condicional(usuarioId, request, () -> notificacionService.obtenerNotificacionesNoLeidas(usuarioId));
+    }
+
+    /**
+     * Obtiene una página del feed de notificaciones de un usuario (paginación por cursor).
+     *
+     * @param usuarioId ID del usuario.
+     * @param cursor Cursor devuelto por la página anterior (omitir para la primera página).
+     * @param limite Tamaño de página (acotado al máximo configurado).
+     * @param request Request (para el If-None-Match).
+     * @return Página de notificaciones con el cursor siguiente, o 304 si no cambió.
+     */
+    @GetMapping("/usuario/{usuarioId}/pagina")
+    @Operation(summary = "Obtener una página de notificaciones de un usuario")
+    public ResponseEntity<PaginaNotificacionesDto> obtenerPaginaNotificaciones(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
+        return condicional(usuarioId, request,
+                () -> notificacionService.obtenerPaginaNotificaciones(usuarioId, cursor, limite));
+    }
+
+    /**
+     * Obtiene una página de notificaciones no leídas de un usuario (paginación por cursor).
+     *
+     * @param usuarioId ID del usuario.
+     * @param cursor Cursor devuelto por la página anterior (omitir para la primera página).
+     * @param limite Tamaño de página (acotado al máximo configurado).
+     * @param request Request (para el If-None-Match).
+     * @return Página de notificaciones no leídas con el cursor siguiente, o 304 si no cambió.
+     */
+    @GetMapping("/usuario/{usuarioId}/no-leidas/pagina")
+    @Operation(summary = "Obtener una página de notificaciones no leídas de un usuario")
+    public ResponseEntity<PaginaNotificacionesDto> obtenerPaginaNoLeidas(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
+        return condicional(usuarioId, request,
+                () -> notificacionService.obtenerPaginaNoLeidas(usuarioId, cursor, limite));
+    }
+
+    /**
+     * Abre un stream SSE con las notificaciones nuevas y los cambios del contador de no leídas.
+     * Si el cliente reconecta con Last-Event-ID, primero recibe las notificaciones que se perdió.
+     *
+     * @param usuarioId ID del usuario.
+     * @param ultimoEventoId Header Last-Event-ID enviado por el navegador al reconectar.
+     * @return SseEmitter de la conexión.
+     */
+    @GetMapping(value = "/usuario/{usuarioId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream SSE de notificaciones de un usuario")
+    public SseEmitter stream(@PathVariable Long usuarioId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return notificacionStreamService.suscribir(
+                usuarioId,
+                notificacionService.obtenerPosterioresA(usuarioId, ultimoEventoId),
+                notificacionService.contarNotificacionesNoLeidas(usuarioId));
+    }
+
+    /**
+     * Obtiene una página de notificaciones de un usuario filtradas por tipo, estado y/o un
+     * par clave/valor de la metadata (p. ej. {@code clave=pedidoId&valor=123}).
+     *
+     * @param usuarioId ID del usuario.
+     * @param tipo Tipo de notificación (opcional).
+     * @param estado Estado de lectura, NO_LEIDA o LEIDA (opcional).
+     * @param clave Clave de primer nivel de la metadata (opcional, requiere valor).
+     * @param valor Valor de la clave de metadata.
+     * @param cursor Cursor opaco devuelto por la página anterior (omitir en la primera).
+     * @param limite Tamaño de página (acotado al máximo configurado).
+     * @param request Request (para el If-None-Match).
+     * @return Página de notificaciones filtradas con el cursor siguiente, o 304 si no cambió.
+     */
+    @GetMapping("/usuario/{usuarioId}/filtro")
+    @Operation(summary = "Filtrar notificaciones de un usuario por tipo, estado o metadata")
+    public ResponseEntity<PaginaNotificacionesDto> filtrarNotificaciones(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String clave,
+            @RequestParam(required = false) String valor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            WebRequest request) {
+        FiltroNotificaciones filtro = new FiltroNotificaciones(tipo, estado, clave, valor);
+        return condicional(usuarioId, request,
+                () -> notificacionService.filtrarNotificaciones(usuarioId, filtro, cursor, limite));
     }
 
     /**
      * Obtiene el contador de notificaciones no leídas de un usuario.
      *
      * @param usuarioId ID del usuario.
-     * @return Número de notificaciones no leídas.
+     * @param request Request (para el If-None-Match).
+     * @return Número de notificaciones no leídas, o 304 si no cambió.
      */
     @GetMapping("/usuario/{usuarioId}/contador-no-leidas")
     @Operation(summary = "Obtener contador de notificaciones no leídas")
-    public ResponseEntity<Long> contarNoLeidas(@PathVariable Long usuarioId) {
-        return ResponseEntity.ok(notificacionService.contarNotificacionesNoLeidas(usuarioId));
+    public ResponseEntity<Long> contarNoLeidas(@PathVariable Long usuarioId, WebRequest request) {
+        return condicional(usuarioId, request, () -> notificacionService.contarNotificacionesNoLeidas(usuarioId));
     }
 
     /**
      * Marca una notificación específica como leída.
+     * Con lecturas diferidas habilitadas, responde apenas registra la lectura en memoria;
+     * la propiedad se verifica al persistirla (una notificación ajena no se modifica).
      *
      * @param id ID de la notificación.
      * @param usuarioId ID del usuario (para validación de propiedad).
@@ -68,6 +187,10 @@ public class NotificacionController {
     @PutMapping("/{id}/usuario/{usuarioId}/leer")
     @Operation(summary = "Marcar notificación como leída")
     public ResponseEntity<Void> marcarComoLeida(@PathVariable Long id, @PathVariable Long usuarioId) {
+        if (lecturasDiferidasService.habilitado()) {
+            lecturasDiferidasService.registrar(id, usuarioId);
+            return ResponseEntity.ok().build();
+        }
         notificacionService.marcarComoLeida(id, usuarioId);
         return ResponseEntity.ok().build();
     }
@@ -84,6 +207,50 @@ public class NotificacionController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Marca varias notificaciones de un usuario como leídas en una sola operación.
+     *
+     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @param request IDs de las notificaciones.
+     * @return Cantidad de notificaciones que pasaron a leídas.
+     */
+    @PutMapping("/usuario/{usuarioId}/leer")
+    @Operation(summary = "Marcar varias notificaciones como leídas")
+    public ResponseEntity<ResultadoOperacionMasivaDto> marcarComoLeidas(@PathVariable Long usuarioId,
+                                                                        @RequestBody OperacionMasivaRequest request) {
+        return ResponseEntity.ok(notificacionService.marcarComoLeidas(request.getIds(), usuarioId));
+    }
+
+    /**
+     * Elimina varias notificaciones de un usuario en una sola operación.
+     * Se expone como POST porque DELETE con cuerpo no está bien soportado por todos los clientes.
+     *
+     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @param request IDs de las notificaciones.
+     * @return Cantidad de notificaciones eliminadas.
+     */
+    @PostMapping("/usuario/{usuarioId}/eliminar")
+    @Operation(summary = "Eliminar varias notificaciones")
+    public ResponseEntity<ResultadoOperacionMasivaDto> eliminarNotificaciones(@PathVariable Long usuarioId,
+                                                                              @RequestBody OperacionMasivaRequest request) {
+        return ResponseEntity.ok(notificacionService.eliminarNotificaciones(request.getIds(), usuarioId));
+    }
+
+    /**
+     * Elimina las notificaciones leídas de un usuario creadas antes de una fecha.
+     *
+     * @param usuarioId ID del usuario.
+     * @param antesDe Fecha de creación límite (exclusiva), en formato ISO.
+     * @return Cantidad de notificaciones eliminadas.
+     */
+    @DeleteMapping("/usuario/{usuarioId}/leidas")
+    @Operation(summary = "Eliminar notificaciones leídas anteriores a una fecha")
+    public ResponseEntity<ResultadoOperacionMasivaDto> eliminarLeidasAnterioresA(
+            @PathVariable Long usuarioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDe) {
+        return ResponseEntity.ok(notificacionService.eliminarLeidasAnterioresA(usuarioId, antesDe));
+    }
+
     /**
      * Elimina una notificación específica de un usuario.
      *
@@ -97,6 +264,26 @@ public class NotificacionController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Responde una consulta de la bandeja con su versión como ETag, o 304 si el cliente ya
+     * tiene esa versión. La versión se lee antes de consultar, así nunca es más nueva que los datos.
+     *
+     * @param usuarioId ID del usuario.
+     * @param request Request (para el If-None-Match).
+     * @param consulta Consulta a ejecutar solo si la bandeja cambió.
+     * @return Respuesta 200 con ETag, o 304.
+     */
+    private <T> ResponseEntity<T> condicional(Long usuarioId, WebRequest request, Supplier<T> consulta) {
+        String etag = versionBandejaService.etag(usuarioId);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(consulta.get());
+    }
+
     //    // 🔥 NUEVO: Endpoint para crear notificaciones manualmente (útil para testing)
     //    @PostMapping
     //    @Operation(summary = "Crear notificación manualmente")
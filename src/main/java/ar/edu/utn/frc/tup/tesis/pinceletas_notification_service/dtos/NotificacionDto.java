@@ -32,7 +32,10 @@ public class NotificacionDto {
     private LocalDateTime fechaCreacion;
     /** Fecha y hora de lectura de la notificación (null si no leída). */
     private LocalDateTime fechaLectura;
-
+    /** Cantidad de eventos agrupados en la notificación (null si no es agrupada). */
+    private Integer ocurrencias;
+    /** Fecha y hora de la última ocurrencia agrupada (null si no es agrupada). */
+    private LocalDateTime fechaUltimaOcurrencia;
 
 }
 
@@ -0,0 +1,20 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para operaciones sobre varias notificaciones de un usuario a la vez
+ * (marcar como leídas o eliminar).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacionMasivaRequest {
+
+    /** IDs de las notificaciones (directas o broadcasts) sobre las que operar. */
+    private List<Long> ids;
+}
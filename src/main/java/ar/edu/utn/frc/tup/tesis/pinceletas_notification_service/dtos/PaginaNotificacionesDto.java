@@ -0,0 +1,24 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para una página del feed de notificaciones paginado por cursor.
+ * El cursor es opaco para el cliente: se envía tal cual para pedir la página siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaNotificacionesDto {
+
+    /** Notificaciones de la página, ordenadas por fecha de creación descendente. */
+    private List<NotificacionDto> notificaciones;
+    /** Cursor para obtener la página siguiente (null si no hay más resultados). */
+    private String siguienteCursor;
+    /** Indica si existen más notificaciones después de esta página. */
+    private boolean hayMas;
+}
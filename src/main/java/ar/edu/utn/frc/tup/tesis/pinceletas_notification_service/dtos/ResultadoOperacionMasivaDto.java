@@ -0,0 +1,17 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de una operación masiva sobre notificaciones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoOperacionMasivaDto {
+
+    /** Cantidad de notificaciones efectivamente afectadas por la operación. */
+    private int afectadas;
+}
@@ -0,0 +1,89 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Vista de solo lectura de la bandeja de un usuario.
+ * Une las notificaciones directas con los broadcasts recibidos, de modo que las consultas de
+ * lectura y conteo cubren ambos casos. Postgres empuja los filtros por usuario a cada rama
+ * del UNION ALL, que usan sus propios índices (usuario_id, fecha_creacion, id).
+ */
+@Entity
+@Immutable
+@Subselect("""
+        SELECT n.id, n.usuario_id, n.titulo, n.mensaje, n.tipo, n.estado, n.metadata,
+               n.fecha_creacion, n.fecha_lectura, n.ocurrencias, n.fecha_ultima_ocurrencia, FALSE AS broadcast
+        FROM notificaciones n
+        UNION ALL
+        SELECT b.id, r.usuario_id, b.titulo, b.mensaje, b.tipo, r.estado, b.metadata,
+               r.fecha_creacion, r.fecha_lectura, NULL::integer, NULL::timestamp, TRUE AS broadcast
+        FROM notificaciones_receptores r
+        JOIN notificaciones_broadcast b ON b.id = r.broadcast_id
+        """)
+@Synchronize({"notificaciones", "notificaciones_receptores", "notificaciones_broadcast"})
+@IdClass(BandejaNotificacionEntity.Clave.class)
+@Data
+@NoArgsConstructor
+public class BandejaNotificacionEntity {
+
+    /** ID de la notificación directa o del broadcast. */
+    @Id
+    private Long id;
+
+    /** ID del usuario dueño de la fila (un broadcast aparece una vez por destinatario). */
+    @Id
+    private Long usuarioId;
+
+    /** Título de la notificación. */
+    private String titulo;
+
+    /** Mensaje detallado de la notificación. */
+    private String mensaje;
+
+    /** Tipo de notificación. */
+    @Convert(converter = TipoNotificacionConverter.class)
+    private String tipo;
+
+    /** Estado de lectura del usuario. */
+    @Convert(converter = EstadoNotificacionConverter.class)
+    private String estado;
+
+    /** Metadatos adicionales en formato JSON. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String metadata;
+
+    /** Fecha y hora de creación. */
+    private LocalDateTime fechaCreacion;
+
+    /** Fecha y hora de lectura del usuario (null si no leída). */
+    private LocalDateTime fechaLectura;
+
+    /** Ocurrencias de una notificación agrupada (null en las demás y en los broadcasts). */
+    private Integer ocurrencias;
+
+    /** Última ocurrencia de una notificación agrupada (null en las demás y en los broadcasts). */
+    private LocalDateTime fechaUltimaOcurrencia;
+
+    /** Indica si la fila proviene de un broadcast. */
+    private boolean broadcast;
+
+    /** Clave de la vista: (id, usuarioId). */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Long id;
+        private Long usuarioId;
+    }
+}
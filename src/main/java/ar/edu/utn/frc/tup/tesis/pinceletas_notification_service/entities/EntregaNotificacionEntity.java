@@ -0,0 +1,96 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que registra la entrega saliente de una notificación a un destinatario por un canal
+ * (email, webhook) y su estado de reintentos.
+ * Guarda una copia del contenido: los reintentos no dependen de que la notificación siga
+ * existiendo. La restricción única hace idempotente el registro de cada entrega.
+ * La escribe y la lee {@code EntregasService} con JDBC.
+ */
+@Entity
+@Table(name = "notificaciones_entregas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_entregas_notificacion_canal",
+                columnNames = {"notificacion_id", "broadcast", "usuario_id", "canal"}),
+        indexes = {
+                // Barrido de entregas pendientes vencidas por canal
+                @Index(name = "idx_entregas_pendientes", columnList = "estado, canal, proximo_intento")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntregaNotificacionEntity {
+
+    /** Identificador de la entrega (generado por la base, se inserta con JDBC). */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** ID de la notificación directa o del broadcast. */
+    @Column(nullable = false)
+    private Long notificacionId;
+
+    /** Indica si la notificación es un broadcast (sus IDs son de otra secuencia). */
+    @Column(nullable = false)
+    private boolean broadcast;
+
+    /** ID del usuario destinatario. */
+    @Column(nullable = false)
+    private Long usuarioId;
+
+    /** Canal de entrega (EMAIL, WEBHOOK). */
+    @Column(nullable = false, length = 20)
+    private String canal;
+
+    /** Tipo de notificación. Se guarda su código. */
+    @Convert(converter = TipoNotificacionConverter.class)
+    @Column(nullable = false)
+    private String tipo;
+
+    /** Título de la notificación. */
+    @Column(nullable = false)
+    private String titulo;
+
+    /** Mensaje de la notificación. */
+    @Column(nullable = false, length = 1000)
+    private String mensaje;
+
+    /** Metadatos de la notificación (columna jsonb). */
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String metadata;
+
+    /** Estado de la entrega: PENDIENTE, ENVIADA o FALLIDA (agotó los intentos). */
+    @Column(nullable = false, length = 20)
+    private String estado;
+
+    /** Intentos de envío realizados. */
+    @Column(nullable = false)
+    private int intentos;
+
+    /** Momento a partir del cual la entrega pendiente puede volver a tomarse. */
+    @Column(nullable = false)
+    private LocalDateTime proximoIntento;
+
+    /** Último error de envío (null si no falló). */
+    @Column(length = 500)
+    private String ultimoError;
+
+    /** Fecha de creación de la notificación. */
+    @Column(nullable = false)
+    private LocalDateTime fechaNotificacion;
+
+    /** Fecha de registro de la entrega. */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /** Fecha del envío exitoso (null si no se envió). */
+    private LocalDateTime fechaEnvio;
+}
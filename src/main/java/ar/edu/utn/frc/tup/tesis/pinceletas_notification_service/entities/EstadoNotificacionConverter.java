@@ -0,0 +1,62 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda el estado de lectura como un código smallint en lugar de texto.
+ * En Java el estado sigue siendo "NO_LEIDA" / "LEIDA" (DTOs, JPQL y API no cambian);
+ * Hibernate aplica el conversor también a los literales y parámetros de las consultas.
+ * Las sentencias SQL nativas usan {@link #CODIGO_NO_LEIDA} y {@link #CODIGO_LEIDA}.
+ */
+@Converter
+public class EstadoNotificacionConverter implements AttributeConverter<String, Short> {
+
+    public static final String NO_LEIDA = "NO_LEIDA";
+    public static final String LEIDA = "LEIDA";
+
+    /** Código de NO_LEIDA en la base. */
+    public static final short CODIGO_NO_LEIDA = 0;
+    /** Código de LEIDA en la base. */
+    public static final short CODIGO_LEIDA = 1;
+
+    @Override
+    public Short convertToDatabaseColumn(String estado) {
+        return estado == null ? null : codigo(estado);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : nombre(codigo);
+    }
+
+    /**
+     * Obtiene el código de un estado.
+     *
+     * @param estado Nombre del estado.
+     * @return Código del estado.
+     * @throws IllegalArgumentException si el estado no existe.
+     */
+    public static short codigo(String estado) {
+        return switch (estado) {
+            case NO_LEIDA -> CODIGO_NO_LEIDA;
+            case LEIDA -> CODIGO_LEIDA;
+            default -> throw new IllegalArgumentException("Estado de notificación desconocido: " + estado);
+        };
+    }
+
+    /**
+     * Obtiene el nombre de un código de estado.
+     *
+     * @param codigo Código guardado en la base.
+     * @return Nombre del estado.
+     * @throws IllegalArgumentException si el código no existe.
+     */
+    public static String nombre(short codigo) {
+        return switch (codigo) {
+            case CODIGO_NO_LEIDA -> NO_LEIDA;
+            case CODIGO_LEIDA -> LEIDA;
+            default -> throw new IllegalArgumentException("Código de estado desconocido: " + codigo);
+        };
+    }
+}
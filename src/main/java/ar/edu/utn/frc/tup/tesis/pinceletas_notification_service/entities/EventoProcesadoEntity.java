@@ -0,0 +1,33 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que registra la clave de deduplicación de cada evento ya ingerido.
+ * La clave primaria es la restricción única que garantiza que un evento reentregado
+ * no genere notificaciones duplicadas. Las filas se purgan al vencer la ventana de
+ * deduplicación.
+ */
+@Entity
+@Table(name = "notificaciones_eventos_procesados", indexes = {
+        @Index(name = "idx_eventos_procesados_fecha", columnList = "fecha_procesado")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoProcesadoEntity {
+
+    /** Clave de deduplicación (ID del mensaje o hash del contenido del evento). */
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    /** Fecha en que se procesó el evento por primera vez. */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fechaProcesado;
+}
@@ -0,0 +1,68 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa el contenido de una notificación enviada a varios destinatarios.
+ * El contenido se guarda una sola vez; cada destinatario tiene un {@link NotificacionReceptorEntity}.
+ * Los IDs salen de la misma secuencia que {@link NotificacionEntity}, por lo que un ID
+ * identifica sin ambigüedad a una notificación directa o a un broadcast.
+ */
+@Entity
+@Table(name = "notificaciones_broadcast")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacionBroadcastEntity {
+
+    /** Identificador único, compartido con el espacio de IDs de notificaciones directas. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificaciones_broadcast_seq")
+    @SequenceGenerator(name = "notificaciones_broadcast_seq", sequenceName = "notificaciones_seq", allocationSize = 50)
+    private Long id;
+
+    /** Título de la notificación. No puede ser nulo. */
+    @Column(nullable = false)
+    private String titulo;
+
+    /** Mensaje detallado de la notificación. Longitud máxima 1000 caracteres. */
+    @Column(nullable = false, length = 1000)
+    private String mensaje;
+
+    /** Tipo de notificación (NUEVO_PEDIDO, NUEVO_REGISTRO, etc.). Se guarda su código. */
+    @Convert(converter = TipoNotificacionConverter.class)
+    @Column(nullable = false)
+    private String tipo;
+
+    /** Metadatos adicionales en formato JSON (columna jsonb). */
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String metadata;
+
+    /** Fecha y hora de creación automática (timestamp). */
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Constructor para crear broadcasts fácilmente sin ID ni fecha.
+     *
+     * @param titulo Título de la notificación.
+     * @param mensaje Mensaje detallado.
+     * @param tipo Tipo de notificación.
+     * @param metadata Metadatos adicionales.
+     */
+    public NotificacionBroadcastEntity(String titulo, String mensaje, String tipo, String metadata) {
+        this.titulo = titulo;
+        this.mensaje = mensaje;
+        this.tipo = tipo;
+        this.metadata = metadata;
+    }
+}
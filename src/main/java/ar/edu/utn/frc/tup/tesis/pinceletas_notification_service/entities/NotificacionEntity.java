@@ -5,23 +5,42 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 /**
  * Entidad que representa una notificación en el sistema.
  * Almacena información de notificaciones para usuarios con estado de lectura.
+ * En la base la tabla está particionada por mes de {@code fecha_creacion} y, dentro de cada
+ * mes, por {@code retencion_dias}; ver {@code ParticionesService}.
+ * El tipo y el estado se guardan como códigos smallint y la metadata como JSONB (con un
+ * índice GIN para filtrar por sus claves).
+ * Los tipos repetitivos se acumulan en una única fila por ventana ({@code ocurrencias} no nulo),
+ * única por (usuario_id, tipo, fecha_creacion, retencion_dias); ver {@code PoliticaAgrupacion}.
  */
 @Entity
-@Table(name = "notificaciones")
+@Table(name = "notificaciones", indexes = {
+        // Índices para paginación keyset: cada página es un range scan acotado sobre (fecha_creacion, id)
+        @Index(name = "idx_notificaciones_usuario_fecha_id",
+                columnList = "usuario_id, fecha_creacion DESC, id DESC"),
+        @Index(name = "idx_notificaciones_usuario_estado_fecha_id",
+                columnList = "usuario_id, estado, fecha_creacion DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class NotificacionEntity {
 
-    /** Identificador único de la notificación en la base de datos. */
+    /**
+     * Identificador único de la notificación en la base de datos.
+     * Se genera desde una secuencia con asignación en bloques (pooled) para que
+     * Hibernate pueda agrupar los INSERT en lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificaciones_seq")
+    @SequenceGenerator(name = "notificaciones_seq", sequenceName = "notificaciones_seq", allocationSize = 50)
     private Long id;
 
     /** Título de la notificación. No puede ser nulo. */
@@ -32,11 +51,13 @@ public class NotificacionEntity {
     @Column(nullable = false, length = 1000)
     private String mensaje;
 
-    /** Tipo de notificación (INICIO_SESION, BIENVENIDA_REGISTRO, etc.). */
+    /** Tipo de notificación (INICIO_SESION, BIENVENIDA_REGISTRO, etc.). Se guarda su código. */
+    @Convert(converter = TipoNotificacionConverter.class)
     @Column(nullable = false)
     private String tipo;
 
-    /** Estado de lectura. Por defecto "NO_LEIDA". */
+    /** Estado de lectura. Por defecto "NO_LEIDA". Se guarda su código. */
+    @Convert(converter = EstadoNotificacionConverter.class)
     @Column(nullable = false)
     private String estado = "NO_LEIDA";
 
@@ -44,7 +65,8 @@ public class NotificacionEntity {
     @Column(nullable = false)
     private Long usuarioId;
 
-    /** Metadatos adicionales en formato JSON. */
+    /** Metadatos adicionales en formato JSON (columna jsonb). */
+    @JdbcTypeCode(SqlTypes.JSON)
     private String metadata;
 
     /** Fecha y hora de creación automática (timestamp). */
@@ -55,6 +77,23 @@ public class NotificacionEntity {
     /** Fecha y hora de lectura (null si no ha sido leída). */
     private LocalDateTime fechaLectura;
 
+    /**
+     * Días de retención según el tipo, fijados al crear la notificación.
+     * Es la clave de sub-partición: las filas de un mes con la misma retención
+     * expiran juntas y se eliminan descartando su partición.
+     */
+    @Column(nullable = false, updatable = false)
+    private Integer retencionDias;
+
+    /**
+     * Cantidad de eventos acumulados en una notificación agrupada (null si no es agrupada).
+     * En las agrupadas, {@code fechaCreacion} es el inicio de su ventana de agrupación.
+     */
+    private Integer ocurrencias;
+
+    /** Fecha y hora de la última ocurrencia acumulada (null si no es agrupada). */
+    private LocalDateTime fechaUltimaOcurrencia;
+
     /**
      * Constructor para crear notificaciones fácilmente sin ID ni fechas.
      *
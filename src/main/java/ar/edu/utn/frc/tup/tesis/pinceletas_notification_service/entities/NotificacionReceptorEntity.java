@@ -0,0 +1,60 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa la recepción de un broadcast por un usuario.
+ * Fila compacta con el estado de lectura por destinatario; el contenido vive en
+ * {@link NotificacionBroadcastEntity}. La fecha de creación se copia del broadcast
+ * para que los índices por usuario soporten la paginación keyset.
+ */
+@Entity
+@Table(name = "notificaciones_receptores", indexes = {
+        @Index(name = "idx_receptores_usuario_fecha_id",
+                columnList = "usuario_id, fecha_creacion DESC, broadcast_id DESC"),
+        @Index(name = "idx_receptores_usuario_estado_fecha_id",
+                columnList = "usuario_id, estado, fecha_creacion DESC, broadcast_id DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacionReceptorEntity {
+
+    /** Clave compuesta (broadcast, usuario). */
+    @EmbeddedId
+    private Clave id;
+
+    /** Estado de lectura. Por defecto "NO_LEIDA". Se guarda su código. */
+    @Convert(converter = EstadoNotificacionConverter.class)
+    @Column(nullable = false)
+    private String estado = "NO_LEIDA";
+
+    /** Fecha de creación del broadcast (copiada para ordenar por usuario). */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /** Fecha y hora de lectura (null si no ha sido leída). */
+    private LocalDateTime fechaLectura;
+
+    /** Clave compuesta de la recepción. */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+
+        /** ID del broadcast recibido. */
+        @Column(nullable = false)
+        private Long broadcastId;
+
+        /** ID del usuario destinatario. */
+        @Column(nullable = false)
+        private Long usuarioId;
+    }
+}
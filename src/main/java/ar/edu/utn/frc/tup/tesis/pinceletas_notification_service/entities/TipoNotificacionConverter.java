@@ -0,0 +1,32 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.CatalogoTiposNotificacion;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Guarda el tipo de notificación como el código smallint de {@link TipoNotificacionEntity}.
+ * En Java el tipo sigue siendo su nombre; la traducción se resuelve en memoria con el catálogo.
+ * Es un bean de Spring para que Hibernate lo obtenga con el catálogo inyectado.
+ */
+@Component
+@Converter
+public class TipoNotificacionConverter implements AttributeConverter<String, Short> {
+
+    private final CatalogoTiposNotificacion catalogo;
+
+    public TipoNotificacionConverter(CatalogoTiposNotificacion catalogo) {
+        this.catalogo = catalogo;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String tipo) {
+        return tipo == null ? null : catalogo.codigo(tipo);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : catalogo.nombre(codigo);
+    }
+}
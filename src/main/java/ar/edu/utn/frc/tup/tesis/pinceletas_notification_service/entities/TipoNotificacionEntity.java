@@ -0,0 +1,28 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad del catálogo de tipos de notificación.
+ * Las notificaciones guardan el código smallint del tipo en lugar del nombre; el catálogo se
+ * mantiene en memoria ({@code CatalogoTiposNotificacion}) y crece solo cuando llega un tipo nuevo.
+ */
+@Entity
+@Table(name = "notificaciones_tipos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TipoNotificacionEntity {
+
+    /** Código del tipo, guardado en cada notificación. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short codigo;
+
+    /** Nombre del tipo (INICIO_SESION, NUEVO_PEDIDO, etc.). */
+    @Column(nullable = false, unique = true)
+    private String nombre;
+}
@@ -0,0 +1,24 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Aviso entre instancias de que cambió la bandeja de algunos usuarios.
+ * Cada instancia avanza la versión (ETag) de esos usuarios para no responder 304 con datos viejos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BandejaModificadaEvent {
+
+    /** Instancia que hizo el cambio (la propia ignora su aviso). */
+    private String instancia;
+    /** IDs de los usuarios cuya bandeja cambió. */
+    private List<Long> usuarioIds;
+    /** Indica un cambio que puede afectar a cualquier usuario. */
+    private boolean todas;
+}
@@ -0,0 +1,37 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.VersionBandejaService;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recibe los avisos de cambios de bandeja de las demás instancias.
+ * Cada instancia consume una cola anónima propia (exclusiva, se borra al desconectarse)
+ * enlazada al exchange fanout, así todas reciben todos los avisos.
+ */
+@Component
+public class BandejaModificadaListener {
+
+    private final VersionBandejaService versionBandejaService;
+
+    public BandejaModificadaListener(VersionBandejaService versionBandejaService) {
+        this.versionBandejaService = versionBandejaService;
+    }
+
+    /**
+     * Aplica un aviso de cambio a las versiones locales.
+     *
+     * @param event Aviso de cambio.
+     */
+    @RabbitListener(bindings = @QueueBinding(value = @Queue,
+            exchange = @Exchange(value = RabbitMQConfig.BANDEJA_EXCHANGE, type = ExchangeTypes.FANOUT)),
+            containerFactory = RabbitMQConfig.BANDEJA_CONTAINER_FACTORY)
+    public void recibir(BandejaModificadaEvent event) {
+        versionBandejaService.aplicar(event);
+    }
+}
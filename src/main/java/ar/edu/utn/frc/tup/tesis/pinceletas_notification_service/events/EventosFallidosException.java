@@ -0,0 +1,23 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import java.util.List;
+
+/**
+ * Indica qué eventos de un lote fallaron después de reintentarlos uno por uno.
+ * {@link NotificacionReintentos} la usa para derivar a reintento solo esos mensajes
+ * y confirmar el resto del lote.
+ */
+public class EventosFallidosException extends RuntimeException {
+
+    /** Posiciones de los eventos fallidos dentro del lote recibido. */
+    private final List<Integer> indices;
+
+    public EventosFallidosException(List<Integer> indices, Throwable causa) {
+        super(indices.size() + " eventos del lote fallaron", causa);
+        this.indices = List.copyOf(indices);
+    }
+
+    public List<Integer> getIndices() {
+        return indices;
+    }
+}
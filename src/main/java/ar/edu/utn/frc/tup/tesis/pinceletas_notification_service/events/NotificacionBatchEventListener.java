@@ -0,0 +1,234 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceNoDisponibleException;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.CrearNotificacionRequest;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.AdminService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.CrearNotificacionDesdeEvento;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.NotificacionService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.ResultadoLote;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumidor de eventos de notificación en lotes desde RabbitMQ.
+ * Recibe varios eventos por entrega, los persiste en una única transacción
+ * con inserts agrupados y confirma el lote completo.
+ * Se activa con {@code app.rabbitmq.batch.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rabbitmq.batch.enabled", havingValue = "true")
+public class NotificacionBatchEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionBatchEventListener.class);
+
+    /** Servicio de notificaciones para almacenamiento. */
+    private final NotificacionService notificacionService;
+    /** Servicio de administradores para notificaciones broadcast. */
+    private final AdminService adminService;
+    /** Métricas de ingesta. */
+    private final NotificacionMetricas metricas;
+
+    public NotificacionBatchEventListener(NotificacionService notificacionService,
+                                          AdminService adminService,
+                                          NotificacionMetricas metricas) {
+        this.notificacionService = notificacionService;
+        this.adminService = adminService;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Escucha y procesa un lote de eventos de notificación.
+     * Si el lote completo falla, reintenta evento por evento para aislar
+     * el mensaje problemático sin perder el resto del lote; los eventos que siguen fallando
+     * se informan con {@link EventosFallidosException} para que {@link NotificacionReintentos}
+     * derive solo esos mensajes.
+     * Si el directorio de administradores todavía no se cargó, los eventos ADMIN del lote se
+     * informan como fallidos (se reintentan) y el resto del lote se procesa igual.
+     *
+     * Con shards habilitados este container no arranca y los lotes llegan por
+     * {@link NotificacionShardListenerConfigurer}.
+     *
+     * @param eventos Lote de eventos recibidos.
+     */
+    @RabbitListener(queues = RabbitMQConfig.QUEUE, containerFactory = RabbitMQConfig.BATCH_CONTAINER_FACTORY,
+            autoStartup = "#{!${app.rabbitmq.shards.enabled:false}}")
+    public void recibirLoteNotificaciones(List<NotificacionEvent> eventos) {
+        log.info("🎯 Lote recibido de RabbitMQ - Eventos: {}", eventos.size());
+        Timer.Sample muestra = metricas.iniciar();
+        metricas.registrarLote(eventos.size());
+
+        List<CrearNotificacionRequest> directas = new ArrayList<>(eventos.size());
+        List<CrearNotificacionRequest> broadcasts = new ArrayList<>();
+        Map<CrearNotificacionRequest, Integer> posiciones = new IdentityHashMap<>(eventos.size());
+        clasificar(eventos, directas, broadcasts, posiciones);
+        List<Long> adminUserIds = List.of();
+        EventosFallidosException aplazados = null;
+        if (!broadcasts.isEmpty()) {
+            try {
+                adminUserIds = adminService.obtenerIdsDeAdministradores();
+            } catch (UserServiceNoDisponibleException e) {
+                log.warn("⏳ {}: se reintentan {} eventos ADMIN del lote", e.getMessage(), broadcasts.size());
+                aplazados = aplazar(broadcasts, posiciones, e);
+                broadcasts = List.of();
+            }
+        }
+
+        try {
+            ResultadoLote resultado = notificacionService.procesarLote(directas, broadcasts, adminUserIds);
+            contarEventos(directas, "USER", resultado.directasNuevas());
+            contarEventos(broadcasts, "ADMIN", resultado.broadcastsNuevos());
+            metricas.registrarProcesamiento(muestra, NotificacionMetricas.MODO_LOTE, NotificacionMetricas.RESULTADO_OK);
+            log.info("✅ Lote procesado: {} eventos, {} notificaciones", eventos.size(), resultado.notificaciones());
+        } catch (Exception e) {
+            log.error("❌ Error procesando lote de {} eventos, reintentando uno por uno: {}",
+                    eventos.size(), e.getMessage(), e);
+            try {
+                procesarIndividualmente(directas, broadcasts, adminUserIds, posiciones, aplazados);
+            } finally {
+                metricas.registrarProcesamiento(muestra, NotificacionMetricas.MODO_LOTE, NotificacionMetricas.RESULTADO_ERROR);
+            }
+        }
+        if (aplazados != null) {
+            throw aplazados;
+        }
+    }
+
+    /**
+     * Registra como fallidos los broadcasts que no pueden distribuirse todavía.
+     *
+     * @param broadcasts Contenidos de broadcast del lote.
+     * @param posiciones Posición en el lote de cada solicitud.
+     * @param causa Motivo por el que se aplazan.
+     * @return Excepción con las posiciones de sus eventos, para derivarlos a reintento.
+     */
+    private EventosFallidosException aplazar(List<CrearNotificacionRequest> broadcasts,
+                                             Map<CrearNotificacionRequest, Integer> posiciones,
+                                             RuntimeException causa) {
+        List<Integer> indices = new ArrayList<>(broadcasts.size());
+        for (CrearNotificacionRequest request : broadcasts) {
+            metricas.contarEvento(request.getTipo(), "ADMIN", NotificacionMetricas.RESULTADO_ERROR);
+            metricas.contarFallo(request.getTipo(), causa);
+            indices.add(posiciones.get(request));
+        }
+        return new EventosFallidosException(indices, causa);
+    }
+
+    /**
+     * Separa los eventos del lote en notificaciones directas (USER) y broadcasts (ADMIN).
+     *
+     * @param eventos Eventos recibidos.
+     * @param directas Lista donde se agregan las notificaciones directas.
+     * @param broadcasts Lista donde se agregan los contenidos de broadcast.
+     * @param posiciones Mapa donde se registra la posición en el lote de cada solicitud.
+     */
+    private void clasificar(List<NotificacionEvent> eventos,
+                            List<CrearNotificacionRequest> directas,
+                            List<CrearNotificacionRequest> broadcasts,
+                            Map<CrearNotificacionRequest, Integer> posiciones) {
+        for (int i = 0; i < eventos.size(); i++) {
+            NotificacionEvent event = eventos.get(i);
+            if ("USER".equals(event.getTargetRole()) && event.getUsuarioId() != null) {
+                CrearNotificacionRequest request = toRequest(event, event.getUsuarioId());
+                directas.add(request);
+                posiciones.put(request, i);
+            }
+            else if ("ADMIN".equals(event.getTargetRole())) {
+                CrearNotificacionRequest request = toRequest(event, null);
+                broadcasts.add(request);
+                posiciones.put(request, i);
+            }
+            else {
+                metricas.contarEvento(event.getTipo(), event.getTargetRole(), NotificacionMetricas.RESULTADO_DESCARTADO);
+                log.warn("⚠️ TargetRole no reconocido o usuarioId nulo: {}", event.getTargetRole());
+            }
+        }
+    }
+
+    /**
+     * Procesa las solicitudes de a una, cada una en su propia transacción.
+     * Se usa como fallback cuando falla la inserción del lote completo.
+     *
+     * @param directas Notificaciones directas a crear.
+     * @param broadcasts Contenidos de broadcast a crear.
+     * @param adminUserIds Destinatarios de los broadcasts.
+     * @param posiciones Posición en el lote de cada solicitud.
+     * @param aplazados Eventos del lote ya marcados como fallidos (puede ser null).
+     * @throws EventosFallidosException Si alguna solicitud falló, con las posiciones de sus eventos.
+     */
+    private void procesarIndividualmente(List<CrearNotificacionRequest> directas,
+                                         List<CrearNotificacionRequest> broadcasts,
+                                         List<Long> adminUserIds,
+                                         Map<CrearNotificacionRequest, Integer> posiciones,
+                                         EventosFallidosException aplazados) {
+        List<Integer> fallidos = new ArrayList<>(aplazados != null ? aplazados.getIndices() : List.of());
+        Throwable primerError = aplazados != null ? aplazados.getCause() : null;
+        for (CrearNotificacionRequest request : directas) {
+            try {
+                boolean creada = notificacionService.crearNotificacion(request) != null;
+                metricas.contarEvento(request.getTipo(), "USER", resultadoDe(creada));
+            } catch (Exception e) {
+                metricas.contarEvento(request.getTipo(), "USER", NotificacionMetricas.RESULTADO_ERROR);
+                metricas.contarFallo(request.getTipo(), e);
+                log.error("❌ Error procesando notificacion {}: {}", request.getTipo(), e.getMessage(), e);
+                fallidos.add(posiciones.get(request));
+                primerError = primerError != null ? primerError : e;
+            }
+        }
+        for (CrearNotificacionRequest request : broadcasts) {
+            try {
+                boolean creado = notificacionService.crearBroadcast(request, adminUserIds) > 0 || adminUserIds.isEmpty();
+                metricas.contarEvento(request.getTipo(), "ADMIN", resultadoDe(creado));
+            } catch (Exception e) {
+                metricas.contarEvento(request.getTipo(), "ADMIN", NotificacionMetricas.RESULTADO_ERROR);
+                metricas.contarFallo(request.getTipo(), e);
+                log.error("❌ Error procesando broadcast {}: {}", request.getTipo(), e.getMessage(), e);
+                fallidos.add(posiciones.get(request));
+                primerError = primerError != null ? primerError : e;
+            }
+        }
+        if (!fallidos.isEmpty()) {
+            throw new EventosFallidosException(fallidos, primerError);
+        }
+    }
+
+    /**
+     * Cuenta las solicitudes de un lote confirmado como procesadas o duplicadas.
+     *
+     * @param requests Solicitudes del lote.
+     * @param targetRole Rol destino de las solicitudes.
+     * @param nuevas Por cada solicitud, en orden, si se registró.
+     */
+    private void contarEventos(List<CrearNotificacionRequest> requests, String targetRole, List<Boolean> nuevas) {
+        for (int i = 0; i < requests.size(); i++) {
+            metricas.contarEvento(requests.get(i).getTipo(), targetRole, resultadoDe(nuevas.get(i)));
+        }
+    }
+
+    /** Resultado de métrica de una solicitud según se haya registrado o descartado por duplicada. */
+    private static String resultadoDe(boolean nueva) {
+        return nueva ? NotificacionMetricas.RESULTADO_OK : NotificacionMetricas.RESULTADO_DUPLICADO;
+    }
+
+    /**
+     * Convierte un evento en una solicitud de creación para un destinatario,
+     * con su clave de deduplicación para descartar reentregas.
+     *
+     * @param event Evento de notificación.
+     * @param usuarioId ID del usuario destinatario (null para broadcasts).
+     * @return Solicitud de creación.
+     */
+    private CrearNotificacionRequest toRequest(NotificacionEvent event, Long usuarioId) {
+        return new CrearNotificacionDesdeEvento(event, usuarioId);
+    }
+}
@@ -25,4 +25,9 @@ public class NotificacionEvent {
     private String metadata;
     /** Rol objetivo (USER para individual, ADMIN para broadcast a administradores). */
     private String targetRole;
+    /**
+     * Identificador único del evento asignado por el productor (opcional).
+     * Si no viene en el cuerpo se toma el message-id de AMQP; se usa para descartar reentregas.
+     */
+    private String eventoId;
 }
@@ -1,20 +1,27 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
 
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceNoDisponibleException;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.AdminService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.CrearNotificacionDesdeEvento;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.DeduplicacionEventosService;
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.NotificacionService;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * Consumidor de eventos de notificación desde RabbitMQ.
  * Escucha la cola de notificaciones y procesa los eventos según su tipo y destino.
+ * Se desactiva cuando está habilitado el consumo en lotes ({@link NotificacionBatchEventListener}).
  */
 @Component
+@ConditionalOnProperty(name = "app.rabbitmq.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class NotificacionEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(NotificacionEventListener.class);
@@ -23,76 +30,101 @@ public class NotificacionEventListener {
     private final NotificacionService notificacionService;
     /** Servicio de administradores para notificaciones broadcast. */
     private final AdminService adminService;
+    /** Métricas de ingesta. */
+    private final NotificacionMetricas metricas;
 
     public NotificacionEventListener(NotificacionService notificacionService,
-                                     AdminService adminService) {
+                                     AdminService adminService,
+                                     NotificacionMetricas metricas) {
         this.notificacionService = notificacionService;
         this.adminService = adminService;
+        this.metricas = metricas;
     }
 
     /**
      * Escucha y procesa eventos de notificación desde RabbitMQ.
      * Distingue entre notificaciones para usuarios individuales y broadcast para administradores.
+     * Los eventos ya procesados (reentregas del broker o reintentos del productor) se descartan.
+     * Si el procesamiento falla, la excepción se propaga para que {@link NotificacionReintentos}
+     * derive el mensaje a reintento o a fallidos.
+     *
+     * Con shards habilitados este container no arranca: la cola la consume {@link NotificacionShardRouter}
+     * y los eventos llegan por {@link NotificacionShardListenerConfigurer}.
      *
      * @param event Evento de notificación recibido.
      */
-    @RabbitListener(queues = "notificaciones.queue")
+    @RabbitListener(queues = "notificaciones.queue", autoStartup = "#{!${app.rabbitmq.shards.enabled:false}}")
     public void recibirNotificacion(NotificacionEvent event) {
         log.info("🎯 Evento recibido de RabbitMQ - Tipo: {}, Target: {}", event.getTipo(), event.getTargetRole());
         log.debug("📦 Contenido del evento: {}", event);
 
+        Timer.Sample muestra = metricas.iniciar();
+        String resultado = NotificacionMetricas.RESULTADO_OK;
         try {
             if ("USER".equals(event.getTargetRole()) && event.getUsuarioId() != null) {
                 // ✅ Notificación para USUARIO específico
                 // Casos: INICIO_SESION, INICIO_SESION_FIREBASE, BIENVENIDA_REGISTRO, ESTADO_PEDIDO
-                notificacionService.procesarEventoNotificacion(
+                boolean creada = notificacionService.procesarEventoNotificacion(
                         event.getTitulo(),
                         event.getMensaje(),
                         event.getTipo(),
                         event.getUsuarioId(),
-                        event.getMetadata()
+                        event.getMetadata(),
+                        DeduplicacionEventosService.claveDe(event)
                 );
-                log.info("✅ Notificacion USER procesada para usuario: {}", event.getUsuarioId());
+                if (creada) {
+                    log.info("✅ Notificacion USER procesada para usuario: {}", event.getUsuarioId());
+                } else {
+                    resultado = NotificacionMetricas.RESULTADO_DUPLICADO;
+                    log.info("♻️ Evento duplicado descartado para usuario: {}", event.getUsuarioId());
+                }
             }
             else if ("ADMIN".equals(event.getTargetRole())) {
                 // ✅ Notificación para TODOS los ADMINS
                 // Casos: NUEVO_REGISTRO, INICIO_SESION_FIREBASE_ADMIN, NUEVO_PEDIDO
-                enviarNotificacionATodosLosAdmins(event);
-                log.info("✅ Notificacion ADMIN procesada");
+                if (enviarNotificacionATodosLosAdmins(event)) {
+                    log.info("✅ Notificacion ADMIN procesada");
+                } else {
+                    resultado = NotificacionMetricas.RESULTADO_DUPLICADO;
+                    log.info("♻️ Evento ADMIN duplicado descartado");
+                }
             }
             else {
+                resultado = NotificacionMetricas.RESULTADO_DESCARTADO;
                 log.warn("⚠️ TargetRole no reconocido o usuarioId nulo: {}", event.getTargetRole());
             }
         } catch (Exception e) {
+            resultado = NotificacionMetricas.RESULTADO_ERROR;
+            metricas.contarFallo(event.getTipo(), e);
             log.error("❌ Error procesando notificacion {}: {}", event.getTipo(), e.getMessage(), e);
+            throw e;
+        } finally {
+            metricas.contarEvento(event.getTipo(), event.getTargetRole(), resultado);
+            metricas.registrarProcesamiento(muestra, NotificacionMetricas.MODO_INDIVIDUAL, resultado);
         }
     }
 
     /**
      * Envía una notificación a todos los administradores del sistema.
-     * Obtiene la lista de IDs de administradores y crea una notificación para cada uno.
+     * El contenido se guarda una sola vez como broadcast y cada administrador recibe
+     * su propia recepción (estado de lectura).
      *
      * @param event Evento de notificación a distribuir.
+     * @return false si el evento ya había sido procesado.
+     * @throws UserServiceNoDisponibleException Si el directorio de administradores todavía no
+     *         se cargó; el evento se reintenta en lugar de confirmarse sin destinatarios.
      */
-    private void enviarNotificacionATodosLosAdmins(NotificacionEvent event) {
+    private boolean enviarNotificacionATodosLosAdmins(NotificacionEvent event) {
         List<Long> adminUserIds = adminService.obtenerIdsDeAdministradores();
 
         if (adminUserIds.isEmpty()) {
             log.info("👨‍💼 No hay administradores registrados para enviar notificación");
-            return;
+            return true;
         }
 
         log.info("👨‍💼 Enviando notificación a {} administradores", adminUserIds.size());
 
-        for (Long adminId : adminUserIds) {
-            // ✅ Cada admin recibe la notificación con SU propio ID
-            notificacionService.procesarEventoNotificacion(
-                    event.getTitulo(),
-                    event.getMensaje(),
-                    event.getTipo(),
-                    adminId,
-                    event.getMetadata()
-            );
-        }
+        int alcanzados = notificacionService.crearBroadcast(new CrearNotificacionDesdeEvento(event, null), adminUserIds);
+        return alcanzados > 0;
     }
 }
@@ -0,0 +1,336 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.utils.EsperaExponencial;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.client.ReturnListener;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reintentos con backoff exponencial y dead-letter para los eventos que fallan.
+ * Se instala como advice en los containers de RabbitMQ: si el listener (o la conversión del
+ * mensaje) lanza una excepción, el mensaje se republica en la cola de reintento que corresponde
+ * a su número de intento y el original se confirma. La espera la hace el broker (TTL de la cola
+ * de reintento), por lo que los hilos consumidores nunca se bloquean. Al agotar los intentos,
+ * o si el mensaje no se puede interpretar, va a la cola de fallidos ({@link RabbitMQConfig#DLQ}),
+ * desde donde se puede reprocesar con {@link #reprocesarFallidos(int)}.
+ * <p>
+ * La republicación es obligatoria ({@code mandatory}) y con confirmación del broker: si el
+ * broker la rechaza, la devuelve por no tener cola destino o no confirma a tiempo, el advice
+ * lanza {@link ImmediateRequeueAmqpException} y el original vuelve a su cola en lugar de perderse.
+ * <p>
+ * Orden: al vencer la espera, el evento vuelve por la cola de ingreso y, con shards, el router
+ * lo envía al mismo shard (el de su usuario). Los eventos de ese usuario que llegaron durante
+ * la espera ya se procesaron antes: se resigna el orden del evento reintentado frente a los
+ * posteriores para no bloquear el shard entero (y a todos sus usuarios) durante el backoff.
+ */
+@Component
+public class NotificacionReintentos implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionReintentos.class);
+
+    /** Header con la cantidad de intentos fallidos del mensaje. */
+    public static final String HEADER_INTENTOS = "x-intentos";
+    /** Header con el último error del mensaje. */
+    public static final String HEADER_ERROR = "x-ultimo-error";
+
+    /** Longitud máxima del error guardado en el header. */
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+
+    /** Convierte las propiedades de Spring AMQP a las del cliente para publicar en el canal. */
+    private static final MessagePropertiesConverter PROPIEDADES = new DefaultMessagePropertiesConverter();
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MessageConverter messageConverter;
+    private final NotificacionMetricas metricas;
+    private final int maxIntentos;
+    private final long esperaInicialMs;
+    private final double multiplicador;
+    private final long esperaMaximaMs;
+    /** Espera máxima por la confirmación del broker de una republicación. */
+    private final long esperaConfirmacionMs;
+
+    public NotificacionReintentos(RabbitTemplate rabbitTemplate,
+                                  MessageConverter messageConverter,
+                                  NotificacionMetricas metricas,
+                                  @Value("${app.rabbitmq.reintentos.max-intentos:5}") int maxIntentos,
+                                  @Value("${app.rabbitmq.reintentos.espera-inicial-ms:1000}") long esperaInicialMs,
+                                  @Value("${app.rabbitmq.reintentos.multiplicador:4}") double multiplicador,
+                                  @Value("${app.rabbitmq.reintentos.espera-maxima-ms:600000}") long esperaMaximaMs,
+                                  @Value("${app.rabbitmq.reintentos.espera-confirmacion-ms:5000}") long esperaConfirmacionMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.metricas = metricas;
+        this.maxIntentos = maxIntentos;
+        this.esperaInicialMs = esperaInicialMs;
+        this.multiplicador = multiplicador;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.esperaConfirmacionMs = esperaConfirmacionMs;
+    }
+
+    /**
+     * Envuelve la invocación del listener del container
+     * ({@code invokeListener(Channel, Object)}; el dato es un {@link Message} o una lista en lotes).
+     * Si falla, deriva los mensajes a reintento o a fallidos y, una vez que el broker confirma la
+     * republicación, termina normalmente para que el container confirme los originales.
+     *
+     * @throws ImmediateRequeueAmqpException Si la republicación no se confirma; el container
+     *                                       devuelve los originales a su cola.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } catch (Throwable error) {
+            Object dato = invocation.getArguments()[1];
+            if (dato instanceof Message mensaje) {
+                publicar(List.of(derivacion(mensaje, error)));
+            } else if (dato instanceof List<?> mensajes) {
+                publicar(derivacionesDeLote(mensajes, error));
+            } else {
+                throw error;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Republica un mensaje fallido en su cola de reintento, o en la de fallidos si agotó los
+     * intentos o no se puede interpretar, y espera la confirmación del broker.
+     *
+     * @param mensaje Mensaje original.
+     * @param error Error del procesamiento.
+     * @throws ImmediateRequeueAmqpException Si el broker no confirma la republicación.
+     */
+    public void derivar(Message mensaje, Throwable error) {
+        publicar(List.of(derivacion(mensaje, error)));
+    }
+
+    /**
+     * Decide el destino de un mensaje fallido y actualiza sus headers de intentos y error.
+     *
+     * @param mensaje Mensaje original.
+     * @param error Error del procesamiento.
+     * @return Republicación a realizar.
+     */
+    private Derivacion derivacion(Message mensaje, Throwable error) {
+        MessageProperties properties = mensaje.getMessageProperties();
+        int intentos = intentos(properties) + 1;
+        properties.setHeader(HEADER_INTENTOS, intentos);
+        properties.setHeader(HEADER_ERROR, resumen(error));
+
+        if (esIrrecuperable(error) || intentos > maxIntentos) {
+            return new Derivacion(RabbitMQConfig.DLX, RabbitMQConfig.DLQ, mensaje,
+                    NotificacionMetricas.DERIVACION_FALLIDOS, intentos, 0, resumen(error));
+        }
+        long esperaMs = EsperaExponencial.calcular(intentos, esperaInicialMs, multiplicador, esperaMaximaMs);
+        return new Derivacion(RabbitMQConfig.RETRY_EXCHANGE, String.valueOf(esperaMs), mensaje,
+                NotificacionMetricas.DERIVACION_REINTENTO, intentos, esperaMs, resumen(error));
+    }
+
+    /**
+     * Deriva los mensajes de un lote fallido. Si el lote informa qué eventos fallaron solo se
+     * derivan esos; si falló la conversión del lote, cada mensaje se evalúa por separado para
+     * que los válidos vuelvan a intentarse y solo los ilegibles vayan a fallidos.
+     *
+     * @param mensajes Mensajes del lote, en orden.
+     * @param error Error del procesamiento.
+     * @return Republicaciones a realizar.
+     */
+    private List<Derivacion> derivacionesDeLote(List<?> mensajes, Throwable error) {
+        List<Derivacion> derivaciones = new ArrayList<>(mensajes.size());
+        EventosFallidosException fallidos = buscarCausa(error, EventosFallidosException.class);
+        if (fallidos != null) {
+            for (int indice : fallidos.getIndices()) {
+                derivaciones.add(derivacion((Message) mensajes.get(indice),
+                        fallidos.getCause() != null ? fallidos.getCause() : fallidos));
+            }
+            return derivaciones;
+        }
+        boolean conversionFallida = esIrrecuperable(error);
+        for (Object dato : mensajes) {
+            Message mensaje = (Message) dato;
+            if (conversionFallida && esLegible(mensaje)) {
+                // El mensaje es válido: solo cayó en un lote con otro ilegible
+                derivaciones.add(derivacion(mensaje, new IllegalStateException("Lote con mensajes ilegibles")));
+            } else {
+                derivaciones.add(derivacion(mensaje, error));
+            }
+        }
+        return derivaciones;
+    }
+
+    /**
+     * Publica las derivaciones en un canal con confirmaciones y como {@code mandatory}, y espera
+     * a que el broker confirme todas. Un nack, una devolución (sin cola destino) o la falta de
+     * confirmación a tiempo hacen fallar la derivación completa.
+     *
+     * @param derivaciones Republicaciones a realizar.
+     * @throws ImmediateRequeueAmqpException Si alguna republicación no se confirma.
+     */
+    private void publicar(List<Derivacion> derivaciones) {
+        if (derivaciones.isEmpty()) {
+            return;
+        }
+        AtomicReference<String> devuelto = new AtomicReference<>();
+        try {
+            rabbitTemplate.execute(channel -> {
+                channel.confirmSelect();
+                ReturnListener alDevolver = channel.addReturnListener(retorno -> devuelto.compareAndSet(null,
+                        retorno.getExchange() + "/" + retorno.getRoutingKey() + " (" + retorno.getReplyText() + ")"));
+                try {
+                    for (Derivacion derivacion : derivaciones) {
+                        Message mensaje = derivacion.mensaje();
+                        AMQP.BasicProperties propiedades = PROPIEDADES.fromMessageProperties(
+                                mensaje.getMessageProperties(), StandardCharsets.UTF_8.name());
+                        channel.basicPublish(derivacion.exchange(), derivacion.routingKey(), true,
+                                propiedades, mensaje.getBody());
+                    }
+                    // Las devoluciones llegan antes que la confirmación del mismo mensaje
+                    channel.waitForConfirmsOrDie(esperaConfirmacionMs);
+                } finally {
+                    channel.removeReturnListener(alDevolver);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("❌ No se confirmó la derivación de {} mensajes, se devuelven a su cola: {}",
+                    derivaciones.size(), resumen(e));
+            throw new ImmediateRequeueAmqpException("Derivación de mensajes fallidos sin confirmar", e);
+        }
+        if (devuelto.get() != null) {
+            log.error("❌ El broker devolvió la derivación de {} mensajes ({}), se devuelven a su cola",
+                    derivaciones.size(), devuelto.get());
+            throw new ImmediateRequeueAmqpException("Derivación sin cola destino: " + devuelto.get());
+        }
+
+        for (Derivacion derivacion : derivaciones) {
+            metricas.contarDerivacion(derivacion.destino(), 1);
+            if (NotificacionMetricas.DERIVACION_FALLIDOS.equals(derivacion.destino())) {
+                log.error("☠️ Mensaje enviado a {} tras {} intentos: {}",
+                        RabbitMQConfig.DLQ, derivacion.intentos(), derivacion.error());
+            } else {
+                log.warn("🔁 Intento {}/{} fallido, se reintenta en {} ms: {}",
+                        derivacion.intentos(), maxIntentos, derivacion.esperaMs(), derivacion.error());
+            }
+        }
+    }
+
+    /**
+     * Reenvía a la cola de ingreso los mensajes de la cola de fallidos, con el contador de
+     * intentos en cero. Cada mensaje se confirma en la cola de fallidos solo después de que el
+     * broker confirma su publicación.
+     *
+     * @param maximo Cantidad máxima de mensajes a reprocesar.
+     * @return Cantidad de mensajes reenviados.
+     */
+    public int reprocesarFallidos(int maximo) {
+        Integer reenviados = rabbitTemplate.execute(channel -> {
+            channel.confirmSelect();
+            int cantidad = 0;
+            while (cantidad < maximo) {
+                GetResponse respuesta = channel.basicGet(RabbitMQConfig.DLQ, false);
+                if (respuesta == null) {
+                    break;
+                }
+                AMQP.BasicProperties original = respuesta.getProps();
+                Map<String, Object> headers = original.getHeaders() != null
+                        ? new HashMap<>(original.getHeaders()) : new HashMap<>();
+                headers.remove(HEADER_INTENTOS);
+                headers.put("x-reprocesado", true);
+                try {
+                    channel.basicPublish(RabbitMQConfig.EXCHANGE, RabbitMQConfig.ROUTING_KEY,
+                            original.builder().headers(headers).build(), respuesta.getBody());
+                    channel.waitForConfirmsOrDie(5_000);
+                    channel.basicAck(respuesta.getEnvelope().getDeliveryTag(), false);
+                } catch (Exception e) {
+                    channel.basicNack(respuesta.getEnvelope().getDeliveryTag(), false, true);
+                    throw e;
+                }
+                cantidad++;
+            }
+            return cantidad;
+        });
+        int total = reenviados != null ? reenviados : 0;
+        metricas.contarDerivacion(NotificacionMetricas.DERIVACION_REPROCESADO, total);
+        log.info("♻️ {} mensajes reenviados desde {}", total, RabbitMQConfig.DLQ);
+        return total;
+    }
+
+    /**
+     * Republicación de un mensaje fallido.
+     *
+     * @param exchange Exchange destino.
+     * @param routingKey Routing key (espera en ms para reintentos).
+     * @param mensaje Mensaje con los headers actualizados.
+     * @param destino Uno de {@code NotificacionMetricas.DERIVACION_*}.
+     * @param intentos Intentos fallidos del mensaje.
+     * @param esperaMs Espera antes del reintento (0 si va a fallidos).
+     * @param error Resumen del último error.
+     */
+    private record Derivacion(String exchange, String routingKey, Message mensaje, String destino,
+                              int intentos, long esperaMs, String error) {
+    }
+
+    private boolean esLegible(Message mensaje) {
+        try {
+            mensaje.getMessageProperties().setInferredArgumentType(NotificacionEvent.class);
+            messageConverter.fromMessage(mensaje);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean esIrrecuperable(Throwable error) {
+        return buscarCausa(error, MessageConversionException.class) != null;
+    }
+
+    private static int intentos(MessageProperties properties) {
+        Object valor = properties.getHeader(HEADER_INTENTOS);
+        return valor instanceof Number numero ? numero.intValue() : 0;
+    }
+
+    static String resumen(Throwable error) {
+        Throwable raiz = error;
+        while (raiz.getCause() != null && raiz.getCause() != raiz) {
+            raiz = raiz.getCause();
+        }
+        String texto = raiz.getClass().getSimpleName() + ": " + raiz.getMessage();
+        return texto.length() > LONGITUD_MAXIMA_ERROR ? texto.substring(0, LONGITUD_MAXIMA_ERROR) : texto;
+    }
+
+    private static <T extends Throwable> T buscarCausa(Throwable error, Class<T> tipo) {
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (tipo.isInstance(actual)) {
+                return tipo.cast(actual);
+            }
+            if (actual.getCause() == actual) {
+                break;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQShardConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra un container por cola de shard.
+ * Cada container tiene un único consumidor y delega en el listener existente
+ * ({@link NotificacionEventListener} o {@link NotificacionBatchEventListener}, según
+ * {@code app.rabbitmq.batch.enabled}), por lo que el procesamiento es el mismo que sin shards.
+ * Se activa con {@code app.rabbitmq.shards.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rabbitmq.shards.enabled", havingValue = "true")
+public class NotificacionShardListenerConfigurer implements RabbitListenerConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionShardListenerConfigurer.class);
+
+    private final ObjectProvider<NotificacionEventListener> listener;
+    private final ObjectProvider<NotificacionBatchEventListener> batchListener;
+    private final MessageConverter messageConverter;
+    private final SimpleRabbitListenerContainerFactory shardContainerFactory;
+    /** Cantidad de colas a consumir (incluye las del esquema anterior durante un re-particionado). */
+    private final int colas;
+
+    public NotificacionShardListenerConfigurer(ObjectProvider<NotificacionEventListener> listener,
+                                               ObjectProvider<NotificacionBatchEventListener> batchListener,
+                                               MessageConverter messageConverter,
+                                               @Qualifier(RabbitMQShardConfig.SHARD_CONTAINER_FACTORY)
+                                               SimpleRabbitListenerContainerFactory shardContainerFactory,
+                                               @Value("${app.rabbitmq.shards.cantidad:8}") int cantidad,
+                                               @Value("${app.rabbitmq.shards.cantidad-anterior:0}") int cantidadAnterior) {
+        this.listener = listener;
+        this.batchListener = batchListener;
+        this.messageConverter = messageConverter;
+        this.shardContainerFactory = shardContainerFactory;
+        this.colas = Math.max(cantidad, cantidadAnterior);
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        NotificacionBatchEventListener lotes = batchListener.getIfAvailable();
+        for (int shard = 0; shard < colas; shard++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(NotificacionShardRouter.SHARD_ID_PREFIX + shard);
+            endpoint.setQueueNames(RabbitMQShardConfig.nombreCola(shard));
+            endpoint.setConcurrency("1");
+            if (lotes != null) {
+                endpoint.setBatchListener(true);
+                endpoint.setMessageListener((BatchMessageListener) mensajes -> lotes.recibirLoteNotificaciones(convertir(mensajes)));
+            } else {
+                NotificacionEventListener individual = listener.getObject();
+                endpoint.setMessageListener((MessageListener) mensaje -> individual.recibirNotificacion(convertir(mensaje)));
+            }
+            registrar.registerEndpoint(endpoint, shardContainerFactory);
+        }
+        log.info("🔀 Registrados {} consumidores de shard ({})", colas, lotes != null ? "en lotes" : "individuales");
+    }
+
+    private NotificacionEvent convertir(Message mensaje) {
+        mensaje.getMessageProperties().setInferredArgumentType(NotificacionEvent.class);
+        return (NotificacionEvent) messageConverter.fromMessage(mensaje);
+    }
+
+    private List<NotificacionEvent> convertir(List<Message> mensajes) {
+        List<NotificacionEvent> eventos = new ArrayList<>(mensajes.size());
+        for (Message mensaje : mensajes) {
+            eventos.add(convertir(mensaje));
+        }
+        return eventos;
+    }
+}
@@ -0,0 +1,185 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.RabbitMQManagementClient;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.RabbitMQManagementClient.EstadoCola;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQShardConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+
+/**
+ * Router de la cola de ingreso hacia las colas de shard.
+ * Lee los eventos de {@link RabbitMQConfig#QUEUE} en lotes y reenvía cada uno sin modificar
+ * al shard que corresponde a su usuario. Los reenvíos y los acks de un lote se confirman en
+ * una única transacción del canal: si alguna publicación falla, el lote entero vuelve a la
+ * cola de ingreso. Los mensajes ilegibles van a la cola de fallidos dentro de la misma transacción.
+ * Se activa con {@code app.rabbitmq.shards.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rabbitmq.shards.enabled", havingValue = "true")
+public class NotificacionShardRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionShardRouter.class);
+
+    /** ID del container del router en el registro de listeners. */
+    static final String ROUTER_ID = "notificaciones-shard-router";
+    /** Prefijo de los IDs de los containers de shard. */
+    static final String SHARD_ID_PREFIX = "notificaciones-shard-";
+
+    /** Template transaccional que comparte el canal del listener. */
+    private final RabbitTemplate shardRabbitTemplate;
+    /** Convertidor JSON para leer el destinatario del evento. */
+    private final MessageConverter messageConverter;
+    /** Registro de containers, para arrancar el router y detener los shards del esquema anterior. */
+    private final RabbitListenerEndpointRegistry registry;
+    /** API de administración de RabbitMQ, para consultar consumidores y mensajes sin confirmar. */
+    private final RabbitMQManagementClient managementClient;
+    private final NotificacionMetricas metricas;
+    /** Cantidad de shards. */
+    private final int cantidad;
+    /** Cantidad de shards del esquema anterior (0 si no hay re-particionado). */
+    private final int cantidadAnterior;
+
+    public NotificacionShardRouter(@Qualifier(RabbitMQShardConfig.SHARD_RABBIT_TEMPLATE) RabbitTemplate shardRabbitTemplate,
+                                   MessageConverter messageConverter,
+                                   RabbitListenerEndpointRegistry registry,
+                                   RabbitMQManagementClient managementClient,
+                                   NotificacionMetricas metricas,
+                                   @Value("${app.rabbitmq.shards.cantidad:8}") int cantidad,
+                                   @Value("${app.rabbitmq.shards.cantidad-anterior:0}") int cantidadAnterior) {
+        this.shardRabbitTemplate = shardRabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.registry = registry;
+        this.managementClient = managementClient;
+        this.metricas = metricas;
+        this.cantidad = cantidad;
+        this.cantidadAnterior = cantidadAnterior;
+    }
+
+    /**
+     * Reenvía un lote de eventos de la cola de ingreso al shard de cada usuario, en el orden
+     * de llegada.
+     *
+     * @param mensajes Mensajes originales (se reenvían con el mismo cuerpo y headers).
+     */
+    @RabbitListener(id = ROUTER_ID, queues = RabbitMQConfig.QUEUE,
+            containerFactory = RabbitMQShardConfig.ROUTER_CONTAINER_FACTORY, autoStartup = "false")
+    public void enrutar(List<Message> mensajes) {
+        int ilegibles = 0;
+        for (Message mensaje : mensajes) {
+            NotificacionEvent event;
+            try {
+                mensaje.getMessageProperties().setInferredArgumentType(NotificacionEvent.class);
+                event = (NotificacionEvent) messageConverter.fromMessage(mensaje);
+            } catch (MessageConversionException e) {
+                descartarIlegible(mensaje, e);
+                ilegibles++;
+                continue;
+            }
+            int shard = RabbitMQShardConfig.shardDe(event.getUsuarioId(), cantidad);
+            shardRabbitTemplate.send(RabbitMQShardConfig.SHARD_EXCHANGE, String.valueOf(shard), mensaje);
+        }
+        if (ilegibles > 0) {
+            metricas.contarDerivacion(NotificacionMetricas.DERIVACION_FALLIDOS, ilegibles);
+        }
+        log.debug("🔀 Lote de {} eventos enrutado ({} ilegibles a {})", mensajes.size(), ilegibles, RabbitMQConfig.DLQ);
+    }
+
+    /**
+     * Envía un mensaje ilegible a la cola de fallidos. Se publica con el template transaccional,
+     * así que solo se confirma junto con el ack del lote.
+     */
+    private void descartarIlegible(Message mensaje, MessageConversionException error) {
+        mensaje.getMessageProperties().setHeader(NotificacionReintentos.HEADER_INTENTOS, 1);
+        mensaje.getMessageProperties().setHeader(NotificacionReintentos.HEADER_ERROR, NotificacionReintentos.resumen(error));
+        shardRabbitTemplate.send(RabbitMQConfig.DLX, RabbitMQConfig.DLQ, mensaje);
+        log.error("☠️ Mensaje ilegible enviado a {}: {}", RabbitMQConfig.DLQ, NotificacionReintentos.resumen(error));
+    }
+
+    /**
+     * Arranca el router. Sin re-particionado arranca de inmediato. Durante un re-particionado
+     * espera a que ningún router del esquema anterior consuma la cola de ingreso y a que todas
+     * las colas de shard estén vacías, contando los mensajes entregados y aún sin confirmar, para
+     * que ningún evento nuevo de un usuario se procese antes que los que quedaron en su shard
+     * anterior. Antes de arrancar detiene los consumidores locales de las colas que ya no se usan.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.rabbitmq.shards.verificacion-drenado-ms:5000}")
+    public void iniciarCuandoCorresponda() {
+        MessageListenerContainer router = registry.getListenerContainer(ROUTER_ID);
+        if (router == null || router.isRunning()) {
+            return;
+        }
+        if (cantidadAnterior > 0 && cantidadAnterior != cantidad) {
+            try {
+                if (!reParticionadoCompleto()) {
+                    return;
+                }
+            } catch (RestClientException e) {
+                log.warn("⚠️ No se pudo verificar el drenado de los shards, se reintenta: {}", e.getMessage());
+                return;
+            }
+            detenerShardsAnteriores();
+        }
+        router.start();
+        log.info("🔀 Router de shards iniciado ({} shards)", cantidad);
+    }
+
+    /**
+     * Indica si el router de esta instancia puede empezar a enrutar con el esquema nuevo.
+     * Si la cola de ingreso ya tiene un router del esquema nuevo (otra instancia terminó el
+     * re-particionado), el de esta instancia queda como respaldo del consumidor exclusivo.
+     */
+    private boolean reParticionadoCompleto() {
+        EstadoCola ingreso = managementClient.estado(RabbitMQConfig.QUEUE);
+        if (ingreso != null && !ingreso.consumidores().isEmpty()) {
+            boolean routerNuevo = ingreso.consumidores().stream()
+                    .allMatch(etiqueta -> etiqueta.startsWith(RabbitMQShardConfig.etiquetaRouter(cantidad)));
+            if (!routerNuevo) {
+                log.info("⏳ Re-particionado {} → {} shards: la cola de ingreso todavía tiene un router anterior",
+                        cantidadAnterior, cantidad);
+            }
+            return routerNuevo;
+        }
+        long pendientes = 0;
+        for (int shard = 0; shard < Math.max(cantidad, cantidadAnterior); shard++) {
+            EstadoCola cola = managementClient.estado(RabbitMQShardConfig.nombreCola(shard));
+            if (cola != null) {
+                pendientes += cola.mensajes();
+            }
+        }
+        if (pendientes > 0) {
+            log.info("⏳ Re-particionado {} → {} shards: quedan {} mensajes por drenar (incluye sin confirmar)",
+                    cantidadAnterior, cantidad, pendientes);
+            return false;
+        }
+        log.info("✅ Shards drenados, el router comienza a enrutar a {} shards", cantidad);
+        return true;
+    }
+
+    /** Detiene los consumidores de esta instancia para las colas que solo usaba el esquema anterior. */
+    private void detenerShardsAnteriores() {
+        for (int shard = cantidad; shard < cantidadAnterior; shard++) {
+            MessageListenerContainer container = registry.getListenerContainer(SHARD_ID_PREFIX + shard);
+            if (container != null && container.isRunning()) {
+                container.stop();
+                log.info("🛑 Consumidor del shard anterior {} detenido", shard);
+            }
+        }
+    }
+}
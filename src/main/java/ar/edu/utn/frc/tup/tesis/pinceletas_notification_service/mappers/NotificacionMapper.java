@@ -0,0 +1,83 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.mappers;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.BandejaNotificacionEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionBroadcastEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapeador escrito a mano entre entidades de notificación y {@link NotificacionDto}.
+ * Reemplaza a ModelMapper en los caminos calientes: no usa reflexión ni crea
+ * objetos intermedios, solo copia campos.
+ */
+@Component
+public class NotificacionMapper {
+
+    /**
+     * Convierte una notificación directa a DTO.
+     *
+     * @param entity Entidad a convertir.
+     * @return DTO convertido.
+     */
+    public NotificacionDto toDto(NotificacionEntity entity) {
+        return new NotificacionDto(
+                entity.getId(),
+                entity.getTitulo(),
+                entity.getMensaje(),
+                entity.getTipo(),
+                entity.getEstado(),
+                entity.getUsuarioId(),
+                entity.getMetadata(),
+                entity.getFechaCreacion(),
+                entity.getFechaLectura(),
+                entity.getOcurrencias(),
+                entity.getFechaUltimaOcurrencia()
+        );
+    }
+
+    /**
+     * Convierte una fila de la bandeja a DTO.
+     *
+     * @param entity Fila de la bandeja a convertir.
+     * @return DTO convertido.
+     */
+    public NotificacionDto toDto(BandejaNotificacionEntity entity) {
+        return new NotificacionDto(
+                entity.getId(),
+                entity.getTitulo(),
+                entity.getMensaje(),
+                entity.getTipo(),
+                entity.getEstado(),
+                entity.getUsuarioId(),
+                entity.getMetadata(),
+                entity.getFechaCreacion(),
+                entity.getFechaLectura(),
+                entity.getOcurrencias(),
+                entity.getFechaUltimaOcurrencia()
+        );
+    }
+
+    /**
+     * Construye el DTO de un broadcast recién creado para uno de sus destinatarios.
+     *
+     * @param broadcast Contenido del broadcast.
+     * @param usuarioId ID del destinatario.
+     * @return DTO no leído del destinatario.
+     */
+    public NotificacionDto toDto(NotificacionBroadcastEntity broadcast, Long usuarioId) {
+        return new NotificacionDto(
+                broadcast.getId(),
+                broadcast.getTitulo(),
+                broadcast.getMensaje(),
+                broadcast.getTipo(),
+                "NO_LEIDA",
+                usuarioId,
+                broadcast.getMetadata(),
+                broadcast.getFechaCreacion(),
+                null,
+                null,
+                null
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQShardConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profundidad y consumidores de las colas de notificaciones.
+ * Consultar RabbitMQ en cada scrape sería caro, así que los valores se actualizan con una
+ * tarea programada y los gauges leen el último valor conocido.
+ */
+@Component
+public class ColaMetricas implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaMetricas.class);
+
+    private final AmqpAdmin amqpAdmin;
+    /** Mensajes en cola por nombre de cola. */
+    private final Map<String, AtomicLong> mensajes = new LinkedHashMap<>();
+    /** Consumidores conectados por nombre de cola. */
+    private final Map<String, AtomicLong> consumidores = new LinkedHashMap<>();
+
+    public ColaMetricas(AmqpAdmin amqpAdmin,
+                        @Value("${app.rabbitmq.shards.enabled:false}") boolean shardsHabilitados,
+                        @Value("${app.rabbitmq.shards.cantidad:8}") int shards) {
+        this.amqpAdmin = amqpAdmin;
+        List<String> colas = new ArrayList<>();
+        colas.add(RabbitMQConfig.QUEUE);
+        if (shardsHabilitados) {
+            for (int shard = 0; shard < shards; shard++) {
+                colas.add(RabbitMQShardConfig.nombreCola(shard));
+            }
+        }
+        for (String cola : colas) {
+            mensajes.put(cola, new AtomicLong());
+            consumidores.put(cola, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        mensajes.forEach((cola, valor) -> Gauge.builder("notificaciones.cola.mensajes", valor, AtomicLong::get)
+                .description("Mensajes listos en la cola")
+                .tag("cola", cola)
+                .register(registry));
+        consumidores.forEach((cola, valor) -> Gauge.builder("notificaciones.cola.consumidores", valor, AtomicLong::get)
+                .description("Consumidores conectados a la cola")
+                .tag("cola", cola)
+                .register(registry));
+    }
+
+    /** Actualiza los valores consultando a RabbitMQ. */
+    @Scheduled(fixedDelayString = "${app.metrics.colas.intervalo-ms:15000}")
+    public void actualizar() {
+        mensajes.forEach((cola, valor) -> {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(cola);
+                if (info != null) {
+                    valor.set(info.getMessageCount());
+                    consumidores.get(cola).set(info.getConsumerCount());
+                }
+            } catch (Exception e) {
+                log.debug("No se pudo consultar la cola {}: {}", cola, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de ingesta de eventos de notificación.
+ * Los valores de los tags se normalizan a conjuntos cerrados (tipos conocidos, roles USER/ADMIN,
+ * resultado ok/error/descartado) para que la cardinalidad quede acotada aunque lleguen eventos
+ * con valores arbitrarios. Los medidores se resuelven una vez y se reutilizan, así que el camino
+ * caliente solo incrementa contadores ya creados.
+ */
+@Component
+public class NotificacionMetricas {
+
+    /** Valor de tag para lo que no está en la lista de valores conocidos. */
+    public static final String OTRO = "OTRO";
+    public static final String RESULTADO_OK = "ok";
+    public static final String RESULTADO_ERROR = "error";
+    public static final String RESULTADO_DESCARTADO = "descartado";
+    public static final String RESULTADO_DUPLICADO = "duplicado";
+    public static final String DERIVACION_REINTENTO = "reintento";
+    public static final String DERIVACION_FALLIDOS = "fallidos";
+    public static final String DERIVACION_REPROCESADO = "reprocesado";
+    public static final String MODO_INDIVIDUAL = "individual";
+    public static final String MODO_LOTE = "lote";
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
+    private final MeterRegistry registry;
+    /** Tipos de evento que se reportan con su nombre; el resto se agrupa como {@link #OTRO}. */
+    private final Set<String> tiposConocidos;
+
+    /** Eventos procesados por tipo, rol destino y resultado. */
+    private final ConcurrentMap<String, Counter> eventos = new ConcurrentHashMap<>();
+    /** Fallos por tipo y clase de excepción. */
+    private final ConcurrentMap<String, Counter> fallos = new ConcurrentHashMap<>();
+    /** Duración de extremo a extremo del listener por modo y resultado. */
+    private final ConcurrentMap<String, Timer> procesamiento = new ConcurrentHashMap<>();
+    /** Mensajes derivados a reintento, a fallidos o reprocesados desde fallidos, por destino. */
+    private final ConcurrentMap<String, Counter> derivaciones = new ConcurrentHashMap<>();
+    /** Espera del mensaje entre su publicación y su recepción (consumer lag). */
+    private final Timer espera;
+    /** Tamaño de los lotes recibidos. */
+    private final DistributionSummary tamanioLote;
+
+    public NotificacionMetricas(MeterRegistry registry,
+                                @Value("${app.metrics.tipos-conocidos:}") List<String> tiposConocidos) {
+        this.registry = registry;
+        this.tiposConocidos = Set.copyOf(tiposConocidos);
+        this.espera = Timer.builder("notificaciones.evento.espera")
+                .description("Tiempo entre la publicación del evento y su recepción por el consumidor")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+        this.tamanioLote = DistributionSummary.builder("notificaciones.lote.tamanio")
+                .description("Cantidad de eventos por lote recibido")
+                .register(registry);
+    }
+
+    /**
+     * Inicia la medición de un procesamiento.
+     *
+     * @return Muestra a cerrar con {@link #registrarProcesamiento}.
+     */
+    public Timer.Sample iniciar() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Cierra la medición de un procesamiento (un evento o un lote).
+     *
+     * @param muestra Muestra devuelta por {@link #iniciar()}.
+     * @param modo {@link #MODO_INDIVIDUAL} o {@link #MODO_LOTE}.
+     * @param resultado Resultado del procesamiento.
+     */
+    public void registrarProcesamiento(Timer.Sample muestra, String modo, String resultado) {
+        muestra.stop(procesamiento.computeIfAbsent(modo + '|' + resultado, clave -> Timer.builder("notificaciones.evento.procesamiento")
+                .description("Duración del listener de notificaciones, de extremo a extremo")
+                .tag("modo", modo)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+
+    /**
+     * Cuenta un evento procesado.
+     *
+     * @param tipo Tipo del evento.
+     * @param targetRole Rol destino del evento.
+     * @param resultado Resultado del procesamiento.
+     */
+    public void contarEvento(String tipo, String targetRole, String resultado) {
+        String tipoTag = normalizarTipo(tipo);
+        String rolTag = targetRole != null && ROLES.contains(targetRole) ? targetRole : OTRO;
+        eventos.computeIfAbsent(tipoTag + '|' + rolTag + '|' + resultado, clave -> Counter.builder("notificaciones.eventos")
+                .description("Eventos de notificación recibidos")
+                .tag("tipo", tipoTag)
+                .tag("target_role", rolTag)
+                .tag("resultado", resultado)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Cuenta un fallo de procesamiento (el mensaje pasa a reintento o a fallidos).
+     *
+     * @param tipo Tipo del evento.
+     * @param error Excepción capturada.
+     */
+    public void contarFallo(String tipo, Throwable error) {
+        String tipoTag = normalizarTipo(tipo);
+        String excepcion = error.getClass().getSimpleName();
+        fallos.computeIfAbsent(tipoTag + '|' + excepcion, clave -> Counter.builder("notificaciones.eventos.fallidos")
+                .description("Eventos cuyo procesamiento falló")
+                .tag("tipo", tipoTag)
+                .tag("excepcion", excepcion)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Cuenta mensajes derivados a la topología de reintentos.
+     *
+     * @param destino Uno de {@code DERIVACION_*}.
+     * @param cantidad Cantidad de mensajes.
+     */
+    public void contarDerivacion(String destino, int cantidad) {
+        derivaciones.computeIfAbsent(destino, clave -> Counter.builder("notificaciones.eventos.derivados")
+                .description("Mensajes enviados a reintento o a la cola de fallidos")
+                .tag("destino", destino)
+                .register(registry)).increment(cantidad);
+    }
+
+    /**
+     * Registra el tamaño de un lote recibido.
+     *
+     * @param eventos Cantidad de eventos del lote.
+     */
+    public void registrarLote(int eventos) {
+        tamanioLote.record(eventos);
+    }
+
+    /**
+     * Registra la espera de un mensaje si el productor informó su timestamp de publicación.
+     * Se usa como post-procesador de recepción en los containers de RabbitMQ.
+     *
+     * @param mensaje Mensaje recibido.
+     * @return El mismo mensaje, sin modificar.
+     */
+    public Message registrarEspera(Message mensaje) {
+        MessageProperties properties = mensaje.getMessageProperties();
+        if (properties.getTimestamp() != null) {
+            long esperaMs = System.currentTimeMillis() - properties.getTimestamp().getTime();
+            espera.record(Math.max(0, esperaMs), TimeUnit.MILLISECONDS);
+        }
+        return mensaje;
+    }
+
+    private String normalizarTipo(String tipo) {
+        if (tipo == null) {
+            return OTRO;
+        }
+        if (tiposConocidos.contains(tipo)) {
+            return tipo;
+        }
+        String normalizado = tipo.toUpperCase(Locale.ROOT);
+        return tiposConocidos.contains(normalizado) ? normalizado : OTRO;
+    }
+}
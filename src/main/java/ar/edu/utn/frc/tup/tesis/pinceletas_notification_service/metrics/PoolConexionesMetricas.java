@@ -0,0 +1,52 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.SemaforoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Saturación del pool de conexiones JDBC.
+ * Spring Boot ya publica las métricas {@code hikaricp.connections.*}; aquí se agrega la
+ * saturación como fracción (conexiones en uso / máximo del pool) y, en modo de hilos
+ * virtuales, los hilos esperando turno en el {@link SemaforoDataSource}.
+ */
+@Component
+public class PoolConexionesMetricas implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    public PoolConexionesMetricas(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariPoolMXBean.class, HikariDataSource.class);
+        if (hikari != null) {
+            Gauge.builder("notificaciones.db.pool.saturacion", hikari, PoolConexionesMetricas::saturacion)
+                    .description("Conexiones en uso sobre el máximo del pool (1 = pool agotado)")
+                    .register(registry);
+        }
+        if (dataSource instanceof SemaforoDataSource semaforo) {
+            Gauge.builder("notificaciones.db.semaforo.en-espera", semaforo, SemaforoDataSource::enEspera)
+                    .description("Hilos esperando turno para tomar una conexión")
+                    .register(registry);
+        }
+    }
+
+    private static double saturacion(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null || hikari.getMaximumPoolSize() <= 0) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+}
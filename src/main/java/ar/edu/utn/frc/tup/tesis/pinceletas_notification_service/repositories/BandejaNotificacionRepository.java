@@ -0,0 +1,160 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.BandejaNotificacionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura sobre la bandeja de notificaciones (directas + broadcasts).
+ * Todas las consultas de lectura y conteo por usuario pasan por aquí.
+ * Las lecturas proyectan directamente a {@link NotificacionDto} (constructor expression),
+ * sin hidratar entidades administradas ni registrarlas en el contexto de persistencia.
+ * El filtrado por tipo, estado y metadata está en {@link BandejaNotificacionRepositoryCustom}.
+ */
+@org.springframework.stereotype.Repository
+public interface BandejaNotificacionRepository
+        extends org.springframework.data.repository.Repository<BandejaNotificacionEntity, BandejaNotificacionEntity.Clave>,
+        BandejaNotificacionRepositoryCustom {
+
+    /** Proyección JPQL de una fila de la bandeja a NotificacionDto. */
+    String PROYECCION_DTO = "SELECT new ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto(" +
+            "n.id, n.titulo, n.mensaje, n.tipo, n.estado, n.usuarioId, n.metadata, n.fechaCreacion, n.fechaLectura, " +
+            "n.ocurrencias, n.fechaUltimaOcurrencia) " +
+            "FROM BandejaNotificacionEntity n ";
+
+    /**
+     * Encuentra todas las notificaciones de un usuario ordenadas por fecha descendente.
+     *
+     * @param usuarioId ID del usuario.
+     * @return Lista de notificaciones ordenadas por fecha de creación descendente.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionDto> findByUsuarioIdOrderByFechaCreacionDesc(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Encuentra notificaciones no leídas de un usuario ordenadas por fecha descendente.
+     *
+     * @param usuarioId ID del usuario.
+     * @param estado Estado de lectura (normalmente "NO_LEIDA").
+     * @return Lista de notificaciones no leídas ordenadas.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId AND n.estado = :estado " +
+            "ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionDto> findByUsuarioIdAndEstadoOrderByFechaCreacionDesc(@Param("usuarioId") Long usuarioId,
+                                                                           @Param("estado") String estado);
+
+    /**
+     * Obtiene la primera página del feed de un usuario (paginación keyset).
+     *
+     * @param usuarioId ID del usuario.
+     * @param pageable Límite de filas a devolver (siempre página 0).
+     * @return Notificaciones más recientes del usuario.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId " +
+            "ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionDto> findPrimeraPagina(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    /**
+     * Obtiene la página del feed de un usuario posterior al cursor (paginación keyset).
+     * La condición redundante {@code fechaCreacion <= :fecha} permite que los índices
+     * (usuario_id, fecha_creacion, id) posicionen el scan directamente en el cursor.
+     *
+     * @param usuarioId ID del usuario.
+     * @param fecha Fecha de creación del cursor.
+     * @param id ID del cursor.
+     * @param pageable Límite de filas a devolver (siempre página 0).
+     * @return Notificaciones anteriores al cursor.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId " +
+            "AND n.fechaCreacion <= :fecha " +
+            "AND (n.fechaCreacion < :fecha OR n.id < :id) " +
+            "ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionDto> findPaginaDespuesDe(@Param("usuarioId") Long usuarioId,
+                                              @Param("fecha") LocalDateTime fecha,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    /**
+     * Obtiene la primera página de notificaciones de un usuario en un estado (paginación keyset).
+     *
+     * @param usuarioId ID del usuario.
+     * @param estado Estado de lectura.
+     * @param pageable Límite de filas a devolver (siempre página 0).
+     * @return Notificaciones más recientes del usuario en ese estado.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId AND n.estado = :estado " +
+            "ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionDto> findPrimeraPaginaPorEstado(@Param("usuarioId") Long usuarioId,
+                                                     @Param("estado") String estado,
+                                                     Pageable pageable);
+
+    /**
+     * Obtiene la página de notificaciones de un usuario en un estado posterior al cursor.
+     *
+     * @param usuarioId ID del usuario.
+     * @param estado Estado de lectura.
+     * @param fecha Fecha de creación del cursor.
+     * @param id ID del cursor.
+     * @param pageable Límite de filas a devolver (siempre página 0).
+     * @return Notificaciones anteriores al cursor en ese estado.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId AND n.estado = :estado " +
+            "AND n.fechaCreacion <= :fecha " +
+            "AND (n.fechaCreacion < :fecha OR n.id < :id) " +
+            "ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionDto> findPaginaPorEstadoDespuesDe(@Param("usuarioId") Long usuarioId,
+                                                       @Param("estado") String estado,
+                                                       @Param("fecha") LocalDateTime fecha,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+
+    /** Última actividad de una fila: su última ocurrencia si es agrupada, si no su creación. */
+    String ACTIVIDAD = "COALESCE(n.fechaUltimaOcurrencia, n.fechaCreacion)";
+
+    /**
+     * Obtiene las notificaciones de un usuario con actividad posterior a un cursor, en orden
+     * cronológico de actividad. Se usa para reanudar un stream SSE desde el Last-Event-ID del
+     * cliente: una notificación agrupada que sumó ocurrencias después del cursor se vuelve a
+     * enviar con su estado actual, aunque su ventana haya empezado antes.
+     * Usa el índice (usuario_id, actividad, id) de {@code ParticionesService}.
+     *
+     * @param usuarioId ID del usuario.
+     * @param fecha Fecha de actividad del cursor.
+     * @param id ID del cursor.
+     * @param pageable Límite de filas a devolver (siempre página 0).
+     * @return Notificaciones posteriores al cursor, de la actividad más antigua a la más reciente.
+     */
+    @Query(PROYECCION_DTO + "WHERE n.usuarioId = :usuarioId " +
+            "AND " + ACTIVIDAD + " >= :fecha " +
+            "AND (" + ACTIVIDAD + " > :fecha OR n.id > :id) " +
+            "ORDER BY " + ACTIVIDAD + " ASC, n.id ASC")
+    List<NotificacionDto> findPosterioresA(@Param("usuarioId") Long usuarioId,
+                                           @Param("fecha") LocalDateTime fecha,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    /**
+     * Cuenta las notificaciones de un usuario en un estado.
+     *
+     * @param usuarioId ID del usuario.
+     * @param estado Estado de lectura (normalmente "NO_LEIDA").
+     * @return Número de notificaciones en ese estado.
+     */
+    long countByUsuarioIdAndEstado(Long usuarioId, String estado);
+
+    /**
+     * Cuenta las notificaciones en un estado para varios usuarios en una sola consulta.
+     *
+     * @param usuarioIds IDs de los usuarios.
+     * @param estado Estado de lectura.
+     * @return Filas [usuarioId, cantidad]; los usuarios sin notificaciones no aparecen.
+     */
+    @Query("SELECT n.usuarioId, COUNT(n) FROM BandejaNotificacionEntity n " +
+            "WHERE n.usuarioId IN :usuarioIds AND n.estado = :estado GROUP BY n.usuarioId")
+    List<Object[]> contarPorUsuarios(@Param("usuarioIds") List<Long> usuarioIds, @Param("estado") String estado);
+}
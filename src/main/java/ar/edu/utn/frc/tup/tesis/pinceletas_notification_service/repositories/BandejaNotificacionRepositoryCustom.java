@@ -0,0 +1,26 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de la bandeja implementadas con SQL nativo (operadores JSONB que JPQL no expresa).
+ */
+public interface BandejaNotificacionRepositoryCustom {
+
+    /**
+     * Obtiene una página de la bandeja de un usuario que cumple un filtro (paginación keyset).
+     * El filtro de metadata usa contención JSONB ({@code @>}), resuelta con los índices GIN.
+     *
+     * @param usuarioId ID del usuario.
+     * @param filtro Criterios de filtrado.
+     * @param fecha Fecha de creación del cursor (null para la primera página).
+     * @param id ID del cursor (null para la primera página).
+     * @param limite Cantidad máxima de filas a devolver.
+     * @return Notificaciones que cumplen el filtro, de la más reciente a la más antigua.
+     */
+    List<NotificacionDto> filtrar(Long usuarioId, FiltroNotificaciones filtro,
+                                  LocalDateTime fecha, Long id, int limite);
+}
@@ -0,0 +1,149 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.CatalogoTiposNotificacion;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación JDBC de {@link BandejaNotificacionRepositoryCustom}.
+ * Usa la conexión de la transacción JPA en curso.
+ * <p>
+ * Los filtros se aplican dentro de cada rama (directas y broadcasts), cada una ordenada y
+ * limitada por separado: así cada rama usa sus propios índices y el resultado une a lo sumo
+ * {@code 2 * limite} filas.
+ */
+public class BandejaNotificacionRepositoryImpl implements BandejaNotificacionRepositoryCustom {
+
+    private static final Rama DIRECTAS = new Rama(
+            "n.id, n.usuario_id, n.titulo, n.mensaje, n.tipo, n.estado, n.metadata::text AS metadata, " +
+            "n.fecha_creacion, n.fecha_lectura, n.ocurrencias, n.fecha_ultima_ocurrencia " +
+            "FROM notificaciones n WHERE n.usuario_id = ?",
+            "n.tipo", "n.estado", "n.metadata", "n.fecha_creacion", "n.id");
+    private static final Rama BROADCASTS = new Rama(
+            "b.id, r.usuario_id, b.titulo, b.mensaje, b.tipo, r.estado, b.metadata::text AS metadata, " +
+            "r.fecha_creacion, r.fecha_lectura, NULL::integer AS ocurrencias, " +
+            "NULL::timestamp AS fecha_ultima_ocurrencia FROM notificaciones_receptores r " +
+            "JOIN notificaciones_broadcast b ON b.id = r.broadcast_id WHERE r.usuario_id = ?",
+            "b.tipo", "r.estado", "b.metadata", "r.fecha_creacion", "r.broadcast_id");
+
+    private static final Pattern NUMERO_JSON = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogoTiposNotificacion catalogoTipos;
+
+    public BandejaNotificacionRepositoryImpl(JdbcTemplate jdbcTemplate, CatalogoTiposNotificacion catalogoTipos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogoTipos = catalogoTipos;
+    }
+
+    @Override
+    public List<NotificacionDto> filtrar(Long usuarioId, FiltroNotificaciones filtro,
+                                         LocalDateTime fecha, Long id, int limite) {
+        Short tipo = null;
+        if (filtro.tipo() != null) {
+            tipo = catalogoTipos.buscar(filtro.tipo());
+            if (tipo == null) {
+                // Ninguna notificación tiene ese tipo
+                return List.of();
+            }
+        }
+        Criterios criterios = new Criterios(usuarioId, tipo,
+                filtro.estado() != null ? EstadoNotificacionConverter.codigo(filtro.estado()) : null,
+                filtro.clave() != null ? documentosMetadata(filtro.clave(), filtro.valor()) : List.of(),
+                fecha, id, limite);
+
+        List<Object> argumentos = new ArrayList<>();
+        String directas = DIRECTAS.sql(criterios, argumentos);
+        String broadcasts = BROADCASTS.sql(criterios, argumentos);
+        argumentos.add(limite);
+
+        return jdbcTemplate.query("SELECT * FROM (" + directas + " UNION ALL " + broadcasts + ") f " +
+                "ORDER BY fecha_creacion DESC, id DESC LIMIT ?", this::mapear, argumentos.toArray());
+    }
+
+    /**
+     * Documentos JSON buscados por contención para {@code clave = valor}: siempre el valor como
+     * texto y, si lo parece, también como número o booleano (un id de pedido puede venir de
+     * cualquiera de las dos formas).
+     */
+    private static List<String> documentosMetadata(String clave, String valor) {
+        String prefijo = "{\"" + new String(JsonStringEncoder.getInstance().quoteAsString(clave)) + "\":";
+        List<String> documentos = new ArrayList<>();
+        documentos.add(prefijo + "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(valor)) + "\"}");
+        if (NUMERO_JSON.matcher(valor).matches() || valor.equals("true") || valor.equals("false")) {
+            documentos.add(prefijo + valor + "}");
+        }
+        return documentos;
+    }
+
+    private NotificacionDto mapear(ResultSet rs, int fila) throws SQLException {
+        Timestamp fechaLectura = rs.getTimestamp("fecha_lectura");
+        Timestamp ultimaOcurrencia = rs.getTimestamp("fecha_ultima_ocurrencia");
+        return new NotificacionDto(
+                rs.getLong("id"),
+                rs.getString("titulo"),
+                rs.getString("mensaje"),
+                catalogoTipos.nombre(rs.getShort("tipo")),
+                EstadoNotificacionConverter.nombre(rs.getShort("estado")),
+                rs.getLong("usuario_id"),
+                rs.getString("metadata"),
+                rs.getTimestamp("fecha_creacion").toLocalDateTime(),
+                fechaLectura != null ? fechaLectura.toLocalDateTime() : null,
+                rs.getObject("ocurrencias", Integer.class),
+                ultimaOcurrencia != null ? ultimaOcurrencia.toLocalDateTime() : null
+        );
+    }
+
+    /** Valores de filtrado, ya traducidos a los de la base. */
+    private record Criterios(Long usuarioId, Short tipo, Short estado, List<String> documentos,
+                             LocalDateTime fecha, Long id, int limite) {
+    }
+
+    /** Columnas de una rama de la bandeja (directas o broadcasts). */
+    private record Rama(String select, String tipo, String estado, String metadata, String fecha, String id) {
+
+        /** Arma la rama con sus filtros, orden y límite, agregando sus argumentos. */
+        String sql(Criterios criterios, List<Object> argumentos) {
+            StringBuilder sql = new StringBuilder("(SELECT ").append(select);
+            argumentos.add(criterios.usuarioId());
+            if (criterios.tipo() != null) {
+                sql.append(" AND ").append(tipo).append(" = ?");
+                argumentos.add(criterios.tipo());
+            }
+            if (criterios.estado() != null) {
+                sql.append(" AND ").append(estado).append(" = ?");
+                argumentos.add(criterios.estado());
+            }
+            if (!criterios.documentos().isEmpty()) {
+                List<String> alternativas = new ArrayList<>();
+                for (String documento : criterios.documentos()) {
+                    alternativas.add(metadata + " @> ?::jsonb");
+                    argumentos.add(documento);
+                }
+                sql.append(" AND (").append(String.join(" OR ", alternativas)).append(")");
+            }
+            if (criterios.fecha() != null) {
+                // Igual que en las consultas JPQL: la condición redundante posiciona el scan en el cursor
+                sql.append(" AND ").append(fecha).append(" <= ? AND (")
+                        .append(fecha).append(" < ? OR ").append(id).append(" < ?)");
+                Timestamp cursor = Timestamp.valueOf(criterios.fecha());
+                argumentos.add(cursor);
+                argumentos.add(cursor);
+                argumentos.add(criterios.id());
+            }
+            sql.append(" ORDER BY ").append(fecha).append(" DESC, ").append(id).append(" DESC LIMIT ?)");
+            argumentos.add(criterios.limite());
+            return sql.toString();
+        }
+    }
+}
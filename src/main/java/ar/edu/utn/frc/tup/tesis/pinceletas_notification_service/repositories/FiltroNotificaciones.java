@@ -0,0 +1,12 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+/**
+ * Criterios de filtrado de la bandeja de un usuario. Los criterios null no filtran.
+ *
+ * @param tipo Tipo de notificación.
+ * @param estado Estado de lectura (NO_LEIDA / LEIDA).
+ * @param clave Clave de primer nivel de la metadata.
+ * @param valor Valor de esa clave (coincide como texto, y como número o booleano si lo es).
+ */
+public record FiltroNotificaciones(String tipo, String estado, String clave, String valor) {
+}
@@ -0,0 +1,12 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+
+/**
+ * Resultado de acumular una notificación agrupada.
+ *
+ * @param notificacion Notificación con el estado de la fila tras el upsert (id, ocurrencias totales, contenido).
+ * @param nueva true si la fila se insertó; false si se acumuló sobre una existente.
+ */
+public record NotificacionAgrupada(NotificacionEntity notificacion, boolean nueva) {
+}
@@ -0,0 +1,12 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionBroadcastEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para el contenido de las notificaciones broadcast.
+ */
+@Repository
+public interface NotificacionBroadcastRepository extends JpaRepository<NotificacionBroadcastEntity, Long> {
+}
@@ -0,0 +1,88 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionReceptorEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Repositorio para las recepciones de broadcasts por usuario.
+ * El alta masiva de recepciones está en {@link NotificacionReceptorRepositoryCustom}.
+ */
+@Repository
+public interface NotificacionReceptorRepository
+        extends JpaRepository<NotificacionReceptorEntity, NotificacionReceptorEntity.Clave>,
+        NotificacionReceptorRepositoryCustom {
+
+    /**
+     * Marca un broadcast como leído para un usuario.
+     *
+     * @param broadcastId ID del broadcast.
+     * @param usuarioId ID del usuario.
+     * @return Cantidad de recepciones que pasaron de NO_LEIDA a LEIDA (0 o 1).
+     */
+    @Modifying
+    @Query("UPDATE NotificacionReceptorEntity r SET r.estado = 'LEIDA', r.fechaLectura = CURRENT_TIMESTAMP " +
+            "WHERE r.id.broadcastId = :broadcastId AND r.id.usuarioId = :usuarioId AND r.estado = 'NO_LEIDA'")
+    int marcarComoLeida(@Param("broadcastId") Long broadcastId, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Marca varios broadcasts como leídos para un usuario con una única sentencia UPDATE.
+     *
+     * @param broadcastIds IDs de los broadcasts.
+     * @param usuarioId ID del usuario.
+     * @return Cantidad de recepciones que pasaron de NO_LEIDA a LEIDA.
+     */
+    @Modifying
+    @Query("UPDATE NotificacionReceptorEntity r SET r.estado = 'LEIDA', r.fechaLectura = CURRENT_TIMESTAMP " +
+            "WHERE r.id.broadcastId IN :broadcastIds AND r.id.usuarioId = :usuarioId AND r.estado = 'NO_LEIDA'")
+    int marcarComoLeidas(@Param("broadcastIds") Collection<Long> broadcastIds, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Marca todos los broadcasts no leídos de un usuario como leídos.
+     *
+     * @param usuarioId ID del usuario.
+     */
+    @Modifying
+    @Query("UPDATE NotificacionReceptorEntity r SET r.estado = 'LEIDA', r.fechaLectura = CURRENT_TIMESTAMP " +
+            "WHERE r.id.usuarioId = :usuarioId AND r.estado = 'NO_LEIDA'")
+    void marcarTodasComoLeidas(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Elimina la recepción de un broadcast para un usuario con una única sentencia DELETE.
+     *
+     * @param broadcastId ID del broadcast.
+     * @param usuarioId ID del usuario.
+     * @return Cantidad de recepciones eliminadas (0 o 1).
+     */
+    @Modifying
+    @Query("DELETE FROM NotificacionReceptorEntity r WHERE r.id.broadcastId = :broadcastId AND r.id.usuarioId = :usuarioId")
+    int eliminar(@Param("broadcastId") Long broadcastId, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Elimina las recepciones de varios broadcasts para un usuario con una única sentencia DELETE.
+     *
+     * @param broadcastIds IDs de los broadcasts.
+     * @param usuarioId ID del usuario.
+     * @return Cantidad de recepciones eliminadas.
+     */
+    @Modifying
+    @Query("DELETE FROM NotificacionReceptorEntity r WHERE r.id.broadcastId IN :broadcastIds AND r.id.usuarioId = :usuarioId")
+    int eliminarTodas(@Param("broadcastIds") Collection<Long> broadcastIds, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Elimina las recepciones leídas de un usuario creadas antes de una fecha.
+     *
+     * @param usuarioId ID del usuario.
+     * @param fecha Fecha de creación límite (exclusiva).
+     * @return Cantidad de recepciones eliminadas.
+     */
+    @Modifying
+    @Query("DELETE FROM NotificacionReceptorEntity r WHERE r.id.usuarioId = :usuarioId AND r.estado = 'LEIDA' AND r.fechaCreacion < :fecha")
+    int eliminarLeidasAnterioresA(@Param("usuarioId") Long usuarioId, @Param("fecha") LocalDateTime fecha);
+}
@@ -0,0 +1,20 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Operaciones de recepciones de broadcast implementadas con JDBC.
+ */
+public interface NotificacionReceptorRepositoryCustom {
+
+    /**
+     * Inserta las recepciones de un broadcast para todos los destinatarios en una única sentencia.
+     *
+     * @param broadcastId ID del broadcast.
+     * @param usuarioIds IDs de los destinatarios.
+     * @param fechaCreacion Fecha de creación del broadcast.
+     * @return Cantidad de recepciones insertadas.
+     */
+    int insertarRecepciones(Long broadcastId, Collection<Long> usuarioIds, LocalDateTime fechaCreacion);
+}
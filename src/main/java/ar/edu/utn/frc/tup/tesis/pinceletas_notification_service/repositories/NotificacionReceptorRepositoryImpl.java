@@ -0,0 +1,40 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Implementación JDBC de {@link NotificacionReceptorRepositoryCustom}.
+ * Usa la conexión de la transacción JPA en curso.
+ */
+public class NotificacionReceptorRepositoryImpl implements NotificacionReceptorRepositoryCustom {
+
+    /** Inserta una fila por destinatario expandiendo un arreglo con unnest. */
+    private static final String INSERT_RECEPCIONES =
+            "INSERT INTO notificaciones_receptores (broadcast_id, usuario_id, estado, fecha_creacion) " +
+            "SELECT ?, u, " + EstadoNotificacionConverter.CODIGO_NO_LEIDA + ", ? FROM unnest(?::bigint[]) AS u";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificacionReceptorRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertarRecepciones(Long broadcastId, Collection<Long> usuarioIds, LocalDateTime fechaCreacion) {
+        if (usuarioIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(INSERT_RECEPCIONES, ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", usuarioIds.toArray(new Long[0]));
+            ps.setLong(1, broadcastId);
+            ps.setTimestamp(2, Timestamp.valueOf(fechaCreacion));
+            ps.setArray(3, ids);
+        });
+    }
+}
@@ -8,66 +8,82 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
- * Repositorio para operaciones de base de datos con notificaciones.
- * Proporciona queries personalizadas para operaciones comunes de notificaciones.
+ * Repositorio para operaciones de base de datos con notificaciones directas.
+ * Las lecturas por usuario (que incluyen broadcasts) están en {@link BandejaNotificacionRepository}.
+ * El upsert de notificaciones agrupadas está en {@link NotificacionRepositoryCustom}.
  */
 @Repository
-public interface NotificacionRepository extends JpaRepository<NotificacionEntity, Long> {
+public interface NotificacionRepository extends JpaRepository<NotificacionEntity, Long>, NotificacionRepositoryCustom {
 
     /**
-     * Encuentra todas las notificaciones de un usuario ordenadas por fecha descendente.
+     * Marca una notificación específica como leída.
+     * Query de actualización que también establece la fecha de lectura.
+     * Solo afecta notificaciones no leídas, así una relectura no pisa la fecha de lectura.
      *
-     * @param usuarioId ID del usuario.
-     * @return Lista de notificaciones ordenadas por fecha de creación descendente.
+     * @param id ID de la notificación.
+     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @return Cantidad de filas que pasaron de NO_LEIDA a LEIDA (0 o 1).
      */
-    List<NotificacionEntity> findByUsuarioIdOrderByFechaCreacionDesc(Long usuarioId);
+    @Modifying
+    @Query("UPDATE NotificacionEntity n SET n.estado = 'LEIDA', n.fechaLectura = CURRENT_TIMESTAMP WHERE n.id = :id AND n.usuarioId = :usuarioId AND n.estado = 'NO_LEIDA'")
+    int marcarComoLeida(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
 
     /**
-     * Encuentra notificaciones no leídas de un usuario ordenadas por fecha descendente.
+     * Marca todas las notificaciones no leídas de un usuario como leídas.
      *
      * @param usuarioId ID del usuario.
-     * @param estado Estado de lectura (normalmente "NO_LEIDA").
-     * @return Lista de notificaciones no leídas ordenadas.
      */
-    List<NotificacionEntity> findByUsuarioIdAndEstadoOrderByFechaCreacionDesc(Long usuarioId, String estado);
+    @Modifying
+    @Query("UPDATE NotificacionEntity n SET n.estado = 'LEIDA', n.fechaLectura = CURRENT_TIMESTAMP WHERE n.usuarioId = :usuarioId AND n.estado = 'NO_LEIDA'")
+    void marcarTodasComoLeidas(@Param("usuarioId") Long usuarioId);
 
     /**
-     * Cuenta las notificaciones no leídas de un usuario.
+     * Marca como leídas varias notificaciones de un usuario con una única sentencia UPDATE.
      *
-     * @param usuarioId ID del usuario.
-     * @param estado Estado de lectura (normalmente "NO_LEIDA").
-     * @return Número de notificaciones no leídas.
+     * @param ids IDs de las notificaciones.
+     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @return Cantidad de filas que pasaron de NO_LEIDA a LEIDA.
      */
-    Long countByUsuarioIdAndEstado(Long usuarioId, String estado);
+    @Modifying
+    @Query("UPDATE NotificacionEntity n SET n.estado = 'LEIDA', n.fechaLectura = CURRENT_TIMESTAMP WHERE n.id IN :ids AND n.usuarioId = :usuarioId AND n.estado = 'NO_LEIDA'")
+    int marcarComoLeidas(@Param("ids") Collection<Long> ids, @Param("usuarioId") Long usuarioId);
 
     /**
-     * Marca una notificación específica como leída.
-     * Query de actualización que también establece la fecha de lectura.
+     * Elimina una notificación específica validando la propiedad por usuario,
+     * con una única sentencia DELETE (sin cargar la entidad).
      *
      * @param id ID de la notificación.
-     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @param usuarioId ID del usuario propietario.
+     * @return Cantidad de notificaciones eliminadas (0 o 1).
      */
     @Modifying
-    @Query("UPDATE NotificacionEntity n SET n.estado = 'LEIDA', n.fechaLectura = CURRENT_TIMESTAMP WHERE n.id = :id AND n.usuarioId = :usuarioId")
-    void marcarComoLeida(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+    @Query("DELETE FROM NotificacionEntity n WHERE n.id = :id AND n.usuarioId = :usuarioId")
+    int eliminar(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
 
     /**
-     * Marca todas las notificaciones no leídas de un usuario como leídas.
+     * Elimina varias notificaciones de un usuario con una única sentencia DELETE.
      *
-     * @param usuarioId ID del usuario.
+     * @param ids IDs de las notificaciones.
+     * @param usuarioId ID del usuario propietario.
+     * @return Cantidad de notificaciones eliminadas.
      */
     @Modifying
-    @Query("UPDATE NotificacionEntity n SET n.estado = 'LEIDA', n.fechaLectura = CURRENT_TIMESTAMP WHERE n.usuarioId = :usuarioId AND n.estado = 'NO_LEIDA'")
-    void marcarTodasComoLeidas(@Param("usuarioId") Long usuarioId);
+    @Query("DELETE FROM NotificacionEntity n WHERE n.id IN :ids AND n.usuarioId = :usuarioId")
+    int eliminarTodas(@Param("ids") Collection<Long> ids, @Param("usuarioId") Long usuarioId);
 
     /**
-     * Elimina una notificación específica validando la propiedad por usuario.
+     * Elimina las notificaciones leídas de un usuario creadas antes de una fecha.
+     * El límite sobre fecha_creacion permite descartar las particiones posteriores.
      *
-     * @param id ID de la notificación.
      * @param usuarioId ID del usuario propietario.
+     * @param fecha Fecha de creación límite (exclusiva).
+     * @return Cantidad de notificaciones eliminadas.
      */
-    void deleteByIdAndUsuarioId(Long id, Long usuarioId);
+    @Modifying
+    @Query("DELETE FROM NotificacionEntity n WHERE n.usuarioId = :usuarioId AND n.estado = 'LEIDA' AND n.fechaCreacion < :fecha")
+    int eliminarLeidasAnterioresA(@Param("usuarioId") Long usuarioId, @Param("fecha") LocalDateTime fecha);
 }
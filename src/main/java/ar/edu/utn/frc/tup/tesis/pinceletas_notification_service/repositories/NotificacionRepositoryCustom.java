@@ -0,0 +1,22 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+
+import java.util.List;
+
+/**
+ * Operaciones de notificaciones directas implementadas con JDBC.
+ */
+public interface NotificacionRepositoryCustom {
+
+    /**
+     * Inserta o acumula notificaciones agrupadas en una única sentencia
+     * {@code INSERT ... ON CONFLICT DO UPDATE}, sin leer antes las filas existentes.
+     * La clave de cada una es (usuarioId, tipo, fechaCreacion = inicio de la ventana,
+     * retencionDias) y no puede repetirse en la lista; {@code ocurrencias} es la cantidad a sumar.
+     *
+     * @param notificaciones Notificaciones agrupadas; se actualizan con el resultado de su fila.
+     * @return Resultado por notificación.
+     */
+    List<NotificacionAgrupada> agrupar(List<NotificacionEntity> notificaciones);
+}
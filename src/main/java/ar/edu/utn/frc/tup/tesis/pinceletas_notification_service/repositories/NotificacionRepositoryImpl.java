@@ -0,0 +1,123 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.CatalogoTiposNotificacion;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación JDBC de {@link NotificacionRepositoryCustom}.
+ * Usa la conexión de la transacción JPA en curso.
+ */
+public class NotificacionRepositoryImpl implements NotificacionRepositoryCustom {
+
+    /**
+     * Upsert de todas las agrupadas expandiendo arreglos con unnest; el conflicto se resuelve
+     * contra el índice único parcial {@code uk_notificaciones_agrupacion}. Las fechas viajan como
+     * texto ISO y se convierten en la base.
+     * El id sale de la misma secuencia que usa Hibernate: un valor de nextval nunca cae en un
+     * bloque asignado a Hibernate. Título, mensaje y metadata quedan los de la ocurrencia más
+     * reciente, y una ocurrencia nueva vuelve a dejar la notificación como no leída.
+     */
+    private static final String UPSERT_AGRUPADAS =
+            "INSERT INTO notificaciones AS n (id, titulo, mensaje, tipo, estado, usuario_id, metadata, " +
+            "fecha_creacion, retencion_dias, ocurrencias, fecha_ultima_ocurrencia) " +
+            "SELECT nextval('notificaciones_seq'), a.titulo, a.mensaje, a.tipo, " +
+            EstadoNotificacionConverter.CODIGO_NO_LEIDA + ", a.usuario_id, a.metadata::jsonb, " +
+            "a.fecha_creacion, a.retencion_dias, a.ocurrencias, a.ultima " +
+            "FROM unnest(?::bigint[], ?::smallint[], ?::text[], ?::text[], ?::text[], ?::timestamp[], " +
+            "?::integer[], ?::integer[], ?::timestamp[]) " +
+            "AS a(usuario_id, tipo, titulo, mensaje, metadata, fecha_creacion, retencion_dias, ocurrencias, ultima) " +
+            "ON CONFLICT (usuario_id, tipo, fecha_creacion, retencion_dias) WHERE ocurrencias IS NOT NULL " +
+            "DO UPDATE SET ocurrencias = n.ocurrencias + EXCLUDED.ocurrencias, " +
+            "fecha_ultima_ocurrencia = GREATEST(n.fecha_ultima_ocurrencia, EXCLUDED.fecha_ultima_ocurrencia), " +
+            "titulo = " + masReciente("titulo") + ", " +
+            "mensaje = " + masReciente("mensaje") + ", " +
+            "metadata = " + masReciente("metadata") + ", " +
+            "estado = " + EstadoNotificacionConverter.CODIGO_NO_LEIDA + ", fecha_lectura = NULL " +
+            "RETURNING n.id, n.usuario_id, n.tipo, n.fecha_creacion, n.titulo, n.mensaje, " +
+            "n.metadata::text AS metadata, n.ocurrencias, n.fecha_ultima_ocurrencia";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogoTiposNotificacion catalogoTipos;
+
+    public NotificacionRepositoryImpl(JdbcTemplate jdbcTemplate, CatalogoTiposNotificacion catalogoTipos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogoTipos = catalogoTipos;
+    }
+
+    @Override
+    public List<NotificacionAgrupada> agrupar(List<NotificacionEntity> notificaciones) {
+        if (notificaciones.isEmpty()) {
+            return List.of();
+        }
+        int cantidad = notificaciones.size();
+        Long[] usuarios = new Long[cantidad];
+        Short[] tipos = new Short[cantidad];
+        String[] titulos = new String[cantidad];
+        String[] mensajes = new String[cantidad];
+        String[] metadatas = new String[cantidad];
+        String[] ventanas = new String[cantidad];
+        Integer[] retenciones = new Integer[cantidad];
+        Integer[] ocurrencias = new Integer[cantidad];
+        String[] ultimas = new String[cantidad];
+        Map<Clave, NotificacionEntity> porClave = new HashMap<>(cantidad * 2);
+        for (int i = 0; i < cantidad; i++) {
+            NotificacionEntity notificacion = notificaciones.get(i);
+            usuarios[i] = notificacion.getUsuarioId();
+            tipos[i] = catalogoTipos.codigo(notificacion.getTipo());
+            titulos[i] = notificacion.getTitulo();
+            mensajes[i] = notificacion.getMensaje();
+            metadatas[i] = notificacion.getMetadata();
+            ventanas[i] = notificacion.getFechaCreacion().toString();
+            retenciones[i] = notificacion.getRetencionDias();
+            ocurrencias[i] = notificacion.getOcurrencias();
+            ultimas[i] = notificacion.getFechaUltimaOcurrencia().toString();
+            porClave.put(new Clave(usuarios[i], tipos[i], notificacion.getFechaCreacion()), notificacion);
+        }
+
+        return jdbcTemplate.query(UPSERT_AGRUPADAS, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", usuarios));
+            ps.setArray(2, connection.createArrayOf("smallint", tipos));
+            ps.setArray(3, connection.createArrayOf("text", titulos));
+            ps.setArray(4, connection.createArrayOf("text", mensajes));
+            ps.setArray(5, connection.createArrayOf("text", metadatas));
+            ps.setArray(6, connection.createArrayOf("text", ventanas));
+            ps.setArray(7, connection.createArrayOf("integer", retenciones));
+            ps.setArray(8, connection.createArrayOf("integer", ocurrencias));
+            ps.setArray(9, connection.createArrayOf("text", ultimas));
+        }, (rs, fila) -> {
+            LocalDateTime ventana = rs.getTimestamp("fecha_creacion").toLocalDateTime();
+            NotificacionEntity notificacion = porClave.get(
+                    new Clave(rs.getLong("usuario_id"), rs.getShort("tipo"), ventana));
+            // Si la fila ya existía, sus ocurrencias superan a las que se acaban de sumar
+            boolean nueva = rs.getInt("ocurrencias") == notificacion.getOcurrencias();
+            notificacion.setId(rs.getLong("id"));
+            notificacion.setTitulo(rs.getString("titulo"));
+            notificacion.setMensaje(rs.getString("mensaje"));
+            notificacion.setMetadata(rs.getString("metadata"));
+            notificacion.setOcurrencias(rs.getInt("ocurrencias"));
+            notificacion.setFechaUltimaOcurrencia(rs.getTimestamp("fecha_ultima_ocurrencia").toLocalDateTime());
+            notificacion.setEstado(EstadoNotificacionConverter.NO_LEIDA);
+            notificacion.setFechaLectura(null);
+            return new NotificacionAgrupada(notificacion, nueva);
+        });
+    }
+
+    /** Valor de una columna según la ocurrencia más reciente (la existente o la que llega). */
+    private static String masReciente(String columna) {
+        return "CASE WHEN EXCLUDED.fecha_ultima_ocurrencia >= n.fecha_ultima_ocurrencia " +
+                "THEN EXCLUDED." + columna + " ELSE n." + columna + " END";
+    }
+
+    /** Clave de agrupación de una fila. */
+    private record Clave(Long usuarioId, short tipo, LocalDateTime ventana) {
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 /**
  * Filtro de autenticación JWT para Spring Security.
@@ -61,9 +62,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
         }
 
         try {
-            if (jwtService.isTokenValid(token)) {
-                String email = jwtService.extractUsername(token);
-                String role = jwtService.extractRole(token);
+            Optional<JwtService.ClaimsVerificados> claims = jwtService.verificar(token);
+            if (claims.isPresent()) {
+                String email = claims.get().email();
+                String role = claims.get().role();
 
                 log.debug("Token válido para usuario: {} con rol: {}", email, role);
 
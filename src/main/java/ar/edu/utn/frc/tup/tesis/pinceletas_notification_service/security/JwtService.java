@@ -1,31 +1,78 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * Servicio para la gestión de tokens JWT (JSON Web Tokens).
  * Proporciona funcionalidades para generar, validar y extraer información
  * de tokens JWT utilizados en la autenticación de usuarios.
+ * La clave y el parser se construyen una sola vez, y los claims de los tokens ya
+ * verificados se cachean por digest del token hasta su expiración, de modo que los
+ * requests siguientes de la misma sesión no repiten la verificación de la firma.
  */
 
 @Service
 @Slf4j
 public class JwtService {
+
+    /** Nombre del cache en las métricas. */
+    private static final String NOMBRE_CACHE = "jwt-claims-verificados";
+
+    /** Digest SHA-256 por hilo (MessageDigest no es thread-safe). */
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    /** Clave de firma HMAC-SHA256, derivada una sola vez. */
+    private final Key signingKey;
+    /** Parser inmutable y thread-safe, reutilizado entre requests. */
+    private final JwtParser parser;
+    /** Cache digest del token → claims ya verificados, con expiración en el {@code exp} del token. */
+    private final Cache<String, ClaimsVerificados> claimsVerificados;
+
+    public JwtService(MeterRegistry meterRegistry,
+                      @Value("${app.security.jwt.cache.max-entradas:10000}") long maxEntradas) {
+        this.signingKey = Keys.hmacShaKeyFor(SecurityConstants.JWT_SECRET.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.claimsVerificados = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new ExpiracionDelToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsVerificados, NOMBRE_CACHE);
+    }
+
     /**
-     * Genera la clave de firma HMAC-SHA256 a partir de la clave secreta.
-     * Convierte la clave secreta definida en SecurityConstants a una clave
-     * criptográfica válida para firmar y validar tokens JWT.
+     * Claims de un token cuya firma y vigencia ya fueron verificadas.
      *
-     * @return Clave criptográfica para firmar/validar tokens.
+     * @param email Email del usuario (subject).
+     * @param role Rol del usuario ("USER" si el token no lo define).
+     * @param expiracion Fecha de expiración del token.
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SecurityConstants.JWT_SECRET.getBytes());
+    public record ClaimsVerificados(String email, String role, Date expiracion) {
     }
 
     /**
@@ -43,7 +90,7 @@ public class JwtService {
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.JWT_EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -59,6 +106,26 @@ public class JwtService {
         return generateToken(email, "USER");
     }
 
+    /**
+     * Valida un token y devuelve sus claims en una sola pasada.
+     * Si el token ya fue verificado y sigue vigente, responde desde el cache sin
+     * volver a verificar la firma; si no, lo parsea una única vez.
+     *
+     * @param token Token JWT a validar.
+     * @return Claims verificados, o vacío si el token es inválido o expiró.
+     */
+    public Optional<ClaimsVerificados> verificar(String token) {
+        try {
+            return Optional.of(claimsVerificados.get(digest(token), clave -> parsear(token)));
+        } catch (ExpiredJwtException e) {
+            log.warn("Token expirado: {}", e.getMessage());
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Token inválido: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     /**
      * Extrae el email (subject) del usuario desde un token JWT.
      *
@@ -66,7 +133,7 @@ public class JwtService {
      * @return Email del usuario contenido en el token.
      */
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        return obtenerClaims(token).email();
     }
 
     /**
@@ -77,8 +144,7 @@ public class JwtService {
      * @return Rol del usuario o "USER" si no está definido.
      */
     public String extractRole(String token) {
-        Object role = getClaims(token).get("role");
-        return role != null ? role.toString() : "USER";
+        return obtenerClaims(token).role();
     }
 
     /**
@@ -89,16 +155,7 @@ public class JwtService {
      * @return true si el token es válido, false en caso contrario.
      */
     public boolean isTokenValid(String token) {
-        try {
-            getClaims(token);
-            return !isTokenExpired(token);
-        } catch (ExpiredJwtException e) {
-            log.warn("Token expirado: {}", e.getMessage());
-            return false;
-        } catch (JwtException e) {
-            log.error("Token inválido: {}", e.getMessage());
-            return false;
-        }
+        return verificar(token).isPresent();
     }
 
     /**
@@ -108,32 +165,70 @@ public class JwtService {
      * @return Fecha de expiración del token.
      */
     public Date getExpirationDate(String token) {
-        return getClaims(token).getExpiration();
+        return obtenerClaims(token).expiracion();
+    }
+
+    /**
+     * Obtiene los claims verificados de un token, desde el cache o parseándolo.
+     * A diferencia de {@link #verificar(String)}, propaga la excepción si el token es inválido.
+     *
+     * @param token Token JWT.
+     * @return Claims verificados.
+     */
+    private ClaimsVerificados obtenerClaims(String token) {
+        return claimsVerificados.get(digest(token), clave -> parsear(token));
     }
 
     /**
      * Parsea y valida un token JWT, extrayendo sus claims.
-     * Realiza la validación de la firma digital y extrae el payload del token.
+     * Realiza la validación de la firma digital y de la expiración.
      *
      * @param token Token JWT a parsear.
      * @return Claims contenidos en el token.
      */
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private ClaimsVerificados parsear(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Object role = claims.get("role");
+        return new ClaimsVerificados(
+                claims.getSubject(),
+                role != null ? role.toString() : "USER",
+                claims.getExpiration()
+        );
     }
 
     /**
-     * Verifica si un token JWT ha expirado.
-     * Compara la fecha de expiración del token con la fecha actual del sistema.
-     *
-     * @param token Token JWT a verificar.
-     * @return true si el token ha expirado, false si aún es válido.
+     * Calcula la clave del cache. Se usa el digest y no el token para no retener
+     * credenciales en memoria.
      */
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /** Expira cada entrada en el {@code exp} de su token; los tokens sin {@code exp} no se retienen. */
+    private static final class ExpiracionDelToken implements Expiry<String, ClaimsVerificados> {
+
+        @Override
+        public long expireAfterCreate(String clave, ClaimsVerificados claims, long currentTime) {
+            if (claims.expiracion() == null) {
+                return 0;
+            }
+            long restanteMs = claims.expiracion().getTime() - System.currentTimeMillis();
+            return Math.max(0, restanteMs) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, ClaimsVerificados claims, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(clave, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, ClaimsVerificados claims, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 }
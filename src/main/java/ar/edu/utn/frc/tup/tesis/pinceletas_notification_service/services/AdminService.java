@@ -1,50 +1,166 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
 
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceClient;
-import lombok.RequiredArgsConstructor;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceNoDisponibleException;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.utils.EsperaExponencial;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Servicio para gestión de administradores.
- * Proporciona funcionalidades para obtener información de administradores del sistema.
+ * Mantiene en memoria el directorio de IDs de administradores, que se refresca desde el
+ * servicio de usuarios de forma periódica y a demanda. Las lecturas devuelven siempre una
+ * instantánea inmutable sin bloquear ni llamar al servicio de usuarios: si la carga falla se
+ * sirve el último directorio conocido y la tarea programada reintenta con espera exponencial
+ * hasta recuperarse. Antes de la primera carga exitosa no hay directorio que servir, y eso se
+ * distingue de un directorio cargado y vacío (ver {@link #obtenerIdsDeAdministradores()}).
  */
 @Service
-@RequiredArgsConstructor
 public class AdminService {
 
     private static final Logger log = LoggerFactory.getLogger(AdminService.class);
 
+    /** Rol consultado al servicio de usuarios cuando está habilitada la consulta por rol. */
+    private static final String ROL_ADMIN = "ADMIN";
+    /** Factor de crecimiento de la espera entre reintentos tras fallos consecutivos. */
+    private static final double MULTIPLICADOR_REINTENTO = 2.0;
+
     /** Cliente para comunicación con el servicio de usuarios. */
     private final UserServiceClient userServiceClient;
+    /** Resolución cacheada email → userId de los administradores configurados. */
+    private final UserMappingService userMappingService;
+    /** Emails de administradores configurados (se usan si no se consulta por rol). */
+    private final List<String> emailsAdministradores;
+    /** Si es true, el directorio se obtiene consultando usuarios con rol ADMIN. */
+    private final boolean consultaPorRol;
+    /** Instantánea vigente del directorio (null hasta la primera carga exitosa). */
+    private final AtomicReference<List<Long>> directorio = new AtomicReference<>();
+    /** Serializa los refrescos para no duplicar llamadas al servicio de usuarios. */
+    private final Object refrescoLock = new Object();
+    /** Intervalo entre refrescos exitosos; también es el tope de la espera tras fallos. */
+    private final long refrescoMs;
+    /** Espera antes del primer reintento tras un refresco fallido. */
+    private final long reintentoInicialMs;
+    /** Refrescos fallidos seguidos (protegido por {@link #refrescoLock}). */
+    private int fallosConsecutivos;
+    /** Momento ({@link System#nanoTime()}) a partir del cual toca el próximo refresco programado. */
+    private volatile long proximoRefrescoNanos = System.nanoTime();
+
+    public AdminService(UserServiceClient userServiceClient,
+                        UserMappingService userMappingService,
+                        @Value("${app.admin.emails:}") List<String> emailsAdministradores,
+                        @Value("${app.admin.consulta-por-rol:false}") boolean consultaPorRol,
+                        @Value("${app.admin.refresco-ms:300000}") long refrescoMs,
+                        @Value("${app.admin.reintento-inicial-ms:5000}") long reintentoInicialMs) {
+        this.userServiceClient = userServiceClient;
+        this.userMappingService = userMappingService;
+        this.emailsAdministradores = emailsAdministradores.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .toList();
+        this.consultaPorRol = consultaPorRol;
+        this.refrescoMs = refrescoMs;
+        this.reintentoInicialMs = reintentoInicialMs;
+    }
 
     /**
-     * Obtiene los IDs de todos los administradores del sistema.
-     * Actualmente busca un administrador específico por email hardcodeado.
+     * Obtiene los IDs de todos los administradores del sistema desde el directorio en memoria.
+     * Nunca consulta al servicio de usuarios: la carga queda a cargo del refresco programado.
      *
-     * @return Lista de IDs de administradores.
+     * @return Lista inmutable de IDs de administradores (vacía si el directorio cargado no tiene ninguno).
+     * @throws UserServiceNoDisponibleException Si todavía no hubo una carga exitosa; quien
+     *         distribuye a los administradores debe reintentar más tarde en lugar de darlo por entregado.
      */
     public List<Long> obtenerIdsDeAdministradores() {
-        log.info("🔍 Buscando IDs de administradores dinámicamente");
+        List<Long> actual = directorio.get();
+        if (actual == null) {
+            throw new UserServiceNoDisponibleException("Directorio de administradores todavía no cargado");
+        }
+        return actual;
+    }
 
-        List<Long> adminIds = new ArrayList<>();
+    /**
+     * Revisión periódica del directorio de administradores.
+     * Corre con una frecuencia corta pero solo refresca cuando venció el plazo: el intervalo
+     * normal tras un éxito, o la espera exponencial tras fallos consecutivos.
+     */
+    @Scheduled(fixedDelayString = "${app.admin.revision-ms:1000}", initialDelay = 0)
+    public void refrescoProgramado() {
+        if (System.nanoTime() - proximoRefrescoNanos >= 0) {
+            refrescarDirectorio();
+        }
+    }
 
-        // Buscar el admin específico por email
-        String adminEmail = "tomasherrado@gamil.com";
-        UserServiceClient.UserBasicInfo admin = userServiceClient.getUserByEmail(adminEmail);
+    /**
+     * Recarga el directorio desde el servicio de usuarios y lo reemplaza de forma atómica.
+     * Si la recarga falla se conserva la instantánea anterior y se agenda un reintento.
+     *
+     * @return Directorio vigente tras el refresco.
+     */
+    public List<Long> refrescarDirectorio() {
+        synchronized (refrescoLock) {
+            try {
+                List<Long> nuevo = List.copyOf(consultaPorRol ? cargarPorRol() : cargarPorEmails());
+                List<Long> anterior = directorio.getAndSet(nuevo);
+                if (!nuevo.equals(anterior)) {
+                    log.info("📋 Directorio de administradores actualizado: {} IDs", nuevo.size());
+                }
+                fallosConsecutivos = 0;
+                proximoRefrescoNanos = System.nanoTime() + refrescoMs * 1_000_000L;
+                return nuevo;
+            } catch (Exception e) {
+                fallosConsecutivos++;
+                long esperaMs = EsperaExponencial.calcular(
+                        fallosConsecutivos, reintentoInicialMs, MULTIPLICADOR_REINTENTO, refrescoMs);
+                proximoRefrescoNanos = System.nanoTime() + esperaMs * 1_000_000L;
+                log.error("❌ Error refrescando directorio de administradores (intento {}), se conserva el anterior y se reintenta en {} ms: {}",
+                        fallosConsecutivos, esperaMs, e.getMessage());
+                List<Long> actual = directorio.get();
+                return actual != null ? actual : List.of();
+            }
+        }
+    }
 
-        if (admin != null && admin.id() != null) {
-            adminIds.add(admin.id());
-            log.info("✅ Admin encontrado: {} (ID: {})", adminEmail, admin.id());
-        } else {
-            log.warn("⚠️ No se encontró el admin con email: {}", adminEmail);
+    /**
+     * Resuelve los IDs de los emails configurados por el cache de {@link UserMappingService}
+     * (los faltantes se buscan juntos en una llamada por lote).
+     * Un error de comunicación aborta el refresco completo para no publicar un directorio parcial.
+     */
+    private List<Long> cargarPorEmails() {
+        if (emailsAdministradores.isEmpty()) {
+            log.warn("⚠️ No hay emails de administradores configurados (app.admin.emails)");
+            return List.of();
+        }
+        Map<String, Long> admins = userMappingService.obtenerUserIdsPorEmails(emailsAdministradores);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String email : emailsAdministradores) {
+            Long adminId = admins.get(UserMappingService.normalizar(email));
+            if (adminId != null) {
+                ids.add(adminId);
+            } else {
+                log.warn("⚠️ No se encontró el admin con email: {}", email);
+            }
         }
+        return new ArrayList<>(ids);
+    }
 
-        log.info("📋 IDs de administradores obtenidos: {}", adminIds.size());
-        return adminIds;
+    private List<Long> cargarPorRol() {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (UserServiceClient.UserBasicInfo admin : userServiceClient.findUsersByRole(ROL_ADMIN)) {
+            if (admin.id() != null) {
+                ids.add(admin.id());
+            }
+        }
+        return new ArrayList<>(ids);
     }
 }
@@ -0,0 +1,145 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.TipoNotificacionEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo en memoria de los tipos de notificación ({@link TipoNotificacionEntity}).
+ * Traduce nombre ↔ código sin consultar la base en el caso común: solo la consulta al
+ * encontrar un código que no conoce (lo registró otra instancia) o al registrar un tipo nuevo.
+ * <p>
+ * El registro usa una conexión propia en auto-commit, fuera de la transacción en curso: un
+ * código entregado queda confirmado aunque la transacción que lo pidió se revierta, así nunca
+ * se guarda una notificación con un código que no existe en el catálogo.
+ */
+@Service
+public class CatalogoTiposNotificacion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoTiposNotificacion.class);
+
+    private static final String LISTAR = "SELECT codigo, nombre FROM notificaciones_tipos";
+    private static final String REGISTRAR =
+            "INSERT INTO notificaciones_tipos (nombre) VALUES (?) ON CONFLICT (nombre) DO NOTHING";
+    private static final String BUSCAR = "SELECT codigo FROM notificaciones_tipos WHERE nombre = ?";
+
+    private final DataSource dataSource;
+    private final Map<String, Short> codigos = new ConcurrentHashMap<>();
+    private final Map<Short, String> nombres = new ConcurrentHashMap<>();
+
+    public CatalogoTiposNotificacion(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Obtiene el código de un tipo, registrándolo si es nuevo.
+     *
+     * @param nombre Nombre del tipo.
+     * @return Código del tipo.
+     */
+    public short codigo(String nombre) {
+        Short codigo = codigos.get(nombre);
+        return codigo != null ? codigo : registrar(nombre);
+    }
+
+    /**
+     * Busca el código de un tipo sin registrarlo (para filtros).
+     *
+     * @param nombre Nombre del tipo.
+     * @return Código del tipo, o null si no existe ninguna notificación de ese tipo.
+     */
+    public Short buscar(String nombre) {
+        Short codigo = codigos.get(nombre);
+        if (codigo == null) {
+            recargar();
+            codigo = codigos.get(nombre);
+        }
+        return codigo;
+    }
+
+    /**
+     * Obtiene el nombre de un código de tipo.
+     *
+     * @param codigo Código guardado en la base.
+     * @return Nombre del tipo.
+     * @throws IllegalStateException si el código no está en el catálogo.
+     */
+    public String nombre(short codigo) {
+        String nombre = nombres.get(codigo);
+        if (nombre == null) {
+            recargar();
+            nombre = nombres.get(codigo);
+            if (nombre == null) {
+                throw new IllegalStateException("Código de tipo de notificación desconocido: " + codigo);
+            }
+        }
+        return nombre;
+    }
+
+    /**
+     * Vuelve a leer el catálogo completo (es chico: un registro por tipo).
+     */
+    public synchronized void recargar() {
+        conConexion(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(LISTAR);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    agregar(rs.getShort(1), rs.getString(2));
+                }
+            }
+            return null;
+        });
+    }
+
+    private synchronized short registrar(String nombre) {
+        Short existente = codigos.get(nombre);
+        if (existente != null) {
+            return existente;
+        }
+        short codigo = conConexion(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(REGISTRAR)) {
+                insert.setString(1, nombre);
+                insert.executeUpdate();
+            }
+            try (PreparedStatement buscar = connection.prepareStatement(BUSCAR)) {
+                buscar.setString(1, nombre);
+                try (ResultSet rs = buscar.executeQuery()) {
+                    rs.next();
+                    return rs.getShort(1);
+                }
+            }
+        });
+        agregar(codigo, nombre);
+        log.info("🏷️ Tipo de notificación {} registrado con código {}", nombre, codigo);
+        return codigo;
+    }
+
+    private void agregar(short codigo, String nombre) {
+        codigos.put(nombre, codigo);
+        nombres.put(codigo, nombre);
+    }
+
+    private <T> T conConexion(OperacionJdbc<T> operacion) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            return operacion.ejecutar(connection);
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Error accediendo al catálogo de tipos: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface OperacionJdbc<T> {
+        T ejecutar(Connection connection) throws SQLException;
+    }
+}
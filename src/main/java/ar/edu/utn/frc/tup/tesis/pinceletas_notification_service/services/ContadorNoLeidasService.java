@@ -0,0 +1,180 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache.LongCounterMap;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.BandejaNotificacionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que mantiene en memoria el contador de notificaciones no leídas por usuario.
+ * Los contadores se cargan desde la base de datos la primera vez que se consultan y luego
+ * se actualizan incrementalmente desde {@link NotificacionService}. Una reconciliación
+ * periódica corrige cualquier desvío contra la base de datos.
+ * <p>
+ * Un cambio que llega mientras se carga un contador no se puede aplicar al valor leído (no se
+ * sabe si la consulta ya lo incluía): la carga queda marcada y su valor se devuelve sin
+ * guardarlo, así la siguiente lectura vuelve a cargarlo en lugar de fijar un valor viejo.
+ */
+@Service
+public class ContadorNoLeidasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorNoLeidasService.class);
+
+    /** Cantidad de usuarios por consulta durante la reconciliación. */
+    private static final int TAMANIO_LOTE_RECONCILIACION = 500;
+
+    /** Repositorio de la bandeja para cargar y reconciliar los contadores. */
+    private final BandejaNotificacionRepository bandejaRepository;
+    /** Versión de la bandeja; cambia si la reconciliación corrige un contador. */
+    private final VersionBandejaService versionBandejaService;
+    /** Contadores de no leídas por usuarioId. */
+    private final LongCounterMap contadores;
+    /** Cargas desde la base en curso por usuarioId. */
+    private final Map<Long, Carga> cargas = new ConcurrentHashMap<>();
+
+    public ContadorNoLeidasService(BandejaNotificacionRepository bandejaRepository,
+                                   VersionBandejaService versionBandejaService,
+                                   @Value("${app.notificaciones.contador.max-usuarios:100000}") int maxUsuarios,
+                                   @Value("${app.notificaciones.contador.concurrencia:64}") int concurrencia) {
+        this.bandejaRepository = bandejaRepository;
+        this.versionBandejaService = versionBandejaService;
+        this.contadores = new LongCounterMap(maxUsuarios, concurrencia);
+    }
+
+    /**
+     * Obtiene el contador de no leídas de un usuario.
+     * Solo consulta la base de datos si el usuario no está en memoria.
+     *
+     * @param usuarioId ID del usuario.
+     * @return Cantidad de notificaciones no leídas.
+     */
+    public long obtener(Long usuarioId) {
+        long valor = contadores.get(usuarioId);
+        if (valor != LongCounterMap.AUSENTE) {
+            return valor;
+        }
+        Carga carga = new Carga();
+        boolean propia = cargas.putIfAbsent(usuarioId, carga) == null;
+        long desdeBase;
+        try {
+            desdeBase = bandejaRepository.countByUsuarioIdAndEstado(usuarioId, "NO_LEIDA");
+        } catch (RuntimeException e) {
+            if (propia) {
+                cargas.remove(usuarioId, carga);
+            }
+            throw e;
+        }
+        if (!propia) {
+            // Otra carga del mismo usuario en curso: se responde sin guardar
+            return desdeBase;
+        }
+        long[] vigente = {desdeBase};
+        // El compute excluye a los cambios concurrentes (que marcan la carga en la misma entrada)
+        cargas.compute(usuarioId, (clave, enCurso) -> {
+            if (!carga.sucia) {
+                vigente[0] = contadores.putIfAbsent(usuarioId, desdeBase);
+            }
+            return null;
+        });
+        return vigente[0];
+    }
+
+    /**
+     * Ajusta el contador de un usuario si está cargado en memoria.
+     * Si no está cargado no hace nada: la próxima lectura lo carga desde la base.
+     *
+     * @param usuarioId ID del usuario.
+     * @param delta Cantidad a sumar (negativa para restar).
+     */
+    public void ajustar(Long usuarioId, long delta) {
+        marcarCarga(usuarioId);
+        contadores.addIfPresent(usuarioId, delta);
+    }
+
+    /**
+     * Deja el contador de un usuario en cero (todas leídas).
+     *
+     * @param usuarioId ID del usuario.
+     */
+    public void reiniciar(Long usuarioId) {
+        marcarCarga(usuarioId);
+        contadores.put(usuarioId, 0L);
+    }
+
+    /**
+     * Descarta el contador de un usuario; la próxima lectura lo recarga desde la base.
+     *
+     * @param usuarioId ID del usuario.
+     */
+    public void invalidar(Long usuarioId) {
+        marcarCarga(usuarioId);
+        contadores.remove(usuarioId);
+    }
+
+    /**
+     * Reconcilia los contadores en memoria con la base de datos.
+     * Recalcula en lotes con una consulta agrupada por usuario. Solo corrige los contadores que
+     * siguen en memoria sin cambios desde antes de la consulta: no vuelve a agregar usuarios
+     * desalojados ni pisa ajustes aplicados mientras tanto (se revisan en la próxima pasada).
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.contador.reconciliacion-ms:300000}",
+            initialDelayString = "${app.notificaciones.contador.reconciliacion-ms:300000}")
+    public void reconciliar() {
+        long[] usuarios = contadores.keys();
+        int corregidos = 0;
+
+        for (int desde = 0; desde < usuarios.length; desde += TAMANIO_LOTE_RECONCILIACION) {
+            int hasta = Math.min(desde + TAMANIO_LOTE_RECONCILIACION, usuarios.length);
+            List<Long> lote = new ArrayList<>(hasta - desde);
+            Map<Long, Long> previos = new HashMap<>();
+            for (int i = desde; i < hasta; i++) {
+                long previo = contadores.get(usuarios[i]);
+                if (previo != LongCounterMap.AUSENTE) {
+                    lote.add(usuarios[i]);
+                    previos.put(usuarios[i], previo);
+                }
+            }
+            if (lote.isEmpty()) {
+                continue;
+            }
+
+            Map<Long, Long> reales = new HashMap<>();
+            for (Object[] fila : bandejaRepository.contarPorUsuarios(lote, "NO_LEIDA")) {
+                reales.put((Long) fila[0], (Long) fila[1]);
+            }
+
+            for (Long usuarioId : lote) {
+                long real = reales.getOrDefault(usuarioId, 0L);
+                long previo = previos.get(usuarioId);
+                if (previo != real && contadores.replace(usuarioId, previo, real)) {
+                    versionBandejaService.incrementar(usuarioId);
+                    corregidos++;
+                }
+            }
+        }
+
+        log.info("Reconciliacion de contadores: {} usuarios revisados, {} corregidos", usuarios.length, corregidos);
+    }
+
+    /** Marca como sucia la carga en curso del usuario, si la hay. */
+    private void marcarCarga(Long usuarioId) {
+        cargas.computeIfPresent(usuarioId, (clave, carga) -> {
+            carga.sucia = true;
+            return carga;
+        });
+    }
+
+    /** Carga de un contador desde la base; sucia si el contador cambió mientras se consultaba. */
+    private static final class Carga {
+        private boolean sucia;
+    }
+}
@@ -0,0 +1,34 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.CrearNotificacionRequest;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEvent;
+import lombok.Getter;
+
+/**
+ * Solicitud de creación originada en un evento de RabbitMQ.
+ * Agrega la clave de deduplicación del evento, que no forma parte de
+ * {@link CrearNotificacionRequest} para que ningún cliente HTTP pueda fijarla.
+ */
+@Getter
+public class CrearNotificacionDesdeEvento extends CrearNotificacionRequest {
+
+    /** Clave de deduplicación del evento de origen (ver {@link DeduplicacionEventosService#claveDe}). */
+    private final String claveDeduplicacion;
+
+    /**
+     * Crea la solicitud de un evento para un destinatario.
+     *
+     * @param event Evento de notificación.
+     * @param usuarioId ID del usuario destinatario (null para broadcasts).
+     */
+    public CrearNotificacionDesdeEvento(NotificacionEvent event, Long usuarioId) {
+        super(event.getTitulo(), event.getMensaje(), event.getTipo(), usuarioId, event.getMetadata());
+        this.claveDeduplicacion = DeduplicacionEventosService.claveDe(event);
+    }
+
+    public CrearNotificacionDesdeEvento(String titulo, String mensaje, String tipo, Long usuarioId,
+                                        String metadata, String claveDeduplicacion) {
+        super(titulo, mensaje, tipo, usuarioId, metadata);
+        this.claveDeduplicacion = claveDeduplicacion;
+    }
+}
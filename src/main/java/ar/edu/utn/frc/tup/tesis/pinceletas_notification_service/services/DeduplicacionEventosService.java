@@ -0,0 +1,204 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache.BloomFilter;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio de ingesta idempotente de eventos.
+ * Cada evento tiene una clave de deduplicación (ID del mensaje o hash del contenido) que se
+ * registra en {@code notificaciones_eventos_procesados} dentro de la misma transacción que
+ * sus notificaciones. Un filtro de Bloom en memoria separa los eventos seguro nuevos (el caso
+ * común, que no paga ninguna consulta previa) de los sospechosos de repetirse, que se verifican
+ * contra la tabla antes de procesarlos. El INSERT con {@code ON CONFLICT DO NOTHING} es la
+ * garantía final (reinicios, otras instancias, falsos negativos por rotación del filtro) y nunca
+ * hace fallar la transacción.
+ * <p>
+ * Las claves por hash de contenido ({@code h:}) solo valen durante una ventana corta: un evento
+ * sin ID con el mismo contenido que otro de hace horas es una repetición legítima (p. ej. un
+ * segundo inicio de sesión), no una reentrega.
+ */
+@Service
+public class DeduplicacionEventosService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeduplicacionEventosService.class);
+
+    /** Longitud máxima de la columna clave. */
+    private static final int LONGITUD_MAXIMA_CLAVE = 100;
+    /** Prefijo de las claves calculadas por hash del contenido (eventos sin ID). */
+    private static final String PREFIJO_HASH = "h:";
+    /** Límite de vigencia de una clave registrada según su tipo (ventana corta para las de hash). */
+    private static final String LIMITE_VIGENCIA =
+            "CASE WHEN clave LIKE '" + PREFIJO_HASH + "%' THEN ? ELSE ? END";
+
+    /** Digest SHA-256 por hilo (MessageDigest no es thread-safe). */
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    /** Confirma cuáles de las claves sospechosas ya están registradas. */
+    private static final String BUSCAR_REGISTRADAS =
+            "SELECT clave FROM notificaciones_eventos_procesados " +
+            "WHERE clave = ANY(?) AND fecha_procesado >= " + LIMITE_VIGENCIA;
+    /** Registra las claves y devuelve solo las nuevas o las vencidas (que se renuevan). */
+    private static final String REGISTRAR =
+            "INSERT INTO notificaciones_eventos_procesados AS p (clave, fecha_procesado) " +
+            "SELECT c, ? FROM unnest(?::varchar[]) AS c " +
+            "ON CONFLICT (clave) DO UPDATE SET fecha_procesado = EXCLUDED.fecha_procesado " +
+            "WHERE p.fecha_procesado < CASE WHEN p.clave LIKE '" + PREFIJO_HASH + "%' THEN ? ELSE ? END " +
+            "RETURNING clave";
+    /** Purga las claves fuera de la ventana de deduplicación. */
+    private static final String PURGAR =
+            "DELETE FROM notificaciones_eventos_procesados WHERE fecha_procesado < " + LIMITE_VIGENCIA;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BloomFilter filtro;
+    private final Duration ventana;
+    /** Ventana de las claves por hash de contenido. */
+    private final Duration ventanaHash;
+    /** Duplicados descartados tras confirmar la sospecha del filtro. */
+    private final Counter duplicadosFiltro;
+    /** Duplicados que el filtro no detectó y frenó la restricción única. */
+    private final Counter duplicadosRestriccion;
+    /** Sospechas del filtro que resultaron ser eventos nuevos. */
+    private final Counter falsosPositivos;
+
+    public DeduplicacionEventosService(JdbcTemplate jdbcTemplate,
+                                       MeterRegistry registry,
+                                       @Value("${app.notificaciones.deduplicacion.capacidad-filtro:1000000}") long capacidadFiltro,
+                                       @Value("${app.notificaciones.deduplicacion.probabilidad-falso-positivo:0.001}") double probabilidadFalsoPositivo,
+                                       @Value("${app.notificaciones.deduplicacion.ventana-horas:72}") long ventanaHoras,
+                                       @Value("${app.notificaciones.deduplicacion.ventana-hash-minutos:10}") long ventanaHashMinutos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filtro = new BloomFilter(capacidadFiltro, probabilidadFalsoPositivo);
+        this.ventana = Duration.ofHours(ventanaHoras);
+        this.ventanaHash = Duration.ofMinutes(ventanaHashMinutos);
+        this.duplicadosFiltro = Counter.builder("notificaciones.eventos.duplicados")
+                .description("Eventos descartados por estar ya procesados")
+                .tag("deteccion", "filtro")
+                .register(registry);
+        this.duplicadosRestriccion = Counter.builder("notificaciones.eventos.duplicados")
+                .description("Eventos descartados por estar ya procesados")
+                .tag("deteccion", "restriccion")
+                .register(registry);
+        this.falsosPositivos = Counter.builder("notificaciones.deduplicacion.falsos-positivos")
+                .description("Eventos nuevos que el filtro de Bloom marcó como posibles duplicados")
+                .register(registry);
+    }
+
+    /**
+     * Calcula la clave de deduplicación de un evento.
+     * Usa el ID informado por el productor (o el message-id de AMQP); si no hay, un hash
+     * SHA-256 del contenido completo (tipo, destinatario, título, mensaje y metadata), que
+     * solo deduplica dentro de la ventana corta de las claves por hash.
+     *
+     * @param event Evento recibido.
+     * @return Clave de deduplicación (como máximo {@value #LONGITUD_MAXIMA_CLAVE} caracteres).
+     */
+    public static String claveDe(NotificacionEvent event) {
+        String eventoId = event.getEventoId();
+        if (eventoId != null && !eventoId.isBlank()) {
+            return eventoId.length() + 3 <= LONGITUD_MAXIMA_CLAVE ? "id:" + eventoId : "id#" + sha256(eventoId);
+        }
+        return PREFIJO_HASH + sha256(event.getTipo() + '\u001f' + event.getTargetRole() + '\u001f' + event.getUsuarioId()
+                + '\u001f' + event.getTitulo() + '\u001f' + event.getMensaje() + '\u001f' + event.getMetadata());
+    }
+
+    /**
+     * Registra las claves de un lote de eventos y devuelve las que corresponden a eventos nuevos.
+     * Debe llamarse dentro de la transacción que persiste las notificaciones, para que la clave
+     * quede registrada si y solo si se confirman.
+     *
+     * @param claves Claves de deduplicación del lote.
+     * @return Claves nuevas (conjunto modificable); las ausentes son duplicados a descartar.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<String> registrarNuevas(Collection<String> claves) {
+        List<String> sospechosas = new ArrayList<>();
+        for (String clave : claves) {
+            if (filtro.mightContain(clave)) {
+                sospechosas.add(clave);
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Timestamp vigenciaHash = Timestamp.valueOf(ahora.minus(ventanaHash));
+        Timestamp vigencia = Timestamp.valueOf(ahora.minus(ventana));
+        Set<String> candidatas = new HashSet<>(claves);
+        if (!sospechosas.isEmpty()) {
+            List<String> registradas = jdbcTemplate.query(BUSCAR_REGISTRADAS, ps -> {
+                ps.setArray(1, arreglo(ps.getConnection(), sospechosas));
+                ps.setTimestamp(2, vigenciaHash);
+                ps.setTimestamp(3, vigencia);
+            }, (rs, fila) -> rs.getString(1));
+            candidatas.removeAll(registradas);
+            duplicadosFiltro.increment(registradas.size());
+            falsosPositivos.increment(sospechosas.size() - registradas.size());
+        }
+
+        Set<String> nuevas = new HashSet<>();
+        if (!candidatas.isEmpty()) {
+            nuevas.addAll(jdbcTemplate.query(REGISTRAR, ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(ahora));
+                ps.setArray(2, arreglo(ps.getConnection(), candidatas));
+                ps.setTimestamp(3, vigenciaHash);
+                ps.setTimestamp(4, vigencia);
+            }, (rs, fila) -> rs.getString(1)));
+            duplicadosRestriccion.increment(candidatas.size() - nuevas.size());
+        }
+
+        // Si la transacción se revierte, las claves quedan como falsos positivos y se verifican la próxima vez
+        claves.forEach(filtro::put);
+        return nuevas;
+    }
+
+    /**
+     * Purga las claves más viejas que su ventana de deduplicación.
+     * Las claves por hash vencidas que todavía no se purgaron ya no descartan eventos.
+     */
+    @Scheduled(cron = "${app.notificaciones.deduplicacion.cron-purga:0 45 3 * * *}")
+    public void purgar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int eliminadas = jdbcTemplate.update(PURGAR,
+                Timestamp.valueOf(ahora.minus(ventanaHash)), Timestamp.valueOf(ahora.minus(ventana)));
+        log.info("🧹 Claves de deduplicación purgadas: {}", eliminadas);
+    }
+
+    private static Array arreglo(Connection connection, Collection<String> claves) throws SQLException {
+        return connection.createArrayOf("varchar", claves.toArray(new String[0]));
+    }
+
+    private static String sha256(String valor) {
+        byte[] digest = SHA_256.get().digest(valor.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+}
@@ -0,0 +1,471 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.CanalEntrega;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.CanalEntrega.Entrega;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.utils.EsperaExponencial;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega saliente de notificaciones por canales externos (email, webhook).
+ * <p>
+ * Al confirmarse una notificación, sus entregas se encolan en memoria sin bloquear: cada canal
+ * ruteado para su tipo tiene una cola acotada y un hilo propio que toma lotes, los registra en
+ * {@code notificaciones_entregas}, respeta el límite de envíos por segundo del canal y los envía.
+ * Así la ingesta nunca espera a un servidor SMTP o a un webhook lento: si una cola se llena,
+ * las entregas que no entran se registran como pendientes y las toma el barrido.
+ * <p>
+ * Los fallos se reintentan con backoff exponencial hasta un máximo de intentos (luego quedan
+ * FALLIDA). El barrido periódico reserva las pendientes vencidas con
+ * {@code FOR UPDATE SKIP LOCKED} y un plazo de envío, de modo que varias instancias no toman la
+ * misma entrega y una entrega tomada por una instancia que cae se retoma al vencer el plazo.
+ */
+@Service
+public class EntregasService {
+
+    private static final Logger log = LoggerFactory.getLogger(EntregasService.class);
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String ENVIADA = "ENVIADA";
+    public static final String FALLIDA = "FALLIDA";
+
+    /** Longitud máxima de la columna ultimo_error. */
+    private static final int LONGITUD_MAXIMA_ERROR = 500;
+
+    /** Registra entregas nuevas; las ya registradas (misma notificación, destinatario y canal) se ignoran. */
+    private static final String REGISTRAR =
+            "INSERT INTO notificaciones_entregas (notificacion_id, broadcast, usuario_id, canal, tipo, titulo, mensaje, " +
+            "metadata, estado, intentos, proximo_intento, fecha_notificacion, fecha_creacion) " +
+            "SELECT e.notificacion_id, e.broadcast, e.usuario_id, ?, e.tipo, e.titulo, e.mensaje, e.metadata::jsonb, '" +
+            PENDIENTE + "', 0, ?, e.fecha_notificacion, ? " +
+            "FROM unnest(?::bigint[], ?::boolean[], ?::bigint[], ?::smallint[], ?::text[], ?::text[], ?::text[], " +
+            "?::timestamp[]) AS e(notificacion_id, broadcast, usuario_id, tipo, titulo, mensaje, metadata, fecha_notificacion) " +
+            "ON CONFLICT (notificacion_id, broadcast, usuario_id, canal) DO NOTHING " +
+            "RETURNING id, notificacion_id, broadcast, usuario_id";
+    /** Reserva las pendientes vencidas de un canal hasta el fin del plazo de envío. */
+    private static final String RESERVAR =
+            "UPDATE notificaciones_entregas SET proximo_intento = ? WHERE id IN (" +
+            "SELECT id FROM notificaciones_entregas WHERE estado = '" + PENDIENTE + "' AND canal = ? " +
+            "AND proximo_intento <= ? ORDER BY proximo_intento LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, notificacion_id, broadcast, usuario_id, tipo, titulo, mensaje, metadata::text AS metadata, " +
+            "fecha_notificacion, intentos";
+    private static final String CONFIRMAR =
+            "UPDATE notificaciones_entregas SET estado = '" + ENVIADA + "', intentos = intentos + 1, " +
+            "fecha_envio = ?, ultimo_error = NULL WHERE id = ANY(?)";
+    private static final String REGISTRAR_FALLO =
+            "UPDATE notificaciones_entregas SET estado = ?, intentos = ?, proximo_intento = ?, ultimo_error = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogoTiposNotificacion catalogoTipos;
+    private final MeterRegistry registry;
+    private final boolean habilitado;
+    private final int tamanioLote;
+    private final int maxIntentos;
+    private final long esperaInicialMs;
+    private final double multiplicador;
+    private final long esperaMaximaMs;
+    /** Tiempo que una entrega tomada queda reservada para la instancia que la envía. */
+    private final Duration plazoEnvio;
+
+    /** Despachador de cada canal disponible y ruteado. */
+    private final Map<String, Despachador> despachadores = new LinkedHashMap<>();
+    /** Despachadores de cada tipo de notificación con entregas. */
+    private final Map<String, List<Despachador>> despachadoresPorTipo = new HashMap<>();
+
+    public EntregasService(JdbcTemplate jdbcTemplate,
+                           CatalogoTiposNotificacion catalogoTipos,
+                           MeterRegistry registry,
+                           List<CanalEntrega> canales,
+                           @Value("${app.notificaciones.entregas.habilitado:false}") boolean habilitado,
+                           @Value("#{${app.notificaciones.entregas.canales-por-tipo:{:}}}") Map<String, String> canalesPorTipo,
+                           @Value("#{${app.notificaciones.entregas.envios-por-segundo:{:}}}") Map<String, Integer> enviosPorSegundo,
+                           @Value("${app.notificaciones.entregas.capacidad-cola:10000}") int capacidadCola,
+                           @Value("${app.notificaciones.entregas.tamanio-lote:50}") int tamanioLote,
+                           @Value("${app.notificaciones.entregas.max-intentos:6}") int maxIntentos,
+                           @Value("${app.notificaciones.entregas.espera-inicial-ms:30000}") long esperaInicialMs,
+                           @Value("${app.notificaciones.entregas.multiplicador:4}") double multiplicador,
+                           @Value("${app.notificaciones.entregas.espera-maxima-ms:3600000}") long esperaMaximaMs,
+                           @Value("${app.notificaciones.entregas.plazo-envio:PT5M}") Duration plazoEnvio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogoTipos = catalogoTipos;
+        this.registry = registry;
+        this.habilitado = habilitado;
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+        this.esperaInicialMs = esperaInicialMs;
+        this.multiplicador = multiplicador;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.plazoEnvio = plazoEnvio;
+        if (!habilitado) {
+            return;
+        }
+
+        Map<String, CanalEntrega> disponibles = new HashMap<>();
+        for (CanalEntrega canal : canales) {
+            disponibles.put(canal.nombre(), canal);
+        }
+        canalesPorTipo.forEach((tipo, nombres) -> {
+            List<Despachador> delTipo = new ArrayList<>();
+            for (String nombre : nombres.split(",")) {
+                String canal = nombre.trim();
+                if (canal.isEmpty()) {
+                    continue;
+                }
+                if (!disponibles.containsKey(canal)) {
+                    log.warn("⚠️ Canal de entrega {} no configurado; las notificaciones {} no se envían por él", canal, tipo);
+                    continue;
+                }
+                delTipo.add(despachadores.computeIfAbsent(canal, clave -> new Despachador(disponibles.get(clave),
+                        capacidadCola, enviosPorSegundo.get(clave))));
+            }
+            if (!delTipo.isEmpty()) {
+                despachadoresPorTipo.put(tipo, List.copyOf(delTipo));
+            }
+        });
+        despachadores.values().forEach(Despachador::iniciar);
+        log.info("📤 Entregas salientes habilitadas: canales {}, tipos {}", despachadores.keySet(), despachadoresPorTipo.keySet());
+    }
+
+    /**
+     * Indica si las notificaciones de un tipo tienen entregas salientes.
+     *
+     * @param tipo Tipo de notificación.
+     * @return true si el tipo está ruteado a algún canal disponible.
+     */
+    public boolean seEntrega(String tipo) {
+        return tipo != null && despachadoresPorTipo.containsKey(tipo);
+    }
+
+    /**
+     * Encola las entregas de notificaciones ya confirmadas por los canales de su tipo.
+     * No bloquea: si la cola de un canal está llena, esas entregas se registran como pendientes
+     * para el barrido. Nunca propaga errores a quien llama.
+     *
+     * @param notificaciones Notificaciones confirmadas (una por destinatario).
+     * @param broadcast Indica si son recepciones de un broadcast.
+     */
+    public void encolar(Collection<NotificacionDto> notificaciones, boolean broadcast) {
+        Map<Despachador, List<Entrega>> desbordadas = new HashMap<>();
+        for (NotificacionDto notificacion : notificaciones) {
+            List<Despachador> delTipo = despachadoresPorTipo.get(notificacion.getTipo());
+            if (delTipo == null) {
+                continue;
+            }
+            Entrega entrega = new Entrega(null, notificacion.getId(), broadcast, notificacion.getUsuarioId(),
+                    notificacion.getTipo(), notificacion.getTitulo(), notificacion.getMensaje(),
+                    notificacion.getMetadata(), notificacion.getFechaCreacion(), 0);
+            for (Despachador despachador : delTipo) {
+                if (!despachador.cola.offer(entrega)) {
+                    desbordadas.computeIfAbsent(despachador, clave -> new ArrayList<>()).add(entrega);
+                }
+            }
+        }
+        desbordadas.forEach((despachador, entregas) -> {
+            try {
+                registrar(despachador.canal.nombre(), entregas, LocalDateTime.now());
+                despachador.contar("desbordada", entregas.size());
+            } catch (RuntimeException e) {
+                log.error("❌ No se pudieron registrar {} entregas {} desbordadas: {}",
+                        entregas.size(), despachador.canal.nombre(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Barrido: reserva las entregas pendientes vencidas (reintentos, desbordadas o abandonadas por
+     * una instancia caída) y las pasa a la cola de su canal, hasta llenar su espacio libre.
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.entregas.barrido-ms:10000}",
+            initialDelayString = "${app.notificaciones.entregas.barrido-ms:10000}")
+    public void barrer() {
+        for (Despachador despachador : despachadores.values()) {
+            int libres = despachador.cola.remainingCapacity();
+            if (libres == 0) {
+                continue;
+            }
+            try {
+                LocalDateTime ahora = LocalDateTime.now();
+                List<Entrega> reservadas = jdbcTemplate.query(RESERVAR, this::mapear,
+                        Timestamp.valueOf(ahora.plus(plazoEnvio)), despachador.canal.nombre(),
+                        Timestamp.valueOf(ahora), libres);
+                // Las que no entran (la ingesta ocupó el espacio) se retoman al vencer el plazo
+                reservadas.forEach(despachador.cola::offer);
+            } catch (DataAccessException e) {
+                log.error("❌ Error en el barrido de entregas {}: {}", despachador.canal.nombre(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Detiene los despachadores y registra como pendientes las entregas que quedaron en las colas.
+     */
+    @PreDestroy
+    public void cerrar() {
+        despachadores.values().forEach(Despachador::detener);
+        for (Despachador despachador : despachadores.values()) {
+            List<Entrega> restantes = new ArrayList<>();
+            despachador.cola.drainTo(restantes);
+            restantes.removeIf(entrega -> entrega.id() != null);
+            if (!restantes.isEmpty()) {
+                try {
+                    registrar(despachador.canal.nombre(), restantes, LocalDateTime.now());
+                } catch (RuntimeException e) {
+                    log.error("❌ Se pierden {} entregas {} al apagar: {}", restantes.size(), despachador.canal.nombre(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra las entregas nuevas del lote (las que ya tienen ID pasan sin cambios).
+     *
+     * @param canal Nombre del canal.
+     * @param lote Entregas a registrar.
+     * @param proximoIntento Momento a partir del cual el barrido puede tomarlas.
+     * @return Entregas registradas, con ID; se omiten las que ya estaban registradas.
+     */
+    private List<Entrega> registrar(String canal, List<Entrega> lote, LocalDateTime proximoIntento) {
+        List<Entrega> registradas = new ArrayList<>(lote.size());
+        Map<Clave, Entrega> nuevas = new LinkedHashMap<>();
+        for (Entrega entrega : lote) {
+            if (entrega.id() != null) {
+                registradas.add(entrega);
+            } else {
+                nuevas.putIfAbsent(new Clave(entrega.notificacionId(), entrega.broadcast(), entrega.usuarioId()), entrega);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return registradas;
+        }
+
+        int cantidad = nuevas.size();
+        Long[] notificaciones = new Long[cantidad];
+        Boolean[] broadcasts = new Boolean[cantidad];
+        Long[] usuarios = new Long[cantidad];
+        Short[] tipos = new Short[cantidad];
+        String[] titulos = new String[cantidad];
+        String[] mensajes = new String[cantidad];
+        String[] metadatas = new String[cantidad];
+        String[] fechas = new String[cantidad];
+        int i = 0;
+        for (Entrega entrega : nuevas.values()) {
+            notificaciones[i] = entrega.notificacionId();
+            broadcasts[i] = entrega.broadcast();
+            usuarios[i] = entrega.usuarioId();
+            tipos[i] = catalogoTipos.codigo(entrega.tipo());
+            titulos[i] = entrega.titulo();
+            mensajes[i] = entrega.mensaje();
+            metadatas[i] = entrega.metadata();
+            fechas[i] = entrega.fechaNotificacion().toString();
+            i++;
+        }
+        jdbcTemplate.query(REGISTRAR, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setString(1, canal);
+            ps.setTimestamp(2, Timestamp.valueOf(proximoIntento));
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(4, connection.createArrayOf("bigint", notificaciones));
+            ps.setArray(5, connection.createArrayOf("boolean", broadcasts));
+            ps.setArray(6, connection.createArrayOf("bigint", usuarios));
+            ps.setArray(7, connection.createArrayOf("smallint", tipos));
+            ps.setArray(8, connection.createArrayOf("text", titulos));
+            ps.setArray(9, connection.createArrayOf("text", mensajes));
+            ps.setArray(10, connection.createArrayOf("text", metadatas));
+            ps.setArray(11, connection.createArrayOf("text", fechas));
+        }, (ResultSet rs) -> {
+            Entrega entrega = nuevas.get(new Clave(rs.getLong("notificacion_id"), rs.getBoolean("broadcast"),
+                    rs.getLong("usuario_id")));
+            registradas.add(entrega.conId(rs.getLong("id")));
+        });
+        return registradas;
+    }
+
+    /**
+     * Guarda el resultado de un envío: las enviadas quedan ENVIADA y las fallidas se reprograman
+     * con backoff exponencial, o quedan FALLIDA si agotaron los intentos.
+     */
+    private void registrarResultado(Despachador despachador, List<Entrega> lote, Map<Long, String> errores) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Long> enviadas = new ArrayList<>(lote.size());
+        List<Object[]> fallos = new ArrayList<>();
+        int agotadas = 0;
+        for (Entrega entrega : lote) {
+            String error = errores.get(entrega.id());
+            if (error == null) {
+                enviadas.add(entrega.id());
+                continue;
+            }
+            int intentos = entrega.intentos() + 1;
+            boolean agotada = intentos >= maxIntentos;
+            agotadas += agotada ? 1 : 0;
+            long esperaMs = EsperaExponencial.calcular(intentos, esperaInicialMs, multiplicador, esperaMaximaMs);
+            fallos.add(new Object[]{agotada ? FALLIDA : PENDIENTE, intentos,
+                    Timestamp.valueOf(ahora.plus(Duration.ofMillis(esperaMs))), recortar(error), entrega.id()});
+        }
+        if (!enviadas.isEmpty()) {
+            jdbcTemplate.update(CONFIRMAR, ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(ahora));
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", enviadas.toArray(new Long[0])));
+            });
+        }
+        if (!fallos.isEmpty()) {
+            jdbcTemplate.batchUpdate(REGISTRAR_FALLO, fallos);
+            log.warn("🔁 {} entregas {} fallidas ({} agotaron los intentos)", fallos.size(), despachador.canal.nombre(), agotadas);
+        }
+        despachador.contar("enviada", enviadas.size());
+        despachador.contar("reintento", fallos.size() - agotadas);
+        despachador.contar("fallida", agotadas);
+    }
+
+    private Entrega mapear(ResultSet rs, int fila) throws SQLException {
+        return new Entrega(
+                rs.getLong("id"),
+                rs.getLong("notificacion_id"),
+                rs.getBoolean("broadcast"),
+                rs.getLong("usuario_id"),
+                catalogoTipos.nombre(rs.getShort("tipo")),
+                rs.getString("titulo"),
+                rs.getString("mensaje"),
+                rs.getString("metadata"),
+                rs.getTimestamp("fecha_notificacion").toLocalDateTime(),
+                rs.getInt("intentos"));
+    }
+
+    private static String recortar(String error) {
+        String texto = error != null ? error : "Error desconocido";
+        return texto.length() <= LONGITUD_MAXIMA_ERROR ? texto : texto.substring(0, LONGITUD_MAXIMA_ERROR);
+    }
+
+    /** Clave única de una entrega dentro de un canal. */
+    private record Clave(Long notificacionId, boolean broadcast, Long usuarioId) {
+    }
+
+    /** Cola, hilo, límite de tasa y métricas de un canal. */
+    private final class Despachador {
+
+        private final CanalEntrega canal;
+        private final BlockingQueue<Entrega> cola;
+        /** Límite de envíos por segundo; null si el canal no tiene límite. */
+        private final LimitadorTasa limitador;
+        private final Thread hilo;
+        private final Timer envios;
+        private final Map<String, Counter> resultados = new HashMap<>();
+        private volatile boolean activo = true;
+
+        private Despachador(CanalEntrega canal, int capacidadCola, Integer enviosPorSegundo) {
+            this.canal = canal;
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+            this.limitador = enviosPorSegundo != null ? new LimitadorTasa(enviosPorSegundo, System.nanoTime()) : null;
+            this.hilo = new Thread(this::ejecutar, "entregas-" + canal.nombre().toLowerCase());
+            this.hilo.setDaemon(true);
+            this.envios = Timer.builder("notificaciones.entregas.envio")
+                    .description("Duración del envío de un lote de entregas")
+                    .tag("canal", canal.nombre())
+                    .publishPercentileHistogram()
+                    .register(registry);
+            for (String resultado : List.of("enviada", "reintento", "fallida", "desbordada")) {
+                resultados.put(resultado, Counter.builder("notificaciones.entregas")
+                        .description("Entregas salientes por canal y resultado")
+                        .tag("canal", canal.nombre())
+                        .tag("resultado", resultado)
+                        .register(registry));
+            }
+            Gauge.builder("notificaciones.entregas.cola", cola, BlockingQueue::size)
+                    .description("Entregas en la cola en memoria del canal")
+                    .tag("canal", canal.nombre())
+                    .register(registry);
+        }
+
+        private void iniciar() {
+            hilo.start();
+        }
+
+        private void detener() {
+            activo = false;
+            try {
+                hilo.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void contar(String resultado, int cantidad) {
+            if (cantidad > 0) {
+                resultados.get(resultado).increment(cantidad);
+            }
+        }
+
+        private void ejecutar() {
+            List<Entrega> lote = new ArrayList<>(tamanioLote);
+            while (activo) {
+                try {
+                    Entrega primera = cola.poll(1, TimeUnit.SECONDS);
+                    if (primera == null) {
+                        continue;
+                    }
+                    lote.add(primera);
+                    cola.drainTo(lote, tamanioLote - 1);
+                    procesar(lote);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    // Las ya registradas se retoman en el barrido al vencer su plazo de envío
+                    log.error("❌ Error procesando {} entregas {}: {}", lote.size(), canal.nombre(), e.getMessage(), e);
+                } finally {
+                    lote.clear();
+                }
+            }
+        }
+
+        private void procesar(List<Entrega> lote) throws InterruptedException {
+            List<Entrega> registradas = registrar(canal.nombre(), lote, LocalDateTime.now().plus(plazoEnvio));
+            if (registradas.isEmpty()) {
+                return;
+            }
+            if (limitador != null) {
+                limitador.esperar(registradas.size());
+            }
+
+            Map<Long, String> errores;
+            Timer.Sample muestra = Timer.start(registry);
+            try {
+                errores = canal.enviar(registradas);
+            } catch (RuntimeException e) {
+                errores = new HashMap<>();
+                for (Entrega entrega : registradas) {
+                    errores.put(entrega.id(), e.getMessage());
+                }
+            }
+            muestra.stop(envios);
+            registrarResultado(this, registradas, errores);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter.CODIGO_LEIDA;
+import static ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter.CODIGO_NO_LEIDA;
+
+/**
+ * Buffer write-behind de confirmaciones de lectura (opcional).
+ * Con el modo habilitado, marcar una notificación como leída solo la registra en memoria
+ * (agrupada por usuario y sin duplicados); las lecturas se persisten en lote con un UPDATE
+ * por usuario y tabla ({@code id = ANY(?)}) al alcanzar el tamaño de lote o cada intervalo,
+ * y se vacían por completo al apagar la aplicación.
+ * Mientras no se persisten, {@link #pendientesDe(Long)} permite que las lecturas del propio
+ * usuario las reflejen.
+ * <p>
+ * Registrar una lectura no consulta la base: la propiedad y el estado se verifican al vaciar,
+ * en el mismo UPDATE en lote ({@code usuario_id = ?} y {@code estado = NO_LEIDA}), y los
+ * contadores se ajustan solo con las filas realmente actualizadas. Un id ajeno, inexistente o
+ * ya leído no cambia nada en la base; hasta el vaciado solo puede descontarse de más en el
+ * contador que ve el propio usuario. Las lecturas que otra operación lee o elimina antes del
+ * vaciado se descartan del buffer ({@link #descartar}).
+ */
+@Service
+public class LecturasDiferidasService {
+
+    private static final Logger log = LoggerFactory.getLogger(LecturasDiferidasService.class);
+
+    /** Marca como leídas varias notificaciones directas de un usuario. */
+    private static final String MARCAR_DIRECTAS =
+            "UPDATE notificaciones SET estado = " + CODIGO_LEIDA + ", fecha_lectura = ? " +
+            "WHERE usuario_id = ? AND id = ANY(?) AND estado = " + CODIGO_NO_LEIDA;
+    /** Marca como leídas varias recepciones de broadcasts de un usuario. */
+    private static final String MARCAR_RECEPCIONES =
+            "UPDATE notificaciones_receptores SET estado = " + CODIGO_LEIDA + ", fecha_lectura = ? " +
+            "WHERE usuario_id = ? AND broadcast_id = ANY(?) AND estado = " + CODIGO_NO_LEIDA;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContadorNoLeidasService contadorNoLeidasService;
+    private final NotificacionStreamService notificacionStreamService;
+    private final VersionBandejaService versionBandejaService;
+    private final boolean habilitado;
+    private final int tamanioLote;
+
+    /** Lecturas registradas y aún no tomadas por un vaciado, por usuarioId. */
+    private final Map<Long, Set<Long>> pendientes = new ConcurrentHashMap<>();
+    /** Lecturas tomadas por el vaciado en curso, visibles hasta que se confirman. */
+    private final Map<Long, Set<Long>> enVuelo = new ConcurrentHashMap<>();
+    /** Cantidad total de lecturas en {@link #pendientes}. */
+    private final AtomicInteger cantidadPendiente = new AtomicInteger();
+    /** Evita encolar más de un vaciado por tamaño a la vez. */
+    private final AtomicBoolean vaciadoSolicitado = new AtomicBoolean();
+    /** Serializa los vaciados (por tamaño, por intervalo y al apagar). */
+    private final ReentrantLock vaciando = new ReentrantLock();
+    /** Hilo de vaciado; null si el modo está deshabilitado. */
+    private final ScheduledExecutorService planificador;
+
+    public LecturasDiferidasService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ContadorNoLeidasService contadorNoLeidasService,
+                                    NotificacionStreamService notificacionStreamService,
+                                    VersionBandejaService versionBandejaService,
+                                    @Value("${app.notificaciones.lecturas-diferidas.enabled:false}") boolean habilitado,
+                                    @Value("${app.notificaciones.lecturas-diferidas.tamanio-lote:500}") int tamanioLote,
+                                    @Value("${app.notificaciones.lecturas-diferidas.intervalo-ms:1000}") long intervaloMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contadorNoLeidasService = contadorNoLeidasService;
+        this.notificacionStreamService = notificacionStreamService;
+        this.versionBandejaService = versionBandejaService;
+        this.habilitado = habilitado;
+        this.tamanioLote = tamanioLote;
+        if (habilitado) {
+            this.planificador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread hilo = new Thread(runnable, "lecturas-diferidas");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            this.planificador.scheduleWithFixedDelay(this::vaciar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+            log.info("📥 Lecturas diferidas habilitadas (lote: {}, intervalo: {} ms)", tamanioLote, intervaloMs);
+        } else {
+            this.planificador = null;
+        }
+    }
+
+    /**
+     * Indica si las confirmaciones de lectura se persisten de forma diferida.
+     *
+     * @return true si el modo write-behind está habilitado.
+     */
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Registra una lectura para persistirla en el próximo vaciado.
+     * Las lecturas repetidas de la misma notificación se colapsan. No consulta la base: si la
+     * notificación no es del usuario o ya estaba leída, el vaciado no actualiza ninguna fila.
+     * La lectura es visible desde ya (ver {@link #pendientesDe(Long)}), por lo que la versión
+     * (en memoria) de la bandeja cambia ahora.
+     *
+     * @param id ID de la notificación (directa o broadcast).
+     * @param usuarioId ID del usuario.
+     */
+    public void registrar(Long id, Long usuarioId) {
+        agregar(id, usuarioId);
+    }
+
+    /**
+     * Quita del buffer lecturas de notificaciones que otra operación ya leyó o eliminó,
+     * para que no se descuenten dos veces del contador de no leídas.
+     * Las que ya tomó un vaciado en curso no se tocan: su UPDATE cuenta solo las filas que
+     * realmente cambian.
+     *
+     * @param usuarioId ID del usuario.
+     * @param ids IDs de las notificaciones.
+     */
+    public void descartar(Long usuarioId, Collection<Long> ids) {
+        if (!habilitado) {
+            return;
+        }
+        int[] quitadas = new int[1];
+        pendientes.computeIfPresent(usuarioId, (clave, delUsuario) -> {
+            for (Long id : ids) {
+                if (delUsuario.remove(id)) {
+                    quitadas[0]++;
+                }
+            }
+            return delUsuario.isEmpty() ? null : delUsuario;
+        });
+        cantidadPendiente.addAndGet(-quitadas[0]);
+    }
+
+    /**
+     * Quita del buffer todas las lecturas pendientes de un usuario (p. ej. tras marcar todas como leídas).
+     *
+     * @param usuarioId ID del usuario.
+     */
+    public void descartarTodas(Long usuarioId) {
+        if (!habilitado) {
+            return;
+        }
+        Set<Long> quitadas = pendientes.remove(usuarioId);
+        if (quitadas != null) {
+            cantidadPendiente.addAndGet(-quitadas.size());
+        }
+    }
+
+    /** Agrega una lectura al buffer y pide un vaciado al alcanzar el tamaño de lote. */
+    private void agregar(Long id, Long usuarioId) {
+        boolean[] nueva = new boolean[1];
+        // compute es atómico respecto del remove del vaciado: ninguna lectura queda en un set ya tomado
+        pendientes.compute(usuarioId, (clave, ids) -> {
+            Set<Long> delUsuario = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            nueva[0] = delUsuario.add(id);
+            return delUsuario;
+        });
+        if (nueva[0]) {
+            versionBandejaService.incrementar(usuarioId);
+        }
+        if (nueva[0] && cantidadPendiente.incrementAndGet() >= tamanioLote
+                && planificador != null && !planificador.isShutdown()
+                && vaciadoSolicitado.compareAndSet(false, true)) {
+            planificador.execute(this::vaciar);
+        }
+    }
+
+    /**
+     * Obtiene las lecturas de un usuario que todavía no están confirmadas en base de datos.
+     * Debe consultarse antes de leer de la base para no perder las que se confirman en el medio.
+     *
+     * @param usuarioId ID del usuario.
+     * @return IDs de notificaciones leídas pendientes (vacío si no hay o el modo está deshabilitado).
+     */
+    public Set<Long> pendientesDe(Long usuarioId) {
+        if (!habilitado) {
+            return Set.of();
+        }
+        // Primero pendientes y luego enVuelo: el vaciado copia a enVuelo antes de quitar de pendientes
+        Set<Long> registradas = pendientes.get(usuarioId);
+        Set<Long> tomadas = enVuelo.get(usuarioId);
+        if (registradas == null && tomadas == null) {
+            return Set.of();
+        }
+        Set<Long> resultado = new HashSet<>();
+        if (registradas != null) {
+            resultado.addAll(registradas);
+        }
+        if (tomadas != null) {
+            resultado.addAll(tomadas);
+        }
+        return resultado;
+    }
+
+    /**
+     * Persiste todas las lecturas pendientes con un UPDATE en lote por tabla y ajusta los
+     * contadores de no leídas con las filas realmente actualizadas.
+     * Si la escritura falla, las lecturas vuelven al buffer para el próximo intento.
+     */
+    public void vaciar() {
+        vaciando.lock();
+        try {
+            vaciadoSolicitado.set(false);
+            for (Long usuarioId : pendientes.keySet()) {
+                pendientes.computeIfPresent(usuarioId, (clave, ids) -> {
+                    enVuelo.put(clave, ids);
+                    return null;
+                });
+            }
+            if (enVuelo.isEmpty()) {
+                return;
+            }
+
+            List<Long> usuarios = new ArrayList<>(enVuelo.keySet());
+            int lecturas = enVuelo.values().stream().mapToInt(Set::size).sum();
+            cantidadPendiente.addAndGet(-lecturas);
+
+            Map<Long, Integer> actualizadas;
+            try {
+                actualizadas = transactionTemplate.execute(status -> persistir(usuarios));
+            } catch (RuntimeException e) {
+                log.error("❌ Error persistiendo {} lecturas diferidas; se reintentan en el próximo vaciado", lecturas, e);
+                enVuelo.forEach((usuarioId, ids) -> ids.forEach(id -> agregar(id, usuarioId)));
+                enVuelo.clear();
+                return;
+            }
+
+            // Los contadores se ajustan antes de soltar enVuelo para que las lecturas no vean un hueco
+            actualizadas.forEach((usuarioId, cantidad) -> {
+                if (cantidad > 0) {
+                    contadorNoLeidasService.ajustar(usuarioId, -cantidad);
+                }
+            });
+            enVuelo.clear();
+            actualizadas.forEach((usuarioId, cantidad) -> {
+                if (cantidad > 0) {
+                    notificacionStreamService.publicarContador(usuarioId);
+                }
+            });
+            log.debug("📥 {} lecturas diferidas persistidas para {} usuarios", lecturas, usuarios.size());
+        } finally {
+            vaciando.unlock();
+        }
+    }
+
+    /**
+     * Detiene el vaciado periódico y persiste lo que quede en el buffer.
+     * Corre después de que el servidor web deja de aceptar pedidos y antes de cerrar el DataSource.
+     */
+    @PreDestroy
+    public void detener() {
+        if (planificador == null) {
+            return;
+        }
+        planificador.shutdown();
+        try {
+            planificador.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        vaciar();
+        if (cantidadPendiente.get() > 0) {
+            log.warn("⚠️ Quedaron {} lecturas diferidas sin persistir al apagar", cantidadPendiente.get());
+        }
+    }
+
+    /**
+     * Ejecuta los UPDATE en lote de las lecturas en vuelo.
+     *
+     * @param usuarios Usuarios del lote (en el orden de los statements).
+     * @return Filas actualizadas por usuario, sumando notificaciones directas y recepciones.
+     */
+    private Map<Long, Integer> persistir(List<Long> usuarios) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[] directas = jdbcTemplate.batchUpdate(MARCAR_DIRECTAS, setter(usuarios, ahora));
+        int[] recepciones = jdbcTemplate.batchUpdate(MARCAR_RECEPCIONES, setter(usuarios, ahora));
+
+        Map<Long, Integer> actualizadas = new HashMap<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            actualizadas.put(usuarios.get(i), Math.max(directas[i], 0) + Math.max(recepciones[i], 0));
+        }
+        return actualizadas;
+    }
+
+    private BatchPreparedStatementSetter setter(List<Long> usuarios, Timestamp fechaLectura) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Long usuarioId = usuarios.get(i);
+                ps.setTimestamp(1, fechaLectura);
+                ps.setLong(2, usuarioId);
+                ps.setArray(3, ps.getConnection().createArrayOf("bigint", enVuelo.get(usuarioId).toArray(new Long[0])));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return usuarios.size();
+            }
+        };
+    }
+}
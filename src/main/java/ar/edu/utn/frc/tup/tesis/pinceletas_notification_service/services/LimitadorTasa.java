@@ -0,0 +1,50 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita el ritmo de envíos de un canal a una cantidad de permisos por segundo.
+ * Cada pedido reserva turnos consecutivos: un lote de {@code n} envíos ocupa {@code n}
+ * intervalos y el lote siguiente espera a que pasen, así el promedio no supera la tasa aunque
+ * los lotes sean más grandes que ella.
+ */
+final class LimitadorTasa {
+
+    private final long intervaloNanos;
+    /** Momento (nanoTime) a partir del cual queda libre el próximo turno. */
+    private long siguienteLibre;
+
+    LimitadorTasa(int permisosPorSegundo, long ahora) {
+        if (permisosPorSegundo <= 0) {
+            throw new IllegalArgumentException("Los permisos por segundo deben ser positivos: " + permisosPorSegundo);
+        }
+        this.intervaloNanos = TimeUnit.SECONDS.toNanos(1) / permisosPorSegundo;
+        this.siguienteLibre = ahora;
+    }
+
+    /**
+     * Reserva permisos.
+     *
+     * @param permisos Cantidad de envíos.
+     * @param ahora Momento actual (nanoTime).
+     * @return Nanosegundos a esperar antes de usarlos (0 si están libres).
+     */
+    synchronized long reservar(int permisos, long ahora) {
+        long inicio = siguienteLibre - ahora > 0 ? siguienteLibre : ahora;
+        siguienteLibre = inicio + permisos * intervaloNanos;
+        return inicio - ahora;
+    }
+
+    /**
+     * Reserva permisos y espera su turno.
+     *
+     * @param permisos Cantidad de envíos.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    void esperar(int permisos) throws InterruptedException {
+        long espera = reservar(permisos, System.nanoTime());
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+
+/**
+ * Normaliza la metadata de las notificaciones antes de guardarla en la columna jsonb.
+ * La metadata llega como texto libre en los eventos: si no es un documento JSON válido se
+ * guarda como string JSON en lugar de hacer fallar el INSERT (y con él todo el lote).
+ */
+final class MetadataJson {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private MetadataJson() {
+    }
+
+    /**
+     * Devuelve la metadata lista para la columna jsonb.
+     *
+     * @param metadata Metadata recibida (puede ser null).
+     * @return La misma metadata si es JSON válido, la metadata como string JSON si no lo es,
+     *         o null si viene vacía.
+     */
+    static String normalizar(String metadata) {
+        if (metadata == null || metadata.isBlank()) {
+            return null;
+        }
+        if (esJsonValido(metadata)) {
+            return metadata;
+        }
+        return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(metadata)) + '"';
+    }
+
+    /** Valida el documento recorriéndolo con el parser de streaming, sin construir un árbol. */
+    private static boolean esJsonValido(String texto) {
+        try (JsonParser parser = JSON.createParser(texto)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            // Un único valor raíz: "1 2" es válido para Jackson pero no para jsonb
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
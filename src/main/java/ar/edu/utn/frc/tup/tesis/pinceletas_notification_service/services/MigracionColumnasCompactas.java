@@ -0,0 +1,131 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convierte las columnas de texto de las notificaciones a su representación compacta:
+ * {@code tipo} y {@code estado} a códigos smallint y {@code metadata} a JSONB, y crea los
+ * índices GIN sobre la metadata.
+ * <p>
+ * Hibernate ({@code ddl-auto=update}) crea las tablas nuevas con los tipos correctos pero no
+ * cambia el tipo de columnas existentes; esta migración lo hace con un único
+ * {@code ALTER TABLE} por tabla (una sola reescritura, atómica). La metadata que no es JSON
+ * válido se conserva como string JSON. Es idempotente: las columnas ya convertidas se saltean.
+ * La ejecuta {@link ParticionesService} al iniciar, con el lock de mantenimiento tomado.
+ */
+@Component
+public class MigracionColumnasCompactas {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionColumnasCompactas.class);
+
+    /** Columnas a convertir por tabla, con su tipo destino y la expresión de conversión. */
+    private static final Map<String, List<Columna>> COLUMNAS = new LinkedHashMap<>();
+
+    static {
+        Columna tipo = new Columna("tipo", "smallint", "pg_temp.codigo_tipo(tipo)");
+        Columna estado = new Columna("estado", "smallint",
+                "(CASE estado WHEN '" + EstadoNotificacionConverter.LEIDA + "' THEN "
+                        + EstadoNotificacionConverter.CODIGO_LEIDA + " ELSE "
+                        + EstadoNotificacionConverter.CODIGO_NO_LEIDA + " END)::smallint");
+        Columna metadata = new Columna("metadata", "jsonb", "pg_temp.a_jsonb(metadata)");
+        COLUMNAS.put("notificaciones", List.of(tipo, estado, metadata));
+        COLUMNAS.put("notificaciones_broadcast", List.of(tipo, metadata));
+        COLUMNAS.put("notificaciones_receptores", List.of(estado));
+        COLUMNAS.put("notificaciones_archivo", List.of(tipo, estado, metadata));
+    }
+
+    /** Índices GIN de la metadata (jsonb_path_ops: solo contención {@code @>}, más chicos). */
+    private static final Map<String, String> INDICES_METADATA = Map.of(
+            "notificaciones", "idx_notificaciones_metadata",
+            "notificaciones_broadcast", "idx_notificaciones_broadcast_metadata");
+
+    private final CatalogoTiposNotificacion catalogo;
+
+    public MigracionColumnasCompactas(CatalogoTiposNotificacion catalogo) {
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * Convierte las columnas pendientes y crea los índices de metadata que falten.
+     *
+     * @param jdbc JdbcTemplate sobre una única conexión (las funciones auxiliares son temporales de la sesión).
+     */
+    public void migrar(JdbcTemplate jdbc) {
+        Map<String, List<Columna>> pendientes = new LinkedHashMap<>();
+        COLUMNAS.forEach((tabla, columnas) -> {
+            List<Columna> aConvertir = new ArrayList<>();
+            for (Columna columna : columnas) {
+                String actual = tipoActual(jdbc, tabla, columna.nombre());
+                if (actual != null && !actual.equals(columna.tipo())) {
+                    aConvertir.add(columna);
+                }
+            }
+            if (!aConvertir.isEmpty()) {
+                pendientes.put(tabla, aConvertir);
+            }
+        });
+
+        if (!pendientes.isEmpty()) {
+            crearFuncionesAuxiliares(jdbc);
+            pendientes.forEach((tabla, columnas) -> convertir(jdbc, tabla, columnas));
+            catalogo.recargar();
+        }
+        crearIndices(jdbc);
+    }
+
+    /**
+     * Crea (si faltan) los índices GIN sobre la metadata.
+     * Sobre la tabla particionada, Postgres crea el índice en cada partición.
+     *
+     * @param jdbc JdbcTemplate de la conexión de mantenimiento.
+     */
+    public void crearIndices(JdbcTemplate jdbc) {
+        INDICES_METADATA.forEach((tabla, indice) -> {
+            if ("jsonb".equals(tipoActual(jdbc, tabla, "metadata"))) {
+                jdbc.execute("CREATE INDEX IF NOT EXISTS " + indice + " ON " + tabla
+                        + " USING gin (metadata jsonb_path_ops)");
+            }
+        });
+    }
+
+    private void convertir(JdbcTemplate jdbc, String tabla, List<Columna> columnas) {
+        log.info("🗜️ Compactando columnas {} de {}", columnas.stream().map(Columna::nombre).toList(), tabla);
+        if (columnas.stream().anyMatch(columna -> columna.nombre().equals("tipo"))) {
+            jdbc.update("INSERT INTO notificaciones_tipos (nombre) SELECT DISTINCT tipo FROM " + tabla
+                    + " WHERE tipo IS NOT NULL ON CONFLICT (nombre) DO NOTHING");
+        }
+        List<String> cambios = new ArrayList<>();
+        for (Columna columna : columnas) {
+            cambios.add("ALTER COLUMN " + columna.nombre() + " TYPE " + columna.tipo() + " USING " + columna.conversion());
+        }
+        jdbc.execute("ALTER TABLE " + tabla + " " + String.join(", ", cambios));
+        log.info("✅ Columnas de {} compactadas", tabla);
+    }
+
+    private void crearFuncionesAuxiliares(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE OR REPLACE FUNCTION pg_temp.a_jsonb(texto text) RETURNS jsonb"
+                + " LANGUAGE plpgsql IMMUTABLE AS $$"
+                + " BEGIN RETURN texto::jsonb; EXCEPTION WHEN others THEN RETURN to_jsonb(texto); END $$");
+        jdbc.execute("CREATE OR REPLACE FUNCTION pg_temp.codigo_tipo(nombre text) RETURNS smallint"
+                + " LANGUAGE sql STABLE AS $$ SELECT codigo FROM notificaciones_tipos t WHERE t.nombre = $1 $$");
+    }
+
+    private static String tipoActual(JdbcTemplate jdbc, String tabla, String columna) {
+        return jdbc.query("SELECT data_type FROM information_schema.columns"
+                        + " WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                rs -> rs.next() ? rs.getString(1) : null, tabla, columna);
+    }
+
+    /** Columna a convertir. */
+    private record Columna(String nombre, String tipo, String conversion) {
+    }
+}
@@ -0,0 +1,67 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación keyset sobre (fechaCreacion, id).
+ * Se codifica en Base64 URL-safe para que el cliente lo trate como un valor opaco.
+ * Como ID de evento del stream SSE ({@link #deActividad(NotificacionDto)}) la fecha es la de
+ * la última actividad de la notificación, para que la reanudación incluya las agrupadas
+ * actualizadas después.
+ *
+ * @param fechaCreacion Fecha de creación de la última notificación de la página.
+ * @param id ID de la última notificación de la página (desempate entre fechas iguales).
+ */
+public record NotificacionCursor(LocalDateTime fechaCreacion, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Crea el cursor de una notificación enviada por el stream: su última ocurrencia si es
+     * agrupada, si no su fecha de creación.
+     *
+     * @param notificacion Notificación enviada.
+     * @return Cursor de la actividad de la notificación.
+     */
+    public static NotificacionCursor deActividad(NotificacionDto notificacion) {
+        LocalDateTime fecha = notificacion.getFechaUltimaOcurrencia() != null
+                ? notificacion.getFechaUltimaOcurrencia() : notificacion.getFechaCreacion();
+        return new NotificacionCursor(fecha, notificacion.getId());
+    }
+
+    /**
+     * Codifica el cursor como texto opaco.
+     *
+     * @return Cursor codificado.
+     */
+    public String codificar() {
+        String plano = fechaCreacion + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param cursor Cursor codificado.
+     * @return Cursor decodificado.
+     * @throws ResponseStatusException 400 si el cursor no es válido.
+     */
+    public static NotificacionCursor decodificar(String cursor) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = plano.indexOf(SEPARADOR);
+            return new NotificacionCursor(
+                    LocalDateTime.parse(plano.substring(0, separador)),
+                    Long.parseLong(plano.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
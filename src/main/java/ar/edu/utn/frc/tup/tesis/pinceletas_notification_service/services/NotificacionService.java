@@ -2,16 +2,41 @@ package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
 
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.CrearNotificacionRequest;
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.PaginaNotificacionesDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.ResultadoOperacionMasivaDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionBroadcastEntity;
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.mappers.NotificacionMapper;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.BandejaNotificacionRepository;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.FiltroNotificaciones;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionAgrupada;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionBroadcastRepository;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionReceptorRepository;
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Servicio principal para gestión de notificaciones.
@@ -24,13 +49,67 @@ public class NotificacionService {
 
     /** Repositorio para operaciones de base de datos con notificaciones. */
     private final NotificacionRepository notificacionRepository;
+    /** Repositorio de lectura de la bandeja (notificaciones directas + broadcasts). */
+    private final BandejaNotificacionRepository bandejaRepository;
+    /** Repositorio del contenido de los broadcasts. */
+    private final NotificacionBroadcastRepository broadcastRepository;
+    /** Repositorio de las recepciones de broadcasts por usuario. */
+    private final NotificacionReceptorRepository receptorRepository;
     /** Mapeador para conversiones entre entidades y DTOs. */
-    private final ModelMapper modelMapper;
+    private final NotificacionMapper notificacionMapper;
+    /** Contadores de no leídas en memoria. */
+    private final ContadorNoLeidasService contadorNoLeidasService;
+    /** Push de notificaciones por SSE. */
+    private final NotificacionStreamService notificacionStreamService;
+    /** Retención por tipo, fijada en cada notificación al crearla. */
+    private final PoliticaRetencion politicaRetencion;
+    /** Lecturas confirmadas en memoria y aún no persistidas (modo write-behind). */
+    private final LecturasDiferidasService lecturasDiferidasService;
+    /** Registro de claves de eventos ya procesados (ingesta idempotente). */
+    private final DeduplicacionEventosService deduplicacionService;
+    /** Versión de la bandeja de cada usuario (ETag de las consultas). */
+    private final VersionBandejaService versionBandejaService;
+    /** Ventanas de agrupación de los tipos repetitivos (p. ej. inicios de sesión). */
+    private final PoliticaAgrupacion politicaAgrupacion;
+    /** Entregas salientes por email/webhook de las notificaciones creadas. */
+    private final EntregasService entregasService;
+
+    /** Tamaño de página por defecto del feed paginado. */
+    @Value("${app.notificaciones.pagina.tamanio-default:20}")
+    private int tamanioPaginaDefault = 20;
+    /** Tamaño de página máximo permitido del feed paginado. */
+    @Value("${app.notificaciones.pagina.tamanio-max:100}")
+    private int tamanioPaginaMax = 100;
+    /** Cantidad máxima de IDs aceptados por una operación masiva. */
+    @Value("${app.notificaciones.operaciones-masivas.max-ids:500}")
+    private int maxIdsOperacionMasiva = 500;
 
     public NotificacionService(NotificacionRepository notificacionRepository,
-                               ModelMapper modelMapper) {
+                               BandejaNotificacionRepository bandejaRepository,
+                               NotificacionBroadcastRepository broadcastRepository,
+                               NotificacionReceptorRepository receptorRepository,
+                               NotificacionMapper notificacionMapper,
+                               ContadorNoLeidasService contadorNoLeidasService,
+                               NotificacionStreamService notificacionStreamService,
+                               PoliticaRetencion politicaRetencion,
+                               LecturasDiferidasService lecturasDiferidasService,
+                               DeduplicacionEventosService deduplicacionService,
+                               VersionBandejaService versionBandejaService,
+                               PoliticaAgrupacion politicaAgrupacion,
+                               EntregasService entregasService) {
         this.notificacionRepository = notificacionRepository;
-        this.modelMapper = modelMapper;
+        this.bandejaRepository = bandejaRepository;
+        this.broadcastRepository = broadcastRepository;
+        this.receptorRepository = receptorRepository;
+        this.notificacionMapper = notificacionMapper;
+        this.contadorNoLeidasService = contadorNoLeidasService;
+        this.notificacionStreamService = notificacionStreamService;
+        this.politicaRetencion = politicaRetencion;
+        this.lecturasDiferidasService = lecturasDiferidasService;
+        this.deduplicacionService = deduplicacionService;
+        this.versionBandejaService = versionBandejaService;
+        this.politicaAgrupacion = politicaAgrupacion;
+        this.entregasService = entregasService;
     }
 
     /**
@@ -41,10 +120,8 @@ public class NotificacionService {
      */
     public List<NotificacionDto> obtenerNotificacionesPorUsuario(Long usuarioId) {
         log.info("Obteniendo notificaciones para usuario: {}", usuarioId);
-        return notificacionRepository.findByUsuarioIdOrderByFechaCreacionDesc(usuarioId)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Set<Long> leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId);
+        return marcarLeidasPendientes(bandejaRepository.findByUsuarioIdOrderByFechaCreacionDesc(usuarioId), leidasPendientes);
     }
 
     /**
@@ -55,49 +132,335 @@ public class NotificacionService {
      */
     public List<NotificacionDto> obtenerNotificacionesNoLeidas(Long usuarioId) {
         log.info("Obteniendo notificaciones no leidas para usuario: {}", usuarioId);
-        return notificacionRepository.findByUsuarioIdAndEstadoOrderByFechaCreacionDesc(usuarioId, "NO_LEIDA")
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Set<Long> leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId);
+        List<NotificacionDto> noLeidas = bandejaRepository.findByUsuarioIdAndEstadoOrderByFechaCreacionDesc(usuarioId, "NO_LEIDA");
+        if (!leidasPendientes.isEmpty()) {
+            noLeidas.removeIf(notificacion -> leidasPendientes.contains(notificacion.getId()));
+        }
+        return noLeidas;
+    }
+
+    /**
+     * Obtiene una página del feed de notificaciones de un usuario usando paginación keyset.
+     * Cada página es un range scan acotado sobre el índice (usuario_id, fecha_creacion, id),
+     * sin importar el tamaño del historial.
+     *
+     * @param usuarioId ID del usuario.
+     * @param cursor Cursor opaco de la página anterior (null para la primera página).
+     * @param limite Tamaño de página solicitado (se acota al máximo configurado).
+     * @return Página de notificaciones con el cursor siguiente.
+     */
+    public PaginaNotificacionesDto obtenerPaginaNotificaciones(Long usuarioId, String cursor, Integer limite) {
+        log.info("Obteniendo pagina de notificaciones para usuario: {}", usuarioId);
+        Set<Long> leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId);
+        int tamanio = tamanioPagina(limite);
+        Pageable pageable = PageRequest.of(0, tamanio + 1);
+
+        List<NotificacionDto> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = bandejaRepository.findPrimeraPagina(usuarioId, pageable);
+        } else {
+            NotificacionCursor desde = NotificacionCursor.decodificar(cursor);
+            filas = bandejaRepository.findPaginaDespuesDe(usuarioId, desde.fechaCreacion(), desde.id(), pageable);
+        }
+        return construirPagina(marcarLeidasPendientes(filas, leidasPendientes), tamanio);
+    }
+
+    /**
+     * Obtiene una página de notificaciones no leídas de un usuario usando paginación keyset.
+     *
+     * @param usuarioId ID del usuario.
+     * @param cursor Cursor opaco de la página anterior (null para la primera página).
+     * @param limite Tamaño de página solicitado (se acota al máximo configurado).
+     * @return Página de notificaciones no leídas con el cursor siguiente.
+     */
+    public PaginaNotificacionesDto obtenerPaginaNoLeidas(Long usuarioId, String cursor, Integer limite) {
+        log.info("Obteniendo pagina de notificaciones no leidas para usuario: {}", usuarioId);
+        Set<Long> leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId);
+        int tamanio = tamanioPagina(limite);
+        Pageable pageable = PageRequest.of(0, tamanio + 1);
+
+        List<NotificacionDto> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = bandejaRepository.findPrimeraPaginaPorEstado(usuarioId, "NO_LEIDA", pageable);
+        } else {
+            NotificacionCursor desde = NotificacionCursor.decodificar(cursor);
+            filas = bandejaRepository.findPaginaPorEstadoDespuesDe(
+                    usuarioId, "NO_LEIDA", desde.fechaCreacion(), desde.id(), pageable);
+        }
+        PaginaNotificacionesDto pagina = construirPagina(filas, tamanio);
+        // El cursor ya se calculó sobre las filas leídas, así que quitar las pendientes no salta resultados
+        if (!leidasPendientes.isEmpty()) {
+            pagina.getNotificaciones().removeIf(notificacion -> leidasPendientes.contains(notificacion.getId()));
+        }
+        return pagina;
+    }
+
+    /**
+     * Obtiene una página de notificaciones de un usuario filtradas por tipo, estado y/o un par
+     * clave/valor de la metadata, usando paginación keyset. El filtro de metadata se resuelve
+     * con los índices GIN sobre la columna jsonb.
+     *
+     * @param usuarioId ID del usuario.
+     * @param filtro Criterios de filtrado (los null no filtran).
+     * @param cursor Cursor opaco de la página anterior (null para la primera página).
+     * @param limite Tamaño de página solicitado (se acota al máximo configurado).
+     * @return Página de notificaciones filtradas con el cursor siguiente.
+     * @throws ResponseStatusException 400 si el estado no existe o la clave de metadata no tiene valor.
+     */
+    public PaginaNotificacionesDto filtrarNotificaciones(Long usuarioId, FiltroNotificaciones filtro,
+                                                         String cursor, Integer limite) {
+        log.info("Filtrando notificaciones para usuario: {} ({})", usuarioId, filtro);
+        if (filtro.estado() != null && !filtro.estado().equals(EstadoNotificacionConverter.NO_LEIDA)
+                && !filtro.estado().equals(EstadoNotificacionConverter.LEIDA)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Estado inválido: " + filtro.estado());
+        }
+        if ((filtro.clave() == null) != (filtro.valor() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La clave y el valor de metadata van juntos");
+        }
+        Set<Long> leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId);
+        int tamanio = tamanioPagina(limite);
+
+        NotificacionCursor desde = cursor == null || cursor.isBlank() ? null : NotificacionCursor.decodificar(cursor);
+        List<NotificacionDto> filas = bandejaRepository.filtrar(usuarioId, filtro,
+                desde != null ? desde.fechaCreacion() : null, desde != null ? desde.id() : null, tamanio + 1);
+        if (filtro.estado() == null) {
+            return construirPagina(marcarLeidasPendientes(filas, leidasPendientes), tamanio);
+        }
+        PaginaNotificacionesDto pagina = construirPagina(filas, tamanio);
+        if (filtro.estado().equals(EstadoNotificacionConverter.NO_LEIDA) && !leidasPendientes.isEmpty()) {
+            pagina.getNotificaciones().removeIf(notificacion -> leidasPendientes.contains(notificacion.getId()));
+        }
+        return pagina;
+    }
+
+    /**
+     * Obtiene las notificaciones de un usuario con actividad posterior a un Last-Event-ID del
+     * stream SSE (incluye las agrupadas que sumaron ocurrencias desde entonces).
+     * La cantidad se acota al tamaño de página máximo.
+     *
+     * @param usuarioId ID del usuario.
+     * @param ultimoEventoId Last-Event-ID enviado por el cliente (cursor de la última notificación recibida).
+     * @return Notificaciones posteriores en orden de actividad (vacía si no hay Last-Event-ID).
+     */
+    public List<NotificacionDto> obtenerPosterioresA(Long usuarioId, String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return List.of();
+        }
+        NotificacionCursor desde = NotificacionCursor.decodificar(ultimoEventoId);
+        Set<Long> leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId);
+        return marcarLeidasPendientes(bandejaRepository.findPosterioresA(usuarioId, desde.fechaCreacion(), desde.id(),
+                PageRequest.of(0, tamanioPaginaMax)), leidasPendientes);
     }
 
     /**
      * Cuenta las notificaciones no leídas de un usuario.
+     * Se sirve desde el contador en memoria; solo consulta la base si el usuario no está cargado.
+     * Con lecturas diferidas, descuenta las lecturas del usuario aún no persistidas (solo se
+     * registran las verificadas como no leídas del usuario y se descartan si otra operación las
+     * lee o elimina antes, ver {@link LecturasDiferidasService#registrar(Long, Long)}).
      *
      * @param usuarioId ID del usuario.
      * @return Número de notificaciones no leídas.
      */
     public Long contarNotificacionesNoLeidas(Long usuarioId) {
-        log.info("Contando notificaciones no leidas para usuario: {}", usuarioId);
-        return notificacionRepository.countByUsuarioIdAndEstado(usuarioId, "NO_LEIDA");
+        log.debug("Contando notificaciones no leidas para usuario: {}", usuarioId);
+        int leidasPendientes = lecturasDiferidasService.pendientesDe(usuarioId).size();
+        return Math.max(0L, contadorNoLeidasService.obtener(usuarioId) - leidasPendientes);
     }
 
     /**
      * Crea una nueva notificación en el sistema.
+     * Si su tipo se agrupa ({@link PoliticaAgrupacion}), se acumula en la notificación de su
+     * ventana en lugar de crear una nueva.
      *
      * @param request Datos para crear la notificación.
-     * @return DTO de la notificación creada.
+     * @return DTO de la notificación creada o agrupada, o null si su evento de origen ya fue procesado.
      */
     @Transactional
     public NotificacionDto crearNotificacion(CrearNotificacionRequest request) {
+        if (descartarDuplicadas(List.of(request)).isEmpty()) {
+            return null;
+        }
+        if (politicaAgrupacion.agrupa(request.getTipo())) {
+            return convertToDto(agrupar(List.of(request)).get(0));
+        }
         log.info("Creando notificacion: {} para usuario: {}", request.getTitulo(), request.getUsuarioId());
 
-        NotificacionEntity notificacion = new NotificacionEntity(
-                request.getTitulo(),
-                request.getMensaje(),
-                request.getTipo(),
-                request.getUsuarioId(),
-                request.getMetadata()
-        );
+        NotificacionEntity notificacion = nuevaNotificacion(request);
 
         NotificacionEntity saved = notificacionRepository.save(notificacion);
         log.info("Notificacion creada con ID: {}", saved.getId());
 
-        return convertToDto(saved);
+        NotificacionDto dto = convertToDto(saved);
+        despuesDelCommit(() -> {
+            contadorNoLeidasService.ajustar(saved.getUsuarioId(), 1);
+            versionBandejaService.incrementar(saved.getUsuarioId());
+            notificacionStreamService.publicarNotificacion(dto);
+            entregasService.encolar(List.of(dto), false);
+        });
+
+        return dto;
+    }
+
+    /**
+     * Crea un lote de notificaciones en una única transacción.
+     * Los INSERT se envían agrupados en lotes JDBC (ids por secuencia y
+     * reWriteBatchedInserts), por lo que el lote completo cuesta pocos round-trips.
+     * Las de tipos agrupados se acumulan todas con un único upsert.
+     *
+     * @param requests Datos de las notificaciones a crear.
+     * @return Cantidad de eventos registrados (notificaciones creadas más ocurrencias agrupadas).
+     */
+    @Transactional
+    public int crearNotificacionesEnLote(List<CrearNotificacionRequest> requests) {
+        return insertarLote(requests).size();
+    }
+
+    /**
+     * Inserta las solicitudes no duplicadas de un lote (ver {@link #crearNotificacionesEnLote}).
+     *
+     * @param requests Datos de las notificaciones a crear.
+     * @return Solicitudes registradas, en el orden recibido.
+     */
+    private List<CrearNotificacionRequest> insertarLote(List<CrearNotificacionRequest> requests) {
+        List<CrearNotificacionRequest> nuevas = descartarDuplicadas(requests);
+        if (nuevas.isEmpty()) {
+            return nuevas;
+        }
+        log.info("Creando lote de {} notificaciones", nuevas.size());
+
+        List<NotificacionEntity> notificaciones = new ArrayList<>(nuevas.size());
+        List<CrearNotificacionRequest> agrupables = new ArrayList<>();
+        for (CrearNotificacionRequest request : nuevas) {
+            if (politicaAgrupacion.agrupa(request.getTipo())) {
+                agrupables.add(request);
+            } else {
+                notificaciones.add(nuevaNotificacion(request));
+            }
+        }
+        if (!agrupables.isEmpty()) {
+            agrupar(agrupables);
+        }
+        if (notificaciones.isEmpty()) {
+            return nuevas;
+        }
+
+        notificacionRepository.saveAll(notificaciones);
+
+        Map<Long, Long> nuevasPorUsuario = new HashMap<>();
+        for (NotificacionEntity notificacion : notificaciones) {
+            nuevasPorUsuario.merge(notificacion.getUsuarioId(), 1L, Long::sum);
+        }
+        despuesDelCommit(() -> {
+            nuevasPorUsuario.forEach(contadorNoLeidasService::ajustar);
+            versionBandejaService.incrementar(nuevasPorUsuario.keySet());
+            List<NotificacionDto> aEntregar = new ArrayList<>();
+            for (NotificacionEntity notificacion : notificaciones) {
+                boolean suscripto = notificacionStreamService.tieneSuscriptores(notificacion.getUsuarioId());
+                boolean seEntrega = entregasService.seEntrega(notificacion.getTipo());
+                if (!suscripto && !seEntrega) {
+                    continue;
+                }
+                NotificacionDto dto = convertToDto(notificacion);
+                if (suscripto) {
+                    notificacionStreamService.publicarNotificacion(dto);
+                }
+                if (seEntrega) {
+                    aEntregar.add(dto);
+                }
+            }
+            entregasService.encolar(aEntregar, false);
+        });
+
+        return nuevas;
+    }
+
+    /**
+     * Crea una notificación broadcast: el contenido se guarda una sola vez y cada
+     * destinatario recibe una fila de recepción compacta, insertadas todas en una
+     * única sentencia.
+     *
+     * @param contenido Datos de la notificación (se ignora usuarioId).
+     * @param destinatarios IDs de los usuarios destinatarios.
+     * @return Cantidad de destinatarios alcanzados (0 si su evento de origen ya fue procesado).
+     */
+    @Transactional
+    public int crearBroadcast(CrearNotificacionRequest contenido, List<Long> destinatarios) {
+        if (destinatarios.isEmpty() || descartarDuplicadas(List.of(contenido)).isEmpty()) {
+            return 0;
+        }
+        log.info("Creando broadcast: {} para {} destinatarios", contenido.getTitulo(), destinatarios.size());
+
+        NotificacionBroadcastEntity broadcast = broadcastRepository.saveAndFlush(new NotificacionBroadcastEntity(
+                contenido.getTitulo(),
+                contenido.getMensaje(),
+                contenido.getTipo(),
+                MetadataJson.normalizar(contenido.getMetadata())
+        ));
+        receptorRepository.insertarRecepciones(broadcast.getId(), destinatarios, broadcast.getFechaCreacion());
+
+        despuesDelCommit(() -> {
+            versionBandejaService.incrementar(destinatarios);
+            boolean seEntrega = entregasService.seEntrega(broadcast.getTipo());
+            List<NotificacionDto> aEntregar = new ArrayList<>(seEntrega ? destinatarios.size() : 0);
+            for (Long usuarioId : destinatarios) {
+                contadorNoLeidasService.ajustar(usuarioId, 1);
+                boolean suscripto = notificacionStreamService.tieneSuscriptores(usuarioId);
+                if (!suscripto && !seEntrega) {
+                    continue;
+                }
+                NotificacionDto dto = convertToDto(broadcast, usuarioId);
+                if (suscripto) {
+                    notificacionStreamService.publicarNotificacion(dto);
+                }
+                if (seEntrega) {
+                    aEntregar.add(dto);
+                }
+            }
+            entregasService.encolar(aEntregar, true);
+        });
+
+        return destinatarios.size();
+    }
+
+    /**
+     * Procesa un lote de eventos en una única transacción: las notificaciones directas se
+     * insertan agrupadas y cada broadcast guarda su contenido una vez más sus recepciones.
+     *
+     * @param directas Notificaciones directas a crear.
+     * @param broadcasts Contenidos de broadcast a crear.
+     * @param destinatariosBroadcast Destinatarios de todos los broadcasts del lote.
+     * @return Cantidad de notificaciones entregadas y, por posición, qué solicitudes se
+     *         registraron y cuáles se descartaron por duplicadas. Un broadcast sin destinatarios
+     *         cuenta como registrado.
+     */
+    @Transactional
+    public ResultadoLote procesarLote(List<CrearNotificacionRequest> directas,
+                                      List<CrearNotificacionRequest> broadcasts,
+                                      List<Long> destinatariosBroadcast) {
+        List<CrearNotificacionRequest> nuevas = insertarLote(directas);
+        Set<CrearNotificacionRequest> registradas = Collections.newSetFromMap(new IdentityHashMap<>());
+        registradas.addAll(nuevas);
+        List<Boolean> directasNuevas = new ArrayList<>(directas.size());
+        for (CrearNotificacionRequest directa : directas) {
+            directasNuevas.add(registradas.contains(directa));
+        }
+
+        int creadas = nuevas.size();
+        List<Boolean> broadcastsNuevos = new ArrayList<>(broadcasts.size());
+        for (CrearNotificacionRequest broadcast : broadcasts) {
+            int alcanzados = crearBroadcast(broadcast, destinatariosBroadcast);
+            creadas += alcanzados;
+            broadcastsNuevos.add(alcanzados > 0 || destinatariosBroadcast.isEmpty());
+        }
+        return new ResultadoLote(creadas, directasNuevas, broadcastsNuevos);
     }
 
     /**
      * Marca una notificación específica como leída.
+     * Con lecturas diferidas habilitadas, el controlador la registra en
+     * {@link LecturasDiferidasService} en lugar de llamar a este método.
      *
      * @param id ID de la notificación.
      * @param usuarioId ID del usuario (para validación de propiedad).
@@ -105,7 +468,17 @@ public class NotificacionService {
     @Transactional
     public void marcarComoLeida(Long id, Long usuarioId) {
         log.info("Marcando notificacion {} como leida para usuario: {}", id, usuarioId);
-        notificacionRepository.marcarComoLeida(id, usuarioId);
+        int actualizadas = notificacionRepository.marcarComoLeida(id, usuarioId);
+        if (actualizadas == 0) {
+            actualizadas = receptorRepository.marcarComoLeida(id, usuarioId);
+        }
+        if (actualizadas > 0) {
+            despuesDelCommit(() -> {
+                contadorNoLeidasService.ajustar(usuarioId, -1);
+                versionBandejaService.incrementar(usuarioId);
+                notificacionStreamService.publicarContador(usuarioId);
+            });
+        }
     }
 
     /**
@@ -117,6 +490,13 @@ public class NotificacionService {
     public void marcarTodasComoLeidas(Long usuarioId) {
         log.info("Marcando todas las notificaciones como leidas para usuario: {}", usuarioId);
         notificacionRepository.marcarTodasComoLeidas(usuarioId);
+        receptorRepository.marcarTodasComoLeidas(usuarioId);
+        despuesDelCommit(() -> {
+            lecturasDiferidasService.descartarTodas(usuarioId);
+            contadorNoLeidasService.reiniciar(usuarioId);
+            versionBandejaService.incrementar(usuarioId);
+            notificacionStreamService.publicarContador(usuarioId);
+        });
     }
 
     /**
@@ -128,7 +508,84 @@ public class NotificacionService {
     @Transactional
     public void eliminarNotificacion(Long id, Long usuarioId) {
         log.info("Eliminando notificacion {} para usuario: {}", id, usuarioId);
-        notificacionRepository.deleteByIdAndUsuarioId(id, usuarioId);
+        if (notificacionRepository.eliminar(id, usuarioId) == 0) {
+            receptorRepository.eliminar(id, usuarioId);
+        }
+        despuesDelCommit(() -> {
+            lecturasDiferidasService.descartar(usuarioId, List.of(id));
+            contadorNoLeidasService.invalidar(usuarioId);
+            versionBandejaService.incrementar(usuarioId);
+            notificacionStreamService.publicarContador(usuarioId);
+        });
+    }
+
+    /**
+     * Marca como leídas varias notificaciones de un usuario.
+     * Ejecuta un único UPDATE por tabla (directas y recepciones de broadcasts),
+     * acotado al usuario, en lugar de una sentencia por ID.
+     *
+     * @param ids IDs de las notificaciones.
+     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @return Cantidad de notificaciones que pasaron a leídas.
+     */
+    @Transactional
+    public ResultadoOperacionMasivaDto marcarComoLeidas(List<Long> ids, Long usuarioId) {
+        List<Long> unicos = validarIds(ids);
+        log.info("Marcando {} notificaciones como leidas para usuario: {}", unicos.size(), usuarioId);
+        int actualizadas = notificacionRepository.marcarComoLeidas(unicos, usuarioId)
+                + receptorRepository.marcarComoLeidas(unicos, usuarioId);
+        if (actualizadas > 0) {
+            despuesDelCommit(() -> {
+                lecturasDiferidasService.descartar(usuarioId, unicos);
+                contadorNoLeidasService.ajustar(usuarioId, -actualizadas);
+                versionBandejaService.incrementar(usuarioId);
+                notificacionStreamService.publicarContador(usuarioId);
+            });
+        }
+        return new ResultadoOperacionMasivaDto(actualizadas);
+    }
+
+    /**
+     * Elimina varias notificaciones de un usuario con un único DELETE por tabla.
+     *
+     * @param ids IDs de las notificaciones.
+     * @param usuarioId ID del usuario (para validación de propiedad).
+     * @return Cantidad de notificaciones eliminadas.
+     */
+    @Transactional
+    public ResultadoOperacionMasivaDto eliminarNotificaciones(List<Long> ids, Long usuarioId) {
+        List<Long> unicos = validarIds(ids);
+        log.info("Eliminando {} notificaciones para usuario: {}", unicos.size(), usuarioId);
+        int eliminadas = notificacionRepository.eliminarTodas(unicos, usuarioId)
+                + receptorRepository.eliminarTodas(unicos, usuarioId);
+        if (eliminadas > 0) {
+            despuesDelCommit(() -> {
+                lecturasDiferidasService.descartar(usuarioId, unicos);
+                contadorNoLeidasService.invalidar(usuarioId);
+                versionBandejaService.incrementar(usuarioId);
+                notificacionStreamService.publicarContador(usuarioId);
+            });
+        }
+        return new ResultadoOperacionMasivaDto(eliminadas);
+    }
+
+    /**
+     * Elimina las notificaciones leídas de un usuario creadas antes de una fecha.
+     * Solo afecta leídas, por lo que el contador de no leídas no cambia.
+     *
+     * @param usuarioId ID del usuario.
+     * @param fecha Fecha de creación límite (exclusiva).
+     * @return Cantidad de notificaciones eliminadas.
+     */
+    @Transactional
+    public ResultadoOperacionMasivaDto eliminarLeidasAnterioresA(Long usuarioId, LocalDateTime fecha) {
+        log.info("Eliminando notificaciones leidas anteriores a {} para usuario: {}", fecha, usuarioId);
+        int eliminadas = notificacionRepository.eliminarLeidasAnterioresA(usuarioId, fecha)
+                + receptorRepository.eliminarLeidasAnterioresA(usuarioId, fecha);
+        if (eliminadas > 0) {
+            despuesDelCommit(() -> versionBandejaService.incrementar(usuarioId));
+        }
+        return new ResultadoOperacionMasivaDto(eliminadas);
     }
 
     /**
@@ -140,19 +597,236 @@ public class NotificacionService {
      * @param tipo Tipo de notificación.
      * @param usuarioId ID del usuario destinatario.
      * @param metadata Metadatos adicionales.
+     * @param claveDeduplicacion Clave del evento (ver {@link DeduplicacionEventosService#claveDe}).
+     * @return true si se creó la notificación; false si el evento ya había sido procesado.
      */
     @Transactional
-    public void procesarEventoNotificacion(String titulo, String mensaje, String tipo, Long usuarioId, String metadata) {
+    public boolean procesarEventoNotificacion(String titulo, String mensaje, String tipo, Long usuarioId,
+                                              String metadata, String claveDeduplicacion) {
         log.info("Procesando evento de notificacion - Tipo: {}, Usuario: {}", tipo, usuarioId);
 
-        CrearNotificacionRequest request = new CrearNotificacionRequest();
-        request.setTitulo(titulo);
-        request.setMensaje(mensaje);
-        request.setTipo(tipo);
-        request.setUsuarioId(usuarioId);
-        request.setMetadata(metadata);
+        CrearNotificacionRequest request = new CrearNotificacionDesdeEvento(
+                titulo, mensaje, tipo, usuarioId, metadata, claveDeduplicacion);
+
+        return crearNotificacion(request) != null;
+    }
+
+    /**
+     * Ejecuta una acción cuando la transacción actual confirma (o inmediatamente si no hay transacción).
+     * Evita que el estado en memoria refleje cambios que luego se revierten.
+     *
+     * @param accion Acción a ejecutar.
+     */
+    private void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Acumula solicitudes de tipos agrupados en la notificación de su ventana.
+     * Primero se combinan las del mismo usuario, tipo y ventana (el contenido queda el de la
+     * última) y luego se aplica un único upsert, que suma las ocurrencias sobre la fila existente
+     * o la crea: dos instancias que agrupan a la vez nunca pisan sus ocurrencias.
+     * <p>
+     * Una fila nueva suma uno al contador de no leídas. Una existente vuelve a quedar no leída;
+     * como no se sabe si ya lo estaba, el contador del usuario se descarta y se recarga.
+     *
+     * @param requests Solicitudes de tipos agrupados.
+     * @return Notificaciones resultantes, una por usuario, tipo y ventana.
+     */
+    private List<NotificacionEntity> agrupar(List<CrearNotificacionRequest> requests) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<ClaveAgrupacion, NotificacionEntity> porClave = new LinkedHashMap<>();
+        for (CrearNotificacionRequest request : requests) {
+            LocalDateTime ventana = politicaAgrupacion.inicioVentana(request.getTipo(), ahora);
+            ClaveAgrupacion clave = new ClaveAgrupacion(request.getUsuarioId(), request.getTipo(), ventana);
+            NotificacionEntity existente = porClave.get(clave);
+            NotificacionEntity notificacion = nuevaNotificacion(request);
+            notificacion.setFechaCreacion(ventana);
+            notificacion.setFechaUltimaOcurrencia(ahora);
+            notificacion.setOcurrencias(existente == null ? 1 : existente.getOcurrencias() + 1);
+            porClave.put(clave, notificacion);
+        }
+
+        // Orden fijo: lotes concurrentes bloquean las filas existentes en el mismo orden
+        List<NotificacionEntity> aAgrupar = new ArrayList<>(porClave.values());
+        aAgrupar.sort(Comparator.comparing(NotificacionEntity::getUsuarioId).thenComparing(NotificacionEntity::getTipo));
+        List<NotificacionAgrupada> agrupadas = notificacionRepository.agrupar(aAgrupar);
+        log.info("Agrupados {} eventos en {} notificaciones", requests.size(), agrupadas.size());
+
+        despuesDelCommit(() -> {
+            versionBandejaService.incrementar(agrupadas.stream()
+                    .map(agrupada -> agrupada.notificacion().getUsuarioId())
+                    .toList());
+            List<NotificacionDto> aEntregar = new ArrayList<>();
+            for (NotificacionAgrupada agrupada : agrupadas) {
+                Long usuarioId = agrupada.notificacion().getUsuarioId();
+                if (agrupada.nueva()) {
+                    contadorNoLeidasService.ajustar(usuarioId, 1);
+                } else {
+                    contadorNoLeidasService.invalidar(usuarioId);
+                }
+                if (notificacionStreamService.tieneSuscriptores(usuarioId)) {
+                    notificacionStreamService.publicarNotificacion(convertToDto(agrupada.notificacion()));
+                    if (!agrupada.nueva()) {
+                        notificacionStreamService.publicarContador(usuarioId);
+                    }
+                }
+                // Se entrega una vez por notificación agrupada, no por cada ocurrencia
+                if (agrupada.nueva() && entregasService.seEntrega(agrupada.notificacion().getTipo())) {
+                    aEntregar.add(convertToDto(agrupada.notificacion()));
+                }
+            }
+            entregasService.encolar(aEntregar, false);
+        });
+
+        List<NotificacionEntity> resultado = new ArrayList<>(agrupadas.size());
+        for (NotificacionAgrupada agrupada : agrupadas) {
+            resultado.add(agrupada.notificacion());
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta las solicitudes cuyo evento de origen ya fue procesado (o que se repiten dentro
+     * del mismo lote). Solo las originadas en eventos ({@link CrearNotificacionDesdeEvento})
+     * tienen clave de deduplicación; el resto se conserva siempre.
+     * Debe llamarse dentro de la transacción que las persiste.
+     *
+     * @param requests Solicitudes a filtrar.
+     * @return Solicitudes nuevas, en el orden recibido.
+     */
+    private List<CrearNotificacionRequest> descartarDuplicadas(List<CrearNotificacionRequest> requests) {
+        List<String> claves = new ArrayList<>(requests.size());
+        for (CrearNotificacionRequest request : requests) {
+            String clave = claveDeduplicacion(request);
+            if (clave != null) {
+                claves.add(clave);
+            }
+        }
+        if (claves.isEmpty()) {
+            return requests;
+        }
+
+        Set<String> nuevas = deduplicacionService.registrarNuevas(claves);
+        List<CrearNotificacionRequest> resultado = new ArrayList<>(requests.size());
+        for (CrearNotificacionRequest request : requests) {
+            String clave = claveDeduplicacion(request);
+            if (clave == null || nuevas.remove(clave)) {
+                resultado.add(request);
+            }
+        }
+        if (resultado.size() < requests.size()) {
+            log.info("♻️ {} eventos duplicados descartados", requests.size() - resultado.size());
+        }
+        return resultado;
+    }
+
+    private static String claveDeduplicacion(CrearNotificacionRequest request) {
+        return request instanceof CrearNotificacionDesdeEvento desdeEvento ? desdeEvento.getClaveDeduplicacion() : null;
+    }
+
+    /**
+     * Refleja como leídas las notificaciones con lecturas diferidas aún no persistidas.
+     *
+     * @param notificaciones Notificaciones leídas de la base.
+     * @param leidasPendientes IDs con lectura pendiente del usuario.
+     * @return La misma lista, con el estado ajustado.
+     */
+    private List<NotificacionDto> marcarLeidasPendientes(List<NotificacionDto> notificaciones, Set<Long> leidasPendientes) {
+        if (leidasPendientes.isEmpty()) {
+            return notificaciones;
+        }
+        for (NotificacionDto notificacion : notificaciones) {
+            if ("NO_LEIDA".equals(notificacion.getEstado()) && leidasPendientes.contains(notificacion.getId())) {
+                notificacion.setEstado("LEIDA");
+                notificacion.setFechaLectura(LocalDateTime.now());
+            }
+        }
+        return notificaciones;
+    }
+
+    /**
+     * Valida la lista de IDs de una operación masiva y descarta duplicados y nulos.
+     *
+     * @param ids IDs recibidos.
+     * @return IDs únicos, en el orden recibido.
+     * @throws ResponseStatusException 400 si la lista está vacía o supera el máximo configurado.
+     */
+    private List<Long> validarIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Se requiere al menos un ID");
+        }
+        LinkedHashSet<Long> unicos = new LinkedHashSet<>(ids);
+        unicos.remove(null);
+        if (unicos.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Se requiere al menos un ID");
+        }
+        if (unicos.size() > maxIdsOperacionMasiva) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Se admiten como máximo " + maxIdsOperacionMasiva + " IDs por operación");
+        }
+        return new ArrayList<>(unicos);
+    }
+
+    /**
+     * Acota el tamaño de página solicitado al rango [1, máximo configurado].
+     *
+     * @param limite Tamaño solicitado (puede ser null).
+     * @return Tamaño de página efectivo.
+     */
+    private int tamanioPagina(Integer limite) {
+        if (limite == null || limite <= 0) {
+            return tamanioPaginaDefault;
+        }
+        return Math.min(limite, tamanioPaginaMax);
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas.
+     * Se consulta una fila extra para saber si hay más resultados sin un COUNT.
+     *
+     * @param filas Filas proyectadas (hasta tamanio + 1).
+     * @param tamanio Tamaño de página efectivo.
+     * @return Página con el cursor siguiente si corresponde.
+     */
+    private PaginaNotificacionesDto construirPagina(List<NotificacionDto> filas, int tamanio) {
+        boolean hayMas = filas.size() > tamanio;
+        List<NotificacionDto> pagina = hayMas ? new ArrayList<>(filas.subList(0, tamanio)) : filas;
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            NotificacionDto ultima = pagina.get(pagina.size() - 1);
+            siguienteCursor = new NotificacionCursor(ultima.getFechaCreacion(), ultima.getId()).codificar();
+        }
 
-        crearNotificacion(request);
+        return new PaginaNotificacionesDto(pagina, siguienteCursor, hayMas);
+    }
+
+    /**
+     * Construye la entidad de una notificación directa con la retención de su tipo.
+     *
+     * @param request Datos de la notificación.
+     * @return Entidad lista para persistir.
+     */
+    private NotificacionEntity nuevaNotificacion(CrearNotificacionRequest request) {
+        NotificacionEntity notificacion = new NotificacionEntity(
+                request.getTitulo(),
+                request.getMensaje(),
+                request.getTipo(),
+                request.getUsuarioId(),
+                MetadataJson.normalizar(request.getMetadata())
+        );
+        notificacion.setRetencionDias(politicaRetencion.diasPara(request.getTipo()));
+        return notificacion;
     }
 
     /**
@@ -162,6 +836,21 @@ public class NotificacionService {
      * @return DTO convertido.
      */
     private NotificacionDto convertToDto(NotificacionEntity entity) {
-        return modelMapper.map(entity, NotificacionDto.class);
+        return notificacionMapper.toDto(entity);
+    }
+
+    /**
+     * Construye el DTO de un broadcast recién creado para uno de sus destinatarios.
+     *
+     * @param broadcast Contenido del broadcast.
+     * @param usuarioId ID del destinatario.
+     * @return DTO no leído del destinatario.
+     */
+    private NotificacionDto convertToDto(NotificacionBroadcastEntity broadcast, Long usuarioId) {
+        return notificacionMapper.toDto(broadcast, usuarioId);
+    }
+
+    /** Clave de agrupación: usuario, tipo e inicio de la ventana. */
+    private record ClaveAgrupacion(Long usuarioId, String tipo, LocalDateTime ventana) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,339 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio de push de notificaciones por Server-Sent Events.
+ * Las conexiones usan el soporte asíncrono del servlet container, por lo que una conexión
+ * inactiva no ocupa ningún hilo. Cada conexión tiene un buffer acotado y sus envíos corren
+ * en un hilo virtual propio, por lo que un socket lento o medio abierto no demora a las demás
+ * conexiones. Una conexión se cierra (y el cliente reconecta con Last-Event-ID) si su buffer se
+ * llena (consumidor lento) o si un envío no termina dentro de
+ * {@code app.notificaciones.stream.plazo-envio-ms} (conexión trabada).
+ */
+@Service
+public class NotificacionStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionStreamService.class);
+
+    /** Nombre del evento SSE para notificaciones nuevas. */
+    public static final String EVENTO_NOTIFICACION = "notificacion";
+    /** Nombre del evento SSE para cambios del contador de no leídas. */
+    public static final String EVENTO_CONTADOR = "contador";
+
+    /** Evento de heartbeat (comentario SSE) compartido por todas las conexiones. */
+    private static final EventoStream HEARTBEAT = new EventoStream(null, null, null);
+
+    /** Contadores de no leídas para los eventos de contador. */
+    private final ContadorNoLeidasService contadorNoLeidasService;
+    /** Conexiones abiertas por usuarioId (en orden de apertura). */
+    private final Map<Long, ConcurrentLinkedDeque<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+    /** Escribe los eventos en las conexiones, un hilo virtual por drenado. */
+    private final ExecutorService enviador;
+    /** Planificador del heartbeat y de la revisión de envíos trabados. */
+    private final ScheduledExecutorService heartbeat;
+
+    private final long timeoutMs;
+    private final long plazoEnvioNanos;
+    private final int tamanioBuffer;
+    private final int maxPorUsuario;
+
+    public NotificacionStreamService(ContadorNoLeidasService contadorNoLeidasService,
+                                     @Value("${app.notificaciones.stream.timeout-ms:1800000}") long timeoutMs,
+                                     @Value("${app.notificaciones.stream.heartbeat-ms:15000}") long heartbeatMs,
+                                     @Value("${app.notificaciones.stream.buffer:32}") int tamanioBuffer,
+                                     @Value("${app.notificaciones.stream.max-por-usuario:5}") int maxPorUsuario,
+                                     @Value("${app.notificaciones.stream.plazo-envio-ms:10000}") long plazoEnvioMs) {
+        this.contadorNoLeidasService = contadorNoLeidasService;
+        this.timeoutMs = timeoutMs;
+        this.tamanioBuffer = tamanioBuffer;
+        this.maxPorUsuario = maxPorUsuario;
+        this.plazoEnvioNanos = TimeUnit.MILLISECONDS.toNanos(plazoEnvioMs);
+        this.enviador = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-envio-", 0).factory());
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(hilos("sse-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::enviarHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long revisionMs = Math.max(plazoEnvioMs / 2, 1);
+        this.heartbeat.scheduleAtFixedRate(this::cerrarTrabadas, revisionMs, revisionMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una conexión SSE para un usuario.
+     * Envía primero las notificaciones pendientes (reanudación desde Last-Event-ID)
+     * y el contador actual de no leídas.
+     *
+     * @param usuarioId ID del usuario.
+     * @param pendientes Notificaciones posteriores al Last-Event-ID del cliente (puede estar vacía).
+     * @param noLeidas Contador actual de no leídas.
+     * @return SseEmitter de la conexión.
+     */
+    public SseEmitter suscribir(Long usuarioId, List<NotificacionDto> pendientes, long noLeidas) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscripcion suscripcion = new Suscripcion(usuarioId, emitter, new ArrayBlockingQueue<>(tamanioBuffer));
+
+        emitter.onCompletion(() -> quitar(suscripcion));
+        emitter.onTimeout(() -> cerrar(suscripcion));
+        emitter.onError(e -> quitar(suscripcion));
+
+        // El alta se hace dentro de compute para no competir con quitar(), que elimina la deque vacía
+        ConcurrentLinkedDeque<Suscripcion> delUsuario = suscripciones.compute(usuarioId, (id, actual) -> {
+            ConcurrentLinkedDeque<Suscripcion> deque = actual != null ? actual : new ConcurrentLinkedDeque<>();
+            deque.addLast(suscripcion);
+            return deque;
+        });
+        while (delUsuario.size() > maxPorUsuario) {
+            Suscripcion masVieja = delUsuario.pollFirst();
+            if (masVieja != null) {
+                cerrar(masVieja);
+            }
+        }
+
+        for (NotificacionDto notificacion : pendientes) {
+            encolar(suscripcion, eventoNotificacion(notificacion));
+        }
+        encolar(suscripcion, new EventoStream(null, EVENTO_CONTADOR, Map.of("noLeidas", noLeidas)));
+
+        log.debug("Stream abierto para usuario {} ({} pendientes)", usuarioId, pendientes.size());
+        return emitter;
+    }
+
+    /**
+     * Indica si un usuario tiene conexiones abiertas.
+     *
+     * @param usuarioId ID del usuario.
+     * @return true si hay al menos una conexión abierta.
+     */
+    public boolean tieneSuscriptores(Long usuarioId) {
+        ConcurrentLinkedDeque<Suscripcion> delUsuario = suscripciones.get(usuarioId);
+        return delUsuario != null && !delUsuario.isEmpty();
+    }
+
+    /**
+     * Publica una notificación recién creada a las conexiones de su destinatario.
+     *
+     * @param notificacion Notificación creada (ya confirmada en base de datos).
+     */
+    public void publicarNotificacion(NotificacionDto notificacion) {
+        publicar(notificacion.getUsuarioId(), eventoNotificacion(notificacion));
+    }
+
+    /**
+     * Publica el contador de no leídas actual de un usuario a sus conexiones.
+     *
+     * @param usuarioId ID del usuario.
+     */
+    public void publicarContador(Long usuarioId) {
+        if (!tieneSuscriptores(usuarioId)) {
+            return;
+        }
+        long noLeidas = contadorNoLeidasService.obtener(usuarioId);
+        publicar(usuarioId, new EventoStream(null, EVENTO_CONTADOR, Map.of("noLeidas", noLeidas)));
+    }
+
+    /**
+     * Cantidad total de conexiones abiertas.
+     *
+     * @return Conexiones abiertas.
+     */
+    public int conexionesAbiertas() {
+        return suscripciones.values().stream().mapToInt(Collection::size).sum();
+    }
+
+    @PreDestroy
+    public void cerrarTodo() {
+        heartbeat.shutdownNow();
+        suscripciones.values().forEach(delUsuario -> delUsuario.forEach(this::cerrar));
+        enviador.shutdown();
+    }
+
+    private void publicar(Long usuarioId, EventoStream evento) {
+        ConcurrentLinkedDeque<Suscripcion> delUsuario = suscripciones.get(usuarioId);
+        if (delUsuario == null) {
+            return;
+        }
+        for (Suscripcion suscripcion : delUsuario) {
+            encolar(suscripcion, evento);
+        }
+    }
+
+    private void enviarHeartbeat() {
+        try {
+            for (ConcurrentLinkedDeque<Suscripcion> delUsuario : suscripciones.values()) {
+                for (Suscripcion suscripcion : delUsuario) {
+                    encolar(suscripcion, HEARTBEAT);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error enviando heartbeat SSE: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra las conexiones con un envío en curso desde hace más que el plazo.
+     * El hilo trabado se interrumpe y el cierre del emitter corre aparte (puede esperar al
+     * mismo envío), así la revisión nunca se bloquea.
+     */
+    private void cerrarTrabadas() {
+        try {
+            long ahora = System.nanoTime();
+            for (ConcurrentLinkedDeque<Suscripcion> delUsuario : suscripciones.values()) {
+                for (Suscripcion suscripcion : delUsuario) {
+                    long desde = suscripcion.envioDesdeNanos;
+                    if (desde != 0 && ahora - desde > plazoEnvioNanos) {
+                        log.warn("Envio SSE trabado para usuario {}, cerrando conexion", suscripcion.usuarioId);
+                        quitar(suscripcion);
+                        Thread hilo = suscripcion.hiloEnvio;
+                        if (hilo != null) {
+                            hilo.interrupt();
+                        }
+                        Thread.ofVirtual().name("sse-cierre").start(() -> cerrar(suscripcion));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error revisando envios SSE: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Encola un evento en el buffer de la conexión. Si el buffer está lleno el consumidor
+     * es demasiado lento y la conexión se cierra.
+     */
+    private void encolar(Suscripcion suscripcion, EventoStream evento) {
+        if (!suscripcion.buffer.offer(evento)) {
+            log.warn("Consumidor SSE lento para usuario {}, cerrando conexion", suscripcion.usuarioId);
+            cerrar(suscripcion);
+            return;
+        }
+        programarEnvio(suscripcion);
+    }
+
+    private void programarEnvio(Suscripcion suscripcion) {
+        if (suscripcion.enviando.compareAndSet(false, true)) {
+            try {
+                enviador.execute(() -> drenar(suscripcion));
+            } catch (RuntimeException e) {
+                suscripcion.enviando.set(false);
+                cerrar(suscripcion);
+            }
+        }
+    }
+
+    private void drenar(Suscripcion suscripcion) {
+        suscripcion.hiloEnvio = Thread.currentThread();
+        try {
+            EventoStream evento;
+            while ((evento = suscripcion.buffer.poll()) != null) {
+                suscripcion.envioDesdeNanos = System.nanoTime() | 1;
+                suscripcion.emitter.send(construir(evento));
+                suscripcion.envioDesdeNanos = 0;
+            }
+        } catch (Exception e) {
+            log.debug("Conexion SSE cerrada para usuario {}: {}", suscripcion.usuarioId, e.getMessage());
+            quitar(suscripcion);
+            return;
+        } finally {
+            suscripcion.envioDesdeNanos = 0;
+            suscripcion.hiloEnvio = null;
+            suscripcion.enviando.set(false);
+        }
+        // Un evento encolado mientras se liberaba el flag no debe quedar esperando
+        if (!suscripcion.buffer.isEmpty()) {
+            programarEnvio(suscripcion);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder construir(EventoStream evento) {
+        if (evento.nombre() == null) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(evento.nombre());
+        if (evento.id() != null) {
+            builder.id(evento.id());
+        }
+        return builder.data(evento.datos(), MediaType.APPLICATION_JSON);
+    }
+
+    private EventoStream eventoNotificacion(NotificacionDto notificacion) {
+        String id = NotificacionCursor.deActividad(notificacion).codificar();
+        return new EventoStream(id, EVENTO_NOTIFICACION, notificacion);
+    }
+
+    private void cerrar(Suscripcion suscripcion) {
+        quitar(suscripcion);
+        try {
+            suscripcion.emitter.complete();
+        } catch (Exception e) {
+            log.debug("Error cerrando conexion SSE: {}", e.getMessage());
+        }
+    }
+
+    private void quitar(Suscripcion suscripcion) {
+        if (!suscripcion.activa.compareAndSet(true, false)) {
+            return;
+        }
+        suscripcion.buffer.clear();
+        suscripciones.computeIfPresent(suscripcion.usuarioId, (id, delUsuario) -> {
+            delUsuario.remove(suscripcion);
+            return delUsuario.isEmpty() ? null : delUsuario;
+        });
+    }
+
+    private static ThreadFactory hilos(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefijo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Evento pendiente de envío. Un evento sin nombre es un heartbeat.
+     *
+     * @param id ID SSE (cursor de la notificación) o null.
+     * @param nombre Nombre del evento SSE.
+     * @param datos Payload a serializar como JSON.
+     */
+    private record EventoStream(String id, String nombre, Object datos) {}
+
+    /** Conexión SSE abierta con su buffer de envío. */
+    private static final class Suscripcion {
+        private final Long usuarioId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventoStream> buffer;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean activa = new AtomicBoolean(true);
+        /** Inicio ({@link System#nanoTime()}, nunca 0) del envío en curso, o 0 si no hay ninguno. */
+        private volatile long envioDesdeNanos;
+        /** Hilo que está drenando el buffer, o null. */
+        private volatile Thread hiloEnvio;
+
+        private Suscripcion(Long usuarioId, SseEmitter emitter, BlockingQueue<EventoStream> buffer) {
+            this.usuarioId = usuarioId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantenimiento de las particiones de la tabla {@code notificaciones}.
+ * <p>
+ * La tabla se particiona por rango mensual de {@code fecha_creacion} y cada mes se
+ * sub-particiona por lista de {@code retencion_dias} (la retención del tipo, ver
+ * {@link PoliticaRetencion}). Así, las filas que expiran juntas viven en la misma partición y
+ * se eliminan descartándola entera (DROP) o desenganchándola y copiándola en tramos acotados
+ * a {@code notificaciones_archivo} (ARCHIVAR), nunca con DELETE fila por fila.
+ * Una sub-partición de retención {@code d} del mes {@code M} expira cuando pasaron {@code d}
+ * días desde el fin de {@code M}: cada fila se conserva al menos su retención y a lo sumo
+ * un mes más.
+ * <p>
+ * Las consultas del feed ordenan por {@code fecha_creacion DESC} (la clave de partición), por
+ * lo que Postgres recorre las particiones de la más reciente hacia atrás y se detiene al
+ * completar la página; las páginas siguientes acotan además {@code fecha_creacion <= cursor}.
+ * <p>
+ * Al iniciar, si la tabla todavía no está particionada (la crea Hibernate como tabla común)
+ * se convierte en una única transacción, y se crean por adelantado las particiones de los
+ * próximos meses. Un job diario repite la creación y retira las particiones expiradas.
+ * Antes, con el mismo lock, se compactan las columnas de tipo, estado y metadata
+ * ({@link MigracionColumnasCompactas}), haya o no particionado, y después se crea el índice
+ * único de las notificaciones agrupadas ({@link PoliticaAgrupacion}).
+ * <p>
+ * Los broadcasts ({@code notificaciones_broadcast}) y sus recepciones
+ * ({@code notificaciones_receptores}) no están particionados: el mismo job los purga con la
+ * retención de su tipo, en tramos acotados de ids, borrando (o archivando y borrando) en cada
+ * tramo las recepciones y sus broadcasts en una única transacción.
+ */
+@Service
+public class ParticionesService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionesService.class);
+
+    private static final String TABLA = "notificaciones";
+    private static final String TABLA_SIN_PARTICIONAR = "notificaciones_sin_particionar";
+    private static final String TABLA_ARCHIVO = "notificaciones_archivo";
+    private static final String TABLA_BROADCAST = "notificaciones_broadcast";
+    private static final String TABLA_RECEPTORES = "notificaciones_receptores";
+    private static final String TABLA_BROADCAST_ARCHIVO = "notificaciones_broadcast_archivo";
+    private static final String TABLA_RECEPTORES_ARCHIVO = "notificaciones_receptores_archivo";
+    /** Clave del advisory lock que evita que dos instancias mantengan las particiones a la vez. */
+    private static final long LOCK_MANTENIMIENTO = 0x4E4F544946504152L;
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PATRON_MES = Pattern.compile("notificaciones_p(\\d{4})_(\\d{2})");
+    private static final Pattern PATRON_RETENCION = Pattern.compile("notificaciones_p\\d{4}_\\d{2}_r(\\d+|def)");
+    /** Columnas copiadas al archivo. */
+    private static final String COLUMNAS_ARCHIVO =
+            "id, usuario_id, tipo, estado, titulo, mensaje, metadata, fecha_creacion, fecha_lectura,"
+                    + " ocurrencias, fecha_ultima_ocurrencia";
+    /** Columnas de broadcast copiadas al archivo. */
+    private static final String COLUMNAS_BROADCAST = "id, titulo, mensaje, tipo, metadata, fecha_creacion";
+    /** Columnas de recepción copiadas al archivo. */
+    private static final String COLUMNAS_RECEPTORES = "broadcast_id, usuario_id, estado, fecha_creacion, fecha_lectura";
+    /**
+     * Índice único de las notificaciones agrupadas: una fila por usuario, tipo y ventana.
+     * Incluye las claves de partición (requisito de Postgres para un índice único sobre la
+     * tabla particionada); es parcial, así las notificaciones comunes no compiten por la clave.
+     */
+    private static final String INDICE_AGRUPACION = "CREATE UNIQUE INDEX IF NOT EXISTS uk_notificaciones_agrupacion"
+            + " ON " + TABLA + " (usuario_id, tipo, fecha_creacion, retencion_dias) WHERE ocurrencias IS NOT NULL";
+
+    /**
+     * Índice de actividad por usuario, para reanudar el stream SSE: las agrupadas se ordenan
+     * por su última ocurrencia. La expresión coincide con la de la consulta de la bandeja.
+     */
+    private static final String INDICE_ACTIVIDAD = "CREATE INDEX IF NOT EXISTS idx_notificaciones_usuario_actividad_id"
+            + " ON " + TABLA + " (usuario_id, COALESCE(fecha_ultima_ocurrencia, fecha_creacion), id)";
+
+    /** Modo de retiro de las particiones expiradas. */
+    public enum ModoRetencion {
+        /** Descarta la partición. */
+        DROP,
+        /**
+         * Desengancha la partición, la copia al archivo en tramos y luego la descarta.
+         * Los broadcasts y recepciones expirados se copian a sus propias tablas de archivo.
+         */
+        ARCHIVAR
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PoliticaRetencion politicaRetencion;
+    private final VersionBandejaService versionBandejaService;
+    private final MigracionColumnasCompactas columnasCompactas;
+    private final CatalogoTiposNotificacion catalogoTipos;
+    private final boolean habilitado;
+    private final int mesesAdelante;
+    private final ModoRetencion modo;
+    private final int loteArchivo;
+
+    public ParticionesService(JdbcTemplate jdbcTemplate,
+                              PoliticaRetencion politicaRetencion,
+                              VersionBandejaService versionBandejaService,
+                              MigracionColumnasCompactas columnasCompactas,
+                              CatalogoTiposNotificacion catalogoTipos,
+                              @Value("${app.notificaciones.particiones.habilitado:true}") boolean habilitado,
+                              @Value("${app.notificaciones.particiones.meses-adelante:3}") int mesesAdelante,
+                              @Value("${app.notificaciones.retencion.modo:DROP}") ModoRetencion modo,
+                              @Value("${app.notificaciones.retencion.lote-archivo:5000}") int loteArchivo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.politicaRetencion = politicaRetencion;
+        this.versionBandejaService = versionBandejaService;
+        this.columnasCompactas = columnasCompactas;
+        this.catalogoTipos = catalogoTipos;
+        this.habilitado = habilitado;
+        this.mesesAdelante = mesesAdelante;
+        this.modo = modo;
+        this.loteArchivo = loteArchivo;
+    }
+
+    /**
+     * Convierte la tabla y crea las particiones antes de que arranquen los listeners,
+     * para que ningún INSERT llegue sin partición destino.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        conLock(jdbc -> {
+            columnasCompactas.migrar(jdbc);
+            if (habilitado) {
+                convertirSiHaceFalta(jdbc);
+                crearParticiones(jdbc, YearMonth.now(), mesesAdelante);
+            }
+            jdbc.execute(INDICE_AGRUPACION);
+            jdbc.execute(INDICE_ACTIVIDAD);
+        });
+    }
+
+    /** Job diario: crea las particiones que faltan, retira las expiradas y purga los broadcasts expirados. */
+    @Scheduled(cron = "${app.notificaciones.particiones.cron:0 15 3 * * *}")
+    public void mantener() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            conLock(jdbc -> {
+                crearParticiones(jdbc, YearMonth.now(), mesesAdelante);
+                retirarExpiradas(jdbc, LocalDate.now());
+                purgarBroadcastsExpirados(jdbc, LocalDate.now());
+            });
+        } catch (DataAccessException e) {
+            log.error("❌ Error en el mantenimiento de particiones: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indica si la sub-partición de un mes con cierta retención ya expiró.
+     *
+     * @param mes Mes de la partición.
+     * @param dias Días de retención de la sub-partición.
+     * @param hoy Fecha actual.
+     * @return true si todas sus filas superaron su retención.
+     */
+    static boolean expirada(YearMonth mes, int dias, LocalDate hoy) {
+        return !mes.plusMonths(1).atDay(1).plusDays(dias).isAfter(hoy);
+    }
+
+    /**
+     * Nombre de la partición de un mes.
+     *
+     * @param mes Mes.
+     * @return Nombre de la tabla particionada del mes.
+     */
+    static String nombreParticion(YearMonth mes) {
+        return TABLA + "_p" + mes.format(FORMATO_MES);
+    }
+
+    /**
+     * Ejecuta el mantenimiento en una única conexión que tiene el advisory lock de sesión.
+     * Si otra instancia lo tiene, no hace nada.
+     */
+    private void conLock(Tarea tarea) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Boolean obtenido = jdbc.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, LOCK_MANTENIMIENTO);
+            if (!Boolean.TRUE.equals(obtenido)) {
+                log.info("⏭️ Otra instancia está manteniendo las particiones");
+                return null;
+            }
+            try {
+                tarea.ejecutar(jdbc);
+            } finally {
+                jdbc.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, LOCK_MANTENIMIENTO);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Convierte {@code notificaciones} en tabla particionada si todavía no lo es.
+     * Renombra la tabla existente, crea la particionada con las mismas columnas y las particiones
+     * que cubren sus datos, copia las filas calculando la retención de cada tipo y descarta la
+     * tabla vieja. Todo en una transacción: si algo falla, la tabla queda como estaba.
+     */
+    private void convertirSiHaceFalta(JdbcTemplate jdbc) {
+        String relkind = jdbc.query("SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)",
+                rs -> rs.next() ? rs.getString(1) : null, TABLA);
+        if ("p".equals(relkind)) {
+            return;
+        }
+        if (relkind == null) {
+            throw new IllegalStateException("La tabla " + TABLA + " no existe; se espera que la cree Hibernate");
+        }
+
+        log.info("🗂️ Convirtiendo la tabla {} en tabla particionada por mes", TABLA);
+        enTransaccion(jdbc, () -> {
+            jdbc.execute("LOCK TABLE " + TABLA + " IN ACCESS EXCLUSIVE MODE");
+            jdbc.execute("ALTER TABLE " + TABLA + " RENAME TO " + TABLA_SIN_PARTICIONAR);
+            jdbc.execute("CREATE TABLE " + TABLA + " (LIKE " + TABLA_SIN_PARTICIONAR + " INCLUDING DEFAULTS)"
+                    + " PARTITION BY RANGE (fecha_creacion)");
+            jdbc.execute("ALTER TABLE " + TABLA + " ADD COLUMN IF NOT EXISTS retencion_dias integer");
+            jdbc.execute("ALTER TABLE " + TABLA + " ALTER COLUMN retencion_dias SET NOT NULL");
+
+            LocalDate primera = jdbc.queryForObject(
+                    "SELECT COALESCE(MIN(fecha_creacion), now())::date FROM " + TABLA_SIN_PARTICIONAR, LocalDate.class);
+            YearMonth desde = YearMonth.from(primera);
+            crearParticiones(jdbc, desde, (int) desde.until(YearMonth.now(), ChronoUnit.MONTHS) + mesesAdelante);
+
+            int copiadas = copiarConRetencion(jdbc);
+            jdbc.execute("DROP TABLE " + TABLA_SIN_PARTICIONAR);
+
+            jdbc.execute("ALTER TABLE " + TABLA + " ADD CONSTRAINT " + TABLA + "_pkey"
+                    + " PRIMARY KEY (id, fecha_creacion, retencion_dias)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_notificaciones_usuario_fecha_id ON " + TABLA
+                    + " (usuario_id, fecha_creacion DESC, id DESC)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_notificaciones_usuario_estado_fecha_id ON " + TABLA
+                    + " (usuario_id, estado, fecha_creacion DESC, id DESC)");
+            columnasCompactas.crearIndices(jdbc);
+            log.info("✅ Tabla {} particionada ({} filas copiadas)", TABLA, copiadas);
+        });
+    }
+
+    /**
+     * Copia las filas de la tabla sin particionar asignando la retención de cada tipo
+     * (la columna tipo ya guarda el código del catálogo).
+     */
+    private int copiarConRetencion(JdbcTemplate jdbc) {
+        List<Object> argumentos = new ArrayList<>();
+        String retencion = retencionPorTipo(argumentos);
+
+        List<String> columnas = jdbc.queryForList(
+                "SELECT column_name FROM information_schema.columns"
+                        + " WHERE table_schema = current_schema() AND table_name = ? AND column_name <> 'retencion_dias'"
+                        + " ORDER BY ordinal_position",
+                String.class, TABLA_SIN_PARTICIONAR);
+        String lista = String.join(", ", columnas);
+
+        return jdbc.update("INSERT INTO " + TABLA + " (" + lista + ", retencion_dias)"
+                + " SELECT " + lista + ", " + retencion + " FROM " + TABLA_SIN_PARTICIONAR, argumentos.toArray());
+    }
+
+    /**
+     * Expresión SQL con los días de retención de una fila según su columna {@code tipo}
+     * (que guarda el código del catálogo).
+     *
+     * @param argumentos Lista donde se agregan los parámetros de la expresión, en orden.
+     * @return Expresión {@code CASE tipo WHEN ? THEN ? ... ELSE ? END} (o {@code ?} si ningún tipo tiene retención propia).
+     */
+    private String retencionPorTipo(List<Object> argumentos) {
+        StringBuilder caso = new StringBuilder("CASE tipo");
+        int desde = argumentos.size();
+        for (Map.Entry<String, Integer> entrada : politicaRetencion.diasPorTipo().entrySet()) {
+            Short codigo = catalogoTipos.buscar(entrada.getKey());
+            if (codigo == null) {
+                continue;
+            }
+            caso.append(" WHEN ? THEN ?");
+            argumentos.add(codigo);
+            argumentos.add(entrada.getValue());
+        }
+        // Sin tipos con retención propia (p. ej. tabla vacía), todas las filas usan la retención por defecto
+        String retencion = argumentos.size() == desde ? "?" : caso + " ELSE ? END";
+        argumentos.add(politicaRetencion.diasPara(null));
+        return retencion;
+    }
+
+    /**
+     * Crea (si faltan) las particiones de {@code meses + 1} meses a partir de {@code desde}:
+     * una por cada retención configurada y una por defecto para valores no previstos.
+     */
+    private void crearParticiones(JdbcTemplate jdbc, YearMonth desde, int meses) {
+        for (int i = 0; i <= meses; i++) {
+            YearMonth mes = desde.plusMonths(i);
+            String particion = nombreParticion(mes);
+            jdbc.execute("CREATE TABLE IF NOT EXISTS " + particion + " PARTITION OF " + TABLA
+                    + " FOR VALUES FROM ('" + mes.atDay(1) + "') TO ('" + mes.plusMonths(1).atDay(1) + "')"
+                    + " PARTITION BY LIST (retencion_dias)");
+            for (int dias : politicaRetencion.valores()) {
+                try {
+                    jdbc.execute("CREATE TABLE IF NOT EXISTS " + particion + "_r" + dias
+                            + " PARTITION OF " + particion + " FOR VALUES IN (" + dias + ")");
+                } catch (DataAccessException e) {
+                    // La partición por defecto ya tiene filas con esta retención (cambio de política a mitad de mes):
+                    // esas filas expiran con la retención máxima junto con la partición por defecto.
+                    log.warn("⚠️ No se pudo crear {}_r{}: {}", particion, dias, e.getMessage());
+                }
+            }
+            jdbc.execute("CREATE TABLE IF NOT EXISTS " + particion + "_rdef PARTITION OF " + particion + " DEFAULT");
+        }
+    }
+
+    /** Retira las sub-particiones expiradas y los meses que quedaron vacíos. */
+    private void retirarExpiradas(JdbcTemplate jdbc, LocalDate hoy) {
+        if (modo == ModoRetencion.ARCHIVAR) {
+            crearTablaArchivo(jdbc);
+            // Sub-particiones desenganchadas en una corrida anterior que no terminó de archivarse
+            for (String pendiente : jdbc.queryForList(
+                    "SELECT relname FROM pg_class WHERE relkind = 'r' AND NOT relispartition AND relname ~ ?",
+                    String.class, "^" + PATRON_RETENCION.pattern() + "$")) {
+                archivar(jdbc, pendiente);
+            }
+        }
+
+        for (String particion : hijas(jdbc, TABLA)) {
+            Matcher mes = PATRON_MES.matcher(particion);
+            if (!mes.matches()) {
+                continue;
+            }
+            YearMonth yearMonth = YearMonth.of(Integer.parseInt(mes.group(1)), Integer.parseInt(mes.group(2)));
+            List<String> subparticiones = hijas(jdbc, particion);
+            int retiradas = 0;
+            for (String subparticion : subparticiones) {
+                Matcher retencion = PATRON_RETENCION.matcher(subparticion);
+                if (!retencion.matches()) {
+                    continue;
+                }
+                int dias = "def".equals(retencion.group(1)) ? politicaRetencion.maximo() : Integer.parseInt(retencion.group(1));
+                if (expirada(yearMonth, dias, hoy)) {
+                    retirar(jdbc, particion, subparticion);
+                    retiradas++;
+                }
+            }
+            if (retiradas == subparticiones.size()) {
+                jdbc.execute("DROP TABLE IF EXISTS " + particion);
+                log.info("🗑️ Partición {} retirada", particion);
+            }
+        }
+    }
+
+    private void retirar(JdbcTemplate jdbc, String particion, String subparticion) {
+        if (modo == ModoRetencion.DROP) {
+            jdbc.execute("DROP TABLE " + subparticion);
+            versionBandejaService.incrementarTodas();
+            log.info("🗑️ Sub-partición {} descartada", subparticion);
+            return;
+        }
+        jdbc.execute("ALTER TABLE " + particion + " DETACH PARTITION " + subparticion);
+        versionBandejaService.incrementarTodas();
+        archivar(jdbc, subparticion);
+    }
+
+    /**
+     * Copia una sub-partición desenganchada al archivo en tramos de {@code loteArchivo} ids,
+     * cada uno en su propia transacción, y luego la descarta. Es reanudable: los ids ya
+     * archivados se ignoran.
+     */
+    private void archivar(JdbcTemplate jdbc, String tabla) {
+        long desde = Long.MIN_VALUE;
+        long total = 0;
+        while (true) {
+            Long hasta = jdbc.queryForObject("SELECT MAX(id) FROM (SELECT id FROM " + tabla
+                    + " WHERE id > ? ORDER BY id LIMIT ?) tramo", Long.class, desde, loteArchivo);
+            if (hasta == null) {
+                break;
+            }
+            total += jdbc.update("INSERT INTO " + TABLA_ARCHIVO + " (" + COLUMNAS_ARCHIVO + ")"
+                    + " SELECT " + COLUMNAS_ARCHIVO + " FROM " + tabla + " WHERE id > ? AND id <= ?"
+                    + " ON CONFLICT (id) DO NOTHING", desde, hasta);
+            desde = hasta;
+        }
+        jdbc.execute("DROP TABLE " + tabla);
+        log.info("📦 Sub-partición {} archivada ({} filas)", tabla, total);
+    }
+
+    /**
+     * Purga los broadcasts que superaron la retención de su tipo, junto con sus recepciones,
+     * en tramos de {@code loteArchivo} ids. Cada tramo es una transacción: borra primero las
+     * recepciones y luego los broadcasts (en modo ARCHIVAR los copia antes a las tablas de
+     * archivo). Un corte a mitad de camino se retoma en la próxima corrida.
+     *
+     * @param jdbc JdbcTemplate de la conexión con el lock.
+     * @param hoy Fecha actual.
+     * @return Cantidad de broadcasts purgados.
+     */
+    int purgarBroadcastsExpirados(JdbcTemplate jdbc, LocalDate hoy) {
+        List<Object> argumentosRetencion = new ArrayList<>();
+        argumentosRetencion.add(Timestamp.valueOf(hoy.atStartOfDay()));
+        String expirado = "fecha_creacion < ?::timestamp - make_interval(days => "
+                + retencionPorTipo(argumentosRetencion) + ")";
+        if (modo == ModoRetencion.ARCHIVAR) {
+            crearTablasArchivoBroadcast(jdbc);
+        }
+
+        int total = 0;
+        long desde = Long.MIN_VALUE;
+        while (true) {
+            List<Object> argumentos = new ArrayList<>(argumentosRetencion);
+            argumentos.add(desde);
+            argumentos.add(loteArchivo);
+            Long hasta = jdbc.queryForObject("SELECT MAX(id) FROM (SELECT id FROM " + TABLA_BROADCAST
+                    + " WHERE " + expirado + " AND id > ? ORDER BY id LIMIT ?) tramo", Long.class, argumentos.toArray());
+            if (hasta == null) {
+                break;
+            }
+            List<Object> delTramo = new ArrayList<>(argumentosRetencion);
+            delTramo.add(desde);
+            delTramo.add(hasta);
+            Object[] parametros = delTramo.toArray();
+            String tramo = "SELECT id FROM " + TABLA_BROADCAST + " WHERE " + expirado + " AND id > ? AND id <= ?";
+            int[] purgados = new int[1];
+            enTransaccion(jdbc, () -> {
+                if (modo == ModoRetencion.ARCHIVAR) {
+                    jdbc.update("INSERT INTO " + TABLA_RECEPTORES_ARCHIVO + " (" + COLUMNAS_RECEPTORES + ")"
+                            + " SELECT " + COLUMNAS_RECEPTORES + " FROM " + TABLA_RECEPTORES
+                            + " WHERE broadcast_id IN (" + tramo + ") ON CONFLICT DO NOTHING", parametros);
+                    jdbc.update("INSERT INTO " + TABLA_BROADCAST_ARCHIVO + " (" + COLUMNAS_BROADCAST + ")"
+                            + " SELECT " + COLUMNAS_BROADCAST + " FROM " + TABLA_BROADCAST
+                            + " WHERE id IN (" + tramo + ") ON CONFLICT DO NOTHING", parametros);
+                }
+                jdbc.update("DELETE FROM " + TABLA_RECEPTORES + " WHERE broadcast_id IN (" + tramo + ")", parametros);
+                purgados[0] = jdbc.update("DELETE FROM " + TABLA_BROADCAST + " WHERE id IN (" + tramo + ")", parametros);
+            });
+            total += purgados[0];
+            desde = hasta;
+        }
+        if (total > 0) {
+            versionBandejaService.incrementarTodas();
+            log.info("🗑️ {} broadcasts expirados purgados con sus recepciones", total);
+        }
+        return total;
+    }
+
+    private void crearTablasArchivoBroadcast(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABLA_BROADCAST_ARCHIVO + " ("
+                + "id bigint PRIMARY KEY, titulo varchar(255) NOT NULL, mensaje varchar(1000) NOT NULL,"
+                + " tipo smallint NOT NULL, metadata jsonb, fecha_creacion timestamp(6) NOT NULL)");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABLA_RECEPTORES_ARCHIVO + " ("
+                + "broadcast_id bigint NOT NULL, usuario_id bigint NOT NULL, estado smallint NOT NULL,"
+                + " fecha_creacion timestamp(6) NOT NULL, fecha_lectura timestamp(6),"
+                + " PRIMARY KEY (broadcast_id, usuario_id))");
+    }
+
+    private void crearTablaArchivo(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABLA_ARCHIVO + " ("
+                + "id bigint PRIMARY KEY, usuario_id bigint NOT NULL, tipo smallint NOT NULL,"
+                + " estado smallint NOT NULL, titulo varchar(255) NOT NULL, mensaje varchar(1000) NOT NULL,"
+                + " metadata jsonb, fecha_creacion timestamp(6) NOT NULL, fecha_lectura timestamp(6),"
+                + " ocurrencias integer, fecha_ultima_ocurrencia timestamp(6))");
+        // Archivos creados antes de la agrupación de notificaciones
+        jdbc.execute("ALTER TABLE " + TABLA_ARCHIVO + " ADD COLUMN IF NOT EXISTS ocurrencias integer,"
+                + " ADD COLUMN IF NOT EXISTS fecha_ultima_ocurrencia timestamp(6)");
+    }
+
+    private List<String> hijas(JdbcTemplate jdbc, String padre) {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                + " WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, padre);
+    }
+
+    private void enTransaccion(JdbcTemplate jdbc, Runnable cuerpo) {
+        jdbc.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                cuerpo.run();
+                connection.commit();
+            } catch (RuntimeException e) {
+                rollback(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("No se pudo revertir la transacción: {}", e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Tarea {
+        void ejecutar(JdbcTemplate jdbc);
+    }
+}
@@ -0,0 +1,73 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Política de agrupación de notificaciones repetitivas por tipo (p. ej. inicios de sesión).
+ * Los eventos de un tipo configurado que llegan para el mismo usuario dentro de la misma
+ * ventana se acumulan en una única notificación (cantidad de ocurrencias, última ocurrencia y
+ * contenido más reciente) en lugar de insertar una fila por evento.
+ * <p>
+ * Las ventanas son fijas y alineadas (una ventana de 1440 minutos va de medianoche a
+ * medianoche): el inicio de la ventana es la fecha de creación de la notificación agrupada y
+ * forma parte de su clave única, de modo que instancias concurrentes acumulan sobre la misma
+ * fila con un upsert. Una ventana nunca cruza el inicio de un mes, así la fila agrupada queda
+ * siempre en la partición mensual de sus ocurrencias.
+ */
+@Component
+public class PoliticaAgrupacion {
+
+    /** Minutos de la ventana de agrupación por tipo de notificación. */
+    private final Map<String, Integer> minutosPorTipo;
+
+    public PoliticaAgrupacion(@Value("#{${app.notificaciones.agrupacion.minutos-por-tipo:{:}}}") Map<String, Integer> minutosPorTipo) {
+        minutosPorTipo.forEach((tipo, minutos) -> {
+            if (minutos == null || minutos <= 0) {
+                throw new IllegalArgumentException("Ventana de agrupación inválida para " + tipo + ": " + minutos);
+            }
+        });
+        this.minutosPorTipo = Map.copyOf(minutosPorTipo);
+    }
+
+    /**
+     * Indica si las notificaciones de un tipo se agrupan.
+     *
+     * @param tipo Tipo de notificación.
+     * @return true si el tipo tiene ventana de agrupación.
+     */
+    public boolean agrupa(String tipo) {
+        return tipo != null && minutosPorTipo.containsKey(tipo);
+    }
+
+    /**
+     * Obtiene el inicio de la ventana de agrupación de un tipo que contiene una fecha.
+     *
+     * @param tipo Tipo de notificación (debe agruparse, ver {@link #agrupa}).
+     * @param fecha Fecha de la ocurrencia.
+     * @return Inicio de la ventana.
+     */
+    public LocalDateTime inicioVentana(String tipo, LocalDateTime fecha) {
+        return inicioVentana(fecha, minutosPorTipo.get(tipo));
+    }
+
+    /**
+     * Calcula el inicio de la ventana de {@code minutos} que contiene una fecha, alineada sobre
+     * la hora local y acotada al inicio del mes de la fecha.
+     *
+     * @param fecha Fecha de la ocurrencia.
+     * @param minutos Duración de la ventana.
+     * @return Inicio de la ventana.
+     */
+    static LocalDateTime inicioVentana(LocalDateTime fecha, int minutos) {
+        long ventana = minutos * 60L;
+        long segundos = fecha.toEpochSecond(ZoneOffset.UTC);
+        LocalDateTime inicio = LocalDateTime.ofEpochSecond(Math.floorDiv(segundos, ventana) * ventana, 0, ZoneOffset.UTC);
+        LocalDateTime inicioMes = fecha.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        return inicio.isBefore(inicioMes) ? inicioMes : inicio;
+    }
+}
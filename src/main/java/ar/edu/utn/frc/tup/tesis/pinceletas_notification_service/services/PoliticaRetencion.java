@@ -0,0 +1,71 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Política de retención de notificaciones por tipo.
+ * Cada tipo se conserva una cantidad de días configurable; los tipos no configurados
+ * usan la retención por defecto. La retención se fija al crear la notificación.
+ */
+@Component
+public class PoliticaRetencion {
+
+    /** Días de retención por tipo de notificación. */
+    private final Map<String, Integer> diasPorTipo;
+    /** Días de retención de los tipos no configurados. */
+    private final int diasDefault;
+
+    public PoliticaRetencion(@Value("#{${app.notificaciones.retencion.dias-por-tipo:{:}}}") Map<String, Integer> diasPorTipo,
+                             @Value("${app.notificaciones.retencion.dias-default:365}") int diasDefault) {
+        this.diasPorTipo = Map.copyOf(diasPorTipo);
+        this.diasDefault = diasDefault;
+    }
+
+    /**
+     * Obtiene los días de retención de un tipo de notificación.
+     *
+     * @param tipo Tipo de notificación.
+     * @return Días de retención.
+     */
+    public int diasPara(String tipo) {
+        return tipo == null ? diasDefault : diasPorTipo.getOrDefault(tipo, diasDefault);
+    }
+
+    /**
+     * Obtiene todos los valores de retención configurados (incluido el por defecto).
+     *
+     * @return Días de retención distintos, ordenados.
+     */
+    public Set<Integer> valores() {
+        Set<Integer> valores = new TreeSet<>(diasPorTipo.values());
+        valores.add(diasDefault);
+        return valores;
+    }
+
+    /**
+     * Obtiene la retención más larga configurada.
+     *
+     * @return Días de la retención más larga.
+     */
+    public int maximo() {
+        int maximo = diasDefault;
+        for (int dias : diasPorTipo.values()) {
+            maximo = Math.max(maximo, dias);
+        }
+        return maximo;
+    }
+
+    /**
+     * Obtiene la retención configurada por tipo.
+     *
+     * @return Mapa inmutable tipo → días.
+     */
+    public Map<String, Integer> diasPorTipo() {
+        return diasPorTipo;
+    }
+}
@@ -0,0 +1,15 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import java.util.List;
+
+/**
+ * Resultado de {@link NotificacionService#procesarLote}: además del total, indica por posición
+ * qué solicitudes se registraron y cuáles se descartaron por duplicadas, para contarlas igual
+ * que el procesamiento evento por evento.
+ *
+ * @param notificaciones Cantidad de notificaciones entregadas (directas + recepciones).
+ * @param directasNuevas Por cada notificación directa, en orden, si se registró (false si era duplicada).
+ * @param broadcastsNuevos Por cada broadcast, en orden, si se registró (false si era duplicado).
+ */
+public record ResultadoLote(int notificaciones, List<Boolean> directasNuevas, List<Boolean> broadcastsNuevos) {
+}
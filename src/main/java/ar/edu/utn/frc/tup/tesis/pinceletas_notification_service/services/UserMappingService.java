@@ -1,47 +1,203 @@
 package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
 
 import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceClient;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Servicio para mapeo de usuarios entre servicios.
  * Proporciona funcionalidades para obtener información de usuarios desde el servicio de usuarios.
+ * Las resoluciones email → userId se cachean en memoria: los emails conocidos con un TTL largo
+ * y los desconocidos con un TTL corto. Las búsquedas concurrentes del mismo email comparten
+ * una única llamada HTTP, y las entradas se refrescan en segundo plano, por lo que el camino
+ * cacheado sigue respondiendo aunque el user-service esté lento o caído. Las cargas usan el
+ * cliente asíncrono, por lo que no ocupan hilos mientras esperan al user-service, y las que
+ * coinciden en el tiempo viajan en una sola búsqueda por lote.
+ * Lo usa {@link AdminService} para resolver los emails de administradores configurados.
  */
 @Service
-@RequiredArgsConstructor
 public class UserMappingService {
 
     private static final Logger log = LoggerFactory.getLogger(UserMappingService.class);
 
+    /** Nombre del cache en las métricas. */
+    private static final String NOMBRE_CACHE = "usuarios-por-email";
+
     /** Cliente para comunicación con el servicio de usuarios. */
     private final UserServiceClient userServiceClient;
+    /** Cache email normalizado → userId (vacío = usuario inexistente). */
+    private final AsyncLoadingCache<String, Optional<Long>> cache;
+    /** Hilos del cache (completan las cargas y programan los refrescos). */
+    private final ExecutorService cargador;
+
+    public UserMappingService(UserServiceClient userServiceClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.usuarios.max-entradas:10000}") long maxEntradas,
+                              @Value("${app.cache.usuarios.ttl:PT30M}") Duration ttl,
+                              @Value("${app.cache.usuarios.ttl-negativo:PT1M}") Duration ttlNegativo,
+                              @Value("${app.cache.usuarios.refresco:PT5M}") Duration refresco,
+                              @Value("${app.cache.usuarios.hilos:4}") int hilos,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.userServiceClient = userServiceClient;
+        // Con hilos virtuales cada llamada bloqueante al user-service usa su propio hilo barato.
+        this.cargador = hilosVirtuales
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-cache-loader-", 0).factory())
+                : Executors.newFixedThreadPool(hilos, runnable -> {
+                    Thread thread = new Thread(runnable, "user-cache-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new ExpiracionPorResultado(ttl, ttlNegativo))
+                .refreshAfterWrite(refresco)
+                .executor(cargador)
+                .recordStats()
+                .buildAsync((email, executor) -> cargarUserId(email));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), NOMBRE_CACHE);
+    }
 
     /**
      * Obtiene el ID de usuario a partir de su email.
-     * Realiza una llamada al servicio de usuarios para obtener la información básica.
+     * Responde desde el cache si la entrada existe; si no, realiza (o se suma a) una
+     * llamada en curso al servicio de usuarios.
      *
      * @param email Email del usuario.
      * @return ID del usuario o null si no se encuentra.
      */
     public Long obtenerUserIdPorEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
         try {
-            log.info("🔍 Buscando userId para email: {}", email);
+            return cache.synchronous().get(normalizar(email)).orElse(null);
+        } catch (Exception e) {
+            log.error("❌ Error obteniendo userId para email {}: {}", email, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene los IDs de varios usuarios a partir de sus emails.
+     * Los emails cacheados se responden sin llamar al user-service; los faltantes se cargan
+     * juntos. A diferencia de {@link #obtenerUserIdPorEmail(String)}, los errores de
+     * comunicación se propagan para que el llamador distinga "no existe" de "no se pudo consultar".
+     *
+     * @param emails Emails de los usuarios (se normalizan; se ignoran nulos y vacíos).
+     * @return ID por email normalizado; los usuarios inexistentes no aparecen.
+     * @throws RuntimeException Si falla la consulta al user-service.
+     */
+    public Map<String, Long> obtenerUserIdsPorEmails(Collection<String> emails) {
+        Set<String> normalizados = new LinkedHashSet<>();
+        for (String email : emails) {
+            if (email != null && !email.isBlank()) {
+                normalizados.add(normalizar(email));
+            }
+        }
+        Map<String, Optional<Long>> resueltos;
+        try {
+            resueltos = cache.getAll(normalizados).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        Map<String, Long> ids = new LinkedHashMap<>();
+        resueltos.forEach((email, userId) -> userId.ifPresent(id -> ids.put(email, id)));
+        return ids;
+    }
+
+    /**
+     * Descarta la entrada cacheada de un email (por ejemplo, tras un alta de usuario).
+     *
+     * @param email Email del usuario.
+     */
+    public void invalidar(String email) {
+        cache.synchronous().invalidate(normalizar(email));
+    }
 
-            UserServiceClient.UserBasicInfo user = userServiceClient.getUserByEmail(email);
+    /**
+     * Obtiene las estadísticas del cache (hits, misses, tiempo de carga).
+     *
+     * @return Estadísticas acumuladas.
+     */
+    public CacheStats estadisticas() {
+        return cache.synchronous().stats();
+    }
 
-            if (user != null && user.id() != null) {
-                log.info("✅ userId encontrado: {} para email: {}", user.id(), email);
-                return user.id();
+    @PreDestroy
+    public void cerrar() {
+        cargador.shutdownNow();
+    }
+
+    /**
+     * Carga el userId desde el user-service. Si la llamada falla el futuro falla:
+     * la carga no se cachea y, en un refresco, se conserva el valor anterior.
+     */
+    private CompletableFuture<Optional<Long>> cargarUserId(String email) {
+        log.info("🔍 Buscando userId para email: {}", email);
+        return userServiceClient.findUserByEmailAsync(email).thenApply(usuario -> {
+            Optional<Long> userId = usuario.map(UserServiceClient.UserBasicInfo::id);
+            if (userId.isPresent()) {
+                log.info("✅ userId encontrado: {} para email: {}", userId.get(), email);
             } else {
                 log.warn("⚠️ Usuario no encontrado para email: {}", email);
-                return null;
             }
-        } catch (Exception e) {
-            log.error("❌ Error obteniendo userId para email {}: {}", email, e.getMessage());
-            return null;
+            return userId;
+        });
+    }
+
+    static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Expiración según el resultado: TTL largo para usuarios encontrados, corto para inexistentes. */
+    private static final class ExpiracionPorResultado implements Expiry<String, Optional<Long>> {
+
+        private final long ttlNanos;
+        private final long ttlNegativoNanos;
+
+        private ExpiracionPorResultado(Duration ttl, Duration ttlNegativo) {
+            this.ttlNanos = ttl.toNanos();
+            this.ttlNegativoNanos = ttlNegativo.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Long> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Long> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Long> value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,165 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache.LongCounterMap;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.BandejaModificadaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión en memoria de la bandeja de cada usuario, usada como ETag de los endpoints de
+ * consulta. Cambia cada vez que se crea, lee o elimina una notificación del usuario, por lo
+ * que un cliente que repite una consulta con {@code If-None-Match} puede recibir un 304 sin
+ * que se toque la base de datos: validar el ETag es una lectura del mapa.
+ * <p>
+ * Las versiones salen de un reloj global que solo avanza: un usuario desalojado del mapa
+ * recibe una versión nueva al volver a consultarse (a lo sumo una respuesta completa de más),
+ * nunca una ya entregada. El prefijo de instancia hace que un ETag entregado por otra instancia
+ * (o por un proceso anterior) nunca coincida.
+ * <p>
+ * Con varias instancias, los cambios locales se publican agrupados cada
+ * {@code app.notificaciones.versiones.publicacion-ms} en el exchange fanout
+ * {@link RabbitMQConfig#BANDEJA_EXCHANGE}; las demás instancias avanzan la versión de esos
+ * usuarios, así no responden 304 con una bandeja que cambió en otra instancia.
+ */
+@Service
+public class VersionBandejaService {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionBandejaService.class);
+
+    /** Usuarios por mensaje de invalidación publicado. */
+    private static final int USUARIOS_POR_MENSAJE = 1000;
+
+    /** Identifica el proceso: cambia en cada arranque y entre instancias. */
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), 36);
+    /** Reloj del que salen todas las versiones. */
+    private final AtomicLong reloj = new AtomicLong();
+    /** Generación global: cambia cuando se retiran notificaciones de muchos usuarios a la vez. */
+    private final AtomicLong generacion = new AtomicLong();
+    /** Versión por usuarioId. */
+    private final LongCounterMap versiones;
+    /** Usuarios con cambios locales aún no avisados a las demás instancias. */
+    private final Set<Long> aPublicar = ConcurrentHashMap.newKeySet();
+    /** Indica un cambio global local aún no avisado. */
+    private final AtomicBoolean todasAPublicar = new AtomicBoolean();
+    private final RabbitTemplate rabbitTemplate;
+
+    public VersionBandejaService(RabbitTemplate rabbitTemplate,
+                                 @Value("${app.notificaciones.contador.max-usuarios:100000}") int maxUsuarios,
+                                 @Value("${app.notificaciones.contador.concurrencia:64}") int concurrencia) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.versiones = new LongCounterMap(maxUsuarios, concurrencia);
+    }
+
+    /**
+     * Obtiene el ETag (débil) de la bandeja de un usuario.
+     * Debe obtenerse antes de consultar los datos, para que el ETag nunca sea más nuevo que ellos.
+     *
+     * @param usuarioId ID del usuario.
+     * @return ETag de la versión actual.
+     */
+    public String etag(Long usuarioId) {
+        long version = versiones.get(usuarioId);
+        if (version == LongCounterMap.AUSENTE) {
+            version = versiones.putIfAbsent(usuarioId, reloj.incrementAndGet());
+        }
+        return "W/\"" + instancia + "." + generacion.get() + "." + version + "\"";
+    }
+
+    /**
+     * Registra un cambio en la bandeja de un usuario.
+     * Debe llamarse después de confirmar el cambio.
+     *
+     * @param usuarioId ID del usuario.
+     */
+    public void incrementar(Long usuarioId) {
+        versiones.put(usuarioId, reloj.incrementAndGet());
+        aPublicar.add(usuarioId);
+    }
+
+    /**
+     * Registra un cambio en la bandeja de varios usuarios.
+     * Debe llamarse después de confirmar el cambio.
+     *
+     * @param usuarioIds IDs de los usuarios.
+     */
+    public void incrementar(Collection<Long> usuarioIds) {
+        for (Long usuarioId : usuarioIds) {
+            incrementar(usuarioId);
+        }
+    }
+
+    /**
+     * Registra un cambio que puede afectar a cualquier usuario (por ejemplo, el retiro de una
+     * partición expirada).
+     */
+    public void incrementarTodas() {
+        generacion.incrementAndGet();
+        todasAPublicar.set(true);
+    }
+
+    /**
+     * Aplica un cambio avisado por otra instancia. Los avisos propios se ignoran.
+     *
+     * @param event Aviso de cambio.
+     */
+    public void aplicar(BandejaModificadaEvent event) {
+        if (instancia.equals(event.getInstancia())) {
+            return;
+        }
+        if (event.isTodas()) {
+            generacion.incrementAndGet();
+        }
+        if (event.getUsuarioIds() != null) {
+            for (Long usuarioId : event.getUsuarioIds()) {
+                versiones.put(usuarioId, reloj.incrementAndGet());
+            }
+        }
+    }
+
+    /**
+     * Avisa a las demás instancias los cambios acumulados desde la última publicación.
+     * Si el broker no está disponible los avisos se descartan: las demás instancias pueden
+     * responder 304 con una bandeja vieja hasta el próximo cambio del usuario.
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.versiones.publicacion-ms:100}")
+    public void publicarCambios() {
+        boolean todas = todasAPublicar.getAndSet(false);
+        List<Long> usuarioIds = new ArrayList<>();
+        for (Iterator<Long> it = aPublicar.iterator(); it.hasNext(); ) {
+            usuarioIds.add(it.next());
+            it.remove();
+        }
+        if (!todas && usuarioIds.isEmpty()) {
+            return;
+        }
+        try {
+            int desde = 0;
+            do {
+                List<Long> tramo = usuarioIds.subList(desde, Math.min(desde + USUARIOS_POR_MENSAJE, usuarioIds.size()));
+                rabbitTemplate.convertAndSend(RabbitMQConfig.BANDEJA_EXCHANGE, "",
+                        new BandejaModificadaEvent(instancia, new ArrayList<>(tramo), todas && desde == 0));
+                desde += USUARIOS_POR_MENSAJE;
+            } while (desde < usuarioIds.size());
+        } catch (AmqpException e) {
+            log.warn("⚠️ No se pudieron avisar los cambios de {} bandejas a las demás instancias: {}",
+                    usuarioIds.size(), e.getMessage());
+        }
+    }
+}
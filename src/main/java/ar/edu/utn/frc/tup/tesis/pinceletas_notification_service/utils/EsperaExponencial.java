@@ -0,0 +1,26 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.utils;
+
+/**
+ * Cálculo de la espera entre reintentos con crecimiento exponencial acotado.
+ * La comparten los reintentos de eventos RabbitMQ, las entregas salientes y el refresco
+ * del directorio de administradores, para que todos escalen la espera de la misma forma.
+ */
+public final class EsperaExponencial {
+
+    private EsperaExponencial() {
+    }
+
+    /**
+     * Calcula la espera antes de un reintento: {@code inicial * multiplicador^(intento-1)}, acotada.
+     *
+     * @param intento Número de intento fallido (desde 1).
+     * @param esperaInicialMs Espera del primer reintento.
+     * @param multiplicador Factor de crecimiento por intento.
+     * @param esperaMaximaMs Espera máxima.
+     * @return Espera en milisegundos.
+     */
+    public static long calcular(int intento, long esperaInicialMs, double multiplicador, long esperaMaximaMs) {
+        double espera = esperaInicialMs * Math.pow(multiplicador, Math.max(0, intento - 1));
+        return (long) Math.min(espera, esperaMaximaMs);
+    }
+}
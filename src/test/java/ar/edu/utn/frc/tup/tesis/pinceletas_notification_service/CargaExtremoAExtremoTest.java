@@ -0,0 +1,387 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEvent;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEventListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga (y de soak, con una duración larga) de extremo a extremo: levanta el servicio
+ * completo y, durante un tiempo fijo, consume eventos USER y ADMIN por
+ * {@link NotificacionEventListener} mientras otros clientes leen y marcan la bandeja por HTTP.
+ * Informa eventos/s, lecturas/s, percentiles de latencia y bytes asignados por operación, y falla
+ * si alguno supera su umbral.
+ * <p>
+ * Los eventos se entregan al listener desde hilos productores, en lugar del container de
+ * RabbitMQ (que no arranca): se mide el procesamiento, no el broker. El user-service es un
+ * simulador en proceso con latencia configurable. Necesita un Postgres descartable (usa el
+ * esquema real: particiones, JSONB, upserts): se ejecuta solo si está definida
+ * {@code CARGA_PG_URL}, con usuario y clave en {@code CARGA_PG_USER} y {@code CARGA_PG_PASSWORD}.
+ * <p>
+ * Parámetros (variables de entorno, con sus valores por defecto):
+ * {@code CARGA_DURACION} (PT30S), {@code CARGA_PRODUCTORES} (8), {@code CARGA_CLIENTES} (16),
+ * {@code CARGA_USUARIOS} (1000), {@code CARGA_ADMINS} (5), {@code CARGA_PROPORCION_ADMIN} (0.1),
+ * {@code CARGA_PROPORCION_ESCRITURAS} (0.05), {@code CARGA_TIPOS_USER}, {@code CARGA_TIPOS_ADMIN},
+ * {@code CARGA_LATENCIA_USER_SERVICE_MS} (20) y los umbrales {@code CARGA_MIN_EVENTOS_POR_SEG} (200),
+ * {@code CARGA_MAX_P99_INGESTA_MS} (250), {@code CARGA_MAX_P99_LECTURA_MS} (200),
+ * {@code CARGA_MAX_KB_POR_OPERACION} (512) y {@code CARGA_MIN_RELACION_SOSTENIDA} (0.5: la segunda
+ * mitad de la corrida debe mantener al menos esa fracción del throughput de la primera).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfEnvironmentVariable(named = "CARGA_PG_URL", matches = ".+")
+class CargaExtremoAExtremoTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaExtremoAExtremoTest.class);
+
+    private static final Duration DURACION = Duration.parse(parametro("CARGA_DURACION", "PT30S"));
+    private static final int PRODUCTORES = Integer.parseInt(parametro("CARGA_PRODUCTORES", "8"));
+    private static final int CLIENTES = Integer.parseInt(parametro("CARGA_CLIENTES", "16"));
+    private static final int USUARIOS = Integer.parseInt(parametro("CARGA_USUARIOS", "1000"));
+    private static final int ADMINS = Integer.parseInt(parametro("CARGA_ADMINS", "5"));
+    private static final double PROPORCION_ADMIN = Double.parseDouble(parametro("CARGA_PROPORCION_ADMIN", "0.1"));
+    private static final double PROPORCION_ESCRITURAS = Double.parseDouble(parametro("CARGA_PROPORCION_ESCRITURAS", "0.05"));
+    private static final String[] TIPOS_USER = parametro("CARGA_TIPOS_USER",
+            "ESTADO_PEDIDO,BIENVENIDA_REGISTRO,INICIO_SESION,INICIO_SESION_FIREBASE").split(",");
+    private static final String[] TIPOS_ADMIN = parametro("CARGA_TIPOS_ADMIN",
+            "NUEVO_PEDIDO,NUEVO_REGISTRO,INICIO_SESION_FIREBASE_ADMIN").split(",");
+    private static final long LATENCIA_USER_SERVICE_MS = Long.parseLong(parametro("CARGA_LATENCIA_USER_SERVICE_MS", "20"));
+
+    private static final double MIN_EVENTOS_POR_SEG = Double.parseDouble(parametro("CARGA_MIN_EVENTOS_POR_SEG", "200"));
+    private static final double MAX_P99_INGESTA_MS = Double.parseDouble(parametro("CARGA_MAX_P99_INGESTA_MS", "250"));
+    private static final double MAX_P99_LECTURA_MS = Double.parseDouble(parametro("CARGA_MAX_P99_LECTURA_MS", "200"));
+    private static final double MAX_KB_POR_OPERACION = Double.parseDouble(parametro("CARGA_MAX_KB_POR_OPERACION", "512"));
+    private static final double MIN_RELACION_SOSTENIDA = Double.parseDouble(parametro("CARGA_MIN_RELACION_SOSTENIDA", "0.5"));
+
+    /** Los IDs de la carga empiezan lejos de los de datos reales que pudiera tener la base. */
+    private static final long PRIMER_USUARIO = 9_000_000L;
+    private static final String[] CONSULTAS = {"/pagina", "/no-leidas/pagina", "/contador-no-leidas"};
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static HttpServer userService;
+
+    @Autowired
+    private NotificacionEventListener listener;
+
+    @LocalServerPort
+    private int puerto;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private Timer ingesta;
+    private Timer lecturas;
+    private Timer escrituras;
+    private final AtomicLong errores = new AtomicLong();
+    /** Eventos procesados en la primera y en la segunda mitad de la corrida. */
+    private final AtomicLong[] eventosPorMitad = {new AtomicLong(), new AtomicLong()};
+    /** Último ETag visto por usuario, para ejercitar las respuestas 304. */
+    private final Map<Long, String> etags = new ConcurrentHashMap<>();
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry propiedades) throws IOException {
+        iniciarUserService();
+        propiedades.add("spring.datasource.url", () -> System.getenv("CARGA_PG_URL"));
+        propiedades.add("spring.datasource.username", () -> parametro("CARGA_PG_USER", "postgres"));
+        propiedades.add("spring.datasource.password", () -> parametro("CARGA_PG_PASSWORD", "password"));
+        propiedades.add("app.services.user-auth-service.url",
+                () -> "http://127.0.0.1:" + userService.getAddress().getPort());
+        List<String> admins = new ArrayList<>();
+        for (int i = 0; i < ADMINS; i++) {
+            admins.add("admin" + i + "@carga.test");
+        }
+        propiedades.add("app.admin.emails", () -> String.join(",", admins));
+        // Los eventos los entregan los productores de la prueba, no el broker
+        propiedades.add("spring.rabbitmq.listener.simple.auto-startup", () -> "false");
+        propiedades.add("app.rabbitmq.batch.enabled", () -> "false");
+        propiedades.add("app.rabbitmq.shards.enabled", () -> "false");
+        propiedades.add("app.metrics.colas.intervalo-ms", () -> String.valueOf(Long.MAX_VALUE / 2));
+        propiedades.add("logging.level.ar.edu.utn.frc.tup.tesis.pinceletas_notification_service", () -> "WARN");
+    }
+
+    @AfterAll
+    static void detenerUserService() {
+        userService.stop(0);
+    }
+
+    @Test
+    void sostieneLaCargaMixtaDentroDeLosUmbrales() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Calentamiento: JIT, pool de conexiones, particiones y caches
+        reiniciarMediciones();
+        ejecutar(http, Duration.ofSeconds(5), false);
+        reiniciarMediciones();
+
+        long asignadosAntes = hilos.getTotalThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        ejecutar(http, DURACION, true);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long asignados = hilos.getTotalThreadAllocatedBytes() - asignadosAntes;
+
+        long eventos = eventosPorMitad[0].get() + eventosPorMitad[1].get();
+        long operaciones = eventos + lecturas.count() + escrituras.count();
+        double eventosPorSeg = eventos / segundos;
+        double relacionSostenida = eventosPorMitad[0].get() == 0 ? 0
+                : (double) eventosPorMitad[1].get() / eventosPorMitad[0].get();
+        double kbPorOperacion = operaciones == 0 ? 0 : asignados / 1024.0 / operaciones;
+        double p99Ingesta = percentilMs(ingesta, 0.99);
+        double p99Lectura = percentilMs(lecturas, 0.99);
+
+        log.info("Carga {} | {} productores, {} clientes, {} usuarios, {}% ADMIN, user-service {} ms",
+                DURACION, PRODUCTORES, CLIENTES, USUARIOS, Math.round(PROPORCION_ADMIN * 100), LATENCIA_USER_SERVICE_MS);
+        log.info("Ingesta: {} eventos/s | p50 {} ms, p95 {} ms, p99 {} ms | segunda mitad / primera: {}",
+                Math.round(eventosPorSeg), percentilMs(ingesta, 0.5), percentilMs(ingesta, 0.95), p99Ingesta,
+                String.format("%.2f", relacionSostenida));
+        log.info("Lecturas: {} req/s | p50 {} ms, p95 {} ms, p99 {} ms | escrituras: {} req/s, p99 {} ms",
+                Math.round(lecturas.count() / segundos), percentilMs(lecturas, 0.5), percentilMs(lecturas, 0.95),
+                p99Lectura, Math.round(escrituras.count() / segundos), percentilMs(escrituras, 0.99));
+        log.info("Asignación: {} MB en total, {} KB por operación | errores: {}",
+                asignados / (1024 * 1024), String.format("%.1f", kbPorOperacion), errores.get());
+
+        assertEquals(0, errores.get(), "Hubo operaciones fallidas durante la carga");
+        assertTrue(eventosPorSeg >= MIN_EVENTOS_POR_SEG,
+                "Throughput de ingesta " + Math.round(eventosPorSeg) + " eventos/s < " + MIN_EVENTOS_POR_SEG);
+        assertTrue(p99Ingesta <= MAX_P99_INGESTA_MS, "p99 de ingesta " + p99Ingesta + " ms > " + MAX_P99_INGESTA_MS);
+        assertTrue(p99Lectura <= MAX_P99_LECTURA_MS, "p99 de lectura " + p99Lectura + " ms > " + MAX_P99_LECTURA_MS);
+        assertTrue(kbPorOperacion <= MAX_KB_POR_OPERACION,
+                "Asignación de " + kbPorOperacion + " KB por operación > " + MAX_KB_POR_OPERACION);
+        assertTrue(relacionSostenida >= MIN_RELACION_SOSTENIDA,
+                "El throughput cayó durante la corrida: relación " + relacionSostenida + " < " + MIN_RELACION_SOSTENIDA);
+    }
+
+    /**
+     * Ejecuta productores y clientes HTTP concurrentes hasta que vence la duración.
+     *
+     * @param contar Si es false (calentamiento) no se cuentan los eventos por mitad.
+     */
+    private void ejecutar(HttpClient http, Duration duracion, boolean contar) throws Exception {
+        long inicio = System.nanoTime();
+        long mitad = inicio + duracion.toNanos() / 2;
+        long fin = inicio + duracion.toNanos();
+        List<Future<?>> tareas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(PRODUCTORES + CLIENTES)) {
+            for (int i = 0; i < PRODUCTORES; i++) {
+                tareas.add(executor.submit(() -> {
+                    while (System.nanoTime() < fin) {
+                        if (medir(ingesta, () -> {
+                            listener.recibirNotificacion(evento());
+                            return true;
+                        }) && contar) {
+                            eventosPorMitad[System.nanoTime() < mitad ? 0 : 1].incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < CLIENTES; i++) {
+                tareas.add(executor.submit(() -> {
+                    while (System.nanoTime() < fin) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        long usuarioId = PRIMER_USUARIO + random.nextInt(USUARIOS);
+                        if (random.nextDouble() < PROPORCION_ESCRITURAS) {
+                            medir(escrituras, () -> enviar(http, HttpRequest.newBuilder(uri(usuarioId, "/leer-todas"))
+                                    .PUT(HttpRequest.BodyPublishers.noBody()), usuarioId));
+                        } else {
+                            String consulta = CONSULTAS[random.nextInt(CONSULTAS.length)];
+                            HttpRequest.Builder request = HttpRequest.newBuilder(uri(usuarioId, consulta)).GET();
+                            String etag = etags.get(usuarioId);
+                            if (etag != null) {
+                                request.header("If-None-Match", etag);
+                            }
+                            medir(lecturas, () -> enviar(http, request, usuarioId));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(duracion.toSeconds() + 60, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private void reiniciarMediciones() {
+        registry.clear();
+        ingesta = temporizador("carga.ingesta");
+        lecturas = temporizador("carga.lectura");
+        escrituras = temporizador("carga.escritura");
+        errores.set(0);
+    }
+
+    /** Ejecuta y cronometra una operación; cuenta un error si falla o devuelve false. */
+    private boolean medir(Timer timer, Supplier<Boolean> operacion) {
+        long inicio = System.nanoTime();
+        boolean ok;
+        try {
+            ok = operacion.get();
+        } catch (RuntimeException e) {
+            log.warn("Operación fallida: {}", e.getMessage());
+            ok = false;
+        }
+        timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!ok) {
+            errores.incrementAndGet();
+        }
+        return ok;
+    }
+
+    private boolean enviar(HttpClient http, HttpRequest.Builder request, long usuarioId) {
+        try {
+            HttpResponse<byte[]> response = http.send(request.timeout(Duration.ofSeconds(10)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            response.headers().firstValue("ETag").ifPresent(etag -> etags.put(usuarioId, etag));
+            return response.statusCode() == 200 || response.statusCode() == 304;
+        } catch (IOException e) {
+            log.warn("Request fallido: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private URI uri(long usuarioId, String sufijo) {
+        return URI.create("http://127.0.0.1:" + puerto + "/notificaciones/usuario/" + usuarioId + sufijo);
+    }
+
+    /** Genera un evento de la mezcla configurada, con ID propio para que no se descarte como duplicado. */
+    private static NotificacionEvent evento() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pedido = random.nextInt(100_000);
+        if (random.nextDouble() < PROPORCION_ADMIN) {
+            return new NotificacionEvent("Nuevo pedido", "Se registró el pedido #" + pedido,
+                    TIPOS_ADMIN[random.nextInt(TIPOS_ADMIN.length)], null,
+                    "{\"pedidoId\":" + pedido + "}", "ADMIN", UUID.randomUUID().toString());
+        }
+        return new NotificacionEvent("Pedido actualizado", "Tu pedido #" + pedido + " cambió de estado",
+                TIPOS_USER[random.nextInt(TIPOS_USER.length)], PRIMER_USUARIO + random.nextInt(USUARIOS),
+                "{\"pedidoId\":" + pedido + "}", "USER", UUID.randomUUID().toString());
+    }
+
+    private Timer temporizador(String nombre) {
+        // Sin expiración: los percentiles cubren toda la corrida, aunque sea un soak de horas
+        return Timer.builder(nombre)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+    }
+
+    private static double percentilMs(Timer timer, double percentil) {
+        return Arrays.stream(timer.takeSnapshot().percentileValues())
+                .filter(valor -> valor.percentile() == percentil)
+                .mapToDouble(valor -> Math.round(valor.value(TimeUnit.MILLISECONDS) * 10) / 10.0)
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    /**
+     * Simulador del user-service: responde los administradores configurados y cualquier usuario
+     * de la carga, con la latencia configurada en cada llamada.
+     */
+    private static void iniciarUserService() throws IOException {
+        if (userService != null) {
+            return;
+        }
+        userService = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        userService.setExecutor(Executors.newCachedThreadPool());
+        userService.createContext("/api/users/by-emails", exchange -> {
+            String[] emails = OBJECT_MAPPER.readValue(exchange.getRequestBody(), String[].class);
+            List<Map<String, Object>> usuarios = new ArrayList<>();
+            for (String email : emails) {
+                usuarios.add(usuarioPorEmail(email));
+            }
+            responder(exchange, usuarios);
+        });
+        userService.createContext("/api/users/by-email", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            responder(exchange, usuarioPorEmail(URLDecoder.decode(query.substring(query.indexOf('=') + 1),
+                    StandardCharsets.UTF_8)));
+        });
+        userService.createContext("/api/users/by-ids", exchange -> {
+            Long[] ids = OBJECT_MAPPER.readValue(exchange.getRequestBody(), Long[].class);
+            List<Map<String, Object>> usuarios = new ArrayList<>();
+            for (Long id : ids) {
+                usuarios.add(usuario(id, "usuario" + id + "@carga.test", "USER"));
+            }
+            responder(exchange, usuarios);
+        });
+        userService.createContext("/api/users/by-role", exchange -> {
+            List<Map<String, Object>> admins = new ArrayList<>();
+            for (int i = 0; i < ADMINS; i++) {
+                admins.add(usuarioPorEmail("admin" + i + "@carga.test"));
+            }
+            responder(exchange, admins);
+        });
+        userService.start();
+    }
+
+    private static Map<String, Object> usuarioPorEmail(String email) {
+        if (email.startsWith("admin")) {
+            long indice = Long.parseLong(email.substring("admin".length(), email.indexOf('@')));
+            return usuario(PRIMER_USUARIO + USUARIOS + indice, email, "ADMIN");
+        }
+        return usuario(PRIMER_USUARIO + Math.abs(email.hashCode() % USUARIOS), email, "USER");
+    }
+
+    private static Map<String, Object> usuario(long id, String email, String rol) {
+        return Map.of("id", id, "email", email, "nombre", "Carga", "apellido", String.valueOf(id), "role", rol);
+    }
+
+    private static void responder(HttpExchange exchange, Object cuerpo) throws IOException {
+        try {
+            Thread.sleep(LATENCIA_USER_SERVICE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] json = OBJECT_MAPPER.writeValueAsString(cuerpo).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, json.length);
+        exchange.getResponseBody().write(json);
+        exchange.close();
+    }
+
+    private static String parametro(String nombre, String porDefecto) {
+        String valor = System.getenv(nombre);
+        return valor != null && !valor.isBlank() ? valor : porDefecto;
+    }
+}
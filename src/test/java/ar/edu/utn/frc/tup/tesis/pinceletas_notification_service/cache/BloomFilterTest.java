@@ -0,0 +1,54 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void noHayFalsosNegativos() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.put("evento-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.mightContain("evento-" + i));
+        }
+    }
+
+    @Test
+    void losFalsosPositivosQuedanCercaDeLaProbabilidadConfigurada() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 9_999; i++) {
+            filtro.put("evento-" + i);
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.mightContain("otro-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void alRotarRecuerdaLaGeneracionAnteriorYOlvidaLaPrevia() {
+        BloomFilter filtro = new BloomFilter(100, 0.001);
+        for (int i = 0; i < 100; i++) {
+            filtro.put("primera-" + i);
+        }
+        for (int i = 0; i < 99; i++) {
+            filtro.put("segunda-" + i);
+        }
+        assertTrue(filtro.mightContain("primera-0"));
+        assertTrue(filtro.mightContain("segunda-0"));
+
+        filtro.put("segunda-99");
+        filtro.put("tercera-0");
+        assertTrue(filtro.mightContain("segunda-0"));
+        assertTrue(filtro.mightContain("tercera-0"));
+        assertFalse(filtro.mightContain("primera-0"));
+    }
+}
@@ -0,0 +1,67 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongCounterMapTest {
+
+    @Test
+    void operacionesBasicas() {
+        LongCounterMap map = new LongCounterMap(100, 4);
+
+        assertEquals(LongCounterMap.AUSENTE, map.get(1L));
+        assertFalse(map.addIfPresent(1L, 1));
+
+        assertEquals(5L, map.putIfAbsent(1L, 5L));
+        assertEquals(5L, map.putIfAbsent(1L, 9L));
+        assertTrue(map.addIfPresent(1L, -10));
+        assertEquals(0L, map.get(1L));
+
+        map.put(1L, 3L);
+        assertEquals(3L, map.get(1L));
+        assertTrue(map.remove(1L));
+        assertEquals(LongCounterMap.AUSENTE, map.get(1L));
+    }
+
+    @Test
+    void respetaLaCapacidadDesalojando() {
+        LongCounterMap map = new LongCounterMap(64, 1);
+
+        for (long i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertEquals(64, map.size());
+        assertEquals(64, map.keys().length);
+    }
+
+    @Test
+    void coincideConHashMapBajoOperacionesAleatorias() {
+        LongCounterMap map = new LongCounterMap(10_000, 8);
+        Map<Long, Long> esperado = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    map.put(key, i);
+                    esperado.put(key, (long) i);
+                }
+                case 1 -> {
+                    map.remove(key);
+                    esperado.remove(key);
+                }
+                default -> assertEquals(esperado.getOrDefault(key, LongCounterMap.AUSENTE), map.get(key));
+            }
+        }
+        assertEquals(esperado.size(), map.size());
+    }
+}
@@ -0,0 +1,119 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.CanalEntrega.Entrega;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prueba el canal de email contra un servidor SMTP mínimo en proceso, que rechaza los
+ * destinatarios cuya dirección contiene "rechazado".
+ */
+class CanalEmailTest {
+
+    private final AtomicInteger mensajesRecibidos = new AtomicInteger();
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private ServerSocket servidor;
+    private CanalEmail canal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread hiloServidor = new Thread(this::atender, "smtp-simulado");
+        hiloServidor.setDaemon(true);
+        hiloServidor.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(servidor.getLocalPort());
+        canal = new CanalEmail(mailSender, userServiceClient, "notificaciones@pinceletas.com");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        servidor.close();
+    }
+
+    @Test
+    void informaPorEntregaLosDestinatariosSinEmailORechazados() {
+        when(userServiceClient.findUsersByIds(anyCollection())).thenReturn(Map.of(
+                1L, new UserServiceClient.UserBasicInfo(1L, "ana@x.com", "Ana", "Pérez", "USER"),
+                2L, new UserServiceClient.UserBasicInfo(2L, "rechazado@x.com", "Beto", "Gómez", "USER"),
+                3L, new UserServiceClient.UserBasicInfo(3L, null, "Caro", "Díaz", "USER")));
+
+        Map<Long, String> errores = canal.enviar(List.of(entrega(10L, 1L), entrega(20L, 2L), entrega(30L, 3L)));
+
+        assertEquals(2, errores.size());
+        assertTrue(errores.containsKey(20L));
+        assertTrue(errores.get(30L).contains("no tiene email"));
+        assertEquals(1, mensajesRecibidos.get());
+        // Un único lookup al user-service para todo el lote
+        verify(userServiceClient).findUsersByIds(anyCollection());
+    }
+
+    private static Entrega entrega(Long id, Long usuarioId) {
+        return new Entrega(id, 100L + id, false, usuarioId, "ESTADO_PEDIDO", "Pedido enviado",
+                "Tu pedido está en camino", null, LocalDateTime.now(), 0);
+    }
+
+    /** Atiende conexiones SMTP de a una hasta que se cierra el servidor. */
+    private void atender() {
+        while (!servidor.isClosed()) {
+            try (Socket socket = servidor.accept();
+                 BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter salida = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                responder(salida, "220 localhost SMTP simulado");
+                String linea;
+                while ((linea = entrada.readLine()) != null) {
+                    String comando = linea.toUpperCase();
+                    if (comando.startsWith("EHLO") || comando.startsWith("HELO")) {
+                        responder(salida, "250 localhost");
+                    } else if (comando.startsWith("RCPT") && comando.contains("RECHAZADO")) {
+                        responder(salida, "550 Destinatario rechazado");
+                    } else if (comando.startsWith("DATA")) {
+                        responder(salida, "354 Fin con <CRLF>.<CRLF>");
+                        while ((linea = entrada.readLine()) != null && !linea.equals(".")) {
+                            // Se descarta el contenido
+                        }
+                        mensajesRecibidos.incrementAndGet();
+                        responder(salida, "250 OK");
+                    } else if (comando.startsWith("QUIT")) {
+                        responder(salida, "221 Chau");
+                        break;
+                    } else {
+                        // MAIL, RCPT, RSET, NOOP
+                        responder(salida, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Servidor cerrado al terminar la prueba
+            }
+        }
+    }
+
+    private static void responder(PrintWriter salida, String respuesta) {
+        salida.print(respuesta + "\r\n");
+        salida.flush();
+    }
+}
@@ -0,0 +1,78 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.CanalEntrega.Entrega;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.MappersConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba el canal webhook contra un receptor simulado con el servidor HTTP del JDK.
+ */
+class CanalWebhookTest {
+
+    private final ObjectMapper objectMapper = new MappersConfig().objectMapper();
+    private final AtomicReference<byte[]> recibido = new AtomicReference<>();
+    private volatile int estado = 200;
+    private HttpServer servidor;
+    private CanalWebhook canal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/webhook", exchange -> {
+            recibido.set(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(estado, -1);
+            exchange.close();
+        });
+        servidor.start();
+        canal = new CanalWebhook(HttpClient.newHttpClient(), objectMapper,
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/webhook", Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void enviaElLoteComoUnArregloJson() throws IOException {
+        List<Entrega> lote = List.of(entrega(1L, "{\"pedidoId\":42}"), entrega(2L, null));
+
+        assertTrue(canal.enviar(lote).isEmpty());
+
+        JsonNode cuerpo = objectMapper.readTree(recibido.get());
+        assertEquals(2, cuerpo.size());
+        assertEquals(1L, cuerpo.get(0).get("entregaId").asLong());
+        assertEquals(42, cuerpo.get(0).get("metadata").get("pedidoId").asInt());
+        assertEquals("ESTADO_PEDIDO", cuerpo.get(1).get("tipo").asText());
+    }
+
+    @Test
+    void unaRespuestaDeErrorFallaElLoteCompleto() {
+        estado = 503;
+
+        assertThrows(RestClientException.class, () -> canal.enviar(List.of(entrega(1L, null))));
+    }
+
+    private static Entrega entrega(Long id, String metadata) {
+        return new Entrega(id, 100L + id, false, 7L, "ESTADO_PEDIDO", "Pedido enviado",
+                "Tu pedido está en camino", metadata, LocalDateTime.now(), 0);
+    }
+}
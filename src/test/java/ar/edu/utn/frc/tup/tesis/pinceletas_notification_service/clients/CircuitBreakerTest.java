@@ -0,0 +1,46 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Verifica que en semi-abierto solo el resultado de la llamada de prueba cambie el estado.
+ */
+class CircuitBreakerTest {
+
+    private final CircuitBreaker circuito = new CircuitBreaker(4, 2, 0.5, Duration.ZERO);
+
+    @Test
+    void unExitoIniciadoAntesDeAbrirNoCierraElCircuitoSemiAbierto() {
+        long lenta = circuito.intentar();
+        circuito.registrarFallo(circuito.intentar());
+        circuito.registrarFallo(circuito.intentar());
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuito.estado());
+
+        long prueba = circuito.intentar();
+        assertNotEquals(CircuitBreaker.RECHAZADA, prueba);
+        assertEquals(CircuitBreaker.Estado.SEMI_ABIERTO, circuito.estado());
+
+        // La llamada lenta termina bien, pero no es la de prueba
+        circuito.registrarExito(lenta);
+        assertEquals(CircuitBreaker.Estado.SEMI_ABIERTO, circuito.estado());
+        assertEquals(CircuitBreaker.RECHAZADA, circuito.intentar());
+
+        circuito.registrarFallo(prueba);
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuito.estado());
+    }
+
+    @Test
+    void laLlamadaDePruebaExitosaCierraElCircuito() {
+        circuito.registrarFallo(circuito.intentar());
+        circuito.registrarFallo(circuito.intentar());
+
+        circuito.registrarExito(circuito.intentar());
+
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuito.estado());
+    }
+}
@@ -0,0 +1,83 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Prueba el cliente contra una API de administración simulada con el servidor HTTP del JDK.
+ */
+class RabbitMQManagementClientTest {
+
+    private HttpServer servidor;
+    private RabbitMQManagementClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/api/queues/", this::colas);
+        servidor.start();
+        client = new RabbitMQManagementClient(HttpClient.newHttpClient(), new ObjectMapper(),
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/", "/", "guest", "guest",
+                Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void informaLosMensajesSinConfirmarYLosConsumidores() {
+        RabbitMQManagementClient.EstadoCola estado = client.estado("notificaciones.shard.3");
+
+        assertEquals(5, estado.mensajes());
+        assertEquals(5, estado.sinConfirmar());
+        assertEquals(List.of("notificaciones-router-8-abc"), estado.consumidores());
+    }
+
+    @Test
+    void unaColaInexistenteDevuelveNullYUnErrorLanzaExcepcion() {
+        assertNull(client.estado("inexistente"));
+        assertThrows(RestClientException.class, () -> client.estado("rota"));
+    }
+
+    private void colas(HttpExchange exchange) throws IOException {
+        String ruta = exchange.getRequestURI().getRawPath();
+        if (!"Basic Z3Vlc3Q6Z3Vlc3Q=".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            responder(exchange, 401, "{}");
+        } else if (ruta.equals("/api/queues/%2F/notificaciones.shard.3")) {
+            responder(exchange, 200, "{\"messages\":5,\"messages_ready\":0,\"messages_unacknowledged\":5,"
+                    + "\"consumers\":1,\"consumer_details\":[{\"consumer_tag\":\"notificaciones-router-8-abc\"}]}");
+        } else if (ruta.endsWith("/rota")) {
+            responder(exchange, 500, "{}");
+        } else {
+            responder(exchange, 404, "{\"error\":\"Object Not Found\"}");
+        }
+    }
+
+    private static void responder(HttpExchange exchange, int estado, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(estado, bytes.length);
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+}
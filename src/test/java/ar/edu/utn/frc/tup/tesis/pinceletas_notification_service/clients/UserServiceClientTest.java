@@ -0,0 +1,203 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba el cliente contra un user-service simulado con el servidor HTTP del JDK.
+ */
+class UserServiceClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(300);
+    private static final int TAMANIO_LOTE = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /** Llamadas individuales recibidas por el simulador. */
+    private final AtomicInteger llamadas = new AtomicInteger();
+    /** Tamaño de cada llamada por lote recibida por el simulador. */
+    private final List<Integer> lotes = new CopyOnWriteArrayList<>();
+    private volatile boolean loteSoportado = true;
+    private HttpServer servidor;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/api/users/by-email", this::porEmail);
+        servidor.createContext("/api/users/by-emails", this::porEmails);
+        servidor.createContext("/api/users/by-role", exchange -> responder(exchange, 200,
+                "[{\"id\":1,\"email\":\"a@x.com\",\"role\":\"ADMIN\"},{\"id\":2,\"email\":\"b@x.com\",\"role\":\"ADMIN\"}]"));
+        servidor.start();
+
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        client = new UserServiceClient(HttpClient.newHttpClient(), objectMapper, meterRegistry,
+                url, TIMEOUT, 50, 10, 5, 0.5, Duration.ofMinutes(1),
+                Duration.ofMillis(50), TAMANIO_LOTE, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.cerrar();
+        servidor.stop(0);
+    }
+
+    @Test
+    void distingueUsuarioEncontradoDeInexistente() throws Exception {
+        assertEquals(7L, client.findUserByEmailAsync("ana@x.com").get().orElseThrow().id());
+        assertTrue(client.findUserByEmail("nadie@x.com").isEmpty());
+        assertEquals(List.of(1L, 2L), client.findUsersByRole("ADMIN").stream()
+                .map(UserServiceClient.UserBasicInfo::id).toList());
+    }
+
+    @Test
+    void unaRespuestaLentaFallaAlVencerElTimeout() {
+        long inicio = System.nanoTime();
+
+        assertThrows(ResourceAccessException.class, () -> client.findUserByEmail("lento@x.com"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    @Test
+    void conElServicioFallandoElCircuitoSeAbreYRechazaSinLlamar() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpServerErrorException.class, () -> client.findUserByEmail("error@x.com"));
+        }
+        int llamadasAlAbrir = llamadas.get();
+
+        assertThrows(UserServiceNoDisponibleException.class, () -> client.findUserByEmail("ana@x.com"));
+        assertEquals(llamadasAlAbrir, llamadas.get());
+    }
+
+    @Test
+    void lasBusquedasConcurrentesSeAgrupanEnUnaLlamadaPorLote() {
+        List<CompletableFuture<?>> busquedas = new ArrayList<>();
+        for (String email : List.of("ana@x.com", "usuario1@x.com", "ANA@x.com", "nadie@x.com", "ana@x.com")) {
+            busquedas.add(client.findUserByEmailAsync(email));
+        }
+        CompletableFuture.allOf(busquedas.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(List.of(4), lotes);
+        assertEquals(0, llamadas.get());
+        assertEquals(7L, client.findUserByEmailAsync("ANA@x.com").join().orElseThrow().id());
+        assertTrue(client.findUserByEmailAsync("nadie@x.com").join().isEmpty());
+    }
+
+    @Test
+    void losLotesGrandesSeDividen() {
+        List<String> emails = IntStream.range(0, 25).mapToObj(i -> "usuario" + i + "@x.com").toList();
+
+        Map<String, UserServiceClient.UserBasicInfo> usuarios = client.findUsersByEmails(emails);
+
+        assertEquals(25, usuarios.size());
+        assertEquals(Set.of(10, 10, 5), Set.copyOf(lotes));
+        assertEquals(3, lotes.size());
+        assertEquals(103L, usuarios.get("usuario3@x.com").id());
+    }
+
+    @Test
+    void sinEndpointDeLoteSeUsanBusquedasIndividualesEnParalelo() {
+        loteSoportado = false;
+        List<String> emails = List.of("ana@x.com", "usuario1@x.com", "usuario2@x.com", "nadie@x.com", "usuario4@x.com");
+
+        Map<String, UserServiceClient.UserBasicInfo> usuarios = client.findUsersByEmails(emails);
+
+        assertEquals(Set.of("ana@x.com", "usuario1@x.com", "usuario2@x.com", "usuario4@x.com"), usuarios.keySet());
+        assertEquals(5, llamadas.get());
+
+        // Detectado el faltante, no se vuelve a probar el endpoint de lote en cada búsqueda
+        client.findUsersByEmails(List.of("usuario5@x.com", "usuario6@x.com"));
+        assertEquals(1, lotes.size());
+        assertEquals(7, llamadas.get());
+        // La falta del endpoint no es un fallo del servicio: no cuenta para el circuito
+        assertEquals(1, meterRegistry.get("notificaciones.user-service")
+                .tags("operacion", "by-emails", "resultado", "sin_endpoint").timer().count());
+        assertEquals(0.0, meterRegistry.get("notificaciones.user-service.circuito").gauge().value());
+    }
+
+    private void porEmail(HttpExchange exchange) throws IOException {
+        llamadas.incrementAndGet();
+        String email = exchange.getRequestURI().getQuery().substring("email=".length());
+        if (email.contains("lento")) {
+            try {
+                Thread.sleep(TIMEOUT.toMillis() * 5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            responder(exchange, 200, "{}");
+        } else if (email.contains("error")) {
+            responder(exchange, 503, "");
+        } else {
+            Map<String, Object> usuario = usuario(email);
+            responder(exchange, usuario != null ? 200 : 404, usuario != null ? objectMapper.writeValueAsString(usuario) : "");
+        }
+    }
+
+    private void porEmails(HttpExchange exchange) throws IOException {
+        String[] emails = objectMapper.readValue(exchange.getRequestBody(), String[].class);
+        lotes.add(emails.length);
+        if (!loteSoportado) {
+            responder(exchange, 404, "");
+            return;
+        }
+        List<Map<String, Object>> encontrados = new ArrayList<>();
+        for (String email : emails) {
+            Map<String, Object> usuario = usuario(email);
+            if (usuario != null) {
+                encontrados.add(usuario);
+            }
+        }
+        responder(exchange, 200, objectMapper.writeValueAsString(encontrados));
+    }
+
+    /** Directorio simulado: ana@x.com (id 7) y usuarioN@x.com (id 100 + N). */
+    private static Map<String, Object> usuario(String email) {
+        String normalizado = email.toLowerCase();
+        if (normalizado.equals("ana@x.com")) {
+            return Map.of("id", 7, "email", normalizado, "nombre", "Ana", "role", "USER");
+        }
+        if (normalizado.startsWith("usuario")) {
+            long id = 100 + Long.parseLong(normalizado.substring("usuario".length(), normalizado.indexOf('@')));
+            return Map.of("id", id, "email", normalizado, "role", "USER");
+        }
+        return null;
+    }
+
+    private static void responder(HttpExchange exchange, int status, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,36 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RabbitMQShardConfigTest {
+
+    @Test
+    void elMismoUsuarioSiempreVaAlMismoShard() {
+        for (long usuarioId = 1; usuarioId <= 1_000; usuarioId++) {
+            int shard = RabbitMQShardConfig.shardDe(usuarioId, 8);
+            assertTrue(shard >= 0 && shard < 8);
+            assertEquals(shard, RabbitMQShardConfig.shardDe(usuarioId, 8));
+        }
+    }
+
+    @Test
+    void idsNegativosYBroadcastsQuedanEnRango() {
+        assertEquals(0, RabbitMQShardConfig.shardDe(null, 8));
+        assertTrue(RabbitMQShardConfig.shardDe(-3L, 8) >= 0);
+        assertEquals(RabbitMQShardConfig.shardDe(Long.MIN_VALUE, 8), Math.floorMod(Long.MIN_VALUE, 8L));
+    }
+
+    @Test
+    void losUsuariosSeRepartenEntreTodosLosShards() {
+        int[] porShard = new int[8];
+        for (long usuarioId = 1; usuarioId <= 8_000; usuarioId++) {
+            porShard[RabbitMQShardConfig.shardDe(usuarioId, 8)]++;
+        }
+        for (int cantidad : porShard) {
+            assertEquals(1_000, cantidad);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Levanta {@link VirtualThreadsConfig} con el executor de tareas que configura Spring Boot
+ * y verifica que, con muchas tareas en hilos virtuales pidiendo conexiones a la vez, el
+ * {@link SemaforoDataSource} nunca deja pasar más conexiones que el límite configurado.
+ */
+class VirtualThreadsConfigTest {
+
+    private static final int LIMITE_CONEXIONES = 4;
+    private static final int TAREAS = 200;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(DataSourceContadorConfig.class, VirtualThreadsConfig.class);
+
+    @Test
+    void conHilosVirtualesElDataSourceQuedaAcotadoPorElSemaforo() {
+        contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=true",
+                        "app.datasource.semaforo.max-concurrentes=" + LIMITE_CONEXIONES)
+                .run(context -> {
+                    DataSource dataSource = context.getBean(DataSource.class);
+                    assertInstanceOf(SemaforoDataSource.class, dataSource);
+
+                    AsyncTaskExecutor executor = context.getBean("applicationTaskExecutor", AsyncTaskExecutor.class);
+                    AtomicInteger tareasEnHilosVirtuales = new AtomicInteger();
+                    List<Future<?>> resultados = new ArrayList<>(TAREAS);
+                    for (int i = 0; i < TAREAS; i++) {
+                        resultados.add(executor.submit(() -> {
+                            if (Thread.currentThread().isVirtual()) {
+                                tareasEnHilosVirtuales.incrementAndGet();
+                            }
+                            try (Connection conexion = dataSource.getConnection()) {
+                                Thread.sleep(2);
+                            }
+                            return null;
+                        }));
+                    }
+                    for (Future<?> resultado : resultados) {
+                        resultado.get(30, TimeUnit.SECONDS);
+                    }
+
+                    DataSourceContador contador = context.getBean(DataSourceContadorConfig.class).contador;
+                    assertEquals(TAREAS, tareasEnHilosVirtuales.get());
+                    assertEquals(TAREAS, contador.entregadas.get());
+                    assertTrue(contador.maximoActivas.get() <= LIMITE_CONEXIONES,
+                            "El semáforo dejó pasar " + contador.maximoActivas.get() + " conexiones concurrentes");
+                    assertEquals(0, contador.activas.get());
+                });
+    }
+
+    @Test
+    void sinHilosVirtualesNoSeEnvuelveElDataSource() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("semaforoDataSourcePostProcessor"));
+            assertFalse(context.getBean(DataSource.class) instanceof SemaforoDataSource);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class DataSourceContadorConfig {
+
+        final DataSourceContador contador = new DataSourceContador();
+
+        @Bean
+        DataSource dataSource() throws Exception {
+            return contador.crear();
+        }
+    }
+
+    /** DataSource sin límite propio que registra cuántas conexiones hay abiertas a la vez. */
+    static class DataSourceContador {
+
+        final AtomicInteger activas = new AtomicInteger();
+        final AtomicInteger maximoActivas = new AtomicInteger();
+        final AtomicInteger entregadas = new AtomicInteger();
+
+        DataSource crear() throws Exception {
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenAnswer(invocation -> {
+                entregadas.incrementAndGet();
+                maximoActivas.accumulateAndGet(activas.incrementAndGet(), Math::max);
+                return (Connection) Proxy.newProxyInstance(
+                        Connection.class.getClassLoader(),
+                        new Class<?>[]{Connection.class},
+                        (proxy, metodo, argumentos) -> {
+                            if ("close".equals(metodo.getName())) {
+                                activas.decrementAndGet();
+                            }
+                            return null;
+                        });
+            });
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.mappers.NotificacionMapper;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.BandejaNotificacionRepository;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionBroadcastRepository;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionReceptorRepository;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.NotificacionRepository;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.AdminService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.ContadorNoLeidasService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.DeduplicacionEventosService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.EntregasService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.LecturasDiferidasService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.NotificacionService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.NotificacionStreamService;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.PoliticaAgrupacion;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.PoliticaRetencion;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services.VersionBandejaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compara el consumo evento por evento contra el consumo en lotes.
+ * El repositorio simula un round-trip fijo a la base de datos por cada llamada,
+ * que es el costo dominante del camino individual.
+ * La comparación de throughput mide tiempo de reloj: se ejecuta solo con
+ * {@code PRUEBAS_RENDIMIENTO=true} para no depender de la carga de la máquina.
+ */
+class NotificacionBatchThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionBatchThroughputTest.class);
+
+    private static final int EVENTOS = 500;
+    private static final int TAMANIO_LOTE = 100;
+    private static final long LATENCIA_ROUND_TRIP_MS = 1;
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+
+    private NotificacionService notificacionService;
+    private AdminService adminService;
+    private DeduplicacionEventosService deduplicacion;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final NotificacionMetricas metricas = new NotificacionMetricas(registry, List.of());
+
+    @BeforeEach
+    void setUp() {
+        NotificacionRepository repository = mock(NotificacionRepository.class);
+        adminService = mock(AdminService.class);
+
+        when(repository.save(any(NotificacionEntity.class))).thenAnswer(invocation -> {
+            simularRoundTrip();
+            NotificacionEntity entity = invocation.getArgument(0);
+            entity.setId(ids.incrementAndGet());
+            return entity;
+        });
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            simularRoundTrip();
+            return invocation.getArgument(0);
+        });
+
+        BandejaNotificacionRepository bandejaRepository = mock(BandejaNotificacionRepository.class);
+        deduplicacion = mock(DeduplicacionEventosService.class);
+        when(deduplicacion.registrarNuevas(any())).thenAnswer(invocation -> new HashSet<>(invocation.<Collection<String>>getArgument(0)));
+        VersionBandejaService versiones = mock(VersionBandejaService.class);
+        notificacionService = new NotificacionService(
+                repository,
+                bandejaRepository,
+                mock(NotificacionBroadcastRepository.class),
+                mock(NotificacionReceptorRepository.class),
+                new NotificacionMapper(),
+                new ContadorNoLeidasService(bandejaRepository, versiones, 1000, 4),
+                mock(NotificacionStreamService.class),
+                new PoliticaRetencion(Map.of(), 365),
+                mock(LecturasDiferidasService.class),
+                deduplicacion,
+                versiones,
+                new PoliticaAgrupacion(Map.of()),
+                mock(EntregasService.class));
+    }
+
+    @Test
+    void consumoEnLotesHaceUnRoundTripPorLote() {
+        List<NotificacionEvent> eventos = generarEventos();
+
+        NotificacionEventListener individual = new NotificacionEventListener(notificacionService, adminService, metricas);
+        eventos.forEach(individual::recibirNotificacion);
+        assertEquals(EVENTOS, roundTrips.getAndSet(0));
+
+        consumirEnLotes(eventos);
+        assertEquals(EVENTOS / TAMANIO_LOTE, roundTrips.getAndSet(0));
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "PRUEBAS_RENDIMIENTO", matches = "true")
+    void consumoEnLotesSuperaAlConsumoIndividual() {
+        List<NotificacionEvent> eventos = generarEventos();
+
+        NotificacionEventListener individual = new NotificacionEventListener(notificacionService, adminService, metricas);
+        long inicioIndividual = System.nanoTime();
+        eventos.forEach(individual::recibirNotificacion);
+        double eventosPorSegIndividual = eventosPorSegundo(System.nanoTime() - inicioIndividual);
+
+        long inicioLotes = System.nanoTime();
+        consumirEnLotes(eventos);
+        double eventosPorSegLotes = eventosPorSegundo(System.nanoTime() - inicioLotes);
+
+        log.info("Individual: {} eventos/s | Lotes de {}: {} eventos/s",
+                Math.round(eventosPorSegIndividual), TAMANIO_LOTE, Math.round(eventosPorSegLotes));
+
+        assertTrue(eventosPorSegLotes > eventosPorSegIndividual);
+    }
+
+    @Test
+    void losDuplicadosDeUnLoteSeCuentanComoEnElConsumoIndividual() {
+        List<NotificacionEvent> eventos = generarEventos().subList(0, 10);
+        NotificacionBatchEventListener lotes = new NotificacionBatchEventListener(notificacionService, adminService, metricas);
+
+        lotes.recibirLoteNotificaciones(eventos);
+        // Reentrega del mismo lote: todas sus claves ya estaban registradas
+        when(deduplicacion.registrarNuevas(any())).thenReturn(new HashSet<>());
+        lotes.recibirLoteNotificaciones(eventos);
+
+        assertEquals(10, eventosContados(NotificacionMetricas.RESULTADO_OK));
+        assertEquals(10, eventosContados(NotificacionMetricas.RESULTADO_DUPLICADO));
+    }
+
+    private double eventosContados(String resultado) {
+        return registry.find("notificaciones.eventos").tag("resultado", resultado).counters().stream()
+                .mapToDouble(contador -> contador.count())
+                .sum();
+    }
+
+    private void consumirEnLotes(List<NotificacionEvent> eventos) {
+        NotificacionBatchEventListener lotes = new NotificacionBatchEventListener(notificacionService, adminService, metricas);
+        for (int i = 0; i < eventos.size(); i += TAMANIO_LOTE) {
+            lotes.recibirLoteNotificaciones(eventos.subList(i, Math.min(i + TAMANIO_LOTE, eventos.size())));
+        }
+    }
+
+    private List<NotificacionEvent> generarEventos() {
+        List<NotificacionEvent> eventos = new ArrayList<>(EVENTOS);
+        for (int i = 0; i < EVENTOS; i++) {
+            eventos.add(new NotificacionEvent(
+                    "Pedido actualizado",
+                    "Tu pedido #" + i + " cambió de estado",
+                    "ESTADO_PEDIDO",
+                    (long) (i % 50),
+                    "{\"pedidoId\":" + i + "}",
+                    "USER",
+                    null));
+        }
+        return eventos;
+    }
+
+    private double eventosPorSegundo(long nanos) {
+        return EVENTOS / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void simularRoundTrip() throws InterruptedException {
+        roundTrips.incrementAndGet();
+        Thread.sleep(LATENCIA_ROUND_TRIP_MS);
+    }
+}
@@ -0,0 +1,132 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics.NotificacionMetricas;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.utils.EsperaExponencial;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Return;
+import com.rabbitmq.client.ReturnCallback;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificacionReintentosTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final Channel channel = mock(Channel.class);
+    private final NotificacionReintentos reintentos = new NotificacionReintentos(rabbitTemplate,
+            mock(MessageConverter.class), new NotificacionMetricas(new SimpleMeterRegistry(), List.of()),
+            3, 1_000, 4, 10_000, 5_000);
+    /** Callback de devoluciones registrado en el canal durante la publicación. */
+    private final AtomicReference<ReturnCallback> alDevolver = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        when(rabbitTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+        when(channel.addReturnListener(any(ReturnCallback.class))).thenAnswer(invocation -> {
+            alDevolver.set(invocation.getArgument(0));
+            return null;
+        });
+    }
+
+    @Test
+    void laEsperaCreceExponencialmenteHastaElMaximo() {
+        assertEquals(1_000, EsperaExponencial.calcular(1, 1_000, 4, 10_000));
+        assertEquals(4_000, EsperaExponencial.calcular(2, 1_000, 4, 10_000));
+        assertEquals(10_000, EsperaExponencial.calcular(3, 1_000, 4, 10_000));
+    }
+
+    @Test
+    void cadaFalloVaALaColaDeSuIntentoYAlAgotarseAFallidos() throws Exception {
+        Message mensaje = mensaje();
+        IllegalStateException error = new IllegalStateException("base caída");
+
+        reintentos.derivar(mensaje, error);
+        verify(channel).basicPublish(eq(RabbitMQConfig.RETRY_EXCHANGE), eq("1000"), eq(true), any(), any());
+        reintentos.derivar(mensaje, error);
+        verify(channel).basicPublish(eq(RabbitMQConfig.RETRY_EXCHANGE), eq("4000"), eq(true), any(), any());
+        reintentos.derivar(mensaje, error);
+        verify(channel).basicPublish(eq(RabbitMQConfig.RETRY_EXCHANGE), eq("10000"), eq(true), any(), any());
+        reintentos.derivar(mensaje, error);
+        verify(channel).basicPublish(eq(RabbitMQConfig.DLX), eq(RabbitMQConfig.DLQ), eq(true), any(), any());
+
+        assertEquals(4, (Integer) mensaje.getMessageProperties().getHeader(NotificacionReintentos.HEADER_INTENTOS));
+    }
+
+    @Test
+    void losMensajesIlegiblesVanDirectoAFallidos() throws Exception {
+        Message mensaje = mensaje();
+
+        reintentos.derivar(mensaje, new MessageConversionException("JSON inválido"));
+
+        verify(channel).basicPublish(eq(RabbitMQConfig.DLX), eq(RabbitMQConfig.DLQ), eq(true), any(), any());
+        verify(channel, never()).basicPublish(eq(RabbitMQConfig.RETRY_EXCHANGE), anyString(), anyBoolean(),
+                any(AMQP.BasicProperties.class), any());
+    }
+
+    @Test
+    void siElBrokerNoConfirmaElOriginalVuelveASuCola() throws Throwable {
+        doThrow(new IOException("nack")).when(channel).waitForConfirmsOrDie(anyLong());
+
+        assertThrows(ImmediateRequeueAmqpException.class, () -> reintentos.invoke(invocacionFallida(mensaje())));
+    }
+
+    @Test
+    void siElBrokerDevuelveLaDerivacionElOriginalVuelveASuCola() throws Throwable {
+        doAnswer(invocation -> {
+            alDevolver.get().handle(new Return(312, "NO_ROUTE", RabbitMQConfig.RETRY_EXCHANGE, "1000",
+                    new AMQP.BasicProperties(), new byte[0]));
+            return null;
+        }).when(channel).basicPublish(anyString(), anyString(), anyBoolean(), any(), any());
+
+        assertThrows(ImmediateRequeueAmqpException.class, () -> reintentos.invoke(invocacionFallida(mensaje())));
+    }
+
+    @Test
+    void conLaDerivacionConfirmadaElOriginalSeConfirma() throws Throwable {
+        reintentos.invoke(invocacionFallida(mensaje()));
+
+        verify(channel).confirmSelect();
+        verify(channel).waitForConfirmsOrDie(5_000);
+    }
+
+    private static MethodInvocation invocacionFallida(Message mensaje) throws Throwable {
+        MethodInvocation invocacion = mock(MethodInvocation.class);
+        when(invocacion.proceed()).thenThrow(new IllegalStateException("base caída"));
+        when(invocacion.getArguments()).thenReturn(new Object[]{mock(Channel.class), mensaje});
+        return invocacion;
+    }
+
+    private static Message mensaje() {
+        return new Message("{}".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
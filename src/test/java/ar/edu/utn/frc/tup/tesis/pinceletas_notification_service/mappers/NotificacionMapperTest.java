@@ -0,0 +1,77 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.mappers;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionBroadcastEntity;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.NotificacionEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifica campo por campo el mapeador escrito a mano.
+ * La comparación de rendimiento contra ModelMapper está en el benchmark JMH
+ * {@code NotificacionMapeoBenchmark} (perfil {@code benchmarks}).
+ */
+class NotificacionMapperTest {
+
+    private final NotificacionMapper notificacionMapper = new NotificacionMapper();
+
+    @Test
+    void copiaTodosLosCamposDeUnaNotificacionDirecta() {
+        LocalDateTime creacion = LocalDateTime.of(2025, 3, 10, 9, 30);
+        NotificacionEntity entity = new NotificacionEntity();
+        entity.setId(7L);
+        entity.setTitulo("Pedido #7");
+        entity.setMensaje("Tu pedido fue despachado");
+        entity.setTipo("PEDIDO_ENVIADO");
+        entity.setEstado("LEIDA");
+        entity.setUsuarioId(42L);
+        entity.setMetadata("{\"pedidoId\":7}");
+        entity.setFechaCreacion(creacion);
+        entity.setFechaLectura(creacion.plusHours(1));
+        entity.setOcurrencias(3);
+        entity.setFechaUltimaOcurrencia(creacion.plusMinutes(5));
+
+        NotificacionDto dto = notificacionMapper.toDto(entity);
+
+        assertEquals(entity.getId(), dto.getId());
+        assertEquals(entity.getTitulo(), dto.getTitulo());
+        assertEquals(entity.getMensaje(), dto.getMensaje());
+        assertEquals(entity.getTipo(), dto.getTipo());
+        assertEquals(entity.getEstado(), dto.getEstado());
+        assertEquals(entity.getUsuarioId(), dto.getUsuarioId());
+        assertEquals(entity.getMetadata(), dto.getMetadata());
+        assertEquals(entity.getFechaCreacion(), dto.getFechaCreacion());
+        assertEquals(entity.getFechaLectura(), dto.getFechaLectura());
+        assertEquals(entity.getOcurrencias(), dto.getOcurrencias());
+        assertEquals(entity.getFechaUltimaOcurrencia(), dto.getFechaUltimaOcurrencia());
+    }
+
+    @Test
+    void unBroadcastSeMapeaComoNoLeidoDelDestinatario() {
+        NotificacionBroadcastEntity broadcast = new NotificacionBroadcastEntity();
+        broadcast.setId(11L);
+        broadcast.setTitulo("Mantenimiento");
+        broadcast.setMensaje("El sistema se reinicia a las 3");
+        broadcast.setTipo("SISTEMA");
+        broadcast.setMetadata("{}");
+        broadcast.setFechaCreacion(LocalDateTime.of(2025, 3, 10, 9, 30));
+
+        NotificacionDto dto = notificacionMapper.toDto(broadcast, 99L);
+
+        assertEquals(broadcast.getId(), dto.getId());
+        assertEquals(broadcast.getTitulo(), dto.getTitulo());
+        assertEquals(broadcast.getMensaje(), dto.getMensaje());
+        assertEquals(broadcast.getTipo(), dto.getTipo());
+        assertEquals("NO_LEIDA", dto.getEstado());
+        assertEquals(99L, dto.getUsuarioId());
+        assertEquals(broadcast.getMetadata(), dto.getMetadata());
+        assertEquals(broadcast.getFechaCreacion(), dto.getFechaCreacion());
+        assertNull(dto.getFechaLectura());
+        assertNull(dto.getOcurrencias());
+        assertNull(dto.getFechaUltimaOcurrencia());
+    }
+}
@@ -0,0 +1,45 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotificacionMetricasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final NotificacionMetricas metricas =
+            new NotificacionMetricas(registry, List.of("ESTADO_PEDIDO", "NUEVO_PEDIDO"));
+
+    @Test
+    void losTiposDesconocidosSeAgrupanParaAcotarLaCardinalidad() {
+        for (int i = 0; i < 1_000; i++) {
+            metricas.contarEvento("TIPO_ARBITRARIO_" + i, "ROL_" + i, NotificacionMetricas.RESULTADO_OK);
+        }
+        metricas.contarEvento("ESTADO_PEDIDO", "USER", NotificacionMetricas.RESULTADO_OK);
+        metricas.contarEvento("nuevo_pedido", "ADMIN", NotificacionMetricas.RESULTADO_OK);
+
+        assertEquals(3, registry.find("notificaciones.eventos").counters().size());
+        assertEquals(1_000, registry.get("notificaciones.eventos")
+                .tag("tipo", NotificacionMetricas.OTRO)
+                .tag("target_role", NotificacionMetricas.OTRO)
+                .counter().count());
+        assertEquals(1, registry.get("notificaciones.eventos")
+                .tag("tipo", "NUEVO_PEDIDO")
+                .tag("target_role", "ADMIN")
+                .counter().count());
+    }
+
+    @Test
+    void losFallosSeCuentanPorTipoYExcepcion() {
+        metricas.contarFallo("ESTADO_PEDIDO", new IllegalStateException("x"));
+        metricas.contarFallo("ESTADO_PEDIDO", new IllegalStateException("y"));
+
+        assertEquals(2, registry.get("notificaciones.eventos.fallidos")
+                .tag("tipo", "ESTADO_PEDIDO")
+                .tag("excepcion", "IllegalStateException")
+                .counter().count());
+    }
+}
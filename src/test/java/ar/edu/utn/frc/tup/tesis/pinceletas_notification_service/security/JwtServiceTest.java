@@ -0,0 +1,72 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void verificarDevuelveEmailYRolDelToken() {
+        String token = jwtService.generateToken("admin@pinceletas.com", "ADMIN");
+
+        Optional<JwtService.ClaimsVerificados> claims = jwtService.verificar(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("admin@pinceletas.com", claims.get().email());
+        assertEquals("ADMIN", claims.get().role());
+        assertEquals("admin@pinceletas.com", jwtService.extractUsername(token));
+        assertEquals("ADMIN", jwtService.extractRole(token));
+    }
+
+    @Test
+    void tokenSinRolUsaUserPorDefecto() {
+        String token = Jwts.builder()
+                .setSubject("cliente@pinceletas.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SecurityConstants.JWT_SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals("USER", jwtService.verificar(token).orElseThrow().role());
+    }
+
+    @Test
+    void tokenExpiradoNoEsValido() {
+        String token = Jwts.builder()
+                .setSubject("cliente@pinceletas.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SecurityConstants.JWT_SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertFalse(jwtService.isTokenValid(token));
+    }
+
+    @Test
+    void tokenConFirmaAlteradaNoEsValidoAunqueElOriginalEsteCacheado() {
+        String token = jwtService.generateToken("cliente@pinceletas.com");
+        assertTrue(jwtService.isTokenValid(token));
+
+        String alterado = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtService.isTokenValid(alterado));
+        assertFalse(jwtService.isTokenValid("no-es-un-jwt"));
+    }
+}
@@ -0,0 +1,59 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceClient;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.clients.UserServiceNoDisponibleException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdminServiceTest {
+
+    private final UserMappingService userMappingService = mock(UserMappingService.class);
+
+    private AdminService adminService(List<String> emails) {
+        return new AdminService(mock(UserServiceClient.class), userMappingService, emails, false, 300_000, 5_000);
+    }
+
+    @Test
+    void sinUnaCargaExitosaElDirectorioNoSeDaPorVacio() {
+        when(userMappingService.obtenerUserIdsPorEmails(anyCollection())).thenThrow(new ResourceAccessException("user-service caído"));
+        AdminService adminService = adminService(List.of("admin@pinceletas.com"));
+
+        assertThrows(UserServiceNoDisponibleException.class, adminService::obtenerIdsDeAdministradores);
+
+        adminService.refrescarDirectorio();
+
+        assertThrows(UserServiceNoDisponibleException.class, adminService::obtenerIdsDeAdministradores);
+    }
+
+    @Test
+    void unDirectorioCargadoSeSirveAunqueFallenLosRefrescos() {
+        when(userMappingService.obtenerUserIdsPorEmails(anyCollection()))
+                .thenReturn(Map.of("admin@pinceletas.com", 7L))
+                .thenThrow(new ResourceAccessException("user-service caído"));
+        AdminService adminService = adminService(List.of("admin@pinceletas.com"));
+
+        adminService.refrescarDirectorio();
+        adminService.refrescarDirectorio();
+
+        assertEquals(List.of(7L), adminService.obtenerIdsDeAdministradores());
+    }
+
+    @Test
+    void unDirectorioCargadoYVacioNoEsUnError() {
+        AdminService adminService = adminService(List.of());
+
+        adminService.refrescarDirectorio();
+
+        assertTrue(adminService.obtenerIdsDeAdministradores().isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara el esquema anterior (tipo y estado como varchar, metadata como text) con el compacto
+ * (smallint + jsonb con índice GIN) sobre un dataset generado: tamaño en disco y latencia de
+ * los filtros por metadata y por tipo/estado.
+ * Necesita un Postgres: se ejecuta solo si está definida {@code COMPARACION_PG_URL}
+ * (p. ej. {@code jdbc:postgresql://localhost:5432/postgres}); usuario y clave se toman de
+ * {@code COMPARACION_PG_USER} y {@code COMPARACION_PG_PASSWORD}. Usa tablas temporales.
+ */
+@EnabledIfEnvironmentVariable(named = "COMPARACION_PG_URL", matches = ".+")
+class ColumnasCompactasComparacionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnasCompactasComparacionTest.class);
+
+    private static final int FILAS = 500_000;
+    private static final int USUARIOS = 5_000;
+    private static final int PEDIDOS = 100_000;
+    private static final int REPETICIONES = 21;
+    private static final String[] TIPOS = {"INICIO_SESION", "INICIO_SESION_FIREBASE", "INICIO_SESION_FIREBASE_ADMIN",
+            "BIENVENIDA_REGISTRO", "NUEVO_REGISTRO", "ESTADO_PEDIDO", "NUEVO_PEDIDO"};
+
+    private Connection conexion;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conexion = DriverManager.getConnection(System.getenv("COMPARACION_PG_URL"),
+                System.getenv().getOrDefault("COMPARACION_PG_USER", "postgres"),
+                System.getenv().getOrDefault("COMPARACION_PG_PASSWORD", "password"));
+        String tipos = "ARRAY['" + String.join("','", TIPOS) + "']";
+        try (Statement st = conexion.createStatement()) {
+            st.execute("CREATE TEMP TABLE notif_texto (id bigint PRIMARY KEY, usuario_id bigint NOT NULL,"
+                    + " titulo varchar(255) NOT NULL, mensaje varchar(1000) NOT NULL, tipo varchar(255) NOT NULL,"
+                    + " estado varchar(255) NOT NULL, metadata text, fecha_creacion timestamp(6) NOT NULL)");
+            st.execute("INSERT INTO notif_texto SELECT i, i % " + USUARIOS + ", 'Notificación ' || i,"
+                    + " 'Mensaje de la notificación ' || i, (" + tipos + ")[1 + i % " + TIPOS.length + "],"
+                    + " CASE WHEN i % 3 = 0 THEN 'NO_LEIDA' ELSE 'LEIDA' END,"
+                    + " '{\"pedidoId\": ' || (i % " + PEDIDOS + ") || ', \"origen\": \"web\"}',"
+                    + " now() - (i || ' seconds')::interval FROM generate_series(1, " + FILAS + ") i");
+
+            st.execute("CREATE TEMP TABLE notif_tipos (codigo smallint PRIMARY KEY, nombre varchar(255) UNIQUE)");
+            st.execute("INSERT INTO notif_tipos SELECT codigo, nombre FROM unnest(" + tipos + ")"
+                    + " WITH ORDINALITY AS t(nombre, codigo)");
+            st.execute("CREATE TEMP TABLE notif_compacta (id bigint PRIMARY KEY, usuario_id bigint NOT NULL,"
+                    + " titulo varchar(255) NOT NULL, mensaje varchar(1000) NOT NULL, tipo smallint NOT NULL,"
+                    + " estado smallint NOT NULL, metadata jsonb, fecha_creacion timestamp(6) NOT NULL)");
+            st.execute("INSERT INTO notif_compacta SELECT n.id, n.usuario_id, n.titulo, n.mensaje, t.codigo,"
+                    + " CASE n.estado WHEN 'LEIDA' THEN 1 ELSE 0 END, n.metadata::jsonb, n.fecha_creacion"
+                    + " FROM notif_texto n JOIN notif_tipos t ON t.nombre = n.tipo");
+
+            for (String tabla : new String[]{"notif_texto", "notif_compacta"}) {
+                st.execute("CREATE INDEX ON " + tabla + " (usuario_id, fecha_creacion DESC, id DESC)");
+                st.execute("CREATE INDEX ON " + tabla + " (usuario_id, estado, fecha_creacion DESC, id DESC)");
+            }
+            st.execute("CREATE INDEX ON notif_compacta USING gin (metadata jsonb_path_ops)");
+            st.execute("ANALYZE notif_texto");
+            st.execute("ANALYZE notif_compacta");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conexion.close();
+    }
+
+    @Test
+    void elEsquemaCompactoOcupaMenosYFiltraPorMetadataConIndice() throws SQLException {
+        long tablaTexto = escalar("SELECT pg_table_size('notif_texto')");
+        long tablaCompacta = escalar("SELECT pg_table_size('notif_compacta')");
+        long indicesTexto = escalar("SELECT pg_indexes_size('notif_texto')");
+        long indicesCompacta = escalar("SELECT pg_indexes_size('notif_compacta')");
+
+        // Sin jsonb la única forma de buscar un pedido es recorrer toda la tabla
+        double metadataTexto = medianaMs("SELECT id FROM notif_texto WHERE metadata LIKE '%\"pedidoId\": 4242,%'");
+        double metadataCompacta = medianaMs("SELECT id FROM notif_compacta WHERE metadata @> '{\"pedidoId\": 4242}'");
+        double filtroTexto = medianaMs("SELECT id FROM notif_texto WHERE usuario_id = 77 AND estado = 'NO_LEIDA'"
+                + " AND tipo = 'NUEVO_PEDIDO' ORDER BY fecha_creacion DESC, id DESC LIMIT 21");
+        double filtroCompacta = medianaMs("SELECT id FROM notif_compacta WHERE usuario_id = 77 AND estado = 0"
+                + " AND tipo = 7 ORDER BY fecha_creacion DESC, id DESC LIMIT 21");
+
+        log.info("{} filas | tabla: texto {} KB, compacta {} KB | índices: texto {} KB, compacta {} KB (incluye GIN)",
+                FILAS, tablaTexto / 1024, tablaCompacta / 1024, indicesTexto / 1024, indicesCompacta / 1024);
+        log.info("Filtro por metadata: texto {} ms, compacta {} ms | filtro por usuario/tipo/estado: texto {} ms, compacta {} ms",
+                metadataTexto, metadataCompacta, filtroTexto, filtroCompacta);
+
+        assertTrue(tablaCompacta < tablaTexto, "Las columnas compactas deberían ocupar menos que las de texto");
+        assertTrue(metadataCompacta < metadataTexto, "El filtro con GIN debería ser más rápido que recorrer la tabla");
+    }
+
+    private long escalar(String sql) throws SQLException {
+        try (Statement st = conexion.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** Mediana de varias ejecuciones de la consulta, en milisegundos (la primera calienta el cache). */
+    private double medianaMs(String sql) throws SQLException {
+        double[] tiempos = new double[REPETICIONES];
+        try (Statement st = conexion.createStatement()) {
+            st.executeQuery(sql).close();
+            for (int i = 0; i < REPETICIONES; i++) {
+                long inicio = System.nanoTime();
+                try (ResultSet rs = st.executeQuery(sql)) {
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                }
+                tiempos[i] = (System.nanoTime() - inicio) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(tiempos);
+        return tiempos[REPETICIONES / 2];
+    }
+}
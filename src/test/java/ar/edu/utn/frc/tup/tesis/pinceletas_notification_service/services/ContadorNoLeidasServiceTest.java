@@ -0,0 +1,54 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.repositories.BandejaNotificacionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContadorNoLeidasServiceTest {
+
+    private final BandejaNotificacionRepository repository = mock(BandejaNotificacionRepository.class);
+    private final ContadorNoLeidasService contador =
+            new ContadorNoLeidasService(repository, mock(VersionBandejaService.class), 100, 4);
+
+    @Test
+    void unAjusteDuranteLaCargaNoDejaGuardadoElValorViejo() {
+        when(repository.countByUsuarioIdAndEstado(1L, "NO_LEIDA"))
+                .thenAnswer(invocation -> {
+                    // Llega una notificación mientras se consulta la base
+                    contador.ajustar(1L, 1);
+                    return 5L;
+                })
+                .thenReturn(6L);
+
+        assertEquals(5L, contador.obtener(1L));
+        assertEquals(6L, contador.obtener(1L));
+        assertEquals(6L, contador.obtener(1L));
+        verify(repository, times(2)).countByUsuarioIdAndEstado(1L, "NO_LEIDA");
+    }
+
+    @Test
+    void laReconciliacionNoVuelveAAgregarUsuariosDesalojados() {
+        when(repository.countByUsuarioIdAndEstado(1L, "NO_LEIDA")).thenReturn(3L);
+        when(repository.contarPorUsuarios(anyList(), eq("NO_LEIDA")))
+                .thenAnswer(invocation -> {
+                    // El usuario se descarta mientras corre la consulta de reconciliación
+                    contador.invalidar(1L);
+                    return List.<Object[]>of(new Object[]{1L, 7L});
+                });
+        contador.obtener(1L);
+
+        contador.reconciliar();
+
+        when(repository.countByUsuarioIdAndEstado(1L, "NO_LEIDA")).thenReturn(8L);
+        assertEquals(8L, contador.obtener(1L));
+    }
+}
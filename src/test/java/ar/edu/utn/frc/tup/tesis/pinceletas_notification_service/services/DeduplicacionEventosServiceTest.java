@@ -0,0 +1,33 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.NotificacionEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeduplicacionEventosServiceTest {
+
+    @Test
+    void conIdDelProductorLaClaveEsElId() {
+        NotificacionEvent event = evento("Pedido enviado", "Tu pedido #1 está en camino");
+        event.setEventoId("evt-1");
+
+        assertEquals("id:evt-1", DeduplicacionEventosService.claveDe(event));
+    }
+
+    @Test
+    void sinIdLaClaveDependeDeTodoElContenido() {
+        String clave = DeduplicacionEventosService.claveDe(evento("Pedido enviado", "Tu pedido #1 está en camino"));
+
+        assertTrue(clave.startsWith("h:"));
+        assertEquals(clave, DeduplicacionEventosService.claveDe(evento("Pedido enviado", "Tu pedido #1 está en camino")));
+        assertNotEquals(clave, DeduplicacionEventosService.claveDe(evento("Pedido enviado", "Tu pedido #2 está en camino")));
+        assertNotEquals(clave, DeduplicacionEventosService.claveDe(evento("Pedido entregado", "Tu pedido #1 está en camino")));
+    }
+
+    private static NotificacionEvent evento(String titulo, String mensaje) {
+        return new NotificacionEvent(titulo, mensaje, "ESTADO_PEDIDO", 42L, "{}", "USER", null);
+    }
+}
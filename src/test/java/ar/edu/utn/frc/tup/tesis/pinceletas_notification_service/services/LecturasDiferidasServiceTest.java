@@ -0,0 +1,139 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.entities.EstadoNotificacionConverter.CODIGO_NO_LEIDA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LecturasDiferidasServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ContadorNoLeidasService contador = mock(ContadorNoLeidasService.class);
+    private final NotificacionStreamService stream = mock(NotificacionStreamService.class);
+    /** Arreglos de IDs enviados en cada statement del lote. */
+    private final List<Object[]> arreglos = new ArrayList<>();
+
+    private LecturasDiferidasService lecturas;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(ps.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf(eq("bigint"), any())).thenAnswer(invocation -> {
+            arreglos.add(invocation.getArgument(1));
+            return null;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            int[] filas = new int[setter.getBatchSize()];
+            for (int i = 0; i < filas.length; i++) {
+                setter.setValues(ps, i);
+                filas[i] = invocation.<String>getArgument(0).contains("notificaciones_receptores") ? 0 : 2;
+            }
+            return filas;
+        });
+
+        lecturas = new LecturasDiferidasService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                contador, stream, mock(VersionBandejaService.class), true, 1_000, 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lecturas.detener();
+    }
+
+    @Test
+    void lasLecturasRepetidasSeColapsanYSonVisiblesHastaPersistirse() {
+        lecturas.registrar(10L, 1L);
+        lecturas.registrar(10L, 1L);
+        lecturas.registrar(11L, 1L);
+
+        assertEquals(Set.of(10L, 11L), lecturas.pendientesDe(1L));
+        assertTrue(lecturas.pendientesDe(2L).isEmpty());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+
+        lecturas.vaciar();
+
+        assertTrue(lecturas.pendientesDe(1L).isEmpty());
+        assertEquals(2, arreglos.size());
+        assertEquals(Set.of(10L, 11L), Set.of(arreglos.get(0)));
+        verify(contador).ajustar(1L, -2);
+        verify(stream).publicarContador(1L);
+    }
+
+    @Test
+    void unVaciadoSinLecturasNoEjecutaSentencias() {
+        lecturas.vaciar();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void siLaEscrituraFallaLasLecturasVuelvenAlBuffer() {
+        doThrow(new IllegalStateException("base caída"))
+                .when(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        lecturas.registrar(10L, 1L);
+
+        lecturas.vaciar();
+
+        assertEquals(Set.of(10L), lecturas.pendientesDe(1L));
+        verify(contador, never()).ajustar(any(), anyLong());
+    }
+
+    @Test
+    void registrarNoConsultaLaBaseYElVaciadoVerificaPropiedadYEstado() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> new int[invocation.<BatchPreparedStatementSetter>getArgument(1).getBatchSize()]);
+
+        // Notificación ajena, inexistente o ya leída: se acepta sin tocar la base
+        lecturas.registrar(99L, 1L);
+        verifyNoInteractions(jdbcTemplate);
+
+        lecturas.vaciar();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(
+                argThat(sql -> sql.contains("usuario_id = ?") && sql.endsWith("estado = " + CODIGO_NO_LEIDA)),
+                any(BatchPreparedStatementSetter.class));
+        verify(contador, never()).ajustar(any(), anyLong());
+        verify(stream, never()).publicarContador(any());
+        assertTrue(lecturas.pendientesDe(1L).isEmpty());
+    }
+
+    @Test
+    void lasLecturasDescartadasDejanDeDescontarse() {
+        lecturas.registrar(10L, 1L);
+        lecturas.registrar(11L, 1L);
+        lecturas.registrar(20L, 2L);
+
+        lecturas.descartar(1L, List.of(10L));
+        lecturas.descartarTodas(2L);
+
+        assertEquals(Set.of(11L), lecturas.pendientesDe(1L));
+        assertTrue(lecturas.pendientesDe(2L).isEmpty());
+    }
+}
@@ -0,0 +1,29 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MetadataJsonTest {
+
+    @Test
+    void elJsonValidoSeGuardaTalCual() {
+        assertEquals("{\"pedidoId\":123}", MetadataJson.normalizar("{\"pedidoId\":123}"));
+        assertEquals("[1, 2]", MetadataJson.normalizar("[1, 2]"));
+        assertEquals("42", MetadataJson.normalizar("42"));
+    }
+
+    @Test
+    void elTextoNoJsonSeGuardaComoStringJson() {
+        assertEquals("\"pedido 123\"", MetadataJson.normalizar("pedido 123"));
+        assertEquals("\"{\\\"a\\\":1\"", MetadataJson.normalizar("{\"a\":1"));
+        assertEquals("\"1 2\"", MetadataJson.normalizar("1 2"));
+    }
+
+    @Test
+    void laMetadataVaciaSeGuardaComoNull() {
+        assertNull(MetadataJson.normalizar(null));
+        assertNull(MetadataJson.normalizar("  "));
+    }
+}
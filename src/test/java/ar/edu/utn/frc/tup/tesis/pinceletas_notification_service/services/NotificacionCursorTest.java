@@ -0,0 +1,32 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.dtos.NotificacionDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotificacionCursorTest {
+
+    private static final LocalDateTime VENTANA = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Test
+    void elIdDeEventoDeUnaAgrupadaAvanzaConSuUltimaOcurrencia() {
+        LocalDateTime ultima = VENTANA.plusMinutes(40);
+        NotificacionDto agrupada = new NotificacionDto(5L, "Nuevos comentarios", "3 comentarios", "COMENTARIO",
+                "NO_LEIDA", 1L, "{}", VENTANA, null, 3, ultima);
+
+        NotificacionCursor cursor = NotificacionCursor.decodificar(NotificacionCursor.deActividad(agrupada).codificar());
+
+        assertEquals(new NotificacionCursor(ultima, 5L), cursor);
+    }
+
+    @Test
+    void elIdDeEventoDeUnaComunEsSuFechaDeCreacion() {
+        NotificacionDto comun = new NotificacionDto(6L, "Pedido enviado", "En camino", "PEDIDO_ENVIADO",
+                "NO_LEIDA", 1L, "{}", VENTANA, null, null, null);
+
+        assertEquals(new NotificacionCursor(VENTANA, 6L), NotificacionCursor.deActividad(comun));
+    }
+}
@@ -0,0 +1,116 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticionesServiceTest {
+
+    @Test
+    void unaSubParticionExpiraCuandoPasaSuRetencionDesdeElFinDelMes() {
+        YearMonth enero = YearMonth.of(2026, 1);
+
+        assertFalse(ParticionesService.expirada(enero, 7, LocalDate.of(2026, 2, 7)));
+        assertTrue(ParticionesService.expirada(enero, 7, LocalDate.of(2026, 2, 8)));
+        assertFalse(ParticionesService.expirada(enero, 365, LocalDate.of(2026, 12, 31)));
+        assertTrue(ParticionesService.expirada(enero, 365, LocalDate.of(2027, 2, 1)));
+    }
+
+    @Test
+    void elMesEnCursoNuncaExpira() {
+        LocalDate hoy = LocalDate.of(2026, 10, 17);
+        assertFalse(ParticionesService.expirada(YearMonth.from(hoy), 0, hoy));
+    }
+
+    @Test
+    void nombreDeParticionPorMes() {
+        assertEquals("notificaciones_p2026_03", ParticionesService.nombreParticion(YearMonth.of(2026, 3)));
+    }
+
+    @Test
+    void politicaUsaLaRetencionPorDefectoParaTiposNoConfigurados() {
+        PoliticaRetencion politica = new PoliticaRetencion(Map.of("INICIO_SESION", 7, "ESTADO_PEDIDO", 365), 90);
+
+        assertEquals(7, politica.diasPara("INICIO_SESION"));
+        assertEquals(90, politica.diasPara("OTRO_TIPO"));
+        assertEquals(90, politica.diasPara(null));
+        assertEquals(Set.of(7, 90, 365), politica.valores());
+        assertEquals(365, politica.maximo());
+    }
+
+    @Test
+    void losBroadcastsExpiradosSePurganEnTramosConSusRecepciones() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(mock(Connection.class)));
+        // Dos tramos de broadcasts expirados y luego ninguno
+        when(jdbc.queryForObject(startsWith("SELECT MAX(id) FROM (SELECT id FROM notificaciones_broadcast"),
+                eq(Long.class), any(Object[].class))).thenReturn(100L, 180L, null);
+        when(jdbc.update(startsWith("DELETE FROM notificaciones_broadcast "), any(Object[].class))).thenReturn(100, 80);
+        CatalogoTiposNotificacion catalogo = mock(CatalogoTiposNotificacion.class);
+        when(catalogo.buscar("NUEVO_REGISTRO")).thenReturn((short) 5);
+        VersionBandejaService versiones = mock(VersionBandejaService.class);
+        ParticionesService particiones = new ParticionesService(jdbc, new PoliticaRetencion(Map.of("NUEVO_REGISTRO", 90), 365),
+                versiones, mock(MigracionColumnasCompactas.class), catalogo, true, 3,
+                ParticionesService.ModoRetencion.DROP, 100);
+
+        int purgados = particiones.purgarBroadcastsExpirados(jdbc, LocalDate.of(2026, 10, 17));
+
+        assertEquals(180, purgados);
+        InOrder orden = inOrder(jdbc);
+        orden.verify(jdbc).update(startsWith("DELETE FROM notificaciones_receptores WHERE broadcast_id IN"), any(Object[].class));
+        orden.verify(jdbc).update(startsWith("DELETE FROM notificaciones_broadcast "), any(Object[].class));
+        verify(jdbc, times(2)).update(startsWith("DELETE FROM notificaciones_receptores"), any(Object[].class));
+        verify(jdbc, never()).update(startsWith("INSERT INTO"), any(Object[].class));
+
+        // Segundo tramo: retención por tipo (fecha, código, días, default) y el rango de ids desde el tramo anterior
+        ArgumentCaptor<Object[]> parametros = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbc, times(2)).update(startsWith("DELETE FROM notificaciones_broadcast "), parametros.capture());
+        assertEquals(List.of(Timestamp.valueOf(LocalDate.of(2026, 10, 17).atStartOfDay()), (short) 5, 90, 365, 100L, 180L),
+                List.of(parametros.getAllValues().get(1)));
+        verify(versiones).incrementarTodas();
+    }
+
+    @Test
+    void enModoArchivarLosBroadcastsSeCopianAntesDeBorrarse() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(mock(Connection.class)));
+        when(jdbc.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(10L, null);
+        ParticionesService particiones = new ParticionesService(jdbc, new PoliticaRetencion(Map.of(), 365),
+                mock(VersionBandejaService.class), mock(MigracionColumnasCompactas.class),
+                mock(CatalogoTiposNotificacion.class), true, 3, ParticionesService.ModoRetencion.ARCHIVAR, 100);
+
+        particiones.purgarBroadcastsExpirados(jdbc, LocalDate.of(2026, 10, 17));
+
+        InOrder orden = inOrder(jdbc);
+        orden.verify(jdbc).update(startsWith("INSERT INTO notificaciones_receptores_archivo"), any(Object[].class));
+        orden.verify(jdbc).update(startsWith("INSERT INTO notificaciones_broadcast_archivo"), any(Object[].class));
+        orden.verify(jdbc).update(startsWith("DELETE FROM notificaciones_receptores"), any(Object[].class));
+        orden.verify(jdbc).update(startsWith("DELETE FROM notificaciones_broadcast "), any(Object[].class));
+    }
+}
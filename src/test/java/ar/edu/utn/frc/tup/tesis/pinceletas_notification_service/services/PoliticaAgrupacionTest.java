@@ -0,0 +1,45 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoliticaAgrupacionTest {
+
+    @Test
+    void lasOcurrenciasDeLaMismaVentanaCompartenInicio() {
+        PoliticaAgrupacion politica = new PoliticaAgrupacion(Map.of("INICIO_SESION", 1440, "INICIO_SESION_FIREBASE", 60));
+
+        LocalDateTime medianoche = LocalDateTime.of(2026, 10, 18, 0, 0);
+        assertEquals(medianoche, politica.inicioVentana("INICIO_SESION", LocalDateTime.of(2026, 10, 18, 0, 0)));
+        assertEquals(medianoche, politica.inicioVentana("INICIO_SESION", LocalDateTime.of(2026, 10, 18, 23, 59, 59)));
+        assertEquals(medianoche.plusDays(1), politica.inicioVentana("INICIO_SESION", LocalDateTime.of(2026, 10, 19, 8, 30)));
+        assertEquals(LocalDateTime.of(2026, 10, 18, 14, 0),
+                politica.inicioVentana("INICIO_SESION_FIREBASE", LocalDateTime.of(2026, 10, 18, 14, 45)));
+    }
+
+    @Test
+    void unaVentanaNoCruzaElInicioDelMes() {
+        // Ventana de una semana: alineada al epoch empieza el 29/10, antes del mes de la ocurrencia
+        assertEquals(LocalDateTime.of(2026, 10, 29, 0, 0),
+                PoliticaAgrupacion.inicioVentana(LocalDateTime.of(2026, 10, 31, 12, 0), 7 * 1440));
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0),
+                PoliticaAgrupacion.inicioVentana(LocalDateTime.of(2026, 11, 2, 12, 0), 7 * 1440));
+    }
+
+    @Test
+    void soloSeAgrupanLosTiposConfigurados() {
+        PoliticaAgrupacion politica = new PoliticaAgrupacion(Map.of("INICIO_SESION", 1440));
+
+        assertTrue(politica.agrupa("INICIO_SESION"));
+        assertFalse(politica.agrupa("NUEVO_PEDIDO"));
+        assertFalse(politica.agrupa(null));
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaAgrupacion(Map.of("INICIO_SESION", 0)));
+    }
+}
@@ -0,0 +1,59 @@
+package ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.services;
+
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.configs.RabbitMQConfig;
+import ar.edu.utn.frc.tup.tesis.pinceletas_notification_service.events.BandejaModificadaEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VersionBandejaServiceTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final VersionBandejaService versiones = new VersionBandejaService(rabbitTemplate, 100, 4);
+    private final VersionBandejaService otraInstancia = new VersionBandejaService(mock(RabbitTemplate.class), 100, 4);
+
+    @Test
+    void elEtagSoloCambiaConUnCambioDeLaBandeja() {
+        String inicial = versiones.etag(1L);
+        assertEquals(inicial, versiones.etag(1L));
+
+        versiones.incrementar(1L);
+
+        assertNotEquals(inicial, versiones.etag(1L));
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void losCambiosSeAvisanAgrupadosYLaOtraInstanciaInvalidaSuEtag() {
+        String etagRemoto = otraInstancia.etag(1L);
+        versiones.incrementar(1L);
+        versiones.incrementar(List.of(1L, 2L));
+
+        versiones.publicarCambios();
+        versiones.publicarCambios();
+
+        ArgumentCaptor<BandejaModificadaEvent> aviso = ArgumentCaptor.forClass(BandejaModificadaEvent.class);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(RabbitMQConfig.BANDEJA_EXCHANGE), eq(""), aviso.capture());
+        assertEquals(List.of(1L, 2L), aviso.getValue().getUsuarioIds().stream().sorted().toList());
+
+        otraInstancia.aplicar(aviso.getValue());
+        assertNotEquals(etagRemoto, otraInstancia.etag(1L));
+
+        // El aviso propio no vuelve a cambiar la versión local
+        String local = versiones.etag(1L);
+        versiones.aplicar(aviso.getValue());
+        assertEquals(local, versiones.etag(1L));
+    }
+}